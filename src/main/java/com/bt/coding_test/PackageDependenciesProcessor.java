@@ -1,26 +1,176 @@
 package com.bt.coding_test;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
 
+import com.bt.coding_test.controller.PackageDependenciesBatchProcessingController;
+import com.bt.coding_test.controller.PackageDependenciesController;
+import com.bt.coding_test.controller.PackageDependenciesCostProcessingController;
+import com.bt.coding_test.controller.PackageDependenciesDiffProcessingController;
+import com.bt.coding_test.controller.PackageDependenciesDominatorProcessingController;
+import com.bt.coding_test.controller.PackageDependenciesExportProcessingController;
+import com.bt.coding_test.controller.PackageDependenciesFingerprintProcessingController;
+import com.bt.coding_test.controller.PackageDependenciesLintProcessingController;
 import com.bt.coding_test.controller.PackageDependenciesProcessingController;
-import com.bt.coding_test.service.DFSPackageDependenciesFindingStrategy;
+import com.bt.coding_test.controller.PackageDependenciesQueryProcessingController;
+import com.bt.coding_test.controller.PackageDependenciesReductionProcessingController;
+import com.bt.coding_test.controller.PackageDependenciesSetQueryProcessingController;
+import com.bt.coding_test.controller.PackageDependenciesSizeEstimationProcessingController;
+import com.bt.coding_test.controller.PackageDependenciesStatisticsProcessingController;
+import com.bt.coding_test.controller.PackageDependencyPathProcessingController;
+import com.bt.coding_test.controller.ShardedPackageDependenciesProcessingController;
+import com.bt.coding_test.exception.InvalidInputException;
+import com.bt.coding_test.model.CyclePolicy;
+import com.bt.coding_test.service.AdaptivePackageDependenciesFindingStrategy;
 import com.bt.coding_test.service.PackageDependenciesFindingStrategy;
 
 /**
  * Class for reading and printing package dependencies.
+ * 
+ * The command line arguments may start with the option "--cycle-policy <allow|warn|reject>", which selects 
+ * the policy applied to dependencies closing cycles when reading data files (default: allow).
+ * 
+ * If the next command line argument starts with "--" it selects the processing mode, and the remaining 
+ * command line arguments are passed to the controller of the mode. Otherwise the dependencies of the given 
+ * packages are printed.
  */
 public class PackageDependenciesProcessor {
 
     private static final String ERR_MSG_PREFIX = "[ ERROR ] ";
     
+    private static final String OPTION_CYCLE_POLICY = "--cycle-policy";
+    
+    private static final String MODE_PREFIX       = "--";
+    private static final String MODE_SHARDED      = "--sharded";
+    private static final String MODE_WHY          = "--why";
+    private static final String MODE_REDUCE       = "--reduce";
+    private static final String MODE_QUERY        = "--query";
+    private static final String MODE_ESTIMATE     = "--estimate-sizes";
+    private static final String MODE_STATS        = "--stats";
+    private static final String MODE_DIFF         = "--diff";
+    private static final String MODE_LINT         = "--lint";
+    private static final String MODE_COSTS        = "--costs";
+    private static final String MODE_EXPORT       = "--export";
+    private static final String MODE_SET          = "--set";
+    private static final String MODE_DOMINATORS   = "--dominators";
+    private static final String MODE_BATCH        = "--batch";
+    private static final String MODE_FINGERPRINTS = "--fingerprints";
+    
+    private static final String ERR_INVALID_CYCLE_POLICY = "The cycle policy must be one of: allow, warn, reject. Please change.";
+    private static final String ERR_UNKNOWN_MODE = "Unknown processing mode \"%s\". Supported modes: " + 
+                                                   MODE_SHARDED + ", " + 
+                                                   MODE_WHY + ", " + 
+                                                   MODE_REDUCE + ", " + 
+                                                   MODE_QUERY + ", " + 
+                                                   MODE_ESTIMATE + ", " + 
+                                                   MODE_STATS + ", " + 
+                                                   MODE_DIFF + ", " + 
+                                                   MODE_LINT + ", " + 
+                                                   MODE_COSTS + ", " + 
+                                                   MODE_EXPORT + ", " + 
+                                                   MODE_SET + ", " + 
+                                                   MODE_DOMINATORS + ", " + 
+                                                   MODE_BATCH + ", " + 
+                                                   MODE_FINGERPRINTS + ".";
+    
     public static void main(String args[]) {
         try {
-            PackageDependenciesFindingStrategy      strategy   = new DFSPackageDependenciesFindingStrategy();
-            PackageDependenciesProcessingController controller = new PackageDependenciesProcessingController(strategy);
+            CyclePolicy cyclePolicy = CyclePolicy.ALLOW;
             
-            controller.run(args);
+            if ((args.length > 0) && (args[0].equals(OPTION_CYCLE_POLICY))) {
+                cyclePolicy = parseCyclePolicy(args);
+                args        = Arrays.copyOfRange(args, 2, args.length);
+            }
+            
+            if ((args.length > 0) && (args[0].startsWith(MODE_PREFIX))) {
+                PackageDependenciesController controller = createModeController(args[0]);
+                
+                controller.setCyclePolicy(cyclePolicy);
+                controller.run(Arrays.copyOfRange(args, 1, args.length));
+            } else {
+                PackageDependenciesFindingStrategy      strategy   = new AdaptivePackageDependenciesFindingStrategy();
+                PackageDependenciesProcessingController controller = new PackageDependenciesProcessingController(strategy);
+                
+                controller.setCyclePolicy(cyclePolicy);
+                controller.run(args);
+            }
         } catch (IOException exception) {
             System.err.println(ERR_MSG_PREFIX + exception.getMessage());
+            
+            // A non-zero exit status allows scripts (e.g. pre-commit hooks) to detect errors
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Parse the cycle policy following the cycle policy option.
+     * 
+     * @param args The command line arguments, starting with the cycle policy option.
+     * @return The cycle policy.
+     * @throws InvalidInputException if the cycle policy is missing or unknown.
+     */
+    private static CyclePolicy parseCyclePolicy(String[] args) throws InvalidInputException {
+        try {
+            return CyclePolicy.valueOf(args[1].toUpperCase(Locale.ROOT));
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException exception) {
+            throw new InvalidInputException(ERR_INVALID_CYCLE_POLICY);
+        }
+    }
+    
+    /**
+     * Create the controller for the given processing mode.
+     * 
+     * @param mode The processing mode.
+     * @return The controller of the processing mode.
+     * @throws InvalidInputException if the processing mode is unknown.
+     */
+    private static PackageDependenciesController createModeController(String mode) throws InvalidInputException {
+        switch (mode) {
+            case MODE_SHARDED:
+                return new ShardedPackageDependenciesProcessingController();
+                
+            case MODE_WHY:
+                return new PackageDependencyPathProcessingController();
+                
+            case MODE_REDUCE:
+                return new PackageDependenciesReductionProcessingController();
+                
+            case MODE_QUERY:
+                return new PackageDependenciesQueryProcessingController();
+                
+            case MODE_ESTIMATE:
+                return new PackageDependenciesSizeEstimationProcessingController();
+                
+            case MODE_STATS:
+                return new PackageDependenciesStatisticsProcessingController();
+                
+            case MODE_DIFF:
+                return new PackageDependenciesDiffProcessingController();
+                
+            case MODE_LINT:
+                return new PackageDependenciesLintProcessingController();
+                
+            case MODE_COSTS:
+                return new PackageDependenciesCostProcessingController();
+                
+            case MODE_EXPORT:
+                return new PackageDependenciesExportProcessingController();
+                
+            case MODE_SET:
+                return new PackageDependenciesSetQueryProcessingController();
+                
+            case MODE_DOMINATORS:
+                return new PackageDependenciesDominatorProcessingController();
+                
+            case MODE_BATCH:
+                return new PackageDependenciesBatchProcessingController();
+                
+            case MODE_FINGERPRINTS:
+                return new PackageDependenciesFingerprintProcessingController();
+                
+            default:
+                throw new InvalidInputException(String.format(ERR_UNKNOWN_MODE, mode));
         }
     }
     
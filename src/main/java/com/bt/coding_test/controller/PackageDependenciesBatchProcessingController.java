@@ -0,0 +1,323 @@
+package com.bt.coding_test.controller;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import com.bt.coding_test.exception.InvalidInputException;
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+import com.bt.coding_test.model.PackageDependenciesGraphIndex;
+import com.bt.coding_test.service.AdaptivePackageDependenciesFindingStrategy;
+import com.bt.coding_test.service.PackageDependenciesClosureSetQuery;
+import com.bt.coding_test.service.PackageDependenciesFindingStrategy;
+import com.bt.coding_test.service.PackageDependenciesSetOperation;
+import com.bt.coding_test.service.PackageDependencyPathFinder;
+
+/**
+ * Controller answering queries read line by line from a query file or the standard input, such that batches of 
+ * queries are not limited by the length of the command line and the data file is only read once.
+ * 
+ * Each line contains one query, made of an optional operation followed by package names or patterns:
+ * 
+ * 1. "[deps] <package-or-pattern>" prints the dependencies of the matching packages, as the default mode.
+ * 2. "why <source-package> <target-package>" prints the shortest chain of dependencies, as the mode "--why".
+ * 3. "<union|intersection|difference> <package-or-pattern-1> ... <package-or-pattern-n>" prints the result of 
+ *    the set operation, as the mode "--set".
+ * 
+ * Empty lines and lines starting with "#" are ignored. The queries are answered in order and the answers are 
+ * written as soon as no further query is available, such that a client may send queries one at a time through 
+ * the standard input. Invalid queries are reported on the standard error without stopping the batch. Queries 
+ * are not retained once answered, hence the memory used does not depend on the number of queries.
+ */
+public class PackageDependenciesBatchProcessingController extends PackageDependenciesController {
+
+    private static final String STDIN_QUERY_FILE_PATH   = "-";
+    private static final String COMMENT_PREFIX          = "#";
+    private static final String TOKEN_SEPARATOR         = "\\s+";
+    
+    private static final String OPERATION_DEPENDENCIES  = "deps";
+    private static final String OPERATION_WHY           = "why";
+    
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+    
+    private static final String ERR_INVALID_NR_CMD_LINE_ARGS    = "Usage: java com.bt.coding_test.PackageDependenciesProcessor --batch <package-dependencies-data-file-path> [<query-file-path>|-].";
+    private static final String ERR_INVALID_QUERY_FILE_PATH     = "The query file path \"%s\" is not valid. Please change.";
+    private static final String ERR_INVALID_QUERY_BEGIN         = "Line %d: ";
+    private static final String ERR_INVALID_OPERATION           = "the operation \"%s\" is not valid. Supported operations: deps, why, union, intersection, difference.";
+    private static final String ERR_INVALID_NR_OF_OPERANDS      = "the operation \"%s\" expects %s. Please change.";
+    private static final String ERR_INVALID_PACKAGE_NAME        = "the package name \"%s\" is not valid because it is not defined by the regular expression \"[a-zA-Z0-9_]+\". Please change.";
+    private static final String ERR_INVALID_PATTERN             = "the package name pattern \"%s\" is not valid because it is not defined by the regular expression \"[a-zA-Z0-9_*]+\". Please change.";
+    private static final String ERR_INVALID_QUERIES             = "Answered %d of %d queries: %d invalid queries found.";
+    
+    private static final String EXPECTED_ONE_OPERAND        = "one package name or pattern";
+    private static final String EXPECTED_TWO_OPERANDS       = "two package names";
+    private static final String EXPECTED_SOME_OPERANDS      = "at least one package name or pattern";
+    
+    private PackageDependenciesFindingStrategy  strategy;           // The strategy finding the dependencies of a package
+    private PackageDependenciesDirectedGraph    graph;              // The package dependencies directed graph
+    private PackageDependencyPathFinder         pathFinder;         // The path finder, or null if not used yet
+    private PackageDependenciesClosureSetQuery  setQuery;           // The set query evaluator
+    private long                                nrOfQueries;        // The number of queries read
+    private long                                nrOfInvalidQueries; // The number of invalid queries read
+    
+    
+    public PackageDependenciesBatchProcessingController() {
+        this(new AdaptivePackageDependenciesFindingStrategy());
+    }
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param strategy The strategy to be used for finding package dependencies.
+     */
+    public PackageDependenciesBatchProcessingController(PackageDependenciesFindingStrategy strategy) {
+        this.strategy = strategy;
+        this.setQuery = new PackageDependenciesClosureSetQuery();
+    }
+    
+    /**
+     * Answer the queries read from the query file, or from the standard input if no query file is given or 
+     * the query file path is "-".
+     * 
+     * @param args The command line arguments.
+     * @throws IOException if command line arguments, data file or query file are invalid, or if invalid queries 
+     *                     were found.
+     */
+    @Override
+    public void run(String args[]) throws IOException {
+        if ((args.length < 1) || (args.length > 2)) {
+            throw new InvalidInputException(ERR_INVALID_NR_CMD_LINE_ARGS);
+        }
+        
+        String queryFilePath = (args.length == 2) ? args[1] : STDIN_QUERY_FILE_PATH;
+        
+        // The query file is opened first, such that an invalid path is reported before reading the data file
+        try (BufferedReader queries = openQueries(queryFilePath)) {
+            graph = readPackageDependencyGraph(args[0]);
+            
+            Writer writer = new BufferedWriter(new OutputStreamWriter(System.out), OUTPUT_BUFFER_SIZE);
+            
+            answerQueries(queries, writer);
+            
+            writer.flush();
+        }
+        
+        if (nrOfInvalidQueries > 0) {
+            throw new InvalidInputException(String.format(ERR_INVALID_QUERIES, nrOfQueries - nrOfInvalidQueries, 
+                                                          nrOfQueries, nrOfInvalidQueries));
+        }
+    }
+    
+    /**
+     * Open the given query file, or the standard input if the query file path is "-".
+     * 
+     * @param queryFilePath The query file path.
+     * @return The reader of the queries.
+     * @throws InvalidInputException if the query file cannot be opened.
+     */
+    private BufferedReader openQueries(String queryFilePath) throws InvalidInputException {
+        if (queryFilePath.equals(STDIN_QUERY_FILE_PATH)) {
+            return new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        }
+        
+        try {
+            return Files.newBufferedReader(Paths.get(queryFilePath), StandardCharsets.UTF_8);
+        } catch (IOException | InvalidPathException exception) {
+            throw new InvalidInputException(String.format(ERR_INVALID_QUERY_FILE_PATH, queryFilePath));
+        }
+    }
+    
+    /**
+     * Answer the given queries in order, writing the answers before waiting for further queries.
+     * 
+     * @param queries   The reader of the queries.
+     * @param writer    The writer of the answers.
+     * @throws IOException if the queries cannot be read or the answers cannot be written.
+     */
+    private void answerQueries(BufferedReader queries, Writer writer) throws IOException {
+        long lineNumber = 0;
+        
+        while (true) {
+            // Flushing only when no further query is buffered keeps the output buffered for query files
+            if (!queries.ready()) {
+                writer.flush();
+            }
+            
+            String line = queries.readLine();
+            
+            if (line == null) {
+                return;
+            }
+            
+            ++lineNumber;
+            
+            line = line.trim();
+            
+            if (line.isEmpty() || line.startsWith(COMMENT_PREFIX)) {
+                continue;
+            }
+            
+            ++nrOfQueries;
+            
+            try {
+                answerQuery(line.split(TOKEN_SEPARATOR), writer);
+            } catch (InvalidInputException exception) {
+                ++nrOfInvalidQueries;
+                
+                // The answers written so far precede the error
+                writer.flush();
+                
+                System.err.println(String.format(ERR_INVALID_QUERY_BEGIN, lineNumber) + exception.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Answer the query made of the given tokens.
+     * 
+     * @param tokens    The tokens of the query.
+     * @param writer    The writer of the answer.
+     * @throws InvalidInputException if the query is invalid.
+     * @throws IOException if the answer cannot be written.
+     */
+    private void answerQuery(String[] tokens, Writer writer) throws IOException {
+        String operation = tokens[0].toLowerCase(Locale.ROOT);
+        
+        if (operation.equals(OPERATION_DEPENDENCIES)) {
+            validateNrOfOperands(tokens, 2, 2, EXPECTED_ONE_OPERAND);
+            answerDependenciesQuery(tokens[1], writer);
+        } else if (operation.equals(OPERATION_WHY)) {
+            validateNrOfOperands(tokens, 3, 3, EXPECTED_TWO_OPERANDS);
+            answerPathQuery(tokens[1], tokens[2], writer);
+        } else if (isSetOperation(operation)) {
+            validateNrOfOperands(tokens, 2, Integer.MAX_VALUE, EXPECTED_SOME_OPERANDS);
+            answerSetQuery(PackageDependenciesSetOperation.valueOf(operation.toUpperCase(Locale.ROOT)), tokens, writer);
+        } else if (tokens.length == 1) {
+            // A query without an operation is a dependencies query
+            answerDependenciesQuery(tokens[0], writer);
+        } else {
+            throw new InvalidInputException(String.format(ERR_INVALID_OPERATION, tokens[0]));
+        }
+    }
+    
+    /**
+     * Write the dependencies of the packages matching the given package name or pattern.
+     * 
+     * @param packageNameOrPattern  The package name or pattern.
+     * @param writer                The writer of the answer.
+     * @throws InvalidInputException if the package name or pattern is invalid.
+     * @throws IOException if the answer cannot be written.
+     */
+    private void answerDependenciesQuery(String packageNameOrPattern, Writer writer) throws IOException {
+        validatePackageNameOrPattern(packageNameOrPattern, ERR_INVALID_PACKAGE_NAME, ERR_INVALID_PATTERN);
+        
+        PackageDependenciesGraphIndex index = graph.getIndex();
+        
+        for (String packageName : expandCommandLinePackageNames(new String[] { packageNameOrPattern }, 0, graph)) {
+            Package sourcePackage = new Package(packageName);
+            
+            writePackageDependencies(writer, packageName, strategy.findPackageIds(sourcePackage, graph).toPackages(index));
+        }
+    }
+    
+    /**
+     * Write the shortest chain of dependencies from the source package to the target package.
+     * 
+     * @param sourcePackageName The source package name.
+     * @param targetPackageName The target package name.
+     * @param writer            The writer of the answer.
+     * @throws InvalidInputException if a package name is invalid.
+     * @throws IOException if the answer cannot be written.
+     */
+    private void answerPathQuery(String sourcePackageName, String targetPackageName, Writer writer) throws IOException {
+        validatePackageName(sourcePackageName, ERR_INVALID_PACKAGE_NAME);
+        validatePackageName(targetPackageName, ERR_INVALID_PACKAGE_NAME);
+        
+        if (pathFinder == null) {
+            pathFinder = new PackageDependencyPathFinder(graph);
+        }
+        
+        List<Package> path = pathFinder.findShortestPath(new Package(sourcePackageName), new Package(targetPackageName));
+        
+        if (path.isEmpty()) {
+            writer.write(String.format(PackageDependencyPathProcessingController.OUT_NO_PATH, sourcePackageName, targetPackageName));
+        } else {
+            writer.write(path.get(0).getName());
+            
+            for (int i = 1; i < path.size(); ++i) {
+                writer.write(PackageDependencyPathProcessingController.OUT_PATH_SEPARATOR);
+                writer.write(path.get(i).getName());
+            }
+        }
+        
+        writer.write(System.lineSeparator());
+    }
+    
+    /**
+     * Write the result of the set operation applied to the dependencies of the packages given by the tokens 
+     * following the operation.
+     * 
+     * @param operation The set operation.
+     * @param tokens    The tokens of the query, starting with the operation.
+     * @param writer    The writer of the answer.
+     * @throws InvalidInputException if a package name or pattern is invalid.
+     * @throws IOException if the answer cannot be written.
+     */
+    private void answerSetQuery(PackageDependenciesSetOperation operation, String[] tokens, Writer writer) 
+                                throws IOException {
+        for (int i = 1; i < tokens.length; ++i) {
+            validatePackageNameOrPattern(tokens[i], ERR_INVALID_PACKAGE_NAME, ERR_INVALID_PATTERN);
+        }
+        
+        List<String>  packageNames  = expandCommandLinePackageNames(tokens, 1, graph);
+        List<Package> operands      = new ArrayList<Package>(packageNames.size());
+        
+        for (String packageName : packageNames) {
+            operands.add(new Package(packageName));
+        }
+        
+        writePackageDependencies(
+            writer, 
+            String.join(PackageDependenciesSetQueryProcessingController.getOperator(operation), packageNames), 
+            setQuery.evaluate(operation, operands, graph).toPackages(graph.getIndex())
+        );
+    }
+    
+    private boolean isSetOperation(String operation) {
+        for (PackageDependenciesSetOperation setOperation : PackageDependenciesSetOperation.values()) {
+            if (setOperation.name().toLowerCase(Locale.ROOT).equals(operation)) {
+                return true;
+            }
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Check if the query has the expected number of tokens.
+     * 
+     * @param tokens            The tokens of the query.
+     * @param minNrOfTokens     The minimum number of tokens.
+     * @param maxNrOfTokens     The maximum number of tokens.
+     * @param expectedOperands  The description of the expected operands.
+     * @throws InvalidInputException if the query does not have the expected number of tokens.
+     */
+    private void validateNrOfOperands(String[] tokens, int minNrOfTokens, int maxNrOfTokens, String expectedOperands) 
+                                      throws InvalidInputException {
+        if ((tokens.length < minNrOfTokens) || (tokens.length > maxNrOfTokens)) {
+            throw new InvalidInputException(String.format(ERR_INVALID_NR_OF_OPERANDS, tokens[0], expectedOperands));
+        }
+    }
+    
+}
@@ -0,0 +1,241 @@
+package com.bt.coding_test.controller;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+
+import com.bt.coding_test.data.PackageDependenciesDataFileReader;
+import com.bt.coding_test.exception.InvalidInputException;
+import com.bt.coding_test.model.CyclePolicy;
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+import com.bt.coding_test.model.PackageDependenciesGraphIndex;
+import com.bt.coding_test.model.PackageNameDictionary;
+import com.bt.coding_test.validation.PackageDependenciesDataFileValidator;
+
+/**
+ * Base class for controllers processing package dependencies considering the given command line arguments.
+ */
+public abstract class PackageDependenciesController {
+
+    private static final String OUT_PACKAGE_SEPARATOR       = " ";
+    private static final String OUT_DEPENDENCIES_SEPARATOR  = " ->";
+    
+    private static final String ERR_INVALID_PACKAGE_NAME    = "The package name \"%s\" provided as a command line argument is not valid because it is not defined by the regular expression \"[a-zA-Z0-9_]+\". Please change.";
+    private static final String ERR_INVALID_PATTERN         = "The package name pattern \"%s\" is not valid because it is not defined by the regular expression \"[a-zA-Z0-9_*]+\". Please change.";
+    
+    private CyclePolicy cyclePolicy = CyclePolicy.ALLOW;   // The policy applied to dependencies closing cycles
+    
+    
+    /**
+     * Process the package dependencies considering the given command line arguments.
+     * 
+     * @param args The command line arguments.
+     * @throws IOException if command line arguments or data files are invalid.
+     */
+    public abstract void run(String args[]) throws IOException;
+    
+    /**
+     * Set the policy applied to dependencies closing cycles when reading data files.
+     * 
+     * @param cyclePolicy The cycle policy.
+     */
+    public void setCyclePolicy(CyclePolicy cyclePolicy) {
+        this.cyclePolicy = cyclePolicy;
+    }
+    
+    /**
+     * Get the policy applied to dependencies closing cycles when reading data files.
+     * 
+     * @return The cycle policy.
+     */
+    protected CyclePolicy getCyclePolicy() {
+        return cyclePolicy;
+    }
+    
+    /**
+     * Check if the package names provided as command line arguments are valid.
+     * 
+     * @param args              The command line arguments.
+     * @param firstPackageIndex The index of the first command line argument which is a package name.
+     * @throws InvalidInputException if package names are invalid.
+     */
+    protected void validateCommandLinePackageNames(String[] args, int firstPackageIndex) throws InvalidInputException {
+        for (int i = firstPackageIndex; i < args.length; ++i) {
+            validateCommandLinePackageName(args[i]);
+        }
+    }
+    
+    /**
+     * Check if the package name provided as a command line argument is valid.
+     * 
+     * @param packageName The package name.
+     * @throws InvalidInputException if the package name is invalid.
+     */
+    protected void validateCommandLinePackageName(String packageName) throws InvalidInputException {
+        validatePackageName(packageName, ERR_INVALID_PACKAGE_NAME);
+    }
+    
+    /**
+     * Check if the package names or name patterns (i.e. names containing the wildcard "*") provided as command 
+     * line arguments are valid.
+     * 
+     * @param args              The command line arguments.
+     * @param firstPackageIndex The index of the first command line argument which is a package name or pattern.
+     * @throws InvalidInputException if package names or patterns are invalid.
+     */
+    protected void validateCommandLinePackageNamesOrPatterns(String[] args, int firstPackageIndex) 
+                                                             throws InvalidInputException {
+        for (int i = firstPackageIndex; i < args.length; ++i) {
+            validatePackageNameOrPattern(args[i], ERR_INVALID_PACKAGE_NAME, ERR_INVALID_PATTERN);
+        }
+    }
+    
+    /**
+     * Check if the package name pattern provided as a command line argument is valid.
+     * 
+     * @param namePattern The package name pattern.
+     * @throws InvalidInputException if the package name pattern is invalid.
+     */
+    protected void validateCommandLinePackageNamePattern(String namePattern) throws InvalidInputException {
+        validatePackageNamePattern(namePattern, ERR_INVALID_PATTERN);
+    }
+    
+    /**
+     * Check if the given package name is valid, using the same rules as the data file.
+     * 
+     * @param packageName   The package name.
+     * @param errorFormat   The format of the error message, whose only argument is the package name.
+     * @throws InvalidInputException if the package name is invalid.
+     */
+    protected void validatePackageName(String packageName, String errorFormat) throws InvalidInputException {
+        if (!PackageDependenciesDataFileValidator.getInstance().isValidPackageName(packageName)) {
+            throw new InvalidInputException(String.format(errorFormat, packageName));
+        }
+    }
+    
+    /**
+     * Check if the given package name pattern is valid.
+     * 
+     * @param namePattern   The package name pattern.
+     * @param errorFormat   The format of the error message, whose only argument is the package name pattern.
+     * @throws InvalidInputException if the package name pattern is invalid.
+     */
+    protected void validatePackageNamePattern(String namePattern, String errorFormat) throws InvalidInputException {
+        if (!PackageDependenciesDataFileValidator.getInstance().isValidPackageNamePattern(namePattern)) {
+            throw new InvalidInputException(String.format(errorFormat, namePattern));
+        }
+    }
+    
+    /**
+     * Check if the given package name or name pattern (i.e. name containing the wildcard "*") is valid.
+     * 
+     * @param packageNameOrPattern  The package name or pattern.
+     * @param nameErrorFormat       The format of the error message if the package name is invalid.
+     * @param patternErrorFormat    The format of the error message if the package name pattern is invalid.
+     * @throws InvalidInputException if the package name or pattern is invalid.
+     */
+    protected void validatePackageNameOrPattern(String packageNameOrPattern, String nameErrorFormat, 
+                                                String patternErrorFormat) throws InvalidInputException {
+        if (packageNameOrPattern.indexOf(PackageNameDictionary.WILDCARD) < 0) {
+            validatePackageName(packageNameOrPattern, nameErrorFormat);
+        } else {
+            validatePackageNamePattern(packageNameOrPattern, patternErrorFormat);
+        }
+    }
+    
+    /**
+     * Expand the package name patterns provided as command line arguments into the names of the matching 
+     * packages of the graph, in alphabetical order. Package names which are not patterns are kept unchanged.
+     * Patterns which do not match any package are also kept unchanged, such that they are reported like package 
+     * names which do not occur in the graph, instead of being silently dropped.
+     * 
+     * @param args              The command line arguments.
+     * @param firstPackageIndex The index of the first command line argument which is a package name or pattern.
+     * @param graph             The package dependency graph.
+     * @return The package names.
+     */
+    protected List<String> expandCommandLinePackageNames(String[] args, int firstPackageIndex, 
+                                                         PackageDependenciesDirectedGraph graph) {
+        List<String> packageNames = new ArrayList<String>();
+        
+        for (int i = firstPackageIndex; i < args.length; ++i) {
+            if (args[i].indexOf(PackageNameDictionary.WILDCARD) < 0) {
+                packageNames.add(args[i]);
+                
+                continue;
+            }
+            
+            // Package IDs are assigned in alphabetical order
+            PackageDependenciesGraphIndex   index       = graph.getIndex();
+            PrimitiveIterator.OfInt         packageIds  = index.getNameDictionary().findMatches(args[i]).iterator();
+            
+            if (!packageIds.hasNext()) {
+                packageNames.add(args[i]);
+            }
+            
+            while (packageIds.hasNext()) {
+                packageNames.add(index.getPackage(packageIds.nextInt()).getName());
+            }
+        }
+        
+        return packageNames;
+    }
+    
+    /**
+     * Read the package dependency graph from the data file.
+     * 
+     * @param dataFilePath The data file path.
+     * @return The package dependency graph.
+     * @throws InvalidInputException if the data file is invalid.
+     */
+    protected PackageDependenciesDirectedGraph readPackageDependencyGraph(String dataFilePath) 
+                                                                         throws InvalidInputException {
+        PackageDependenciesDataFileReader reader = PackageDependenciesDataFileReader.getInstance();
+        
+        return reader.read(dataFilePath, cyclePolicy);
+    }
+    
+    /**
+     * Output the given dependencies of the given package.
+     * 
+     * @param packageName  The package name.
+     * @param dependencies The package dependencies.
+     */
+    protected void outputPackageDependencies(String packageName, Iterable<Package> dependencies) {
+       System.out.print(packageName + OUT_DEPENDENCIES_SEPARATOR);
+       
+       // Output the package dependencies
+       for (Package packageDependency : dependencies) {
+           System.out.print(OUT_PACKAGE_SEPARATOR + packageDependency);
+       }
+       
+       // Output a new line
+       System.out.println("");
+    }
+    
+    /**
+     * Write the given dependencies of the given package to the given writer, in the format of 
+     * outputPackageDependencies().
+     * 
+     * @param writer       The writer.
+     * @param packageName  The package name.
+     * @param dependencies The package dependencies.
+     * @throws IOException if the dependencies cannot be written.
+     */
+    protected void writePackageDependencies(Writer writer, String packageName, Iterable<Package> dependencies) 
+                                            throws IOException {
+        writer.write(packageName);
+        writer.write(OUT_DEPENDENCIES_SEPARATOR);
+        
+        for (Package packageDependency : dependencies) {
+            writer.write(OUT_PACKAGE_SEPARATOR);
+            writer.write(packageDependency.getName());
+        }
+        
+        writer.write(System.lineSeparator());
+    }
+    
+}
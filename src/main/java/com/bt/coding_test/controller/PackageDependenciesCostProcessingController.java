@@ -0,0 +1,63 @@
+package com.bt.coding_test.controller;
+
+import java.io.IOException;
+
+import com.bt.coding_test.exception.InvalidInputException;
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+import com.bt.coding_test.model.PackageDependenciesGraphIndex;
+import com.bt.coding_test.service.PackageDependenciesClosureCostAggregator;
+
+/**
+ * Controller printing the closure cost of packages, i.e. the sum of the weights given in the data file 
+ * (e.g. "gui:12 -> awtui swingui") of each package and of all its direct and transitive dependencies.
+ */
+public class PackageDependenciesCostProcessingController extends PackageDependenciesController {
+
+    private static final String OUT_CLOSURE_COST = "%s %d";
+    
+    private static final String ERR_INVALID_NR_CMD_LINE_ARGS = "Usage: java com.bt.coding_test.PackageDependenciesProcessor --costs <package-dependencies-data-file-path> [<package-or-pattern-1> ... <package-or-pattern-n>].";
+    
+    
+    /**
+     * Print the closure cost of the given packages, or of every package in alphabetical order if no packages 
+     * are given.
+     * 
+     * @param args The command line arguments.
+     * @throws IOException if command line arguments or data file are invalid.
+     */
+    @Override
+    public void run(String args[]) throws IOException {
+        if (args.length < 1) {
+            throw new InvalidInputException(ERR_INVALID_NR_CMD_LINE_ARGS);
+        }
+        
+        validateCommandLinePackageNamesOrPatterns(args, 1);
+        
+        PackageDependenciesDirectedGraph    graph   = readPackageDependencyGraph(args[0]);
+        PackageDependenciesGraphIndex       index   = graph.getIndex();
+        long[]                              costs   = new PackageDependenciesClosureCostAggregator().aggregate(graph);
+        StringBuilder                       output  = new StringBuilder();
+        
+        if (args.length == 1) {
+            // Package IDs are assigned in alphabetical order
+            for (int i = 0; i < costs.length; ++i) {
+                appendClosureCost(output, index.getPackage(i).getName(), costs[i]);
+            }
+        } else {
+            for (String packageName : expandCommandLinePackageNames(args, 1, graph)) {
+                int packageId = index.getPackageId(new Package(packageName));
+                
+                // Packages which do not occur in the data file have neither a weight nor dependencies
+                appendClosureCost(output, packageName, (packageId < 0) ? 0 : costs[packageId]);
+            }
+        }
+        
+        System.out.print(output);
+    }
+    
+    private void appendClosureCost(StringBuilder output, String packageName, long cost) {
+        output.append(String.format(OUT_CLOSURE_COST, packageName, cost)).append(System.lineSeparator());
+    }
+    
+}
@@ -0,0 +1,58 @@
+package com.bt.coding_test.controller;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.bt.coding_test.exception.InvalidInputException;
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.service.PackageDependenciesClosureChange;
+import com.bt.coding_test.service.PackageDependenciesClosureDiff;
+
+/**
+ * Controller printing the packages whose direct and transitive dependencies differ between two data files, 
+ * together with the dependencies added (prefixed by "+") and removed (prefixed by "-").
+ */
+public class PackageDependenciesDiffProcessingController extends PackageDependenciesController {
+
+    private static final String OUT_PACKAGE_SEPARATOR       = " ";
+    private static final String OUT_DEPENDENCIES_SEPARATOR  = " ->";
+    private static final String OUT_ADDED_PREFIX            = "+";
+    private static final String OUT_REMOVED_PREFIX          = "-";
+    
+    private static final String ERR_INVALID_NR_CMD_LINE_ARGS = "Usage: java com.bt.coding_test.PackageDependenciesProcessor --diff <old-package-dependencies-data-file-path> <new-package-dependencies-data-file-path>.";
+    
+    
+    /**
+     * Print the changes of the dependencies between the old and new data files.
+     * 
+     * @param args The command line arguments.
+     * @throws IOException if command line arguments or data files are invalid.
+     */
+    @Override
+    public void run(String args[]) throws IOException {
+        if (args.length != 2) {
+            throw new InvalidInputException(ERR_INVALID_NR_CMD_LINE_ARGS);
+        }
+        
+        List<PackageDependenciesClosureChange> changes = new PackageDependenciesClosureDiff().diff(
+            readPackageDependencyGraph(args[0]), 
+            readPackageDependencyGraph(args[1])
+        );
+        
+        for (PackageDependenciesClosureChange change : changes) {
+            StringBuilder output = new StringBuilder(change.getPackage() + OUT_DEPENDENCIES_SEPARATOR);
+            
+            appendDependencies(output, OUT_ADDED_PREFIX, change.getAddedDependencies());
+            appendDependencies(output, OUT_REMOVED_PREFIX, change.getRemovedDependencies());
+            
+            System.out.println(output);
+        }
+    }
+    
+    private void appendDependencies(StringBuilder output, String prefix, List<Package> dependencies) {
+        for (Package dependency : dependencies) {
+            output.append(OUT_PACKAGE_SEPARATOR).append(prefix).append(dependency);
+        }
+    }
+    
+}
@@ -0,0 +1,68 @@
+package com.bt.coding_test.controller;
+
+import java.io.IOException;
+
+import com.bt.coding_test.exception.InvalidInputException;
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+import com.bt.coding_test.service.PackageDependenciesDominatorCalculator;
+import com.bt.coding_test.service.PackageDependenciesDominatorTree;
+
+/**
+ * Controller printing the dominator tree of the packages on which a root package depends, i.e. for each package 
+ * its immediate dominator (the closest package through which every chain of dependencies from the root goes) 
+ * and the number of packages it dominates.
+ */
+public class PackageDependenciesDominatorProcessingController extends PackageDependenciesController {
+
+    private static final String OUT_DOMINATOR       = "%s %s %d";
+    private static final String OUT_NO_DOMINATOR    = "-";
+    
+    private static final String ERR_INVALID_NR_CMD_LINE_ARGS = "Usage: java com.bt.coding_test.PackageDependenciesProcessor --dominators <package-dependencies-data-file-path> <root-package-name>.";
+    
+    
+    /**
+     * Print one line for the root package and each of its dependencies, in alphabetical order, containing 
+     * the package name, the name of its immediate dominator ("-" for the root) and the number of packages 
+     * it dominates (including itself).
+     * 
+     * @param args The command line arguments.
+     * @throws IOException if command line arguments or data file are invalid.
+     */
+    @Override
+    public void run(String args[]) throws IOException {
+        if (args.length != 2) {
+            throw new InvalidInputException(ERR_INVALID_NR_CMD_LINE_ARGS);
+        }
+        
+        validateCommandLinePackageName(args[1]);
+        
+        PackageDependenciesDirectedGraph    graph   = readPackageDependencyGraph(args[0]);
+        PackageDependenciesDominatorTree    tree    = new PackageDependenciesDominatorCalculator().compute(
+            new Package(args[1]), 
+            graph
+        );
+        StringBuilder                       output  = new StringBuilder();
+        
+        // Package IDs are assigned in alphabetical order
+        for (int i = 0; i < graph.getIndex().getNrOfPackages(); ++i) {
+            if (!tree.isReachable(i)) {
+                continue;
+            }
+            
+            int dominatorId = tree.getImmediateDominator(i);
+            
+            output.append(
+                String.format(
+                    OUT_DOMINATOR, 
+                    tree.getPackage(i).getName(), 
+                    (dominatorId < 0) ? OUT_NO_DOMINATOR : tree.getPackage(dominatorId).getName(), 
+                    tree.getDominatedSetSize(i)
+                )
+            ).append(System.lineSeparator());
+        }
+        
+        System.out.print(output);
+    }
+    
+}
@@ -0,0 +1,83 @@
+package com.bt.coding_test.controller;
+
+import java.io.IOException;
+import java.util.Locale;
+
+import com.bt.coding_test.data.PackageDependenciesExportFormat;
+import com.bt.coding_test.data.PackageDependenciesGraphExporter;
+import com.bt.coding_test.exception.InvalidInputException;
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+import com.bt.coding_test.model.PackageDependenciesGraphIndex;
+import com.bt.coding_test.model.PackageIdSet;
+import com.bt.coding_test.service.DFSPackageDependenciesFindingStrategy;
+import com.bt.coding_test.service.PackageDependenciesFindingStrategy;
+
+/**
+ * Controller exporting the graph read from a data file, or the subgraph induced by the closures of the given 
+ * packages, to an output file in the DOT, GraphML or native data file format.
+ */
+public class PackageDependenciesExportProcessingController extends PackageDependenciesController {
+
+    private static final String ERR_INVALID_NR_CMD_LINE_ARGS    = "Usage: java com.bt.coding_test.PackageDependenciesProcessor --export <package-dependencies-data-file-path> <dot|graphml|native> <output-file-path> [<package-or-pattern-1> ... <package-or-pattern-n>].";
+    private static final String ERR_INVALID_FORMAT              = "The export format \"%s\" is not valid. Supported formats: dot, graphml, native.";
+    
+    private PackageDependenciesFindingStrategy strategy = new DFSPackageDependenciesFindingStrategy();
+    
+    
+    /**
+     * Export the graph read from the data file to the output file. If packages are given, only the given packages, 
+     * their direct and transitive dependencies and the dependencies between them are exported.
+     * 
+     * @param args The command line arguments.
+     * @throws IOException if command line arguments or data file are invalid, or the output file cannot be written.
+     */
+    @Override
+    public void run(String args[]) throws IOException {
+        if (args.length < 3) {
+            throw new InvalidInputException(ERR_INVALID_NR_CMD_LINE_ARGS);
+        }
+        
+        PackageDependenciesExportFormat format = parseExportFormat(args[1]);
+        
+        validateCommandLinePackageNamesOrPatterns(args, 3);
+        
+        PackageDependenciesDirectedGraph    graph       = readPackageDependencyGraph(args[0]);
+        PackageIdSet                        packageIds  = null;
+        
+        if (args.length > 3) {
+            PackageDependenciesGraphIndex index = graph.getIndex();
+            
+            packageIds = new PackageIdSet();
+            
+            for (String packageName : expandCommandLinePackageNames(args, 3, graph)) {
+                Package sourcePackage   = new Package(packageName);
+                int     sourcePackageId = index.getPackageId(sourcePackage);
+                
+                // Packages which do not occur in the data file do not have any dependencies to export
+                if (sourcePackageId >= 0) {
+                    packageIds = packageIds.union(strategy.findPackageIds(sourcePackage, graph));
+                    packageIds.add(sourcePackageId);
+                }
+            }
+        }
+        
+        PackageDependenciesGraphExporter.getInstance().export(graph, packageIds, format, args[2]);
+    }
+    
+    /**
+     * Parse the export format, ignoring case.
+     * 
+     * @param formatName The name of the export format.
+     * @return The export format.
+     * @throws InvalidInputException if the export format is unknown.
+     */
+    private PackageDependenciesExportFormat parseExportFormat(String formatName) throws InvalidInputException {
+        try {
+            return PackageDependenciesExportFormat.valueOf(formatName.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException exception) {
+            throw new InvalidInputException(String.format(ERR_INVALID_FORMAT, formatName));
+        }
+    }
+    
+}
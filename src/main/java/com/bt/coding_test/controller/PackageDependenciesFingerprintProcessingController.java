@@ -0,0 +1,65 @@
+package com.bt.coding_test.controller;
+
+import java.io.IOException;
+
+import com.bt.coding_test.exception.InvalidInputException;
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+import com.bt.coding_test.model.PackageDependenciesGraphIndex;
+import com.bt.coding_test.service.PackageDependenciesFingerprintCalculator;
+import com.bt.coding_test.service.PackageDependenciesFingerprints;
+
+/**
+ * Controller printing the closure fingerprints of packages, i.e. hashes covering each package and all its direct 
+ * and transitive dependencies, which change if and only if the closure of the package changes (e.g. to be used 
+ * as keys of a build cache).
+ */
+public class PackageDependenciesFingerprintProcessingController extends PackageDependenciesController {
+
+    private static final String OUT_FINGERPRINT     = "%s %s";
+    private static final String OUT_NO_FINGERPRINT  = "-";
+    
+    private static final String ERR_INVALID_NR_CMD_LINE_ARGS = "Usage: java com.bt.coding_test.PackageDependenciesProcessor --fingerprints <package-dependencies-data-file-path> [<package-or-pattern-1> ... <package-or-pattern-n>].";
+    
+    
+    /**
+     * Print the closure fingerprint of the given packages, or of every package in alphabetical order if no packages 
+     * are given.
+     * 
+     * @param args The command line arguments.
+     * @throws IOException if command line arguments or data file are invalid.
+     */
+    @Override
+    public void run(String args[]) throws IOException {
+        if (args.length < 1) {
+            throw new InvalidInputException(ERR_INVALID_NR_CMD_LINE_ARGS);
+        }
+        
+        validateCommandLinePackageNamesOrPatterns(args, 1);
+        
+        PackageDependenciesDirectedGraph    graph           = readPackageDependencyGraph(args[0]);
+        PackageDependenciesGraphIndex       index           = graph.getIndex();
+        PackageDependenciesFingerprints     fingerprints    = new PackageDependenciesFingerprintCalculator().compute(graph);
+        StringBuilder                       output          = new StringBuilder();
+        
+        if (args.length == 1) {
+            // Package IDs are assigned in alphabetical order
+            for (int i = 0; i < index.getNrOfPackages(); ++i) {
+                appendFingerprint(output, index.getPackage(i).getName(), fingerprints.getFingerprint(i));
+            }
+        } else {
+            for (String packageName : expandCommandLinePackageNames(args, 1, graph)) {
+                String fingerprint = fingerprints.getFingerprint(new Package(packageName));
+                
+                appendFingerprint(output, packageName, (fingerprint == null) ? OUT_NO_FINGERPRINT : fingerprint);
+            }
+        }
+        
+        System.out.print(output);
+    }
+    
+    private void appendFingerprint(StringBuilder output, String packageName, String fingerprint) {
+        output.append(String.format(OUT_FINGERPRINT, packageName, fingerprint)).append(System.lineSeparator());
+    }
+    
+}
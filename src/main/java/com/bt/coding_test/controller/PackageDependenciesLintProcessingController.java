@@ -0,0 +1,88 @@
+package com.bt.coding_test.controller;
+
+import java.io.IOException;
+
+import com.bt.coding_test.data.PackageDependenciesDataFileLintReport;
+import com.bt.coding_test.data.PackageDependenciesDataFileLinter;
+import com.bt.coding_test.exception.InvalidInputException;
+
+/**
+ * Controller checking all lines of a data file without constructing the graph, and printing the errors of 
+ * the invalid lines (by default at most PackageDependenciesDataFileLinter.DEFAULT_MAX_NR_OF_ERRORS).
+ */
+public class PackageDependenciesLintProcessingController extends PackageDependenciesController {
+
+    private static final String OUT_VALID_DATA_FILE     = "Checked %d lines: no errors found.";
+    private static final String OUT_TRUNCATED_ERRORS    = "... (only the first %d errors are listed)";
+    
+    private static final String ERR_INVALID_NR_CMD_LINE_ARGS    = "Usage: java com.bt.coding_test.PackageDependenciesProcessor --lint <package-dependencies-data-file-path> [<max-number-of-errors>].";
+    private static final String ERR_INVALID_MAX_NR_OF_ERRORS    = "The maximum number of errors must be a positive integer. Please change.";
+    private static final String ERR_INVALID_DATA_FILE           = "Checked %d lines: %d invalid lines found.";
+    
+    
+    /**
+     * Check the data file and print the errors of the invalid lines.
+     * 
+     * @param args The command line arguments.
+     * @throws IOException if command line arguments are invalid, the data file cannot be read or is invalid.
+     */
+    @Override
+    public void run(String args[]) throws IOException {
+        if ((args.length < 1) || (args.length > 2)) {
+            throw new InvalidInputException(ERR_INVALID_NR_CMD_LINE_ARGS);
+        }
+        
+        int maxNrOfErrors = (args.length == 2) ? parseMaxNrOfErrors(args[1]) : 
+                                                 PackageDependenciesDataFileLinter.DEFAULT_MAX_NR_OF_ERRORS;
+                                                 
+        PackageDependenciesDataFileLintReport report = PackageDependenciesDataFileLinter.getInstance().lint(
+            args[0], 
+            maxNrOfErrors
+        );
+        
+        if (report.isValid()) {
+            System.out.println(String.format(OUT_VALID_DATA_FILE, report.getNrOfLines()));
+            
+            return;
+        }
+        
+        StringBuilder output = new StringBuilder();
+        
+        for (String error : report.getErrors()) {
+            output.append(error).append(System.lineSeparator());
+        }
+        
+        if (report.isTruncated()) {
+            output.append(String.format(OUT_TRUNCATED_ERRORS, report.getErrors().size()));
+            output.append(System.lineSeparator());
+        }
+        
+        System.out.print(output);
+        
+        throw new InvalidInputException(
+            String.format(ERR_INVALID_DATA_FILE, report.getNrOfLines(), report.getNrOfErrors())
+        );
+    }
+    
+    /**
+     * Parse the maximum number of errors provided as a command line argument.
+     * 
+     * @param maxNrOfErrors The maximum number of errors provided as a command line argument.
+     * @return The maximum number of errors.
+     * @throws InvalidInputException if the maximum number of errors is not valid.
+     */
+    private int parseMaxNrOfErrors(String maxNrOfErrors) throws InvalidInputException {
+        try {
+            int value = Integer.parseInt(maxNrOfErrors);
+            
+            if (value <= 0) {
+                throw new InvalidInputException(ERR_INVALID_MAX_NR_OF_ERRORS);
+            }
+            
+            return value;
+        } catch (NumberFormatException exception) {
+            throw new InvalidInputException(ERR_INVALID_MAX_NR_OF_ERRORS);
+        }
+    }
+    
+}
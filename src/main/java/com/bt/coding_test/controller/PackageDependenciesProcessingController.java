@@ -3,21 +3,14 @@ package com.bt.coding_test.controller;
 import java.io.IOException;
 import java.util.Set;
 
-import com.bt.coding_test.data.PackageDependenciesDataFileReader;
 import com.bt.coding_test.exception.InvalidInputException;
 import com.bt.coding_test.model.Package;
 import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
 import com.bt.coding_test.service.PackageDependenciesFindingStrategy;
-import com.bt.coding_test.validation.PackageDependenciesDataFileValidator;
 
-public class PackageDependenciesProcessingController {
+public class PackageDependenciesProcessingController extends PackageDependenciesController {
 
-    private static final String OUT_PACKAGE_SEPARATOR       = " ";
-    private static final String OUT_DEPENDENCIES_SEPARATOR  = " ->";
-    
-    private static final String ERR_INVALID_PACKAGE_NAME_END    = "\" provided as a command line argument is not valid because it is not defined by the regular expression \"[a-zA-Z0-9_]+\". Please change.";
-    private static final String ERR_INVALID_PACKAGE_NAME_BEGIN  = "The package name \"";
-    private static final String ERR_INVALID_NR_CMD_LINE_ARGS    = "Usage: java com.bt.coding_test.PackageDependenciesProcessor <package-dependencies-data-file-path> <package-1> [<package-2> ... <package-n>].";
+    private static final String ERR_INVALID_NR_CMD_LINE_ARGS    = "Usage: java com.bt.coding_test.PackageDependenciesProcessor <package-dependencies-data-file-path> <package-or-pattern-1> [<package-or-pattern-2> ... <package-or-pattern-n>].";
 
     private PackageDependenciesDirectedGraph     packageDependenciesGraph;
     private PackageDependenciesFindingStrategy   packageDependenciesFinder;
@@ -37,9 +30,10 @@ public class PackageDependenciesProcessingController {
      * @param args The command line arguments.
      * @throws IOException if command line arguments or data file are invalid.
      */
+    @Override
     public void run(String args[]) throws IOException {
         validateCommandLineArguments(args);
-        readPackageDependencyGraph(args[0]);
+        packageDependenciesGraph = readPackageDependencyGraph(args[0]);
         outputPackageDependencies(args);
     }
 
@@ -51,7 +45,7 @@ public class PackageDependenciesProcessingController {
      */
     private void validateCommandLineArguments(String[] args) throws IOException {
         validateNrOfCommandLineArguments(args);
-        validateCommandLinePackageNames(args);
+        validateCommandLinePackageNamesOrPatterns(args, 1);
     }
 
     /**
@@ -67,43 +61,14 @@ public class PackageDependenciesProcessingController {
     }
     
     /**
-     * Check if the package names provided as command line arguments are valid.
-     * 
-     * @param args The command line arguments.
-     * @throws InvalidInputException if package names are invalid.
-     */
-    private void validateCommandLinePackageNames(String[] args) throws InvalidInputException {
-        for (int i = 1; i < args.length; ++i) {
-            if (!PackageDependenciesDataFileValidator.getInstance().isValidPackageName(args[i])) {
-                throw new InvalidInputException(
-                    ERR_INVALID_PACKAGE_NAME_BEGIN + 
-                    args[i] + 
-                    ERR_INVALID_PACKAGE_NAME_END
-                );
-            }
-        }
-    }
-    
-    /**
-     * Read the package dependency graph from the data file.
-     * 
-     * @param dataFilePath The data file path.
-     * @throws InvalidInputException if the data file is invalid.
-     */
-    private void readPackageDependencyGraph(String dataFilePath) throws InvalidInputException {
-        PackageDependenciesDataFileReader reader = PackageDependenciesDataFileReader.getInstance();
-        
-        packageDependenciesGraph = reader.read(dataFilePath);
-    }
-    
-    /**
-     * Output the dependencies for all the package names provided as command line arguments.
+     * Output the dependencies for all the package names provided as command line arguments, expanding 
+     * package name patterns (e.g. "swing*") into the names of the matching packages.
      * 
      * @param args The command line arguments.
      */
     private void outputPackageDependencies(String[] args) {
-        for (int i = 1; i < args.length; ++i) {
-            outputPackageDependency(args[i]);
+        for (String packageName : expandCommandLinePackageNames(args, 1, packageDependenciesGraph)) {
+            outputPackageDependency(packageName);
         }
     }
 
@@ -113,17 +78,9 @@ public class PackageDependenciesProcessingController {
      * @param packageName The package name.
      */
     private void outputPackageDependency(String packageName) {
-       System.out.print(packageName + OUT_DEPENDENCIES_SEPARATOR);
-       
-       // Output the package dependencies
        Set<Package> dependencies = packageDependenciesFinder.find(new Package(packageName), packageDependenciesGraph);
        
-       for (Package packageDependency : dependencies) {
-           System.out.print(OUT_PACKAGE_SEPARATOR + packageDependency);
-       }
-       
-       // Output a new line
-       System.out.println("");
+       outputPackageDependencies(packageName, dependencies);
     }
     
 }
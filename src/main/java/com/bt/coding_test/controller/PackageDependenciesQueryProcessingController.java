@@ -0,0 +1,197 @@
+package com.bt.coding_test.controller;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import com.bt.coding_test.exception.InvalidInputException;
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+import com.bt.coding_test.model.PackageDependenciesQueryOptions;
+import com.bt.coding_test.model.PackageDependenciesQueryResult;
+import com.bt.coding_test.service.BFSPackageDependenciesFindingStrategy;
+
+/**
+ * Controller finding the package dependencies accepted by the query options given as command line arguments, 
+ * and printing each dependency together with its depth. The output of a query which reached one of its budgets 
+ * is marked as truncated.
+ */
+public class PackageDependenciesQueryProcessingController extends PackageDependenciesController {
+
+    private static final String OPTION_PREFIX       = "--";
+    private static final String OPTION_MAX_DEPTH    = "--max-depth";
+    private static final String OPTION_INCLUDE      = "--include";
+    private static final String OPTION_EXCLUDE      = "--exclude";
+    private static final String OPTION_STOP_AT      = "--stop-at";
+    private static final String OPTION_MAX_VISITED  = "--max-visited";
+    private static final String OPTION_MAX_RESULTS  = "--max-results";
+    private static final String OPTION_TIMEOUT_MS   = "--timeout-ms";
+    
+    private static final String OUT_PACKAGE_SEPARATOR       = " ";
+    private static final String OUT_DEPENDENCIES_SEPARATOR  = " ->";
+    private static final String OUT_DEPTH                   = "%s(%d)";
+    private static final String OUT_TRUNCATED               = " [truncated: %s]";
+    
+    private static final String ERR_INVALID_NR_CMD_LINE_ARGS    = "Usage: java com.bt.coding_test.PackageDependenciesProcessor --query <package-dependencies-data-file-path> [--max-depth <depth>] [--include <pattern>] [--exclude <pattern>] [--stop-at <package>] [--max-visited <n>] [--max-results <n>] [--timeout-ms <milliseconds>] <package-or-pattern-1> [<package-or-pattern-2> ... <package-or-pattern-n>].";
+    private static final String ERR_INVALID_MAX_DEPTH           = "The maximum depth must be a positive integer. Please change.";
+    private static final String ERR_INVALID_BUDGET              = "The option %s must be a non-negative integer. Please change.";
+    
+    
+    /**
+     * Find and print the package dependencies accepted by the query options.
+     * 
+     * @param args The command line arguments.
+     * @throws IOException if command line arguments or data file are invalid.
+     */
+    @Override
+    public void run(String args[]) throws IOException {
+        if (args.length < 2) {
+            throw new InvalidInputException(ERR_INVALID_NR_CMD_LINE_ARGS);
+        }
+        
+        PackageDependenciesQueryOptions options             = new PackageDependenciesQueryOptions();
+        int                             firstPackageIndex   = parseQueryOptions(args, options);
+        
+        if (firstPackageIndex == args.length) {
+            throw new InvalidInputException(ERR_INVALID_NR_CMD_LINE_ARGS);
+        }
+        
+        validateCommandLinePackageNamesOrPatterns(args, firstPackageIndex);
+        
+        PackageDependenciesDirectedGraph        graph       = readPackageDependencyGraph(args[0]);
+        BFSPackageDependenciesFindingStrategy   strategy    = new BFSPackageDependenciesFindingStrategy();
+        
+        for (String packageName : expandCommandLinePackageNames(args, firstPackageIndex, graph)) {
+            outputQueryResult(packageName, strategy.query(new Package(packageName), graph, options));
+        }
+    }
+    
+    /**
+     * Parse the query options following the data file path.
+     * 
+     * @param args      The command line arguments.
+     * @param options   The query options to set.
+     * @return The index of the first command line argument following the query options.
+     * @throws InvalidInputException if a query option is invalid.
+     */
+    private int parseQueryOptions(String[] args, PackageDependenciesQueryOptions options) 
+                                  throws InvalidInputException {
+        int i = 1;
+        
+        while ((i < args.length) && (args[i].startsWith(OPTION_PREFIX))) {
+            if (i + 1 == args.length) {
+                throw new InvalidInputException(ERR_INVALID_NR_CMD_LINE_ARGS);
+            }
+            
+            String value = args[i + 1];
+            
+            switch (args[i]) {
+                case OPTION_MAX_DEPTH:
+                    options.setMaxDepth(parseMaxDepth(value));
+                    break;
+                    
+                case OPTION_INCLUDE:
+                    validateCommandLinePackageNamePattern(value);
+                    options.addIncludePattern(value);
+                    break;
+                    
+                case OPTION_EXCLUDE:
+                    validateCommandLinePackageNamePattern(value);
+                    options.addExcludePattern(value);
+                    break;
+                    
+                case OPTION_STOP_AT:
+                    validateCommandLinePackageName(value);
+                    options.addStopAtPackage(new Package(value));
+                    break;
+                    
+                case OPTION_MAX_VISITED:
+                    options.setMaxVisitedPackages(parseBudget(args[i], value));
+                    break;
+                    
+                case OPTION_MAX_RESULTS:
+                    options.setMaxResultSize(parseBudget(args[i], value));
+                    break;
+                    
+                case OPTION_TIMEOUT_MS:
+                    options.setTimeout(parseBudget(args[i], value), TimeUnit.MILLISECONDS);
+                    break;
+                    
+                default:
+                    throw new InvalidInputException(ERR_INVALID_NR_CMD_LINE_ARGS);
+            }
+            
+            i += 2;
+        }
+        
+        return i;
+    }
+    
+    /**
+     * Parse the maximum depth provided as a command line argument.
+     * 
+     * @param maxDepth The maximum depth provided as a command line argument.
+     * @return The maximum depth.
+     * @throws InvalidInputException if the maximum depth is not a positive integer.
+     */
+    private int parseMaxDepth(String maxDepth) throws InvalidInputException {
+        try {
+            int depth = Integer.parseInt(maxDepth);
+            
+            if (depth < 1) {
+                throw new InvalidInputException(ERR_INVALID_MAX_DEPTH);
+            }
+            
+            return depth;
+        } catch (NumberFormatException exception) {
+            throw new InvalidInputException(ERR_INVALID_MAX_DEPTH);
+        }
+    }
+    
+    /**
+     * Parse a budget provided as a command line argument.
+     * 
+     * @param option    The option of the budget.
+     * @param budget    The budget provided as a command line argument.
+     * @return The budget.
+     * @throws InvalidInputException if the budget is not a non-negative integer.
+     */
+    private int parseBudget(String option, String budget) throws InvalidInputException {
+        try {
+            int value = Integer.parseInt(budget);
+            
+            if (value < 0) {
+                throw new InvalidInputException(String.format(ERR_INVALID_BUDGET, option));
+            }
+            
+            return value;
+        } catch (NumberFormatException exception) {
+            throw new InvalidInputException(String.format(ERR_INVALID_BUDGET, option));
+        }
+    }
+    
+    /**
+     * Output the packages found by the query for the given package, together with their depths, followed by 
+     * the limit which truncated the result (if any).
+     * 
+     * @param packageName   The package name.
+     * @param result        The query result.
+     */
+    private void outputQueryResult(String packageName, PackageDependenciesQueryResult result) {
+        StringBuilder output = new StringBuilder(packageName + OUT_DEPENDENCIES_SEPARATOR);
+        
+        for (int i = 0; i < result.getNrOfPackages(); ++i) {
+            output.append(OUT_PACKAGE_SEPARATOR);
+            output.append(String.format(OUT_DEPTH, result.getPackage(i), result.getDepth(i)));
+        }
+        
+        if (result.isTruncated()) {
+            String limit = result.getTruncation().name().toLowerCase(Locale.ROOT).replace('_', '-');
+            
+            output.append(String.format(OUT_TRUNCATED, limit));
+        }
+        
+        System.out.println(output);
+    }
+    
+}
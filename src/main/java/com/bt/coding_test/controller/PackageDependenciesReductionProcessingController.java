@@ -0,0 +1,48 @@
+package com.bt.coding_test.controller;
+
+import java.io.IOException;
+
+import com.bt.coding_test.data.PackageDependenciesDataFileWriter;
+import com.bt.coding_test.exception.InvalidInputException;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+import com.bt.coding_test.service.PackageDependenciesTransitiveReduction;
+
+/**
+ * Controller removing the redundant direct dependencies from a data file and writing the reduced graph 
+ * to another data file.
+ */
+public class PackageDependenciesReductionProcessingController extends PackageDependenciesController {
+
+    private static final String OUT_NR_OF_REMOVED_DEPENDENCIES = "Removed %d of %d direct dependencies.";
+    
+    private static final String ERR_INVALID_NR_CMD_LINE_ARGS = "Usage: java com.bt.coding_test.PackageDependenciesProcessor --reduce <package-dependencies-data-file-path> <output-data-file-path>.";
+    
+    
+    /**
+     * Compute the transitive reduction of the graph read from the data file, write it to the output data file 
+     * and print the number of removed direct dependencies.
+     * 
+     * @param args The command line arguments.
+     * @throws IOException if command line arguments or data file are invalid, or the output data file cannot be written.
+     */
+    @Override
+    public void run(String args[]) throws IOException {
+        if (args.length != 2) {
+            throw new InvalidInputException(ERR_INVALID_NR_CMD_LINE_ARGS);
+        }
+        
+        PackageDependenciesDirectedGraph graph          = readPackageDependencyGraph(args[0]);
+        PackageDependenciesDirectedGraph reducedGraph   = new PackageDependenciesTransitiveReduction().reduce(graph);
+        
+        PackageDependenciesDataFileWriter.getInstance().write(reducedGraph, args[1]);
+        
+        System.out.println(
+            String.format(
+                OUT_NR_OF_REMOVED_DEPENDENCIES, 
+                graph.getNrOfPackageDependencies() - reducedGraph.getNrOfPackageDependencies(), 
+                graph.getNrOfPackageDependencies()
+            )
+        );
+    }
+    
+}
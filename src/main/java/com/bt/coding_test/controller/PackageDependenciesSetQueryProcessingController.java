@@ -0,0 +1,93 @@
+package com.bt.coding_test.controller;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import com.bt.coding_test.exception.InvalidInputException;
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+import com.bt.coding_test.model.PackageIdSet;
+import com.bt.coding_test.service.PackageDependenciesClosureSetQuery;
+import com.bt.coding_test.service.PackageDependenciesSetOperation;
+
+/**
+ * Controller printing the union, intersection or difference of the dependencies of several packages, e.g. 
+ * "gui & textui -> framework runner" for the packages on which both "gui" and "textui" depend.
+ */
+public class PackageDependenciesSetQueryProcessingController extends PackageDependenciesController {
+
+    private static final String OUT_UNION_OPERATOR          = " | ";
+    private static final String OUT_INTERSECTION_OPERATOR   = " & ";
+    private static final String OUT_DIFFERENCE_OPERATOR     = " - ";
+    
+    private static final String ERR_INVALID_NR_CMD_LINE_ARGS    = "Usage: java com.bt.coding_test.PackageDependenciesProcessor --set <package-dependencies-data-file-path> <union|intersection|difference> <package-or-pattern-1> [<package-or-pattern-2> ... <package-or-pattern-n>].";
+    private static final String ERR_INVALID_OPERATION           = "The set operation \"%s\" is not valid. Supported operations: union, intersection, difference.";
+    
+    
+    /**
+     * Print the result of the set operation applied to the dependencies of the given packages, in alphabetical order.
+     * For a difference, the dependencies of the first package are kept if none of the other packages depends on them.
+     * 
+     * @param args The command line arguments.
+     * @throws IOException if command line arguments or data file are invalid.
+     */
+    @Override
+    public void run(String args[]) throws IOException {
+        if (args.length < 3) {
+            throw new InvalidInputException(ERR_INVALID_NR_CMD_LINE_ARGS);
+        }
+        
+        PackageDependenciesSetOperation operation = parseSetOperation(args[1]);
+        
+        validateCommandLinePackageNamesOrPatterns(args, 2);
+        
+        PackageDependenciesDirectedGraph    graph           = readPackageDependencyGraph(args[0]);
+        List<String>                        packageNames    = expandCommandLinePackageNames(args, 2, graph);
+        List<Package>                       operands        = new ArrayList<Package>(packageNames.size());
+        
+        for (String packageName : packageNames) {
+            operands.add(new Package(packageName));
+        }
+        
+        PackageIdSet result = new PackageDependenciesClosureSetQuery().evaluate(operation, operands, graph);
+        
+        outputPackageDependencies(String.join(getOperator(operation), packageNames), result.toPackages(graph.getIndex()));
+    }
+    
+    /**
+     * Parse the set operation, ignoring case.
+     * 
+     * @param operationName The name of the set operation.
+     * @return The set operation.
+     * @throws InvalidInputException if the set operation is unknown.
+     */
+    private PackageDependenciesSetOperation parseSetOperation(String operationName) throws InvalidInputException {
+        try {
+            return PackageDependenciesSetOperation.valueOf(operationName.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException exception) {
+            throw new InvalidInputException(String.format(ERR_INVALID_OPERATION, operationName));
+        }
+    }
+    
+    /**
+     * Get the operator separating the package names in the output of the given set operation.
+     * 
+     * @param operation The set operation.
+     * @return The operator.
+     */
+    static String getOperator(PackageDependenciesSetOperation operation) {
+        switch (operation) {
+            case INTERSECTION:
+                return OUT_INTERSECTION_OPERATOR;
+                
+            case DIFFERENCE:
+                return OUT_DIFFERENCE_OPERATOR;
+                
+            default:
+                return OUT_UNION_OPERATOR;
+        }
+    }
+    
+}
@@ -0,0 +1,74 @@
+package com.bt.coding_test.controller;
+
+import java.io.IOException;
+
+import com.bt.coding_test.exception.InvalidInputException;
+import com.bt.coding_test.model.HyperLogLogSketch;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+import com.bt.coding_test.model.PackageDependenciesGraphIndex;
+import com.bt.coding_test.service.PackageDependenciesClosureSizeEstimator;
+
+/**
+ * Controller printing the estimated number of direct and transitive dependencies of every package.
+ */
+public class PackageDependenciesSizeEstimationProcessingController extends PackageDependenciesController {
+
+    private static final String OUT_ESTIMATED_SIZE = "%s %d";
+    
+    private static final String ERR_INVALID_NR_CMD_LINE_ARGS    = "Usage: java com.bt.coding_test.PackageDependenciesProcessor --estimate-sizes <package-dependencies-data-file-path> [<precision>].";
+    private static final String ERR_INVALID_PRECISION           = "The precision must be an integer between " + 
+                                                                  HyperLogLogSketch.MIN_PRECISION + " and " + 
+                                                                  HyperLogLogSketch.MAX_PRECISION + ". Please change.";
+                                                                  
+                                                                  
+    /**
+     * Print the estimated number of dependencies of every package, in alphabetical order of the package names.
+     * 
+     * @param args The command line arguments.
+     * @throws IOException if command line arguments or data file are invalid.
+     */
+    @Override
+    public void run(String args[]) throws IOException {
+        if ((args.length < 1) || (args.length > 2)) {
+            throw new InvalidInputException(ERR_INVALID_NR_CMD_LINE_ARGS);
+        }
+        
+        int precision = (args.length == 2) ? parsePrecision(args[1]) : 
+                                             PackageDependenciesClosureSizeEstimator.DEFAULT_PRECISION;
+                                             
+        PackageDependenciesDirectedGraph    graph       = readPackageDependencyGraph(args[0]);
+        PackageDependenciesGraphIndex       index       = graph.getIndex();
+        long[]                              estimates   = new PackageDependenciesClosureSizeEstimator(precision).estimate(graph);
+        StringBuilder                       output      = new StringBuilder();
+        
+        // Package IDs are assigned in alphabetical order
+        for (int i = 0; i < estimates.length; ++i) {
+            output.append(String.format(OUT_ESTIMATED_SIZE, index.getPackage(i), estimates[i]));
+            output.append(System.lineSeparator());
+        }
+        
+        System.out.print(output);
+    }
+    
+    /**
+     * Parse the sketch precision provided as a command line argument.
+     * 
+     * @param precision The precision provided as a command line argument.
+     * @return The precision.
+     * @throws InvalidInputException if the precision is not valid.
+     */
+    private int parsePrecision(String precision) throws InvalidInputException {
+        try {
+            int value = Integer.parseInt(precision);
+            
+            if ((value < HyperLogLogSketch.MIN_PRECISION) || (value > HyperLogLogSketch.MAX_PRECISION)) {
+                throw new InvalidInputException(ERR_INVALID_PRECISION);
+            }
+            
+            return value;
+        } catch (NumberFormatException exception) {
+            throw new InvalidInputException(ERR_INVALID_PRECISION);
+        }
+    }
+    
+}
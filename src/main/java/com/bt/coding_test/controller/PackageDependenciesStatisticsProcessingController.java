@@ -0,0 +1,121 @@
+package com.bt.coding_test.controller;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.bt.coding_test.exception.InvalidInputException;
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.service.PackageDependenciesStatistics;
+import com.bt.coding_test.service.PackageDependenciesStatisticsCalculator;
+
+/**
+ * Controller printing statistics describing the shape of the graph read from a data file, as a JSON object.
+ */
+public class PackageDependenciesStatisticsProcessingController extends PackageDependenciesController {
+
+    private static final String ERR_INVALID_NR_CMD_LINE_ARGS = "Usage: java com.bt.coding_test.PackageDependenciesProcessor --stats <package-dependencies-data-file-path>.";
+    
+    
+    /**
+     * Compute and print the statistics of the graph read from the data file.
+     * 
+     * @param args The command line arguments.
+     * @throws IOException if command line arguments or data file are invalid.
+     */
+    @Override
+    public void run(String args[]) throws IOException {
+        if (args.length != 1) {
+            throw new InvalidInputException(ERR_INVALID_NR_CMD_LINE_ARGS);
+        }
+        
+        PackageDependenciesStatistics statistics = new PackageDependenciesStatisticsCalculator().compute(
+            readPackageDependencyGraph(args[0])
+        );
+        
+        System.out.println(toJson(statistics));
+    }
+    
+    /**
+     * Format the given statistics as a JSON object.
+     * 
+     * Assumption: Package names do not require escaping in JSON strings, since they are defined by the regular 
+     *             expression "[a-zA-Z0-9_]+".
+     * 
+     * @param statistics The statistics.
+     * @return The JSON object.
+     */
+    private String toJson(PackageDependenciesStatistics statistics) {
+        StringBuilder json = new StringBuilder("{\n");
+        
+        appendField(json, "packages", statistics.getNrOfPackages());
+        appendField(json, "dependencies", statistics.getNrOfDependencies());
+        appendField(json, "rootPackages", statistics.getNrOfRootPackages());
+        appendField(json, "leafPackages", statistics.getNrOfLeafPackages());
+        appendField(json, "maxOutDegree", statistics.getMaxOutDegree());
+        appendField(json, "maxInDegree", statistics.getMaxInDegree());
+        appendField(json, "outDegreeHistogram", toJson(statistics.getOutDegreeHistogram()));
+        appendField(json, "inDegreeHistogram", toJson(statistics.getInDegreeHistogram()));
+        appendField(json, "components", statistics.getNrOfComponents());
+        appendField(json, "cyclicComponents", statistics.getNrOfCyclicComponents());
+        appendField(json, "maxComponentSize", statistics.getMaxComponentSize());
+        appendField(json, "componentSizeHistogram", toJson(statistics.getComponentSizeHistogram()));
+        appendField(json, "longestChain", statistics.getLongestChain());
+        appendField(json, "estimatedMaxClosureSize", statistics.getMaxClosureSize());
+        appendField(json, "estimatedMaxClosurePackage", toJson(statistics.getMaxClosurePackage()));
+        appendField(json, "hubsByDependants", toJson(statistics.getHubsByDependants()));
+        appendField(json, "hubsByDependencies", toJson(statistics.getHubsByDependencies()));
+        
+        // Remove the separator following the last field
+        json.setLength(json.length() - 2);
+        
+        return json.append("\n}").toString();
+    }
+    
+    private void appendField(StringBuilder json, String name, Object value) {
+        json.append("  \"").append(name).append("\": ").append(value).append(",\n");
+    }
+    
+    /**
+     * Format the non-empty buckets of the given histogram as a JSON object, e.g. {"0": 3, "1": 5, "2-3": 1}.
+     * 
+     * @param histogram The histogram.
+     * @return The JSON object.
+     */
+    private String toJson(long[] histogram) {
+        StringBuilder json = new StringBuilder("{");
+        
+        for (int i = 0; i < histogram.length; ++i) {
+            if (histogram[i] == 0) {
+                continue;
+            }
+            
+            long lowerBound = PackageDependenciesStatistics.getBucketLowerBound(i);
+            long upperBound = PackageDependenciesStatistics.getBucketUpperBound(i);
+            
+            json.append((json.length() > 1) ? ", \"" : "\"").append(lowerBound);
+            
+            if (upperBound > lowerBound) {
+                json.append('-').append(upperBound);
+            }
+            
+            json.append("\": ").append(histogram[i]);
+        }
+        
+        return json.append('}').toString();
+    }
+    
+    private String toJson(List<Package> packages) {
+        StringBuilder json = new StringBuilder("[");
+        
+        for (Package givenPackage : packages) {
+            json.append((json.length() > 1) ? ", " : "").append(toJson(givenPackage));
+        }
+        
+        return json.append(']').toString();
+    }
+    
+    private String toJson(Package givenPackage) {
+        return (givenPackage == null) ? "null" : ("\"" + givenPackage.getName() + "\"");
+    }
+    
+}
@@ -0,0 +1,101 @@
+package com.bt.coding_test.controller;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.bt.coding_test.exception.InvalidInputException;
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+import com.bt.coding_test.service.PackageDependencyPathFinder;
+
+/**
+ * Controller explaining why a package depends on another package by printing the shortest chains of dependencies.
+ */
+public class PackageDependencyPathProcessingController extends PackageDependenciesController {
+
+    static final String OUT_PATH_SEPARATOR  = " -> ";
+    static final String OUT_NO_PATH         = "%s does not depend on %s";
+    
+    private static final String ERR_INVALID_NR_CMD_LINE_ARGS    = "Usage: java com.bt.coding_test.PackageDependenciesProcessor --why <package-dependencies-data-file-path> <source-package> <target-package> [<number-of-paths>].";
+    private static final String ERR_INVALID_NR_OF_PATHS         = "The number of paths must be a positive integer. Please change.";
+    
+    
+    /**
+     * Print the shortest chains of dependencies from the source package to the target package.
+     * 
+     * @param args The command line arguments.
+     * @throws IOException if command line arguments or data file are invalid.
+     */
+    @Override
+    public void run(String args[]) throws IOException {
+        validateCommandLineArguments(args);
+        
+        PackageDependenciesDirectedGraph graph      = readPackageDependencyGraph(args[0]);
+        PackageDependencyPathFinder      pathFinder = new PackageDependencyPathFinder(graph);
+        
+        List<List<Package>> paths = pathFinder.findShortestPaths(
+            new Package(args[1]), 
+            new Package(args[2]), 
+            (args.length == 4) ? Integer.parseInt(args[3]) : 1
+        );
+        
+        if (paths.isEmpty()) {
+            System.out.println(String.format(OUT_NO_PATH, args[1], args[2]));
+        }
+        
+        for (List<Package> path : paths) {
+            outputPath(path);
+        }
+    }
+    
+    /**
+     * Check if the provided command line arguments are valid.
+     * 
+     * @param args The command line arguments.
+     * @throws InvalidInputException if the command line arguments are invalid.
+     */
+    private void validateCommandLineArguments(String[] args) throws InvalidInputException {
+        if ((args.length < 3) || (args.length > 4)) {
+            throw new InvalidInputException(ERR_INVALID_NR_CMD_LINE_ARGS);
+        }
+        
+        validateCommandLinePackageName(args[1]);
+        validateCommandLinePackageName(args[2]);
+        
+        if (args.length == 4) {
+            validateNrOfPaths(args[3]);
+        }
+    }
+    
+    /**
+     * Check if the number of paths is a positive integer.
+     * 
+     * @param nrOfPaths The number of paths provided as a command line argument.
+     * @throws InvalidInputException if the number of paths is not a positive integer.
+     */
+    private void validateNrOfPaths(String nrOfPaths) throws InvalidInputException {
+        try {
+            if (Integer.parseInt(nrOfPaths) < 1) {
+                throw new InvalidInputException(ERR_INVALID_NR_OF_PATHS);
+            }
+        } catch (NumberFormatException exception) {
+            throw new InvalidInputException(ERR_INVALID_NR_OF_PATHS);
+        }
+    }
+    
+    /**
+     * Output the given chain of dependencies.
+     * 
+     * @param path The packages on the chain of dependencies.
+     */
+    private void outputPath(List<Package> path) {
+        StringBuilder output = new StringBuilder(path.get(0).getName());
+        
+        for (int i = 1; i < path.size(); ++i) {
+            output.append(OUT_PATH_SEPARATOR).append(path.get(i).getName());
+        }
+        
+        System.out.println(output);
+    }
+    
+}
@@ -0,0 +1,76 @@
+package com.bt.coding_test.controller;
+
+import java.io.IOException;
+
+import com.bt.coding_test.exception.InvalidInputException;
+import com.bt.coding_test.model.CyclePolicy;
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.service.ShardedPackageDependenciesCoordinator;
+
+/**
+ * Controller finding package dependencies using a graph partitioned across multiple local worker processes.
+ * 
+ * Assumption: Cycles cannot be detected while reading the data file, since each worker process only reads 
+ *             the dependencies of its own shard. Therefore cycle policies other than "allow" are rejected.
+ */
+public class ShardedPackageDependenciesProcessingController extends PackageDependenciesController {
+
+    private static final String ERR_INVALID_NR_CMD_LINE_ARGS    = "Usage: java com.bt.coding_test.PackageDependenciesProcessor --sharded <number-of-shards> <package-dependencies-data-file-path> <package-1> [<package-2> ... <package-n>].";
+    private static final String ERR_INVALID_NR_OF_SHARDS        = "The number of shards must be a positive integer. Please change.";
+    private static final String ERR_UNSUPPORTED_CYCLE_POLICY    = "The cycle policy is not supported by the sharded mode, since cycles may span multiple shards. Please change.";
+    
+    
+    /**
+     * Process the package dependencies considering the given command line arguments.
+     * 
+     * @param args The command line arguments.
+     * @throws IOException if command line arguments or data file are invalid, or the shards cannot be queried.
+     */
+    @Override
+    public void run(String args[]) throws IOException {
+        validateCommandLineArguments(args);
+        
+        try (ShardedPackageDependenciesCoordinator coordinator = 
+                 new ShardedPackageDependenciesCoordinator(args[1], Integer.parseInt(args[0]))) {
+            for (int i = 2; i < args.length; ++i) {
+                outputPackageDependencies(args[i], coordinator.find(new Package(args[i])));
+            }
+        }
+    }
+    
+    /**
+     * Check if the provided command line arguments are valid.
+     * 
+     * @param args The command line arguments.
+     * @throws InvalidInputException if the command line arguments are invalid.
+     */
+    private void validateCommandLineArguments(String[] args) throws InvalidInputException {
+        if (args.length < 3) {
+            throw new InvalidInputException(ERR_INVALID_NR_CMD_LINE_ARGS);
+        }
+        
+        if (getCyclePolicy() != CyclePolicy.ALLOW) {
+            throw new InvalidInputException(ERR_UNSUPPORTED_CYCLE_POLICY);
+        }
+        
+        validateNrOfShards(args[0]);
+        validateCommandLinePackageNames(args, 2);
+    }
+    
+    /**
+     * Check if the number of shards is a positive integer.
+     * 
+     * @param nrOfShards The number of shards provided as a command line argument.
+     * @throws InvalidInputException if the number of shards is not a positive integer.
+     */
+    private void validateNrOfShards(String nrOfShards) throws InvalidInputException {
+        try {
+            if (Integer.parseInt(nrOfShards) < 1) {
+                throw new InvalidInputException(ERR_INVALID_NR_OF_SHARDS);
+            }
+        } catch (NumberFormatException exception) {
+            throw new InvalidInputException(ERR_INVALID_NR_OF_SHARDS);
+        }
+    }
+    
+}
@@ -0,0 +1,166 @@
+package com.bt.coding_test.data;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Class used to read a data file in large chunks, each ending with a complete line, and to split the chunks
+ * into lines. The chunks may be processed concurrently, since the incomplete line at the end of the data read
+ * is moved to the next chunk.
+ * 
+ * Assumption: Lines are terminated by "\n", "\r\n" or "\r", as for java.io.BufferedReader.
+ */
+class PackageDependenciesDataFileChunkReader {
+
+    private static final int    MAX_CHUNK_SIZE      = Integer.MAX_VALUE - 8;    // The maximum size of an array
+    private static final String ERR_LINE_TOO_LONG   = "The data file contains a line which is too long to be read";
+    
+    /**
+     * Consumer of the chunks of a data file.
+     */
+    interface ChunkConsumer {
+    
+        /**
+         * Consume the given chunk. The chunk is not modified after it is passed to the consumer.
+         * 
+         * @param data                  The data of the chunk.
+         * @param length                The number of bytes of the chunk.
+         * @param isAfterCarriageReturn True if the previous chunk ends with "\r".
+         * @throws IOException if the chunk cannot be consumed.
+         * @throws InterruptedException if the thread was interrupted.
+         */
+        void accept(byte[] data, int length, boolean isAfterCarriageReturn) throws IOException, InterruptedException;
+        
+    }
+    
+    /**
+     * Consumer of the lines of a chunk.
+     */
+    interface LineConsumer {
+    
+        /**
+         * Consume the line found at positions [begin, end) of the given data.
+         * 
+         * @param data  The data.
+         * @param begin The position of the first character of the line.
+         * @param end   The position of the line terminator.
+         * @throws IOException if the line cannot be consumed.
+         * @throws InterruptedException if the thread was interrupted.
+         */
+        void accept(byte[] data, int begin, int end) throws IOException, InterruptedException;
+        
+    }
+    
+    private PackageDependenciesDataFileChunkReader() {
+        // DO nothing
+    }
+    
+    /**
+     * Read the given input stream in chunks ending with complete lines, and pass them to the given consumer.
+     * A new array is allocated for each chunk.
+     * 
+     * @param inputStream   The input stream of the data file.
+     * @param chunkSize     The initial size of the chunks.
+     * @param consumer      The consumer of the chunks.
+     * @throws IOException if the data file cannot be read, a line is too long or a chunk cannot be consumed.
+     * @throws InterruptedException if the thread was interrupted.
+     */
+    static void readChunks(InputStream inputStream, int chunkSize, ChunkConsumer consumer)
+                           throws IOException, InterruptedException {
+        byte[]  data                    = new byte[chunkSize];
+        int     length                  = 0;
+        boolean isAfterCarriageReturn   = false;
+        int     nrOfBytesRead;
+        
+        while ((nrOfBytesRead = inputStream.read(data, length, data.length - length)) >= 0) {
+            length += nrOfBytesRead;
+            
+            if (length < data.length) {
+                continue;
+            }
+            
+            int lineEnd = findLastLineEnd(data, length);
+            
+            if (lineEnd == 0) {
+                // The line is longer than the chunk
+                if (data.length == MAX_CHUNK_SIZE) {
+                    throw new IOException(ERR_LINE_TOO_LONG);
+                }
+                
+                data = Arrays.copyOf(data, (int) Math.min(2L * data.length, MAX_CHUNK_SIZE));
+                
+                continue;
+            }
+            
+            byte[] nextData = new byte[Math.max(chunkSize, (int) Math.min(2L * (length - lineEnd), MAX_CHUNK_SIZE))];
+            
+            System.arraycopy(data, lineEnd, nextData, 0, length - lineEnd);
+            
+            consumer.accept(data, lineEnd, isAfterCarriageReturn);
+            
+            isAfterCarriageReturn   = (data[lineEnd - 1] == '\r');
+            length                  = length - lineEnd;
+            data                    = nextData;
+        }
+        
+        if (length > 0) {
+            consumer.accept(data, length, isAfterCarriageReturn);
+        }
+    }
+    
+    /**
+     * Split the given chunk into lines, including empty lines, and pass them to the given consumer in order.
+     * 
+     * @param data                  The data of the chunk.
+     * @param length                The number of bytes of the chunk.
+     * @param isAfterCarriageReturn True if the previous chunk ends with "\r".
+     * @param consumer              The consumer of the lines.
+     * @throws IOException if a line cannot be consumed.
+     * @throws InterruptedException if the thread was interrupted.
+     */
+    static void splitLines(byte[] data, int length, boolean isAfterCarriageReturn, LineConsumer consumer)
+                           throws IOException, InterruptedException {
+        int lineBegin = 0;
+        
+        // Skip the "\n" of a "\r\n" line terminator split across chunks
+        if (isAfterCarriageReturn && (length > 0) && (data[0] == '\n')) {
+            lineBegin = 1;
+        }
+        
+        for (int i = lineBegin; i < length; ++i) {
+            if ((data[i] == '\n') || (data[i] == '\r')) {
+                consumer.accept(data, lineBegin, i);
+                
+                if ((data[i] == '\r') && (i + 1 < length) && (data[i + 1] == '\n')) {
+                    ++i;
+                }
+                
+                lineBegin = i + 1;
+            }
+        }
+        
+        // Only the last line of the data file may not be terminated
+        if (lineBegin < length) {
+            consumer.accept(data, lineBegin, length);
+        }
+    }
+    
+    /**
+     * Find the position following the last line terminator in the given data.
+     * 
+     * @param data      The data.
+     * @param length    The number of bytes of data.
+     * @return The position following the last line terminator, or 0 if the data does not contain a line terminator.
+     */
+    static int findLastLineEnd(byte[] data, int length) {
+        for (int i = length - 1; i >= 0; --i) {
+            if ((data[i] == '\n') || (data[i] == '\r')) {
+                return (i + 1);
+            }
+        }
+        
+        return 0;
+    }
+    
+}
@@ -0,0 +1,309 @@
+package com.bt.coding_test.data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.bt.coding_test.exception.InvalidInputException;
+import com.bt.coding_test.validation.PackageDependenciesDataFileValidator;
+
+/**
+ * Class used to split the lines of a package dependencies data file into tokens and validate them.
+ * This class implements the Singleton design pattern.
+ */
+class PackageDependenciesDataFileLineParser {
+
+    private static final String ERR_INVALID_NR_TOKENS           = "The number of tokens is less than two";
+    private static final String ERR_INVALID_SEPARATOR_TOKEN     = "The separator token (i.e. second token) is not equal to \"->\" as expected";
+    private static final String ERR_INVALID_PACKAGE_NAME_BEGIN1 = "The package name \"";
+    private static final String ERR_INVALID_PACKAGE_NAME_BEGIN2 = "\" is invalid because it is not defined by the regular expression \"[a-zA-Z0-9_]+\"";
+    private static final String ERR_PACKAGE_SELF_DEPENDENCY     = "A package self-dependency, which is not allowed, was given";
+    private static final String ERR_INVALID_WEIGHT_BEGIN1       = "The package weight \"";
+    private static final String ERR_INVALID_WEIGHT_BEGIN2       = "\" is invalid because it is not defined by the regular expression \"[0-9]{1,18}\"";
+    
+    static final char WEIGHT_SEPARATOR = ':';   // The character separating the source package name and its weight
+    
+    private static final String ERR_MSG_MIDDLE1 = " on line \"";
+    private static final String ERR_MSG_MIDDLE2 = "\" (Line number: ";
+    private static final String ERR_MSG_END     = ") of the data file. Please change.";
+    
+    private static PackageDependenciesDataFileLineParser instance = null;
+    
+    
+    /**
+     * Method used to return an instance of the class. 
+     * 
+     * @return The single instance of the class.
+     */
+    static PackageDependenciesDataFileLineParser getInstance() {
+        if (instance == null) {
+            instance = new PackageDependenciesDataFileLineParser();
+        }
+        
+        return instance;
+    }
+    
+    /**
+     * Split the line into tokens and check if the tokens are valid.
+     * 
+     * Assumption: A line is invalid if it does not contain one package followed by the separator token "->".
+     * Assumption: A line is invalid if it contains a package self-dependency.
+     * Assumption: A data file entry is valid if it is defined by the regular expression: 
+     *             "[ \t]*<package>(:<weight>)?[ \t]+->([ \t]+<package>)+[ \t]*", 
+     *             where <package> and <weight> are equal to the regular expressions defined to validate package 
+     *             names and weights in the com.bt.coding_test.validation.PackageDependenciesDataFileValidator class. 
+     * Assumption: It is not an error if the same package name appears more than once to the right of the separator 
+     *             token "->". 
+     *  
+     * @param line          The given line.
+     * @param lineNumber    The given line number.
+     * @return The tokens computed from the given line.
+     * @throws InvalidInputException if the line is invalid.
+     */
+    List<String> splitLineAndValidateTokens(String line, long lineNumber) throws InvalidInputException {
+        List<String> tokens = splitLineIntoTokens(line);
+        
+        // Check if the tokens are valid
+        validateNrOfTokens(tokens, line, lineNumber);
+        validateSeparatorToken(tokens, line, lineNumber);
+        validatePackageTokens(tokens, line, lineNumber);
+        
+        return tokens;
+    }
+    
+    /**
+     * Get the message describing why the given line is invalid.
+     * 
+     * @param line          The given line.
+     * @param lineNumber    The given line number.
+     * @return The message describing why the line is invalid, or null if the line is valid.
+     */
+    String getErrorMessage(String line, long lineNumber) {
+        try {
+            splitLineAndValidateTokens(line, lineNumber);
+            
+            return null;
+        } catch (InvalidInputException exception) {
+            return exception.getMessage();
+        }
+    }
+    
+    /**
+     * Check if the number of tokens is at least two. 
+     * 
+     * @param tokens        The given tokens.
+     * @param line          The line for which the tokens were computed.
+     * @param lineNumber    The line number.
+     * @throws InvalidInputException if the number of tokens is below two. 
+     */
+    private void validateNrOfTokens(List<String> tokens, String line, long lineNumber) throws InvalidInputException {
+        if (tokens.size() < 2) {
+            throwInvalidInputException(ERR_INVALID_NR_TOKENS, line, lineNumber);
+        }
+    }
+    
+    /**
+     * Check if the token separating the left and right hand side packages is valid.
+     * 
+     * @param tokens        The given tokens.
+     * @param line          The line for which the tokens were computed.
+     * @param lineNumber    The line number.
+     * @throws InvalidInputException if the separator token is not "->".
+     */
+    private void validateSeparatorToken(List<String> tokens, String line, long lineNumber) 
+                                        throws InvalidInputException {
+        if (!PackageDependenciesDataFileValidator.getInstance().isValidSeparator(tokens.get(1))) {
+            throwInvalidInputException(ERR_INVALID_SEPARATOR_TOKEN, line, lineNumber);
+        }
+    }
+    
+    /**
+     * Check if the package tokens have valid names and that the left hand side package does not occur 
+     * on the right hand side.
+     * 
+     * @param tokens        The given tokens.
+     * @param line          The line for which the tokens were computed.
+     * @param lineNumber    The line number.
+     * @throws InvalidInputException 
+     */
+    private void validatePackageTokens(List<String> tokens, String line, long lineNumber) throws InvalidInputException {
+        // Validate package to the left of the separator token called the source package, and its optional weight
+        String srcPackageName = getSourcePackageName(tokens.get(0));
+        
+        validatePackageName(srcPackageName, line, lineNumber);
+        
+        if (srcPackageName.length() < tokens.get(0).length()) {
+            validatePackageWeight(tokens.get(0).substring(srcPackageName.length() + 1), line, lineNumber);
+        }
+        
+        // Validate the packages to the right of the separator token called the dependency packages
+        for (int i = 2; i < tokens.size(); ++i) {
+            String dependencyPackageName = tokens.get(i);
+            
+            validatePackageName(dependencyPackageName, line, lineNumber);
+            
+            // Check if the source and dependency package names are identical
+            if (srcPackageName.equals(dependencyPackageName)) {
+                throwInvalidInputException(ERR_PACKAGE_SELF_DEPENDENCY, line, lineNumber);
+            }
+        }
+    }
+    
+    /**
+     * Check if the given package name is valid.
+     * 
+     * @param packageName The name of the package.
+     * @param line        The line containing the package name.
+     * @param lineNumber  The corresponding line number.
+     * @throws InvalidInputException 
+     */
+    private void validatePackageName(String packageName, String line, long lineNumber) throws InvalidInputException {
+        if (!PackageDependenciesDataFileValidator.getInstance().isValidPackageName(packageName)) {
+            throwInvalidInputException(
+                ERR_INVALID_PACKAGE_NAME_BEGIN1 + packageName + ERR_INVALID_PACKAGE_NAME_BEGIN2, 
+                line, 
+                lineNumber
+            );
+        }
+    }
+    
+    /**
+     * Check if the given package weight is valid.
+     * 
+     * @param weight        The package weight.
+     * @param line          The line containing the package weight.
+     * @param lineNumber    The corresponding line number.
+     * @throws InvalidInputException 
+     */
+    private void validatePackageWeight(String weight, String line, long lineNumber) throws InvalidInputException {
+        if (!PackageDependenciesDataFileValidator.getInstance().isValidPackageWeight(weight)) {
+            throwInvalidInputException(
+                ERR_INVALID_WEIGHT_BEGIN1 + weight + ERR_INVALID_WEIGHT_BEGIN2, 
+                line, 
+                lineNumber
+            );
+        }
+    }
+    
+    /**
+     * Get the source package name of the given first token of a line, which may be followed by a weight.
+     * 
+     * @param token The first token of a line.
+     * @return The source package name.
+     */
+    static String getSourcePackageName(String token) {
+        int separatorIndex = token.indexOf(WEIGHT_SEPARATOR);
+        
+        return (separatorIndex < 0) ? token : token.substring(0, separatorIndex);
+    }
+    
+    /**
+     * Get the weight of the source package given by the valid first token of a line.
+     * 
+     * @param token The first token of a line.
+     * @return The weight of the source package, or -1 if the token does not contain a weight.
+     */
+    static long getSourcePackageWeight(String token) {
+        int separatorIndex = token.indexOf(WEIGHT_SEPARATOR);
+        
+        return (separatorIndex < 0) ? -1 : Long.parseLong(token.substring(separatorIndex + 1));
+    }
+    
+    /**
+     * Throw an invalid input exception with the given message, line and line number.
+     * 
+     * @param message       The message of the exception.
+     * @param line          The line for which the exception is thrown.
+     * @param lineNumber    The line number.
+     * @throws InvalidInputException 
+     */
+    void throwInvalidInputException(String message, String line, long lineNumber) throws InvalidInputException {
+        throw new InvalidInputException(
+            createMessage(message, line, lineNumber)
+        );
+    }
+    
+    /**
+     * Create a message referring to the given line and line number.
+     * 
+     * @param message       The message.
+     * @param line          The line to which the message refers.
+     * @param lineNumber    The line number.
+     * @return The message including the line and line number.
+     */
+    String createMessage(String message, String line, long lineNumber) {
+        return (
+            message +
+            ERR_MSG_MIDDLE1 +
+            line +
+            ERR_MSG_MIDDLE2 +
+            lineNumber +
+            ERR_MSG_END
+        );
+    }
+    
+    /**
+     * Split the given line into tokens.
+     * 
+     * Assumption: Tokens are separated by white-space characters " " and "\t".
+     * 
+     * @param line The given line.
+     * @return The tokens computed from the given line.
+     */
+    List<String> splitLineIntoTokens(String line) {
+        List<String> tokens = new ArrayList<String>();
+        
+        // Compute tokens from the given line
+        int stopIndex = 0;
+        
+        for (int i = 0; i < line.length(); ++i) {
+            if (!isWhiteSpaceCharacter(line.charAt(i))) {
+                stopIndex = computeTokenStopIndex(line, i);
+                
+                tokens.add(
+                    line.substring(i, stopIndex + 1)
+                );
+                
+                i = stopIndex;
+            }
+        }
+        
+        return tokens;
+    }
+    
+    /**
+     * Compute the stop index for the token starting at idx in the given line.
+     *  
+     * @param line The given line.
+     * @param idx  The index at which the token starts.
+     * @return The token stop index.
+     */
+    private int computeTokenStopIndex(String line, int idx) {
+        int stopIndex = idx + 1;
+        
+        while ((stopIndex < line.length()) && (!isWhiteSpaceCharacter(line.charAt(stopIndex)))) {
+            ++stopIndex;
+        }
+        
+        return (stopIndex - 1);
+    }
+    
+    /**
+     * Check if the given character is a white space character (i.e. " " or "\t").
+     * 
+     * Assumption: The characters which are considered white space characters are " " and "\t".
+     * 
+     * @param character The given character.
+     * @return True if the given character is a white space character, and false otherwise.
+     */
+    private boolean isWhiteSpaceCharacter(char character) {
+        return (
+            (character == ' ') ||
+            (character == '\t')
+        );
+    }
+    
+    private PackageDependenciesDataFileLineParser() {
+        // DO nothing
+    }
+    
+}
@@ -0,0 +1,97 @@
+package com.bt.coding_test.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Report of the invalid lines found in a data file. The messages of at most a maximum number of invalid lines 
+ * are recorded, in line order, while all invalid lines are counted.
+ */
+public class PackageDependenciesDataFileLintReport {
+
+    private int             maxNrOfErrors;  // The maximum number of error messages recorded
+    private long            nrOfLines;      // The number of lines checked
+    private long            nrOfErrors;     // The number of invalid lines
+    private List<String>    errors;         // The error messages of the first invalid lines
+    
+    
+    PackageDependenciesDataFileLintReport(int maxNrOfErrors) {
+        this.maxNrOfErrors  = maxNrOfErrors;
+        this.errors         = new ArrayList<String>();
+    }
+    
+    /**
+     * Get the number of lines checked, including empty lines.
+     * 
+     * @return The number of lines.
+     */
+    public long getNrOfLines() {
+        return nrOfLines;
+    }
+    
+    /**
+     * Get the number of invalid lines.
+     * 
+     * @return The number of invalid lines.
+     */
+    public long getNrOfErrors() {
+        return nrOfErrors;
+    }
+    
+    /**
+     * Get the error messages of the first invalid lines, in line order.
+     * 
+     * @return The unmodifiable list of error messages.
+     */
+    public List<String> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+    
+    /**
+     * Get the maximum number of error messages recorded.
+     * 
+     * @return The maximum number of error messages.
+     */
+    public int getMaxNrOfErrors() {
+        return maxNrOfErrors;
+    }
+    
+    /**
+     * Check if some invalid lines are counted without recording their error messages.
+     * 
+     * @return True if the error messages are truncated, and false otherwise.
+     */
+    public boolean isTruncated() {
+        return (nrOfErrors > errors.size());
+    }
+    
+    /**
+     * Check if the data file is valid.
+     * 
+     * @return True if no invalid lines were found, and false otherwise.
+     */
+    public boolean isValid() {
+        return (nrOfErrors == 0);
+    }
+    
+    void addLines(long nrOfLines) {
+        this.nrOfLines += nrOfLines;
+    }
+    
+    void addErrors(long nrOfErrors) {
+        this.nrOfErrors += nrOfErrors;
+    }
+    
+    /**
+     * Record the given error message, unless the maximum number of error messages is reached.
+     * 
+     * @param error The error message.
+     */
+    void addErrorMessage(String error) {
+        if (errors.size() < maxNrOfErrors) {
+            errors.add(error);
+        }
+    }
+    
+}
@@ -0,0 +1,407 @@
+package com.bt.coding_test.data;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.bt.coding_test.exception.InvalidInputException;
+
+/**
+ * Class used to check all lines of a data file without constructing the directed graph, reporting every 
+ * invalid line. This class implements the Singleton design pattern.
+ * 
+ * The data file is read in chunks ending with complete lines, which are checked in parallel. Valid lines are 
+ * recognised by scanning their bytes, and only the other lines are decoded and checked by the line parser, 
+ * which describes the error using the same messages as PackageDependenciesDataFileReader. Unlike the reader, dependency 
+ * cycles are not detected since no graph is constructed.
+ * 
+ * The weights of the source packages are compared across lines while the chunks are merged in order, such that 
+ * a weight conflicting with the weight given on a previous line is reported as by the reader.
+ */
+public class PackageDependenciesDataFileLinter {
+
+    public static final int DEFAULT_MAX_NR_OF_ERRORS = 100;
+    
+    private static final int CHUNK_SIZE                 = 1 << 23;  // The initial size of the chunks checked in parallel
+    private static final int MAX_NR_OF_WEIGHT_DIGITS    = 18;       // The maximum number of digits of a package weight
+    
+    private static PackageDependenciesDataFileLinter instance = null;
+    
+    private PackageDependenciesDataFileReader       reader      = PackageDependenciesDataFileReader.getInstance();
+    private PackageDependenciesDataFileLineParser   lineParser  = PackageDependenciesDataFileLineParser.getInstance();
+    
+    
+    /**
+     * Method used to return an instance of the class. 
+     * 
+     * @return The single instance of the class.
+     */
+    public static PackageDependenciesDataFileLinter getInstance() {
+        if (instance == null) {
+            instance = new PackageDependenciesDataFileLinter();
+        }
+        
+        return instance;
+    }
+    
+    /**
+     * Check all lines of the given data file.
+     * 
+     * @param filePath      The path to the data file, which may be a gzip file.
+     * @param maxNrOfErrors The maximum number of error messages recorded in the report.
+     * @return The report of the invalid lines.
+     * @throws InvalidInputException if the file path is not valid or the file cannot be read.
+     */
+    public PackageDependenciesDataFileLintReport lint(String filePath, int maxNrOfErrors) 
+                                                      throws InvalidInputException {
+        try {
+            return lintFile(filePath, maxNrOfErrors);
+        } catch (IOException exception) {
+            throw reader.toInvalidInputException(exception, filePath);
+        }
+    }
+    
+    private PackageDependenciesDataFileLinter() {
+        // DO nothing
+    }
+    
+    /**
+     * Read the data file in chunks and check the chunks in parallel, merging their results in order.
+     * 
+     * @param filePath      The path to the data file.
+     * @param maxNrOfErrors The maximum number of error messages recorded in the report.
+     * @return The report of the invalid lines.
+     * @throws IOException if the file cannot be read.
+     */
+    private PackageDependenciesDataFileLintReport lintFile(String filePath, int maxNrOfErrors) throws IOException {
+        PackageDependenciesDataFileLintReport report = new PackageDependenciesDataFileLintReport(maxNrOfErrors);
+        
+        int                     nrOfThreads     = Runtime.getRuntime().availableProcessors();
+        ExecutorService         executor        = Executors.newFixedThreadPool(nrOfThreads);
+        Deque<Future<Chunk>>    chunks          = new ArrayDeque<Future<Chunk>>();
+        Map<String, Long>       packageWeights  = new HashMap<String, Long>();
+        
+        try (InputStream inputStream = reader.openFile(filePath)) {
+            PackageDependenciesDataFileChunkReader.readChunks(inputStream, CHUNK_SIZE, 
+                (data, length, isAfterCarriageReturn) -> {
+                    chunks.addLast(submitChunk(executor, data, length, isAfterCarriageReturn, maxNrOfErrors));
+                    
+                    // Bound the number of chunks held in memory
+                    while (chunks.size() >= 2 * nrOfThreads) {
+                        mergeChunk(chunks.pollFirst(), report, packageWeights);
+                    }
+                });
+                
+            while (!chunks.isEmpty()) {
+                mergeChunk(chunks.pollFirst(), report, packageWeights);
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            
+            throw new IOException(exception);
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        return report;
+    }
+    
+    private Future<Chunk> submitChunk(ExecutorService executor, byte[] data, int length, 
+                                      boolean isAfterCarriageReturn, int maxNrOfErrors) {
+        return executor.submit(() -> checkChunk(data, length, isAfterCarriageReturn, maxNrOfErrors));
+    }
+    
+    /**
+     * Add the result of the given chunk to the report, describing the errors of its invalid lines and of its lines 
+     * whose weight conflicts with the weight given on a previous line, in the order of the lines.
+     * 
+     * @param chunk             The chunk.
+     * @param report            The report.
+     * @param packageWeights    The first weight given for each package on the lines merged so far.
+     * @throws IOException if the thread was interrupted.
+     */
+    private void mergeChunk(Future<Chunk> chunk, PackageDependenciesDataFileLintReport report, 
+                            Map<String, Long> packageWeights) throws IOException {
+        try {
+            Chunk   result                  = chunk.get();
+            int     nrOfInvalidLines        = result.invalidLines.size();
+            int     nrOfWeightedLines       = result.weightedLines.size();
+            
+            for (int i = 0, j = 0; (i < nrOfInvalidLines) || (j < nrOfWeightedLines); ) {
+                // Line numbers of the chunk are relative to the lines of the previous chunks
+                if ((j == nrOfWeightedLines) || 
+                    ((i < nrOfInvalidLines) && (result.invalidLineNumbers.get(i) < result.weightedLineNumbers.get(j)))) {
+                    long    lineNumber      = report.getNrOfLines() + result.invalidLineNumbers.get(i);
+                    String  errorMessage    = lineParser.getErrorMessage(result.invalidLines.get(i), lineNumber);
+                    
+                    // The line was confirmed to be invalid by the parser while checking the chunk
+                    if (errorMessage != null) {
+                        report.addErrorMessage(errorMessage);
+                    }
+                    
+                    ++i;
+                } else {
+                    checkWeight(result.weightedLines.get(j), report.getNrOfLines() + result.weightedLineNumbers.get(j), 
+                                report, packageWeights);
+                                
+                    ++j;
+                }
+            }
+            
+            report.addLines(result.nrOfLines);
+            report.addErrors(result.nrOfErrors);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            
+            throw new IOException(exception);
+        } catch (ExecutionException exception) {
+            throw new IOException(exception.getCause());
+        }
+    }
+    
+    /**
+     * Check if the weight given on the given valid line conflicts with the weight given for the same package on 
+     * a previous line, and report the line if it does.
+     * 
+     * @param line              The valid line, which gives the weight of its source package.
+     * @param lineNumber        The line number.
+     * @param report            The report.
+     * @param packageWeights    The first weight given for each package on the previous lines.
+     */
+    private void checkWeight(String line, long lineNumber, PackageDependenciesDataFileLintReport report, 
+                             Map<String, Long> packageWeights) {
+        String  sourceToken     = lineParser.splitLineIntoTokens(line).get(0);
+        long    weight          = PackageDependenciesDataFileLineParser.getSourcePackageWeight(sourceToken);
+        Long    previousWeight  = packageWeights.putIfAbsent(
+            PackageDependenciesDataFileLineParser.getSourcePackageName(sourceToken), 
+            weight
+        );
+        
+        if ((previousWeight != null) && (previousWeight != weight)) {
+            report.addErrors(1);
+            report.addErrorMessage(
+                lineParser.createMessage(PackageDependenciesDataFileReader.ERR_CONFLICTING_WEIGHT, line, lineNumber)
+            );
+        }
+    }
+    
+    /**
+     * Check the lines of the given chunk, split in the same way as by PackageDependenciesDataFilePipeline.
+     * 
+     * @param data                  The data of the chunk.
+     * @param length                The number of bytes of the chunk.
+     * @param isAfterCarriageReturn True if the previous chunk ends with "\r".
+     * @param maxNrOfErrors         The maximum number of invalid lines recorded.
+     * @return The result of the chunk.
+     * @throws IOException if the chunk cannot be split into lines.
+     * @throws InterruptedException if the thread was interrupted.
+     */
+    private Chunk checkChunk(byte[] data, int length, boolean isAfterCarriageReturn, int maxNrOfErrors) 
+                             throws IOException, InterruptedException {
+        Chunk chunk = new Chunk();
+        
+        PackageDependenciesDataFileChunkReader.splitLines(data, length, isAfterCarriageReturn, 
+            (lineData, begin, end) -> checkLine(lineData, begin, end, chunk, maxNrOfErrors));
+            
+        return chunk;
+    }
+    
+    /**
+     * Check the line found at positions [begin, end) of the given data. Lines rejected by the byte scan are 
+     * checked again by the parser, which decides whether they are invalid, such that the linter never reports 
+     * a line accepted by the reader. The valid lines giving a weight are recorded, such that their weights are 
+     * compared while the chunks are merged.
+     * 
+     * @param data          The data.
+     * @param begin         The position of the first character of the line.
+     * @param end           The position of the line terminator.
+     * @param chunk         The result of the chunk.
+     * @param maxNrOfErrors The maximum number of invalid lines recorded.
+     */
+    private void checkLine(byte[] data, int begin, int end, Chunk chunk, int maxNrOfErrors) {
+        ++chunk.nrOfLines;
+        
+        if (begin == end) {
+            return;
+        }
+        
+        if (isValidLine(data, begin, end)) {
+            if (hasWeight(data, begin, end)) {
+                addWeightedLine(new String(data, begin, end - begin, StandardCharsets.UTF_8), chunk);
+            }
+            
+            return;
+        }
+        
+        String line = new String(data, begin, end - begin, StandardCharsets.UTF_8);
+        
+        if (lineParser.getErrorMessage(line, chunk.nrOfLines) == null) {
+            if (line.indexOf(PackageDependenciesDataFileLineParser.WEIGHT_SEPARATOR) >= 0) {
+                addWeightedLine(line, chunk);
+            }
+            
+            return;
+        }
+        
+        ++chunk.nrOfErrors;
+        
+        if (chunk.invalidLines.size() < maxNrOfErrors) {
+            chunk.invalidLines.add(line);
+            chunk.invalidLineNumbers.add(chunk.nrOfLines);
+        }
+    }
+    
+    private static void addWeightedLine(String line, Chunk chunk) {
+        chunk.weightedLines.add(line);
+        chunk.weightedLineNumbers.add(chunk.nrOfLines);
+    }
+    
+    /**
+     * Check if the line found at positions [begin, end) of the given data is valid, without decoding it.
+     * 
+     * Assumption: The line is valid under the same conditions as in PackageDependenciesDataFileLineParser, 
+     *             i.e. it is defined by the regular expression 
+     *             "[ \t]*<package>(:<weight>)?[ \t]+->([ \t]+<package>)*[ \t]*", where <package> is defined by 
+     *             the regular expression "[a-zA-Z0-9_]+" and differs from the first package, and <weight> is defined 
+     *             by the regular expression "[0-9]{1,18}".
+     * 
+     * @param data  The data.
+     * @param begin The position of the first character of the line.
+     * @param end   The position of the line terminator.
+     * @return True if the line is valid, and false otherwise.
+     */
+    private static boolean isValidLine(byte[] data, int begin, int end) {
+        int sourceBegin = skipWhiteSpace(data, begin, end);
+        int sourceEnd   = skipPackageName(data, sourceBegin, end);
+        int tokenEnd    = sourceEnd;
+        
+        // Skip the optional weight of the source package
+        if ((sourceEnd < end) && (data[sourceEnd] == PackageDependenciesDataFileLineParser.WEIGHT_SEPARATOR)) {
+            tokenEnd = skipDigits(data, sourceEnd + 1, end);
+            
+            if ((tokenEnd == sourceEnd + 1) || (tokenEnd - sourceEnd - 1 > MAX_NR_OF_WEIGHT_DIGITS)) {
+                return false;
+            }
+        }
+        
+        if ((sourceBegin == sourceEnd) || (!isTokenEnd(data, tokenEnd, end))) {
+            return false;
+        }
+        
+        int separatorBegin = skipWhiteSpace(data, tokenEnd, end);
+        
+        if ((end - separatorBegin < 2) || (data[separatorBegin] != '-') || (data[separatorBegin + 1] != '>') || 
+            (!isTokenEnd(data, separatorBegin + 2, end))) {
+            return false;
+        }
+        
+        for (int i = skipWhiteSpace(data, separatorBegin + 2, end); i < end; i = skipWhiteSpace(data, i, end)) {
+            int dependencyBegin = i;
+            
+            i = skipPackageName(data, i, end);
+            
+            if ((i == dependencyBegin) || (!isTokenEnd(data, i, end))) {
+                return false;
+            }
+            
+            // Check if the source and dependency package names are identical
+            if ((i - dependencyBegin == sourceEnd - sourceBegin) && 
+                (isEqual(data, sourceBegin, dependencyBegin, sourceEnd - sourceBegin))) {
+                return false;
+            }
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Check if the valid line found at positions [begin, end) of the given data gives the weight of its source 
+     * package. Since package names do not contain the weight separator, it only occurs before the weight.
+     * 
+     * @param data  The data.
+     * @param begin The position of the first character of the line.
+     * @param end   The position of the line terminator.
+     * @return True if the line gives a weight, and false otherwise.
+     */
+    private static boolean hasWeight(byte[] data, int begin, int end) {
+        for (int i = begin; i < end; ++i) {
+            if (data[i] == PackageDependenciesDataFileLineParser.WEIGHT_SEPARATOR) {
+                return true;
+            }
+        }
+        
+        return false;
+    }
+    
+    private static int skipWhiteSpace(byte[] data, int position, int end) {
+        while ((position < end) && ((data[position] == ' ') || (data[position] == '\t'))) {
+            ++position;
+        }
+        
+        return position;
+    }
+    
+    private static int skipPackageName(byte[] data, int position, int end) {
+        while ((position < end) && (isPackageNameCharacter(data[position]))) {
+            ++position;
+        }
+        
+        return position;
+    }
+    
+    private static int skipDigits(byte[] data, int position, int end) {
+        while ((position < end) && (data[position] >= '0') && (data[position] <= '9')) {
+            ++position;
+        }
+        
+        return position;
+    }
+    
+    private static boolean isTokenEnd(byte[] data, int position, int end) {
+        return ((position == end) || (data[position] == ' ') || (data[position] == '\t'));
+    }
+    
+    private static boolean isPackageNameCharacter(byte character) {
+        return (
+            ((character >= 'a') && (character <= 'z')) ||
+            ((character >= 'A') && (character <= 'Z')) ||
+            ((character >= '0') && (character <= '9')) ||
+            (character == '_')
+        );
+    }
+    
+    private static boolean isEqual(byte[] data, int begin1, int begin2, int length) {
+        for (int i = 0; i < length; ++i) {
+            if (data[begin1 + i] != data[begin2 + i]) {
+                return false;
+            }
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Result of checking a chunk of the data file.
+     */
+    private static class Chunk {
+    
+        private long            nrOfLines;                                  // The number of lines of the chunk
+        private long            nrOfErrors;                                 // The number of invalid lines
+        private List<String>    invalidLines        = new ArrayList<String>();  // The first invalid lines
+        private List<Long>      invalidLineNumbers  = new ArrayList<Long>();    // Their line numbers within the chunk
+        private List<String>    weightedLines       = new ArrayList<String>();  // The valid lines giving a weight
+        private List<Long>      weightedLineNumbers = new ArrayList<Long>();    // Their line numbers within the chunk
+        
+    }
+    
+}
@@ -0,0 +1,291 @@
+package com.bt.coding_test.data;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import com.bt.coding_test.exception.InvalidInputException;
+
+/**
+ * Pipeline loading the lines of a package dependencies data file in three stages:
+ * 
+ * 1. The I/O stage reads the data file into large buffers, each ending with a complete line.
+ * 2. The parse stage splits the buffers into lines, and tokenizes and validates each line.
+ * 3. The insertion stage (i.e. the calling thread) consumes batches of parsed lines.
+ * 
+ * The stages are connected by bounded queues, such that a stage blocks when the next stage falls behind. 
+ * The I/O stage therefore reads ahead by at most a few buffers, while the parse and insertion stages work 
+ * on the previous buffers.
+ * 
+ * Any exception or error thrown by the I/O or parse stage (e.g. an OutOfMemoryError while reading a huge line) 
+ * is passed down the queues and rethrown by the insertion stage, such that the calling thread never waits for 
+ * a stage which stopped.
+ */
+class PackageDependenciesDataFilePipeline {
+
+    private static final int BUFFER_SIZE        = 1 << 20;  // The initial size of the buffers read by the I/O stage
+    private static final int NR_OF_BUFFERS      = 4;        // The capacity of the queue between the I/O and parse stages
+    private static final int BATCH_SIZE         = 1024;     // The number of lines of a batch of parsed lines
+    private static final int NR_OF_BATCHES      = 16;       // The capacity of the queue between the parse and insertion stages
+    
+    private static final Buffer LAST_BUFFER = new Buffer(null, 0, false, null);
+    
+    /**
+     * Consumer of the parsed lines of a data file.
+     */
+    interface ParsedLineConsumer {
+    
+        /**
+         * Consume the tokens of the given line.
+         * 
+         * @param line          The line.
+         * @param lineNumber    The line number.
+         * @param tokens        The valid tokens of the line.
+         * @throws InvalidInputException if the line cannot be consumed.
+         */
+        void accept(String line, long lineNumber, List<String> tokens) throws InvalidInputException;
+        
+    }
+    
+    private PackageDependenciesDataFileLineParser lineParser = PackageDependenciesDataFileLineParser.getInstance();
+    
+    private BlockingQueue<Buffer>   buffers         = new ArrayBlockingQueue<Buffer>(NR_OF_BUFFERS);    // The buffers read
+    private BlockingQueue<Batch>    batches         = new ArrayBlockingQueue<Batch>(NR_OF_BATCHES);     // The batches parsed
+    private long                    nextLineNumber  = 1;                                                // The number of the next line parsed
+    private Batch                   batch;                                                              // The batch filled by the parse stage
+    
+    
+    /**
+     * Load the lines from the given input stream and pass the non-empty lines to the given consumer, in order. 
+     * The consumer is called on the calling thread.
+     * 
+     * Assumption: Lines are terminated by "\n", "\r\n" or "\r", as for java.io.BufferedReader.
+     * Assumption: The data file is encoded in UTF-8.
+     * 
+     * @param inputStream   The input stream of the data file.
+     * @param consumer      The consumer of the parsed lines.
+     * @throws IOException if the data file cannot be read, contains an invalid line or a line cannot be consumed.
+     */
+    static void load(InputStream inputStream, ParsedLineConsumer consumer) throws IOException {
+        new PackageDependenciesDataFilePipeline().run(inputStream, consumer);
+    }
+    
+    private PackageDependenciesDataFilePipeline() {
+        // DO nothing
+    }
+    
+    /**
+     * Start the I/O and parse stages, and run the insertion stage.
+     * 
+     * @param inputStream   The input stream of the data file.
+     * @param consumer      The consumer of the parsed lines.
+     * @throws IOException if the data file cannot be read, contains an invalid line or a line cannot be consumed.
+     */
+    private void run(InputStream inputStream, ParsedLineConsumer consumer) throws IOException {
+        Thread ioStage      = new Thread(() -> readBuffers(inputStream), "data-file-io");
+        Thread parseStage   = new Thread(this::parseBuffers, "data-file-parse");
+        
+        ioStage.setDaemon(true);
+        parseStage.setDaemon(true);
+        ioStage.start();
+        parseStage.start();
+        
+        try {
+            Batch batch;
+            
+            do {
+                batch = batches.take();
+                
+                for (int i = 0; i < batch.nrOfLines; ++i) {
+                    consumer.accept(batch.lines[i], batch.lineNumbers[i], batch.tokens.get(i));
+                }
+                
+                if (batch.exception != null) {
+                    rethrow(batch.exception);
+                }
+            } while (!batch.isLast);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            
+            throw new IOException(exception);
+        } finally {
+            // Stop the other stages if the insertion stage failed
+            ioStage.interrupt();
+            parseStage.interrupt();
+            
+            joinUninterruptibly(ioStage);
+            joinUninterruptibly(parseStage);
+        }
+    }
+    
+    /**
+     * Run the I/O stage, filling buffers with the contents of the data file. Each buffer ends with a complete line, 
+     * and the incomplete line at the end of the data read is moved to the next buffer.
+     * 
+     * @param inputStream The input stream of the data file.
+     */
+    private void readBuffers(InputStream inputStream) {
+        try {
+            PackageDependenciesDataFileChunkReader.readChunks(inputStream, BUFFER_SIZE, 
+                (data, length, isAfterCarriageReturn) -> buffers.put(new Buffer(data, length, isAfterCarriageReturn, null)));
+                
+            buffers.put(LAST_BUFFER);
+        } catch (InterruptedException exception) {
+            // The pipeline was stopped
+        } catch (Throwable exception) {
+            try {
+                buffers.put(new Buffer(null, 0, false, exception));
+            } catch (InterruptedException interruptedException) {
+                // The pipeline was stopped
+            }
+        }
+    }
+    
+    /**
+     * Run the parse stage, splitting the buffers into lines and parsing the lines into batches.
+     */
+    private void parseBuffers() {
+        batch = new Batch();
+        
+        try {
+            for (Buffer buffer = buffers.take(); buffer != LAST_BUFFER; buffer = buffers.take()) {
+                if (buffer.exception != null) {
+                    batch.exception = buffer.exception;
+                    
+                    break;
+                }
+                
+                PackageDependenciesDataFileChunkReader.splitLines(buffer.data, buffer.length, 
+                                                                  buffer.isAfterCarriageReturn, this::parseLine);
+            }
+        } catch (InterruptedException exception) {
+            // The pipeline was stopped
+            return;
+        } catch (Throwable exception) {
+            batch.exception = exception;
+        }
+        
+        batch.isLast = true;
+        
+        try {
+            batches.put(batch);
+        } catch (InterruptedException exception) {
+            // The pipeline was stopped
+        }
+    }
+    
+    /**
+     * Parse the line found at positions [begin, end) of the given data and add it to the current batch, unless 
+     * the line is empty. The batch is passed to the insertion stage when full.
+     * 
+     * @param data  The data.
+     * @param begin The position of the first character of the line.
+     * @param end   The position of the line terminator.
+     * @throws InvalidInputException if the line is invalid.
+     * @throws InterruptedException if the pipeline was stopped.
+     */
+    private void parseLine(byte[] data, int begin, int end) throws InvalidInputException, InterruptedException {
+        long lineNumber = nextLineNumber++;
+        
+        if (begin == end) {
+            return;
+        }
+        
+        String line = new String(data, begin, end - begin, StandardCharsets.UTF_8);
+        
+        batch.add(line, lineNumber, lineParser.splitLineAndValidateTokens(line, lineNumber));
+        
+        if (batch.nrOfLines < BATCH_SIZE) {
+            return;
+        }
+        
+        // The next batch is allocated first, such that a failed allocation does not pass the full batch twice
+        Batch nextBatch = new Batch();
+        
+        batches.put(batch);
+        
+        batch = nextBatch;
+    }
+    
+    /**
+     * Rethrow the given exception or error thrown by the I/O or parse stage on the calling thread.
+     * 
+     * @param exception The exception or error.
+     * @throws IOException if the exception is an IOException or a checked exception.
+     */
+    private static void rethrow(Throwable exception) throws IOException {
+        if (exception instanceof IOException) {
+            throw (IOException) exception;
+        } else if (exception instanceof RuntimeException) {
+            throw (RuntimeException) exception;
+        } else if (exception instanceof Error) {
+            throw (Error) exception;
+        } else {
+            throw new IOException(exception);
+        }
+    }
+    
+    private static void joinUninterruptibly(Thread thread) {
+        boolean isInterrupted = false;
+        
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException exception) {
+                isInterrupted = true;
+            }
+        }
+        
+        if (isInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Buffer read by the I/O stage.
+     */
+    private static class Buffer {
+    
+        private byte[]      data;                   // The bytes read
+        private int         length;                 // The number of bytes read
+        private boolean     isAfterCarriageReturn;  // True if the previous buffer ends with "\r"
+        private Throwable   exception;              // The exception or error thrown while reading, or null
+        
+        
+        Buffer(byte[] data, int length, boolean isAfterCarriageReturn, Throwable exception) {
+            this.data                   = data;
+            this.length                 = length;
+            this.isAfterCarriageReturn  = isAfterCarriageReturn;
+            this.exception              = exception;
+        }
+        
+    }
+    
+    /**
+     * Batch of lines parsed by the parse stage.
+     */
+    private static class Batch {
+    
+        private List<List<String>>  tokens      = new ArrayList<List<String>>(BATCH_SIZE);  // The tokens of each line
+        private String[]            lines       = new String[BATCH_SIZE];                   // The lines
+        private long[]              lineNumbers = new long[BATCH_SIZE];                     // The line numbers
+        private int                 nrOfLines;                                              // The number of lines of the batch
+        private Throwable           exception;                                              // The exception or error following the lines, or null
+        private boolean             isLast;                                                 // True if this is the last batch
+        
+        
+        void add(String line, long lineNumber, List<String> lineTokens) {
+            lines[nrOfLines]        = line;
+            lineNumbers[nrOfLines]  = lineNumber;
+            tokens.add(lineTokens);
+            
+            ++nrOfLines;
+        }
+        
+    }
+    
+}
@@ -1,16 +1,21 @@
 package com.bt.coding_test.data;
 
-import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
 import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.zip.ZipException;
 
 import com.bt.coding_test.exception.InvalidInputException;
+import com.bt.coding_test.model.CyclePolicy;
 import com.bt.coding_test.model.Package;
 import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
-import com.bt.coding_test.validation.PackageDependenciesDataFileValidator;
+import com.bt.coding_test.model.PackagePool;
 
 /**
  * Class used to read package dependencies and construct a corresponding directed graph.
@@ -21,19 +26,23 @@ public class PackageDependenciesDataFileReader {
     private static final String ERR_INVALID_DATA_FILE_PATH_BEGIN    = "The data file path \"";
     private static final String ERR_INVALID_DATA_FILE_PATH_END      = "\" is not valid. Please change.";
     private static final String ERR_READ_DATA_FILE                  = "An error occurred while trying to read the data file contents. Please ensure no other process is accessing the data file.";
+    private static final String ERR_INVALID_GZIP_FILE               = "The data file is not a valid gzip file. Please change.";
     
-    private static final String ERR_INVALID_NR_TOKENS           = "The number of tokens is less than two";
-    private static final String ERR_INVALID_SEPARATOR_TOKEN     = "The separator token (i.e. second token) is not equal to \"->\" as expected";
-    private static final String ERR_INVALID_PACKAGE_NAME_BEGIN1 = "The package name \"";
-    private static final String ERR_INVALID_PACKAGE_NAME_BEGIN2 = "\" is invalid because it is not defined by the regular expression \"[a-zA-Z0-9_]+\"";
-    private static final String ERR_PACKAGE_SELF_DEPENDENCY     = "A package self-dependency, which is not allowed, was given";
+    private static final String GZIP_FILE_EXTENSION = ".gz";
+    
+    private static final String ERR_DEPENDENCY_CYCLE_BEGIN      = "The dependency \"";
+    private static final String ERR_DEPENDENCY_CYCLE_MIDDLE     = "\" closes the dependency cycle \"";
+    private static final String ERR_DEPENDENCY_CYCLE_END        = "\"";
+    static final String         ERR_CONFLICTING_WEIGHT          = "The package weight differs from the weight given on a previous line";
+    private static final String OUT_CYCLE_SEPARATOR             = " -> ";
+    private static final String WARN_MSG_PREFIX                 = "[ WARNING ] ";
+    
+    private static final Predicate<Package> ALL_SOURCE_PACKAGES = sourcePackage -> true;
     
-    private static final String ERR_MSG_MIDDLE1 = " on line \"";
-    private static final String ERR_MSG_MIDDLE2 = "\" (Line number: ";
-    private static final String ERR_MSG_END     = ") of the data file. Please change.";
-
     private static PackageDependenciesDataFileReader instance = null;
     
+    private PackageDependenciesDataFileLineParser lineParser = PackageDependenciesDataFileLineParser.getInstance();
+    
     
     /**
      * Method used to return an instance of the class. 
@@ -57,262 +66,255 @@ public class PackageDependenciesDataFileReader {
      *                     or file contents are invalid.
      */
     public PackageDependenciesDirectedGraph read(String filePath) throws InvalidInputException {
-        try {
-            return readFromFile(filePath);
-        } catch (InvalidInputException exception) {
-            // Rethrow exception
-            throw exception;
-        } catch (FileNotFoundException exception) {
-            throw new InvalidInputException(
-                ERR_INVALID_DATA_FILE_PATH_BEGIN + 
-                filePath + 
-                ERR_INVALID_DATA_FILE_PATH_END
-            );
-        } catch (IOException exception) {
-            throw new InvalidInputException(
-                 ERR_READ_DATA_FILE
-            );
-        }
-    }
-    
-    private PackageDependenciesDataFileReader() {
-        // DO nothing
+        return read(filePath, ALL_SOURCE_PACKAGES);
     }
     
     /**
-     * Read package dependencies from a file and construct the corresponding directed graph.
+     * Read package dependencies from a file and construct the corresponding directed graph, applying the given 
+     * policy to dependencies closing cycles. If the policy is WARN, a warning is printed for each cycle; 
+     * if the policy is REJECT, the data file is invalid if it contains a cycle.
      * 
-     * @param filePath The path to the file where the package dependencies are stored.
+     * @param filePath      The path to the file where the package dependencies are stored.
+     * @param cyclePolicy   The policy applied to dependencies closing cycles.
      * @return The directed graph recording all package dependencies.
      * @throws IOException Exception thrown if the file path provided is not valid, cannot read from file, 
      *                     or file contents are invalid.
      */
-    private PackageDependenciesDirectedGraph readFromFile(String filePath) throws IOException {
-        PackageDependenciesDirectedGraph graph      = new PackageDependenciesDirectedGraph();
-        BufferedReader                   fileReader = new BufferedReader(new FileReader(filePath));
-        
-        // Process each line from the data file
-        // Assumption: The number of lines is less or equal to 2^63 - 1
-        long lineNumber = 1;
-        
-        while (fileReader.ready()) {
-            String line = fileReader.readLine();
-            
-            processLine(line, lineNumber++, graph);
-        }
-        
-        // Close the file reader
-        fileReader.close();
-        
-        return graph;
-    }
-
-    /**
-     * Read the package dependencies from the given line and add the dependencies to the graph.
-     *  
-     * @param line          The given line.
-     * @param lineNumber    The given line number.
-     * @param graph         The package dependency graph.
-     * @throws InvalidInputException if the line is invalid. 
-     */
-    private void processLine(String line, long lineNumber, PackageDependenciesDirectedGraph graph) 
-                             throws InvalidInputException {
-        if (!line.isEmpty()) {
-            List<String> tokens = splitLineAndValidateTokens(line, lineNumber);
-            
-            // Add package dependencies to graph
-            Package srcPackage = new Package(tokens.get(0));
-            
-            for (int i = 2; i < tokens.size(); ++i) {
-                graph.addNewPackageDependency(
-                    srcPackage, 
-                    new Package(tokens.get(i))
-                );
-            }
-        }
+    public PackageDependenciesDirectedGraph read(String filePath, CyclePolicy cyclePolicy) 
+                                                 throws InvalidInputException {
+        return read(filePath, ALL_SOURCE_PACKAGES, cyclePolicy);
     }
-
+    
     /**
-     * Split the line into tokens and check if the tokens are valid.
+     * Read the package dependencies of the source packages accepted by the given filter from a file and construct 
+     * the corresponding directed graph. All the lines of the file are validated, including the lines of source 
+     * packages which are not accepted by the filter.
      * 
-     * Assumption: A line is invalid if it does not contain one package followed by the separator token "->".
-     * Assumption: A line is invalid if it contains a package self-dependency.
-     * Assumption: A data file entry is valid if it is defined by the regular expression: 
-     *             "[ \t]*<package>[ \t]+->([ \t]+<package>)+[ \t]*", 
-     *             where <package> is equal to the regular expression defined to validate package names in the 
-     *             com.bt.coding_test.validation.PackageDependenciesDataFileValidator class. 
-     * Assumption: It is not an error if the same package name appears more than once to the right of the separator 
-     *             token "->". 
-     *  
-     * @param line          The given line.
-     * @param lineNumber    The given line number.
-     * @return The tokens computed from the given line.
-     * @throws InvalidInputException if the line is invalid.
+     * @param filePath              The path to the file where the package dependencies are stored.
+     * @param sourcePackageFilter   The filter accepting the source packages whose dependencies are recorded.
+     * @return The directed graph recording the package dependencies of the accepted source packages.
+     * @throws IOException Exception thrown if the file path provided is not valid, cannot read from file, 
+     *                     or file contents are invalid.
      */
-    private List<String> splitLineAndValidateTokens(String line, long lineNumber) throws InvalidInputException {
-        List<String> tokens = splitLineIntoTokens(line);
-        
-        // Check if the tokens are valid
-        validateNrOfTokens(tokens, line, lineNumber);
-        validateSeparatorToken(tokens, line, lineNumber);
-        validatePackageTokens(tokens, line, lineNumber);
-        
-        return tokens;
+    public PackageDependenciesDirectedGraph read(String filePath, Predicate<Package> sourcePackageFilter) 
+                                                 throws InvalidInputException {
+        return read(filePath, sourcePackageFilter, CyclePolicy.ALLOW);
     }
-
+    
     /**
-     * Check if the number of tokens is at least two. 
+     * Read the package dependencies of the source packages accepted by the given filter from a file and construct 
+     * the corresponding directed graph, applying the given policy to dependencies closing cycles.
      * 
-     * @param tokens        The given tokens.
-     * @param line          The line for which the tokens were computed.
-     * @param lineNumber    The line number.
-     * @throws InvalidInputException if the number of tokens is below two. 
+     * @param filePath              The path to the file where the package dependencies are stored.
+     * @param sourcePackageFilter   The filter accepting the source packages whose dependencies are recorded.
+     * @param cyclePolicy           The policy applied to dependencies closing cycles.
+     * @return The directed graph recording the package dependencies of the accepted source packages.
+     * @throws IOException Exception thrown if the file path provided is not valid, cannot read from file, 
+     *                     or file contents are invalid.
      */
-    private void validateNrOfTokens(List<String> tokens, String line, long lineNumber) throws InvalidInputException {
-        if (tokens.size() < 2) {
-            throwInvalidInputException(ERR_INVALID_NR_TOKENS, line, lineNumber);
+    public PackageDependenciesDirectedGraph read(String filePath, Predicate<Package> sourcePackageFilter,
+                                                 CyclePolicy cyclePolicy) throws InvalidInputException {
+        try {
+            return readFromFile(filePath, sourcePackageFilter, cyclePolicy, true, Package::new);
+        } catch (IOException exception) {
+            throw toInvalidInputException(exception, filePath);
         }
     }
     
     /**
-     * Check if the token separating the left and right hand side packages is valid.
+     * Read package dependencies from a file and construct the corresponding directed graph, applying the given 
+     * policy to dependencies closing cycles. The packages of the graph are taken from the given pool, such that 
+     * graphs read using the same pool share their package names.
      * 
-     * @param tokens        The given tokens.
-     * @param line          The line for which the tokens were computed.
-     * @param lineNumber    The line number.
-     * @throws InvalidInputException if the separator token is not "->".
+     * @param filePath      The path to the file where the package dependencies are stored.
+     * @param cyclePolicy   The policy applied to dependencies closing cycles.
+     * @param packagePool   The pool of packages.
+     * @return The directed graph recording all package dependencies.
+     * @throws IOException Exception thrown if the file path provided is not valid, cannot read from file, 
+     *                     or file contents are invalid.
      */
-    private void validateSeparatorToken(List<String> tokens, String line, long lineNumber) 
-                                        throws InvalidInputException {
-        if (!PackageDependenciesDataFileValidator.getInstance().isValidSeparator(tokens.get(1))) {
-            throwInvalidInputException(ERR_INVALID_SEPARATOR_TOKEN, line, lineNumber);
+    public PackageDependenciesDirectedGraph read(String filePath, CyclePolicy cyclePolicy, PackagePool packagePool) 
+                                                 throws InvalidInputException {
+        try {
+            return readFromFile(filePath, ALL_SOURCE_PACKAGES, cyclePolicy, true, packagePool::intern);
+        } catch (IOException exception) {
+            throw toInvalidInputException(exception, filePath);
         }
     }
     
     /**
-     * Check if the package tokens have valid names and that the left hand side package does not occur 
-     * on the right hand side.
+     * Read a snapshot of a graph previously read from a data file and written by PackageDependenciesDataFileWriter 
+     * (e.g. when the graph was offloaded), taking the packages of the graph from the given pool. The cycles of the 
+     * graph were already reported when it was first read, hence no warning is printed if the policy is WARN.
      * 
-     * @param tokens        The given tokens.
-     * @param line          The line for which the tokens were computed.
-     * @param lineNumber    The line number.
-     * @throws InvalidInputException 
+     * @param filePath      The path to the snapshot file.
+     * @param cyclePolicy   The policy applied to dependencies closing cycles.
+     * @param packagePool   The pool of packages.
+     * @return The directed graph recording all package dependencies.
+     * @throws IOException Exception thrown if the file path provided is not valid, cannot read from file, 
+     *                     or file contents are invalid.
      */
-    private void validatePackageTokens(List<String> tokens, String line, long lineNumber) throws InvalidInputException {
-        // Validate package to the left of the separator token called the source package
-        String srcPackageName = tokens.get(0);
-        
-        validatePackageName(srcPackageName, line, lineNumber);
-        
-        // Validate the packages to the right of the separator token called the dependency packages
-        for (int i = 2; i < tokens.size(); ++i) {
-            String dependencyPackageName = tokens.get(i);
-            
-            validatePackageName(dependencyPackageName, line, lineNumber);
-
-            // Check if the source and dependency package names are identical
-            if (srcPackageName.equals(dependencyPackageName)) {
-                throwInvalidInputException(ERR_PACKAGE_SELF_DEPENDENCY, line, lineNumber);
-            }
+    public PackageDependenciesDirectedGraph readSnapshot(String filePath, CyclePolicy cyclePolicy, PackagePool packagePool) 
+                                                         throws InvalidInputException {
+        try {
+            return readFromFile(filePath, ALL_SOURCE_PACKAGES, cyclePolicy, false, packagePool::intern);
+        } catch (IOException exception) {
+            throw toInvalidInputException(exception, filePath);
         }
     }
-
+    
     /**
-     * Check if the given package name is valid.
+     * Convert the exception thrown while reading the given data file into an invalid input exception.
      * 
-     * @param packageName The name of the package.
-     * @param line        The line containing the package name.
-     * @param lineNumber  The corresponding line number.
-     * @throws InvalidInputException 
+     * @param exception The exception thrown while reading the data file.
+     * @param filePath  The path to the data file.
+     * @return The invalid input exception describing the exception.
      */
-    private void validatePackageName(String packageName, String line, long lineNumber) throws InvalidInputException {
-        if (!PackageDependenciesDataFileValidator.getInstance().isValidPackageName(packageName)) {
-            throwInvalidInputException(
-                ERR_INVALID_PACKAGE_NAME_BEGIN1 + packageName + ERR_INVALID_PACKAGE_NAME_BEGIN2, 
-                line, 
-                lineNumber
+    InvalidInputException toInvalidInputException(IOException exception, String filePath) {
+        if (exception instanceof InvalidInputException) {
+            return (InvalidInputException) exception;
+        } else if ((exception instanceof FileNotFoundException) || (exception instanceof NoSuchFileException)) {
+            return new InvalidInputException(
+                ERR_INVALID_DATA_FILE_PATH_BEGIN + 
+                filePath + 
+                ERR_INVALID_DATA_FILE_PATH_END
+            );
+        } else if ((exception instanceof ZipException) || (exception instanceof EOFException)) {
+            return new InvalidInputException(
+                ERR_INVALID_GZIP_FILE
+            );
+        } else {
+            return new InvalidInputException(
+                 ERR_READ_DATA_FILE
             );
         }
     }
-
+    
+    private PackageDependenciesDataFileReader() {
+        // DO nothing
+    }
+    
     /**
-     * Throw an invalid input exception with the given message, line and line number.
+     * Read package dependencies from a file and construct the corresponding directed graph.
      * 
-     * @param message       The message of the exception.
-     * @param line          The line for which the exception is thrown.
-     * @param lineNumber    The line number.
-     * @throws InvalidInputException 
+     * @param filePath              The path to the file where the package dependencies are stored.
+     * @param sourcePackageFilter   The filter accepting the source packages whose dependencies are recorded.
+     * @param cyclePolicy           The policy applied to dependencies closing cycles.
+     * @param isCycleWarned         True if a warning is printed for each cycle when the policy is WARN.
+     * @param packageFactory        The factory of the packages with the names read.
+     * @return The directed graph recording all package dependencies.
+     * @throws IOException Exception thrown if the file path provided is not valid, cannot read from file, 
+     *                     or file contents are invalid.
      */
-    private void throwInvalidInputException(String message, String line, long lineNumber) throws InvalidInputException {
-        throw new InvalidInputException(
-            message +
-            ERR_MSG_MIDDLE1 +
-            line +
-            ERR_MSG_MIDDLE2 +
-            lineNumber +
-            ERR_MSG_END
-        );
+    private PackageDependenciesDirectedGraph readFromFile(String filePath, Predicate<Package> sourcePackageFilter,
+                                                          CyclePolicy cyclePolicy, boolean isCycleWarned, 
+                                                          Function<String, Package> packageFactory) throws IOException {
+        PackageDependenciesDirectedGraph graph = new PackageDependenciesDirectedGraph(cyclePolicy);
+        
+        // Read, parse and add the dependencies of the lines to the graph in a pipeline
+        // Assumption: The number of lines is less or equal to 2^63 - 1
+        try (InputStream inputStream = openFile(filePath)) {
+            PackageDependenciesDataFilePipeline.load(
+                inputStream, 
+                (line, lineNumber, tokens) -> processLine(line, lineNumber, tokens, graph, sourcePackageFilter, 
+                                                          isCycleWarned, packageFactory)
+            );
+        }
+        
+        return graph;
     }
-
+    
     /**
-     * Split the given line into tokens.
+     * Open the given data file, decompressing its contents while reading if it is a gzip file.
      * 
-     * Assumption: Tokens are separated by white-space characters " " and "\t".
-     * 
-     * @param line The given line.
-     * @return The tokens computed from the given line.
+     * @param filePath The path to the data file, which is a gzip file if it ends with GZIP_FILE_EXTENSION.
+     * @return The input stream of the data file contents.
+     * @throws IOException if the file cannot be opened.
      */
-    private List<String> splitLineIntoTokens(String line) {
-        List<String> tokens = new ArrayList<String>();
-        
-        // Compute tokens from the given line
-        int stopIndex = 0;
-        
-        for (int i = 0; i < line.length(); ++i) {
-            if (!isWhiteSpaceCharacter(line.charAt(i))) {
-                stopIndex = computeTokenStopIndex(line, i);
-                
-                tokens.add(
-                    line.substring(i, stopIndex + 1)
-                );
-                
-                i = stopIndex;
-            }
+    InputStream openFile(String filePath) throws IOException {
+        if (filePath.endsWith(GZIP_FILE_EXTENSION)) {
+            return new ParallelGzipInputStream(filePath);
         }
         
-        return tokens;
+        return new FileInputStream(filePath);
     }
 
     /**
-     * Compute the stop index for the token starting at idx in the given line.
+     * Add the package dependencies read from the given line to the graph.
      *  
-     * @param line The given line.
-     * @param idx  The index at which the token starts.
-     * @return The token stop index.
+     * @param line                  The given line.
+     * @param lineNumber            The given line number.
+     * @param tokens                The valid tokens of the given line.
+     * @param graph                 The package dependency graph.
+     * @param sourcePackageFilter   The filter accepting the source packages whose dependencies are recorded.
+     * @param isCycleWarned         True if a warning is printed for each cycle when the policy is WARN.
+     * @param packageFactory        The factory of the packages with the names read.
+     * @throws InvalidInputException if a dependency closes a cycle which is rejected, or the weight of the source 
+     *                               package conflicts with a previous line.
      */
-    private int computeTokenStopIndex(String line, int idx) {
-        int stopIndex = idx + 1;
+    private void processLine(String line, long lineNumber, List<String> tokens, PackageDependenciesDirectedGraph graph,
+                             Predicate<Package> sourcePackageFilter, boolean isCycleWarned, 
+                             Function<String, Package> packageFactory) throws InvalidInputException {
+        // Add package dependencies to graph
+        Package srcPackage = packageFactory.apply(PackageDependenciesDataFileLineParser.getSourcePackageName(tokens.get(0)));
+        
+        if (!sourcePackageFilter.test(srcPackage)) {
+            return;
+        }
         
-        while ((stopIndex < line.length()) && (!isWhiteSpaceCharacter(line.charAt(stopIndex)))) {
-            ++stopIndex;
+        long srcPackageWeight = PackageDependenciesDataFileLineParser.getSourcePackageWeight(tokens.get(0));
+        
+        if (srcPackageWeight >= 0) {
+            // Assumption: The weight of a package may be given on several lines, but must be the same on all lines
+            if ((graph.hasPackageWeight(srcPackage)) && (graph.getPackageWeight(srcPackage) != srcPackageWeight)) {
+                lineParser.throwInvalidInputException(ERR_CONFLICTING_WEIGHT, line, lineNumber);
+            }
+            
+            graph.setPackageWeight(srcPackage, srcPackageWeight);
         }
         
-        return (stopIndex - 1);
+        for (int i = 2; i < tokens.size(); ++i) {
+            List<Package> cycle = graph.addNewPackageDependency(
+                srcPackage, 
+                packageFactory.apply(tokens.get(i))
+            );
+            
+            if ((!cycle.isEmpty()) && ((graph.getCyclePolicy() == CyclePolicy.REJECT) || isCycleWarned)) {
+                processDependencyCycle(cycle, graph.getCyclePolicy(), line, lineNumber);
+            }
+        }
     }
-
+    
     /**
-     * Check if the given character is a white space character (i.e. " " or "\t").
-     * 
-     * Assumption: The characters which are considered white space characters are " " and "\t".
+     * Report the dependency cycle closed by a dependency on the given line according to the cycle policy.
      * 
-     * @param character The given character.
-     * @return True if the given character is a white space character, and false otherwise.
+     * @param cycle         The packages on the cycle, starting with the source package of the dependency.
+     * @param cyclePolicy   The policy applied to dependencies closing cycles.
+     * @param line          The line containing the dependency.
+     * @param lineNumber    The line number.
+     * @throws InvalidInputException if the cycle policy is REJECT.
      */
-    private boolean isWhiteSpaceCharacter(char character) {
-        return (
-            (character == ' ') ||
-            (character == '\t')
-        );
+    private void processDependencyCycle(List<Package> cycle, CyclePolicy cyclePolicy, String line, long lineNumber) 
+                                        throws InvalidInputException {
+        StringBuilder cycleDescription = new StringBuilder();
+        
+        for (Package cyclePackage : cycle) {
+            cycleDescription.append(cyclePackage).append(OUT_CYCLE_SEPARATOR);
+        }
+        
+        cycleDescription.append(cycle.get(0));
+        
+        String message = ERR_DEPENDENCY_CYCLE_BEGIN + 
+                         cycle.get(0) + OUT_CYCLE_SEPARATOR + cycle.get(1 % cycle.size()) + 
+                         ERR_DEPENDENCY_CYCLE_MIDDLE + 
+                         cycleDescription + 
+                         ERR_DEPENDENCY_CYCLE_END;
+                         
+        if (cyclePolicy == CyclePolicy.REJECT) {
+            lineParser.throwInvalidInputException(message, line, lineNumber);
+        } else {
+            System.err.println(WARN_MSG_PREFIX + lineParser.createMessage(message, line, lineNumber));
+        }
     }
     
 }
@@ -0,0 +1,79 @@
+package com.bt.coding_test.data;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+import com.bt.coding_test.exception.InvalidInputException;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+
+/**
+ * Class used to write the package dependencies of a directed graph to a file, using the data file format 
+ * read by the com.bt.coding_test.data.PackageDependenciesDataFileReader class.
+ * This class implements the Singleton design pattern.
+ */
+public class PackageDependenciesDataFileWriter {
+
+    private static final String ERR_INVALID_DATA_FILE_PATH_BEGIN    = "The output data file path \"";
+    private static final String ERR_INVALID_DATA_FILE_PATH_END      = "\" is not valid. Please change.";
+    private static final String ERR_WRITE_DATA_FILE                 = "An error occurred while trying to write the data file contents. Please ensure no other process is accessing the data file.";
+    
+    private static PackageDependenciesDataFileWriter instance = null;
+    
+    
+    /**
+     * Method used to return an instance of the class. 
+     * 
+     * @return The single instance of the class.
+     */
+    public static PackageDependenciesDataFileWriter getInstance() {
+        if (instance == null) {
+            instance = new PackageDependenciesDataFileWriter();
+        }
+        
+        return instance;
+    }
+    
+    /**
+     * Write the package dependencies of the given graph to a file, one line for each source package or package 
+     * with a weight. Weights are written following the package names, e.g. "gui:12 -> awtui swingui".
+     * 
+     * Assumption: Lines are written in ascending order of the source package names, and the dependencies on each 
+     *             line are written in ascending order of their names.
+     * 
+     * @param graph     The package dependencies directed graph.
+     * @param filePath  The path to the file where the package dependencies are written.
+     * @throws InvalidInputException if the file path provided is not valid or cannot write to file.
+     */
+    public void write(PackageDependenciesDirectedGraph graph, String filePath) throws InvalidInputException {
+        try {
+            writeToFile(graph, filePath);
+        } catch (FileNotFoundException exception) {
+            throw new InvalidInputException(
+                ERR_INVALID_DATA_FILE_PATH_BEGIN + 
+                filePath + 
+                ERR_INVALID_DATA_FILE_PATH_END
+            );
+        } catch (IOException exception) {
+            throw new InvalidInputException(
+                ERR_WRITE_DATA_FILE
+            );
+        }
+    }
+    
+    private PackageDependenciesDataFileWriter() {
+        // DO nothing
+    }
+    
+    /**
+     * Write the package dependencies of the given graph to a file.
+     * 
+     * @param graph     The package dependencies directed graph.
+     * @param filePath  The path to the file where the package dependencies are written.
+     * @throws IOException Exception thrown if the file path provided is not valid or cannot write to file.
+     */
+    private void writeToFile(PackageDependenciesDirectedGraph graph, String filePath) throws IOException {
+        PackageDependenciesGraphExporter.getInstance().exportToFile(graph, null, PackageDependenciesExportFormat.NATIVE, 
+                                                                    filePath);
+    }
+    
+}
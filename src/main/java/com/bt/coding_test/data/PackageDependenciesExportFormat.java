@@ -0,0 +1,24 @@
+package com.bt.coding_test.data;
+
+/**
+ * Format of the files written by the com.bt.coding_test.data.PackageDependenciesGraphExporter class.
+ */
+public enum PackageDependenciesExportFormat {
+
+    /**
+     * The data file format read by the com.bt.coding_test.data.PackageDependenciesDataFileReader class, 
+     * e.g. "gui:12 -> awtui swingui".
+     */
+    NATIVE,
+    
+    /**
+     * The Graphviz DOT language.
+     */
+    DOT,
+    
+    /**
+     * The GraphML XML format.
+     */
+    GRAPHML
+    
+}
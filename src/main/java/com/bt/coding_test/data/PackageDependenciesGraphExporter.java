@@ -0,0 +1,348 @@
+package com.bt.coding_test.data;
+
+import java.io.BufferedWriter;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import com.bt.coding_test.exception.InvalidInputException;
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+import com.bt.coding_test.model.PackageDependenciesGraphIndex;
+import com.bt.coding_test.model.PackageIdSet;
+
+/**
+ * Class used to export a package dependencies directed graph, or the subgraph induced by a set of packages, 
+ * to a file in one of the supported formats.
+ * 
+ * The output is streamed directly from the graph index to a large write buffer, such that no output is built in 
+ * memory, whatever the number of dependencies. 
+ * 
+ * Assumption: The graph index is required, hence it is computed if the graph does not retain it yet, which takes 
+ *             memory proportional to the number of packages and dependencies. The index is retained by the graph 
+ *             and reused by later queries.
+ * 
+ * This class implements the Singleton design pattern.
+ */
+public class PackageDependenciesGraphExporter {
+
+    private static final String ERR_INVALID_FILE_PATH_BEGIN = "The output file path \"";
+    private static final String ERR_INVALID_FILE_PATH_END   = "\" is not valid. Please change.";
+    private static final String ERR_WRITE_FILE              = "An error occurred while trying to write the output file contents. Please ensure no other process is accessing the output file.";
+    
+    private static final int    BUFFER_SIZE = 1 << 20;      // The number of characters buffered before writing to the file
+    
+    private static final String OUT_NATIVE_SEPARATOR_TOKEN  = " ->";
+    private static final String OUT_NATIVE_TOKEN_SEPARATOR  = " ";
+    private static final String OUT_NATIVE_WEIGHT_SEPARATOR = ":";
+    
+    private static final String OUT_DOT_BEGIN               = "digraph dependencies {";
+    private static final String OUT_DOT_END                 = "}";
+    private static final String OUT_GRAPHML_BEGIN           = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + System.lineSeparator() + 
+                                                              "<graphml xmlns=\"http://graphml.graphdrawing.org/xmlns\">" + System.lineSeparator() + 
+                                                              "  <key id=\"weight\" for=\"node\" attr.name=\"weight\" attr.type=\"long\"/>" + System.lineSeparator() + 
+                                                              "  <graph id=\"dependencies\" edgedefault=\"directed\">";
+    private static final String OUT_GRAPHML_END             = "  </graph>" + System.lineSeparator() + 
+                                                              "</graphml>";
+                                                              
+    // Packages and dependencies are written piece by piece, since formatting each line would dominate the export time
+    // DOT does not define a weight attribute for nodes, hence weights are written as comments
+    private static final Syntax DOT_SYNTAX      = new Syntax("    \"", "\";", "\"; // weight=", "", 
+                                                             "    \"", "\" -> \"", "\";");
+    private static final Syntax GRAPHML_SYNTAX  = new Syntax("    <node id=\"", "\"/>", "\"><data key=\"weight\">", "</data></node>", 
+                                                             "    <edge source=\"", "\" target=\"", "\"/>");
+                                                             
+    private static PackageDependenciesGraphExporter instance = null;
+    
+    
+    /**
+     * Method used to return an instance of the class. 
+     * 
+     * @return The single instance of the class.
+     */
+    public static PackageDependenciesGraphExporter getInstance() {
+        if (instance == null) {
+            instance = new PackageDependenciesGraphExporter();
+        }
+        
+        return instance;
+    }
+    
+    /**
+     * Export the given graph to a file in the given format.
+     * 
+     * @param graph     The package dependencies directed graph.
+     * @param format    The format of the file.
+     * @param filePath  The path to the file where the graph is exported.
+     * @throws InvalidInputException if the file path provided is not valid or cannot write to file.
+     */
+    public void export(PackageDependenciesDirectedGraph graph, PackageDependenciesExportFormat format, String filePath) 
+                       throws InvalidInputException {
+        export(graph, null, format, filePath);
+    }
+    
+    /**
+     * Export the subgraph induced by the given packages (i.e. the given packages and the dependencies between them) 
+     * to a file in the given format. 
+     * 
+     * Assumption: Packages are exported in alphabetical order, each followed by its dependencies in alphabetical order.
+     * Assumption: Package names are not escaped, since they only contain letters, digits and underscores.
+     * 
+     * @param graph         The package dependencies directed graph.
+     * @param packageIds    The IDs of the packages of the subgraph assigned by the graph index, or null to export 
+     *                      the whole graph.
+     * @param format        The format of the file.
+     * @param filePath      The path to the file where the subgraph is exported.
+     * @throws InvalidInputException if the file path provided is not valid or cannot write to file.
+     */
+    public void export(PackageDependenciesDirectedGraph graph, PackageIdSet packageIds, 
+                       PackageDependenciesExportFormat format, String filePath) throws InvalidInputException {
+        try {
+            exportToFile(graph, packageIds, format, filePath);
+        } catch (FileNotFoundException exception) {
+            throw new InvalidInputException(
+                ERR_INVALID_FILE_PATH_BEGIN + 
+                filePath + 
+                ERR_INVALID_FILE_PATH_END
+            );
+        } catch (IOException exception) {
+            throw new InvalidInputException(
+                ERR_WRITE_FILE
+            );
+        }
+    }
+    
+    private PackageDependenciesGraphExporter() {
+        // DO nothing
+    }
+    
+    /**
+     * Export the subgraph induced by the given packages to a file in the given format.
+     * 
+     * @param graph         The package dependencies directed graph.
+     * @param packageIds    The IDs of the packages of the subgraph, or null to export the whole graph.
+     * @param format        The format of the file.
+     * @param filePath      The path to the file where the subgraph is exported.
+     * @throws IOException Exception thrown if the file path provided is not valid or cannot write to file.
+     */
+    void exportToFile(PackageDependenciesDirectedGraph graph, PackageIdSet packageIds, 
+                      PackageDependenciesExportFormat format, String filePath) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(filePath), 
+                                                                       StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            switch (format) {
+                case NATIVE:
+                    writeNative(graph, packageIds, writer);
+                    break;
+                    
+                case DOT:
+                    writeDot(graph, packageIds, writer);
+                    break;
+                    
+                case GRAPHML:
+                    writeGraphMl(graph, packageIds, writer);
+                    break;
+            }
+        }
+    }
+    
+    /**
+     * Write one line for each source package or package with a weight, e.g. "gui:12 -> awtui swingui".
+     * 
+     * @param graph         The package dependencies directed graph.
+     * @param packageIds    The IDs of the packages of the subgraph, or null to export the whole graph.
+     * @param writer        The writer of the file.
+     * @throws IOException if the file cannot be written.
+     */
+    private void writeNative(PackageDependenciesDirectedGraph graph, PackageIdSet packageIds, Writer writer) 
+                             throws IOException {
+        PackageDependenciesGraphIndex index = graph.getIndex();
+        
+        for (int i = 0; i < index.getNrOfPackages(); ++i) {
+            Package sourcePackage = index.getPackage(i);
+            
+            if ((!isExported(i, packageIds)) || 
+                ((!hasExportedDependencies(i, index, packageIds)) && (!graph.hasPackageWeight(sourcePackage)))) {
+                continue;
+            }
+            
+            writer.write(sourcePackage.getName());
+            
+            if (graph.hasPackageWeight(sourcePackage)) {
+                writer.write(OUT_NATIVE_WEIGHT_SEPARATOR);
+                writer.write(Long.toString(graph.getPackageWeight(sourcePackage)));
+            }
+            
+            writer.write(OUT_NATIVE_SEPARATOR_TOKEN);
+            
+            for (int j = index.getDependenciesBegin(i); j < index.getDependenciesEnd(i); ++j) {
+                int packageDependencyId = index.getDependency(j);
+                
+                if (isExported(packageDependencyId, packageIds)) {
+                    writer.write(OUT_NATIVE_TOKEN_SEPARATOR);
+                    writer.write(index.getPackage(packageDependencyId).getName());
+                }
+            }
+            
+            writer.write(System.lineSeparator());
+        }
+    }
+    
+    /**
+     * Write a DOT digraph declaring each package, followed by its dependencies.
+     * 
+     * @param graph         The package dependencies directed graph.
+     * @param packageIds    The IDs of the packages of the subgraph, or null to export the whole graph.
+     * @param writer        The writer of the file.
+     * @throws IOException if the file cannot be written.
+     */
+    private void writeDot(PackageDependenciesDirectedGraph graph, PackageIdSet packageIds, Writer writer) 
+                          throws IOException {
+        PackageDependenciesGraphIndex index = graph.getIndex();
+        
+        writeLine(writer, OUT_DOT_BEGIN);
+        
+        for (int i = 0; i < index.getNrOfPackages(); ++i) {
+            if (!isExported(i, packageIds)) {
+                continue;
+            }
+            
+            writeNode(graph, index.getPackage(i), DOT_SYNTAX, writer);
+            writeEdges(i, index, packageIds, DOT_SYNTAX, writer);
+        }
+        
+        writeLine(writer, OUT_DOT_END);
+    }
+    
+    /**
+     * Write a GraphML graph declaring all packages, followed by all dependencies.
+     * 
+     * @param graph         The package dependencies directed graph.
+     * @param packageIds    The IDs of the packages of the subgraph, or null to export the whole graph.
+     * @param writer        The writer of the file.
+     * @throws IOException if the file cannot be written.
+     */
+    private void writeGraphMl(PackageDependenciesDirectedGraph graph, PackageIdSet packageIds, Writer writer) 
+                              throws IOException {
+        PackageDependenciesGraphIndex index = graph.getIndex();
+        
+        writeLine(writer, OUT_GRAPHML_BEGIN);
+        
+        // Some tools require the nodes to be declared before the edges referring to them
+        for (int i = 0; i < index.getNrOfPackages(); ++i) {
+            if (isExported(i, packageIds)) {
+                writeNode(graph, index.getPackage(i), GRAPHML_SYNTAX, writer);
+            }
+        }
+        
+        for (int i = 0; i < index.getNrOfPackages(); ++i) {
+            if (isExported(i, packageIds)) {
+                writeEdges(i, index, packageIds, GRAPHML_SYNTAX, writer);
+            }
+        }
+        
+        writeLine(writer, OUT_GRAPHML_END);
+    }
+    
+    /**
+     * Write the declaration of the given package, including its weight if it has one.
+     * 
+     * @param graph         The package dependencies directed graph.
+     * @param givenPackage  The package.
+     * @param syntax        The syntax of the format.
+     * @param writer        The writer of the file.
+     * @throws IOException if the file cannot be written.
+     */
+    private void writeNode(PackageDependenciesDirectedGraph graph, Package givenPackage, Syntax syntax, Writer writer) 
+                           throws IOException {
+        writer.write(syntax.nodeBegin);
+        writer.write(givenPackage.getName());
+        
+        if (graph.hasPackageWeight(givenPackage)) {
+            writer.write(syntax.weightBegin);
+            writer.write(Long.toString(graph.getPackageWeight(givenPackage)));
+            writer.write(syntax.weightEnd);
+        } else {
+            writer.write(syntax.nodeEnd);
+        }
+        
+        writer.write(System.lineSeparator());
+    }
+    
+    /**
+     * Write the exported direct dependencies of the given package.
+     * 
+     * @param packageId     The package ID.
+     * @param index         The index of the package dependencies directed graph.
+     * @param packageIds    The IDs of the packages of the subgraph, or null to export the whole graph.
+     * @param syntax        The syntax of the format.
+     * @param writer        The writer of the file.
+     * @throws IOException if the file cannot be written.
+     */
+    private void writeEdges(int packageId, PackageDependenciesGraphIndex index, PackageIdSet packageIds, 
+                            Syntax syntax, Writer writer) throws IOException {
+        String packageName = index.getPackage(packageId).getName();
+        
+        for (int j = index.getDependenciesBegin(packageId); j < index.getDependenciesEnd(packageId); ++j) {
+            int packageDependencyId = index.getDependency(j);
+            
+            if (isExported(packageDependencyId, packageIds)) {
+                writer.write(syntax.edgeBegin);
+                writer.write(packageName);
+                writer.write(syntax.edgeMiddle);
+                writer.write(index.getPackage(packageDependencyId).getName());
+                writer.write(syntax.edgeEnd);
+                writer.write(System.lineSeparator());
+            }
+        }
+    }
+    
+    private boolean hasExportedDependencies(int packageId, PackageDependenciesGraphIndex index, PackageIdSet packageIds) {
+        for (int j = index.getDependenciesBegin(packageId); j < index.getDependenciesEnd(packageId); ++j) {
+            if (isExported(index.getDependency(j), packageIds)) {
+                return true;
+            }
+        }
+        
+        return false;
+    }
+    
+    private boolean isExported(int packageId, PackageIdSet packageIds) {
+        return (packageIds == null) || (packageIds.contains(packageId));
+    }
+    
+    private void writeLine(Writer writer, String line) throws IOException {
+        writer.write(line);
+        writer.write(System.lineSeparator());
+    }
+    
+    /**
+     * The pieces written around the package names and weights to declare packages and dependencies in a format.
+     */
+    private static class Syntax {
+    
+        private final String nodeBegin;     // Written before the name of a package
+        private final String nodeEnd;       // Written after the name of a package without a weight
+        private final String weightBegin;   // Written after the name of a package with a weight, before the weight
+        private final String weightEnd;     // Written after the weight of a package
+        private final String edgeBegin;     // Written before the name of the source package of a dependency
+        private final String edgeMiddle;    // Written between the names of the packages of a dependency
+        private final String edgeEnd;       // Written after the name of the package dependency
+        
+        
+        private Syntax(String nodeBegin, String nodeEnd, String weightBegin, String weightEnd, 
+                       String edgeBegin, String edgeMiddle, String edgeEnd) {
+            this.nodeBegin      = nodeBegin;
+            this.nodeEnd        = nodeEnd;
+            this.weightBegin    = weightBegin;
+            this.weightEnd      = weightEnd;
+            this.edgeBegin      = edgeBegin;
+            this.edgeMiddle     = edgeMiddle;
+            this.edgeEnd        = edgeEnd;
+        }
+        
+    }
+    
+}
@@ -0,0 +1,553 @@
+package com.bt.coding_test.data;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Input stream decompressing a gzip file, which may consist of multiple concatenated gzip members.
+ * 
+ * The file is scanned for the offsets at which a gzip member header may start. The members found at these offsets 
+ * are decompressed in parallel, a few members ahead of the member being read, and are returned in order. Since 
+ * the header bytes may also occur inside compressed data, a member is only accepted if it ends exactly at the next 
+ * offset; otherwise the member is decompressed sequentially, streaming its contents, and the offsets inside it 
+ * are ignored. Members larger than MAX_PARALLEL_MEMBER_SIZE are always decompressed sequentially, such that 
+ * the memory used is bounded and single-member files are streamed. Members whose contents are larger than 
+ * MAX_PARALLEL_CONTENTS_SIZE (e.g. highly compressed members) are decompressed sequentially as well, such that 
+ * the contents of the pending members never exceed 2 * MAX_PARALLEL_CONTENTS_SIZE per thread.
+ * 
+ * Assumption: An empty file is not a valid gzip file, as for java.util.zip.GZIPInputStream.
+ */
+class ParallelGzipInputStream extends InputStream {
+
+    private static final int GZIP_MAGIC_1   = 0x1f;
+    private static final int GZIP_MAGIC_2   = 0x8b;
+    private static final int CM_DEFLATE     = 8;
+    private static final int FLAG_HCRC      = 0x02;
+    private static final int FLAG_EXTRA     = 0x04;
+    private static final int FLAG_NAME      = 0x08;
+    private static final int FLAG_COMMENT   = 0x10;
+    private static final int FLAG_RESERVED  = 0xe0;
+    
+    private static final int MAX_PARALLEL_MEMBER_SIZE   = 1 << 22;  // The maximum compressed size of a member decompressed in parallel
+    private static final int MAX_PARALLEL_CONTENTS_SIZE = 1 << 23;  // The maximum contents size of a member decompressed in parallel
+    private static final int BUFFER_SIZE                = 1 << 16;  // The size of the buffers of compressed data
+    private static final int SCAN_BUFFER_SIZE           = 1 << 20;  // The size of the buffer used to find member offsets
+    
+    private static final String ERR_NOT_GZIP_FORMAT     = "Not in GZIP format";
+    private static final String ERR_CORRUPT_TRAILER     = "Corrupt GZIP trailer";
+    private static final String ERR_UNEXPECTED_END      = "Unexpected end of GZIP input stream";
+    
+    private FileChannel             channel;            // The channel of the gzip file
+    private long                    fileSize;           // The size of the gzip file
+    private long[]                  memberOffsets;      // The offsets at which a member may start, sorted ascending
+    private int                     nrOfMemberOffsets;  // The number of offsets at which a member may start
+    private int                     nextMemberOffset;   // The position of the next offset to schedule
+    private long                    position;           // The offset of the next member to read
+    private int                     nrOfThreads;        // The number of members decompressed in parallel
+    private ExecutorService         executor;           // The executor decompressing members in parallel
+    private Deque<PendingMember>    pendingMembers;     // The members scheduled for decompression, in order
+    private InputStream             currentMember;      // The contents of the member being read, or null
+    
+    
+    /**
+     * Open the given gzip file.
+     * 
+     * @param filePath The path to the gzip file.
+     * @throws IOException if the file cannot be opened or read.
+     */
+    ParallelGzipInputStream(String filePath) throws IOException {
+        channel         = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ);
+        fileSize        = channel.size();
+        nrOfThreads     = Runtime.getRuntime().availableProcessors();
+        pendingMembers  = new ArrayDeque<PendingMember>();
+        
+        try {
+            if (fileSize == 0) {
+                throw new EOFException(ERR_UNEXPECTED_END);
+            }
+            
+            findMemberOffsets();
+        } catch (IOException exception) {
+            channel.close();
+            
+            throw exception;
+        }
+        
+        if (nrOfMemberOffsets > 1) {
+            executor = Executors.newFixedThreadPool(nrOfThreads, runnable -> {
+                Thread thread = new Thread(runnable, "gzip-inflater");
+                
+                thread.setDaemon(true);
+                
+                return thread;
+            });
+        }
+    }
+    
+    @Override
+    public int read() throws IOException {
+        byte[] value = new byte[1];
+        
+        return (read(value, 0, 1) < 0) ? -1 : (value[0] & 0xff);
+    }
+    
+    @Override
+    public int read(byte[] data, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        
+        while (true) {
+            if (currentMember != null) {
+                int nrOfBytesRead = currentMember.read(data, offset, length);
+                
+                if (nrOfBytesRead > 0) {
+                    return nrOfBytesRead;
+                }
+                
+                if (currentMember instanceof MemberInputStream) {
+                    position = ((MemberInputStream) currentMember).getEnd();
+                }
+                
+                // Closing a sequentially read member releases the native memory of its inflater
+                currentMember.close();
+                
+                currentMember = null;
+            }
+            
+            if (!openNextMember()) {
+                return -1;
+            }
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        
+        if (currentMember != null) {
+            currentMember.close();
+            
+            currentMember = null;
+        }
+        
+        channel.close();
+    }
+    
+    /**
+     * Scan the file for the offsets at which a member header may start.
+     * 
+     * @throws IOException if the file cannot be read.
+     */
+    private void findMemberOffsets() throws IOException {
+        ByteBuffer buffer       = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long       bufferOffset = 0;
+        
+        memberOffsets = new long[16];
+        
+        while (bufferOffset < fileSize) {
+            buffer.clear();
+            
+            int length = readFully(channel, buffer, bufferOffset, fileSize);
+            
+            byte[] data = buffer.array();
+            
+            for (int i = 0; i + 3 < length; ++i) {
+                if (((data[i] & 0xff) == GZIP_MAGIC_1) && ((data[i + 1] & 0xff) == GZIP_MAGIC_2) && 
+                    (data[i + 2] == CM_DEFLATE) && ((data[i + 3] & FLAG_RESERVED) == 0)) {
+                    if (nrOfMemberOffsets == memberOffsets.length) {
+                        memberOffsets = Arrays.copyOf(memberOffsets, 2 * nrOfMemberOffsets);
+                    }
+                    
+                    memberOffsets[nrOfMemberOffsets++] = bufferOffset + i;
+                }
+            }
+            
+            // The next buffer overlaps the last bytes, which may start a header
+            bufferOffset += (bufferOffset + length < fileSize) ? (length - 3) : length;
+        }
+    }
+    
+    /**
+     * Open the member starting at the current position, using its parallel decompression result if it is valid.
+     * 
+     * @return True if a member was opened, and false if the end of the file was reached.
+     * @throws IOException if the file cannot be read or is not a valid gzip file.
+     */
+    private boolean openNextMember() throws IOException {
+        if ((position >= fileSize) || (position < 0)) {
+            return false;
+        }
+        
+        // Discard the members starting inside the previous member
+        while ((!pendingMembers.isEmpty()) && (pendingMembers.peekFirst().offset < position)) {
+            pendingMembers.pollFirst().cancel();
+        }
+        
+        while ((nextMemberOffset < nrOfMemberOffsets) && (memberOffsets[nextMemberOffset] < position)) {
+            ++nextMemberOffset;
+        }
+        
+        scheduleMembers();
+        
+        PendingMember pendingMember = pendingMembers.peekFirst();
+        
+        if ((pendingMember != null) && (pendingMember.offset == position)) {
+            pendingMembers.pollFirst();
+            
+            byte[] contents = pendingMember.getContents();
+            
+            if (contents != null) {
+                currentMember   = new ByteArrayInputStream(contents);
+                position        = pendingMember.end;
+                
+                return true;
+            }
+        }
+        
+        if ((position > 0) && (!hasMemberHeader(position))) {
+            // Trailing data following the last member is ignored, as for java.util.zip.GZIPInputStream
+            position = fileSize;
+            
+            return false;
+        }
+        
+        currentMember = new MemberInputStream(channel, position, fileSize);
+        
+        return true;
+    }
+    
+    /**
+     * Schedule the decompression of the next members, such that the executor is kept busy while reading.
+     */
+    private void scheduleMembers() {
+        while ((executor != null) && (pendingMembers.size() < 2 * nrOfThreads) && 
+               (nextMemberOffset < nrOfMemberOffsets)) {
+            long offset = memberOffsets[nextMemberOffset];
+            long end    = (nextMemberOffset + 1 < nrOfMemberOffsets) ? memberOffsets[nextMemberOffset + 1] : fileSize;
+            
+            PendingMember pendingMember = new PendingMember(offset, end);
+            
+            if (end - offset <= MAX_PARALLEL_MEMBER_SIZE) {
+                pendingMember.contents = executor.submit(() -> decompressMember(offset, end));
+            }
+            
+            pendingMembers.addLast(pendingMember);
+            
+            ++nextMemberOffset;
+        }
+    }
+    
+    /**
+     * Decompress the member found at the given offsets.
+     * 
+     * @param offset    The offset of the member.
+     * @param end       The offset of the next member, or the file size.
+     * @return The contents of the member, or null if the offsets do not delimit a valid member or the contents 
+     *         are too large to be kept in memory (in which case the member is decompressed sequentially).
+     */
+    private byte[] decompressMember(long offset, long end) {
+        try (MemberInputStream member = new MemberInputStream(channel, offset, end)) {
+            ByteArrayOutputStream   contents    = new ByteArrayOutputStream((int) (4 * (end - offset)));
+            byte[]                  buffer      = new byte[BUFFER_SIZE];
+            int                     nrOfBytesRead;
+            
+            while ((nrOfBytesRead = member.read(buffer, 0, buffer.length)) > 0) {
+                if (contents.size() + nrOfBytesRead > MAX_PARALLEL_CONTENTS_SIZE) {
+                    return null;
+                }
+                
+                contents.write(buffer, 0, nrOfBytesRead);
+            }
+            
+            return (member.getEnd() == end) ? contents.toByteArray() : null;
+        } catch (IOException exception) {
+            return null;
+        }
+    }
+    
+    /**
+     * Check if a member header may start at the given offset.
+     * 
+     * @param offset The offset.
+     * @return True if the offset is one of the offsets found when scanning the file, and false otherwise.
+     */
+    private boolean hasMemberHeader(long offset) {
+        return (Arrays.binarySearch(memberOffsets, 0, nrOfMemberOffsets, offset) >= 0);
+    }
+    
+    /**
+     * Read from the channel at the given offset until the buffer is full or the limit is reached.
+     * 
+     * @param channel   The file channel.
+     * @param buffer    The buffer.
+     * @param offset    The file offset.
+     * @param limit     The offset which is not read.
+     * @return The number of bytes read.
+     * @throws IOException if the file cannot be read.
+     */
+    private static int readFully(FileChannel channel, ByteBuffer buffer, long offset, long limit) throws IOException {
+        int length = 0;
+        
+        buffer.limit((int) Math.min(buffer.capacity(), limit - offset));
+        
+        while (buffer.hasRemaining()) {
+            int nrOfBytesRead = channel.read(buffer, offset + length);
+            
+            if (nrOfBytesRead < 0) {
+                break;
+            }
+            
+            length += nrOfBytesRead;
+        }
+        
+        return length;
+    }
+    
+    /**
+     * Member scheduled for parallel decompression.
+     */
+    private static class PendingMember {
+    
+        private long                offset;     // The offset of the member
+        private long                end;        // The offset of the next member, or the file size
+        private Future<byte[]>      contents;   // The contents of the member, or null if not decompressed in parallel
+        
+        
+        PendingMember(long offset, long end) {
+            this.offset = offset;
+            this.end    = end;
+        }
+        
+        /**
+         * Wait for the contents of the member.
+         * 
+         * @return The contents, or null if the member was not decompressed in parallel or is not valid.
+         * @throws IOException if the thread was interrupted.
+         */
+        byte[] getContents() throws IOException {
+            if (contents == null) {
+                return null;
+            }
+            
+            try {
+                return contents.get();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                
+                throw new IOException(exception);
+            } catch (ExecutionException exception) {
+                return null;
+            }
+        }
+        
+        void cancel() {
+            // The worker is not interrupted, since interrupting a thread reading the channel closes the channel
+            if (contents != null) {
+                contents.cancel(false);
+            }
+        }
+        
+    }
+    
+    /**
+     * Input stream decompressing the single member starting at a given offset, reading at most up to a limit.
+     */
+    private static class MemberInputStream extends InputStream {
+    
+        private FileChannel channel;        // The channel of the gzip file
+        private long        limit;          // The offset which is not read
+        private byte[]      buffer;         // The compressed data read
+        private long        bufferOffset;   // The file offset of the first byte of the buffer
+        private int         bufferLength;   // The number of bytes of the buffer
+        private int         bufferPosition; // The position of the next byte of the buffer to consume
+        private Inflater    inflater;       // The inflater of the compressed data
+        private CRC32       crc;            // The checksum of the decompressed data
+        private long        end;            // The offset following the member, or -1 if not reached yet
+        
+        
+        MemberInputStream(FileChannel channel, long offset, long limit) throws IOException {
+            this.channel        = channel;
+            this.limit          = limit;
+            this.buffer         = new byte[BUFFER_SIZE];
+            this.bufferOffset   = offset;
+            this.inflater       = new Inflater(true);
+            this.crc            = new CRC32();
+            this.end            = -1;
+            
+            readHeader();
+        }
+        
+        /**
+         * Get the offset following the member.
+         * 
+         * @return The offset following the member, or -1 if the end of the member was not reached yet.
+         */
+        long getEnd() {
+            return end;
+        }
+        
+        @Override
+        public int read() throws IOException {
+            byte[] value = new byte[1];
+            
+            return (read(value, 0, 1) < 0) ? -1 : (value[0] & 0xff);
+        }
+        
+        @Override
+        public int read(byte[] data, int offset, int length) throws IOException {
+            if (end >= 0) {
+                return -1;
+            }
+            
+            try {
+                while (true) {
+                    int nrOfBytesInflated = inflater.inflate(data, offset, length);
+                    
+                    if (nrOfBytesInflated > 0) {
+                        crc.update(data, offset, nrOfBytesInflated);
+                        
+                        return nrOfBytesInflated;
+                    }
+                    
+                    if (inflater.finished()) {
+                        readTrailer();
+                        
+                        return -1;
+                    }
+                    
+                    if (inflater.needsDictionary()) {
+                        throw new ZipException(ERR_NOT_GZIP_FORMAT);
+                    }
+                    
+                    fillBuffer();
+                    
+                    inflater.setInput(buffer, 0, bufferLength);
+                    
+                    bufferPosition = bufferLength;
+                }
+            } catch (DataFormatException exception) {
+                throw new ZipException(exception.getMessage());
+            }
+        }
+        
+        @Override
+        public void close() {
+            inflater.end();
+        }
+        
+        /**
+         * Read and check the member header, and start inflating the compressed data following it.
+         * 
+         * @throws IOException if the header is not valid.
+         */
+        private void readHeader() throws IOException {
+            if ((readByte() != GZIP_MAGIC_1) || (readByte() != GZIP_MAGIC_2) || (readByte() != CM_DEFLATE)) {
+                throw new ZipException(ERR_NOT_GZIP_FORMAT);
+            }
+            
+            int flags = readByte();
+            
+            // Skip modification time, extra flags and operating system
+            skipBytes(6);
+            
+            if ((flags & FLAG_EXTRA) != 0) {
+                skipBytes(readByte() | (readByte() << 8));
+            }
+            
+            if ((flags & FLAG_NAME) != 0) {
+                while (readByte() != 0) {
+                    // Skip file name
+                }
+            }
+            
+            if ((flags & FLAG_COMMENT) != 0) {
+                while (readByte() != 0) {
+                    // Skip comment
+                }
+            }
+            
+            if ((flags & FLAG_HCRC) != 0) {
+                skipBytes(2);
+            }
+            
+            inflater.setInput(buffer, bufferPosition, bufferLength - bufferPosition);
+            
+            bufferPosition = bufferLength;
+        }
+        
+        /**
+         * Read and check the member trailer following the compressed data.
+         * 
+         * @throws IOException if the trailer is not valid.
+         */
+        private void readTrailer() throws IOException {
+            bufferPosition = bufferLength - inflater.getRemaining();
+            
+            long expectedCrc    = readInt();
+            long expectedSize   = readInt();
+            
+            if ((expectedCrc != crc.getValue()) || (expectedSize != (inflater.getBytesWritten() & 0xffffffffL))) {
+                throw new ZipException(ERR_CORRUPT_TRAILER);
+            }
+            
+            end = bufferOffset + bufferPosition;
+        }
+        
+        private long readInt() throws IOException {
+            return (readByte() | (readByte() << 8) | (readByte() << 16) | ((long) readByte() << 24));
+        }
+        
+        private void skipBytes(int nrOfBytes) throws IOException {
+            for (int i = 0; i < nrOfBytes; ++i) {
+                readByte();
+            }
+        }
+        
+        private int readByte() throws IOException {
+            if (bufferPosition == bufferLength) {
+                fillBuffer();
+            }
+            
+            return (buffer[bufferPosition++] & 0xff);
+        }
+        
+        /**
+         * Read the compressed data following the buffer into the buffer.
+         * 
+         * @throws IOException if the limit was reached or the file cannot be read.
+         */
+        private void fillBuffer() throws IOException {
+            bufferOffset    += bufferLength;
+            bufferPosition  = 0;
+            bufferLength    = (bufferOffset < limit) ? 
+                              readFully(channel, ByteBuffer.wrap(buffer), bufferOffset, limit) : 0;
+                              
+            if (bufferLength == 0) {
+                throw new EOFException(ERR_UNEXPECTED_END);
+            }
+        }
+        
+    }
+    
+}
@@ -0,0 +1,23 @@
+package com.bt.coding_test.model;
+
+/**
+ * Policy applied when a new package dependency closes a cycle of dependencies.
+ */
+public enum CyclePolicy {
+
+    /**
+     * Cycles are not detected and all dependencies are accepted.
+     */
+    ALLOW,
+    
+    /**
+     * Cycles are detected and reported, but the dependencies closing them are accepted.
+     */
+    WARN,
+    
+    /**
+     * Cycles are detected and the dependencies closing them are rejected.
+     */
+    REJECT
+    
+}
@@ -0,0 +1,140 @@
+package com.bt.coding_test.model;
+
+/**
+ * HyperLogLog sketch estimating the number of distinct package IDs added to it, using a fixed amount of memory.
+ * 
+ * The sketch consists of 2^precision registers of one byte each. The relative standard error of the estimate 
+ * is approximately 1.04 / sqrt(2^precision) (e.g. 3.25% for precision 10, which requires 1 KB). Sketches with 
+ * the same precision are mergeable: the merged sketch estimates the number of distinct IDs added to either sketch.
+ */
+public class HyperLogLogSketch {
+
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 16;
+    
+    private byte[]  registers;  // The maximum rank observed for the hashes mapped to each register
+    private int     precision;  // The number of hash bits selecting the register
+    
+    
+    /**
+     * Construct an empty sketch.
+     * 
+     * Assumption: The precision is in the range [MIN_PRECISION, MAX_PRECISION].
+     * 
+     * @param precision The number of hash bits selecting the register.
+     */
+    public HyperLogLogSketch(int precision) {
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+    
+    /**
+     * Add the given package ID to the sketch.
+     * 
+     * @param packageId The package ID.
+     */
+    public void add(int packageId) {
+        long hash       = hash(packageId);
+        int  register   = (int) (hash >>> (64 - precision));
+        
+        // The rank is the position of the first set bit in the remaining hash bits
+        byte rank = (byte) Math.min(Long.numberOfLeadingZeros(hash << precision) + 1, 64 - precision + 1);
+        
+        if (registers[register] < rank) {
+            registers[register] = rank;
+        }
+    }
+    
+    /**
+     * Merge the given sketch into this sketch.
+     * 
+     * Assumption: Both sketches have the same precision.
+     * 
+     * @param rhsSketch The given sketch.
+     */
+    public void merge(HyperLogLogSketch rhsSketch) {
+        byte[] rhsRegisters = rhsSketch.registers;
+        
+        for (int i = 0; i < registers.length; ++i) {
+            if (registers[i] < rhsRegisters[i]) {
+                registers[i] = rhsRegisters[i];
+            }
+        }
+    }
+    
+    /**
+     * Estimate the number of distinct package IDs added to the sketch.
+     * 
+     * @return The estimated number of distinct package IDs.
+     */
+    public long estimate() {
+        int    nrOfRegisters        = registers.length;
+        int    nrOfZeroRegisters    = 0;
+        double sum                  = 0;
+        
+        for (byte rank : registers) {
+            sum += 1.0 / (1L << rank);
+            
+            if (rank == 0) {
+                ++nrOfZeroRegisters;
+            }
+        }
+        
+        double estimate = getAlpha(nrOfRegisters) * nrOfRegisters * nrOfRegisters / sum;
+        
+        // Small range correction using linear counting
+        if ((estimate <= 2.5 * nrOfRegisters) && (nrOfZeroRegisters > 0)) {
+            estimate = nrOfRegisters * Math.log((double) nrOfRegisters / nrOfZeroRegisters);
+        }
+        
+        return Math.round(estimate);
+    }
+    
+    /**
+     * Get the number of bytes used by the registers of the sketch.
+     * 
+     * @return The number of bytes.
+     */
+    public int getSizeInBytes() {
+        return registers.length;
+    }
+    
+    /**
+     * Get the bias correction constant for the given number of registers.
+     * 
+     * @param nrOfRegisters The number of registers.
+     * @return The bias correction constant.
+     */
+    private static double getAlpha(int nrOfRegisters) {
+        switch (nrOfRegisters) {
+            case 16:
+                return 0.673;
+                
+            case 32:
+                return 0.697;
+                
+            case 64:
+                return 0.709;
+                
+            default:
+                return 0.7213 / (1 + 1.079 / nrOfRegisters);
+        }
+    }
+    
+    /**
+     * Compute a 64-bit hash of the given package ID (SplitMix64 finaliser), such that consecutive IDs are spread 
+     * uniformly over the registers.
+     * 
+     * @param packageId The package ID.
+     * @return The hash.
+     */
+    private static long hash(int packageId) {
+        long hash = packageId + 0x9E3779B97F4A7C15L;
+        
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        
+        return (hash ^ (hash >>> 31));
+    }
+    
+}
@@ -0,0 +1,283 @@
+package com.bt.coding_test.model;
+
+import java.util.Arrays;
+
+/**
+ * Condensation of a package dependencies directed graph, obtained by contracting each strongly connected 
+ * component (i.e. maximal set of packages which depend on each other, directly or transitively) into a single 
+ * component. The condensation is a directed acyclic graph.
+ * 
+ * Components are computed using an iterative version of Tarjan's algorithm and are numbered in reverse 
+ * topological order: if a component depends on another component, then the ID of the dependency component 
+ * is smaller. Therefore processing components in ascending order of their IDs visits dependencies before 
+ * the components depending on them.
+ */
+public class PackageDependenciesCondensation {
+
+    private int[]   components;             // The component of each package
+    private int     nrOfComponents;         // The number of components
+    private int[]   membersOffsets;         // The offset of the first member of each component
+    private int[]   members;                // The packages of all components, sorted by package ID
+    private int[]   dependenciesOffsets;    // The offset of the first direct dependency of each component
+    private int[]   dependencies;           // The distinct direct dependencies of all components
+    
+    
+    /**
+     * Compute the condensation of the graph with the given index.
+     * 
+     * @param index The graph index.
+     */
+    PackageDependenciesCondensation(PackageDependenciesGraphIndex index) {
+        computeComponents(index);
+        indexMembers(index.getNrOfPackages());
+        indexDependencies(index);
+    }
+    
+    /**
+     * Get the number of components.
+     * 
+     * @return The number of components.
+     */
+    public int getNrOfComponents() {
+        return nrOfComponents;
+    }
+    
+    /**
+     * Get the number of dependencies between distinct components.
+     * 
+     * @return The number of dependencies between components.
+     */
+    public int getNrOfDependencies() {
+        return dependencies.length;
+    }
+    
+    /**
+     * Estimate the number of bytes retained by the condensation.
+     * 
+     * @return The estimated size in bytes.
+     */
+    public long estimateSizeInBytes() {
+        return 4L * (components.length + membersOffsets.length + members.length + dependenciesOffsets.length + 
+                     dependencies.length);
+    }
+    
+    /**
+     * Get the component of the given package.
+     * 
+     * @param packageId The package ID.
+     * @return The component ID.
+     */
+    public int getComponent(int packageId) {
+        return components[packageId];
+    }
+    
+    /**
+     * Get the number of packages in the given component.
+     * 
+     * @param componentId The component ID.
+     * @return The number of packages in the component.
+     */
+    public int getComponentSize(int componentId) {
+        return (membersOffsets[componentId + 1] - membersOffsets[componentId]);
+    }
+    
+    /**
+     * Get the position of the first member of the given component. The members of the component are found 
+     * at positions [begin, end) and can be retrieved using the getMember() method.
+     * 
+     * @param componentId The component ID.
+     * @return The position of the first member.
+     */
+    public int getMembersBegin(int componentId) {
+        return membersOffsets[componentId];
+    }
+    
+    /**
+     * Get the position following the last member of the given component.
+     * 
+     * @param componentId The component ID.
+     * @return The position following the last member.
+     */
+    public int getMembersEnd(int componentId) {
+        return membersOffsets[componentId + 1];
+    }
+    
+    /**
+     * Get the ID of the package recorded at the given position.
+     * 
+     * @param position The position of the member.
+     * @return The package ID.
+     */
+    public int getMember(int position) {
+        return members[position];
+    }
+    
+    /**
+     * Get the position of the first direct dependency of the given component. The direct dependencies 
+     * of the component are found at positions [begin, end) and can be retrieved using the getDependency() method.
+     * 
+     * @param componentId The component ID.
+     * @return The position of the first direct dependency.
+     */
+    public int getDependenciesBegin(int componentId) {
+        return dependenciesOffsets[componentId];
+    }
+    
+    /**
+     * Get the position following the last direct dependency of the given component.
+     * 
+     * @param componentId The component ID.
+     * @return The position following the last direct dependency.
+     */
+    public int getDependenciesEnd(int componentId) {
+        return dependenciesOffsets[componentId + 1];
+    }
+    
+    /**
+     * Get the ID of the component dependency recorded at the given position.
+     * 
+     * @param position The position of the direct dependency.
+     * @return The ID of the component dependency.
+     */
+    public int getDependency(int position) {
+        return dependencies[position];
+    }
+    
+    /**
+     * Compute the strongly connected components using an iterative version of Tarjan's algorithm.
+     * 
+     * @param index The graph index.
+     */
+    private void computeComponents(PackageDependenciesGraphIndex index) {
+        int nrOfPackages = index.getNrOfPackages();
+        
+        int[] discoveryTimes        = new int[nrOfPackages];    // The discovery time of each package (0 if not visited)
+        int[] lowLinks              = new int[nrOfPackages];    // The smallest discovery time reachable
+        int[] nextPositions         = new int[nrOfPackages];    // The next dependency to visit for each package
+        int[] callStack             = new int[nrOfPackages];    // The packages whose dependencies are being visited
+        int[] componentStack        = new int[nrOfPackages];    // The packages not yet assigned to a component
+        int   time                  = 0;
+        int   nrOfCallStack         = 0;
+        int   nrOfComponentStack    = 0;
+        
+        components = new int[nrOfPackages];
+        
+        Arrays.fill(components, -1);
+        
+        for (int root = 0; root < nrOfPackages; ++root) {
+            if (discoveryTimes[root] != 0) {
+                continue;
+            }
+            
+            discoveryTimes[root]    = ++time;
+            lowLinks[root]          = time;
+            nextPositions[root]     = index.getDependenciesBegin(root);
+            
+            callStack[nrOfCallStack++]              = root;
+            componentStack[nrOfComponentStack++]    = root;
+            
+            while (nrOfCallStack > 0) {
+                int packageId = callStack[nrOfCallStack - 1];
+                
+                if (nextPositions[packageId] < index.getDependenciesEnd(packageId)) {
+                    int dependencyId = index.getDependency(nextPositions[packageId]++);
+                    
+                    if (discoveryTimes[dependencyId] == 0) {
+                        // Visit the dependency
+                        discoveryTimes[dependencyId]    = ++time;
+                        lowLinks[dependencyId]          = time;
+                        nextPositions[dependencyId]     = index.getDependenciesBegin(dependencyId);
+                        
+                        callStack[nrOfCallStack++]              = dependencyId;
+                        componentStack[nrOfComponentStack++]    = dependencyId;
+                    } else if (components[dependencyId] < 0) {
+                        // The dependency is on the component stack
+                        lowLinks[packageId] = Math.min(lowLinks[packageId], discoveryTimes[dependencyId]);
+                    }
+                } else {
+                    // All dependencies were visited
+                    --nrOfCallStack;
+                    
+                    if (lowLinks[packageId] == discoveryTimes[packageId]) {
+                        int memberId;
+                        
+                        do {
+                            memberId = componentStack[--nrOfComponentStack];
+                            
+                            components[memberId] = nrOfComponents;
+                        } while (memberId != packageId);
+                        
+                        ++nrOfComponents;
+                    }
+                    
+                    if (nrOfCallStack > 0) {
+                        int parentId = callStack[nrOfCallStack - 1];
+                        
+                        lowLinks[parentId] = Math.min(lowLinks[parentId], lowLinks[packageId]);
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Record the members of all components in compressed sparse row form.
+     * 
+     * @param nrOfPackages The number of packages.
+     */
+    private void indexMembers(int nrOfPackages) {
+        membersOffsets  = new int[nrOfComponents + 1];
+        members         = new int[nrOfPackages];
+        
+        for (int i = 0; i < nrOfPackages; ++i) {
+            ++membersOffsets[components[i] + 1];
+        }
+        
+        for (int i = 0; i < nrOfComponents; ++i) {
+            membersOffsets[i + 1] += membersOffsets[i];
+        }
+        
+        int[] nextPositions = Arrays.copyOf(membersOffsets, nrOfComponents);
+        
+        for (int i = 0; i < nrOfPackages; ++i) {
+            members[nextPositions[components[i]]++] = i;
+        }
+    }
+    
+    /**
+     * Record the distinct dependencies between components in compressed sparse row form.
+     * 
+     * @param index The graph index.
+     */
+    private void indexDependencies(PackageDependenciesGraphIndex index) {
+        int[] lastDependants        = new int[nrOfComponents];  // The last component depending on each component
+        int[] componentDependencies = new int[index.getNrOfDependencies()];
+        int   position              = 0;
+        
+        Arrays.fill(lastDependants, -1);
+        
+        dependenciesOffsets = new int[nrOfComponents + 1];
+        
+        for (int i = 0; i < nrOfComponents; ++i) {
+            dependenciesOffsets[i] = position;
+            
+            for (int j = membersOffsets[i]; j < membersOffsets[i + 1]; ++j) {
+                int packageId = members[j];
+                
+                for (int k = index.getDependenciesBegin(packageId); k < index.getDependenciesEnd(packageId); ++k) {
+                    int dependencyComponent = components[index.getDependency(k)];
+                    
+                    if ((dependencyComponent != i) && (lastDependants[dependencyComponent] != i)) {
+                        lastDependants[dependencyComponent] = i;
+                        
+                        componentDependencies[position++] = dependencyComponent;
+                    }
+                }
+            }
+        }
+        
+        dependenciesOffsets[nrOfComponents] = position;
+        dependencies                        = Arrays.copyOf(componentDependencies, position);
+    }
+    
+}
@@ -1,7 +1,9 @@
 package com.bt.coding_test.model;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
@@ -11,24 +13,72 @@ import java.util.TreeSet;
  */
 public class PackageDependenciesDirectedGraph {
 
-    private Map<Package, Set<Package>> dependencies;    // The direct dependencies of each package
+    // The estimated sizes of the structures recording the graph, for a JVM using compressed references
+    private static final long SOURCE_PACKAGE_SIZE_IN_BYTES      = 136;  // A dependencies map entry and its tree set
+    private static final long DEPENDENCY_SIZE_IN_BYTES          = 40;   // A tree set entry
+    private static final long WEIGHT_SIZE_IN_BYTES              = 64;   // A weights map entry and its boxed weight
+    private static final long ORDERED_PACKAGE_SIZE_IN_BYTES     = 120;  // A package of the topological order
+    private static final long ORDERED_DEPENDENCY_SIZE_IN_BYTES  = 8;    // A dependency of the topological order
+    
+
+    private Map<Package, Set<Package>>          dependencies;       // The direct dependencies of each package
+    private Map<Package, Long>                  weights;            // The weight of each package with a weight
+    private int                                 nrOfDependencies;   // The total number of direct dependencies
+    private PackageDependenciesGraphIndex       index;              // The graph index, or null if not computed yet
+    private CyclePolicy                         cyclePolicy;        // The policy applied to dependencies closing cycles
+    private PackageDependenciesTopologicalOrder topologicalOrder;   // The order used to detect cycles, if required
     
     
     public PackageDependenciesDirectedGraph() {
-        dependencies = new HashMap<Package, Set<Package>>();
+        this(CyclePolicy.ALLOW);
+    }
+    
+    /**
+     * Construct a graph applying the given policy to dependencies closing cycles.
+     * 
+     * @param cyclePolicy The policy applied to dependencies closing cycles.
+     */
+    public PackageDependenciesDirectedGraph(CyclePolicy cyclePolicy) {
+        this.dependencies   = new HashMap<Package, Set<Package>>();
+        this.weights        = new HashMap<Package, Long>();
+        this.cyclePolicy    = cyclePolicy;
+        
+        if (cyclePolicy != CyclePolicy.ALLOW) {
+            topologicalOrder = new PackageDependenciesTopologicalOrder();
+        }
     }
     
     /**
      * Add a new dependency for a package.
      * 
+     * If the cycle policy is not ALLOW, the cycle closed by the new dependency (if any) is detected and returned. 
+     * A dependency closing a cycle is not added if the cycle policy is REJECT.
+     * 
      * Assumption: The given packages have valid names.
      * 
      * @param sourcePackage        The source package for which the dependency is added.
      * @param packageDependency The package on which the source package depends.
+     * @return The packages on the cycle closed by the new dependency, starting with the source package, 
+     *         or an empty list if no cycle is closed or cycles are not detected.
      */
-    public void addNewPackageDependency(Package sourcePackage, Package packageDependency) {
+    public List<Package> addNewPackageDependency(Package sourcePackage, Package packageDependency) {
         Set<Package> sourcePackageDependencies = dependencies.get(sourcePackage);
         
+        if ((sourcePackageDependencies != null) && (sourcePackageDependencies.contains(packageDependency))) {
+            return Collections.emptyList();
+        }
+        
+        List<Package> cycle = Collections.emptyList();
+        
+        if (topologicalOrder != null) {
+            cycle = topologicalOrder.addDependency(sourcePackage, packageDependency, 
+                                                   cyclePolicy == CyclePolicy.WARN);
+            
+            if ((!cycle.isEmpty()) && (cyclePolicy == CyclePolicy.REJECT)) {
+                return cycle;
+            }
+        }
+        
         // If the source package does not have any dependencies then create and add a new set to the dependencies map
         if (sourcePackageDependencies == null) {
             sourcePackageDependencies = new TreeSet<Package>();
@@ -37,6 +87,13 @@ public class PackageDependenciesDirectedGraph {
         }
         
         sourcePackageDependencies.add(packageDependency);
+        
+        ++nrOfDependencies;
+        
+        // The index no longer reflects the graph
+        index = null;
+        
+        return cycle;
     }
     
     /**
@@ -53,4 +110,118 @@ public class PackageDependenciesDirectedGraph {
         }
     }
     
+    /**
+     * Get the packages which have at least one direct dependency.
+     * 
+     * @return The unmodifiable set of source packages.
+     */
+    public Set<Package> getSourcePackages() {
+        return Collections.unmodifiableSet(dependencies.keySet());
+    }
+    
+    /**
+     * Set the weight (e.g. build cost or artifact size) of the given package. Packages without a weight have 
+     * the weight 0.
+     * 
+     * Assumption: Weights are non-negative.
+     * 
+     * @param givenPackage  The package.
+     * @param weight        The weight of the package.
+     */
+    public void setPackageWeight(Package givenPackage, long weight) {
+        weights.put(givenPackage, weight);
+        
+        // The index no longer reflects the graph
+        index = null;
+    }
+    
+    /**
+     * Get the weight of the given package.
+     * 
+     * @param givenPackage The package.
+     * @return The weight of the package, or 0 if the package does not have a weight.
+     */
+    public long getPackageWeight(Package givenPackage) {
+        Long weight = weights.get(givenPackage);
+        
+        return (weight == null) ? 0 : weight;
+    }
+    
+    /**
+     * Check if a weight was set for the given package.
+     * 
+     * @param givenPackage The package.
+     * @return True if the package has a weight, and false otherwise.
+     */
+    public boolean hasPackageWeight(Package givenPackage) {
+        return weights.containsKey(givenPackage);
+    }
+    
+    /**
+     * Get the packages which have a weight.
+     * 
+     * @return The unmodifiable set of weighted packages.
+     */
+    public Set<Package> getWeightedPackages() {
+        return Collections.unmodifiableSet(weights.keySet());
+    }
+    
+    /**
+     * Get the policy applied to dependencies closing cycles.
+     * 
+     * @return The cycle policy.
+     */
+    public CyclePolicy getCyclePolicy() {
+        return cyclePolicy;
+    }
+    
+    /**
+     * Get the total number of direct package dependencies recorded in the graph.
+     * 
+     * @return The number of direct package dependencies.
+     */
+    public int getNrOfPackageDependencies() {
+        return nrOfDependencies;
+    }
+    
+    /**
+     * Estimate the number of bytes retained by the graph, including its index if it was computed.
+     * 
+     * Assumption: The packages themselves are not included, since they may be shared with other graphs 
+     *             (see com.bt.coding_test.model.PackagePool). The name dictionary of the index copies the names 
+     *             of the packages, and is included with the index.
+     * 
+     * @return The estimated size in bytes.
+     */
+    public synchronized long estimateSizeInBytes() {
+        long sizeInBytes = SOURCE_PACKAGE_SIZE_IN_BYTES * dependencies.size() + 
+                           DEPENDENCY_SIZE_IN_BYTES * nrOfDependencies + 
+                           WEIGHT_SIZE_IN_BYTES * weights.size();
+                           
+        if (topologicalOrder != null) {
+            sizeInBytes += ORDERED_PACKAGE_SIZE_IN_BYTES * dependencies.size() + 
+                           ORDERED_DEPENDENCY_SIZE_IN_BYTES * nrOfDependencies;
+        }
+        
+        if (index != null) {
+            sizeInBytes += index.estimateSizeInBytes();
+        }
+        
+        return sizeInBytes;
+    }
+    
+    /**
+     * Get the index of the graph, which interns packages as integer IDs.
+     * The index is computed on first use and recomputed after the graph changes.
+     * 
+     * @return The index of the graph.
+     */
+    public synchronized PackageDependenciesGraphIndex getIndex() {
+        if (index == null) {
+            index = new PackageDependenciesGraphIndex(this);
+        }
+        
+        return index;
+    }
+    
 }
@@ -0,0 +1,311 @@
+package com.bt.coding_test.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable index of a package dependencies directed graph.
+ * Each package is interned as an integer ID in the range [0, number of packages) and the direct dependencies
+ * of all packages are recorded as package IDs in compressed sparse row form. The reverse edges (i.e. the direct
+ * dependants of each package) are recorded in the same form.
+ * 
+ * Package IDs are assigned in alphabetical order of the package names, such that sorting packages only requires
+ * comparing their IDs. The direct dependencies and dependants of each package are sorted by ID.
+ * 
+ * Packages are resolved to their IDs through the compact name dictionary, hence the index does not retain a map 
+ * from packages to IDs.
+ * 
+ * Assumption: The packages and their name Strings are retained by the graph (and may be shared with other graphs 
+ *             through a package pool), hence they are not included in the size of the index. The name dictionary 
+ *             holds its own copy of the names, which is included.
+ */
+public class PackageDependenciesGraphIndex {
+
+    private Package[]                       packages;               // The packages indexed by package ID
+    private int[]                           dependenciesOffsets;    // The offset of the first dependency of each package
+    private int[]                           dependencies;           // The direct dependencies of all packages
+    private int[]                           dependantsOffsets;      // The offset of the first dependant of each package
+    private int[]                           dependants;             // The direct dependants of all packages
+    private long[]                          weights;                // The weight of each package
+    private PackageDependenciesCondensation condensation;           // The condensation, or null if not computed yet
+    private PackageNameDictionary           nameDictionary;         // The name dictionary, which resolves the package IDs
+    
+    
+    /**
+     * Construct the index of the given graph.
+     * 
+     * @param graph The package dependencies directed graph.
+     */
+    PackageDependenciesGraphIndex(PackageDependenciesDirectedGraph graph) {
+        // The map from packages to IDs is only required while the index is constructed
+        Map<Package, Integer> packageIds = internPackages(graph);
+        
+        indexDependencies(graph, packageIds);
+        indexDependants();
+        indexWeights(graph, packageIds);
+        
+        nameDictionary = new PackageNameDictionary(packages);
+    }
+    
+    /**
+     * Get the number of packages recorded in the index.
+     * 
+     * @return The number of packages.
+     */
+    public int getNrOfPackages() {
+        return packages.length;
+    }
+    
+    /**
+     * Get the number of direct dependencies recorded in the index.
+     * 
+     * @return The number of direct dependencies.
+     */
+    public int getNrOfDependencies() {
+        return dependencies.length;
+    }
+    
+    /**
+     * Estimate the number of bytes retained by the index, including the name dictionary and the condensation if 
+     * it was computed, but excluding the packages themselves.
+     * 
+     * @return The estimated size in bytes.
+     */
+    public synchronized long estimateSizeInBytes() {
+        long sizeInBytes = 4L * packages.length + 
+                           4L * (dependenciesOffsets.length + dependencies.length + 
+                                 dependantsOffsets.length + dependants.length) + 
+                           8L * weights.length + 
+                           nameDictionary.getSizeInBytes();
+                           
+        if (condensation != null) {
+            sizeInBytes += condensation.estimateSizeInBytes();
+        }
+        
+        return sizeInBytes;
+    }
+    
+    /**
+     * Get the ID of the given package.
+     * 
+     * @param givenPackage The given package.
+     * @return The ID of the given package, or -1 if the package is not recorded in the index.
+     */
+    public int getPackageId(Package givenPackage) {
+        return nameDictionary.getId(givenPackage.getName());
+    }
+    
+    /**
+     * Get the package with the given ID.
+     * 
+     * @param packageId The package ID.
+     * @return The package with the given ID.
+     */
+    public Package getPackage(int packageId) {
+        return packages[packageId];
+    }
+    
+    /**
+     * Get the weight of the package with the given ID.
+     * 
+     * @param packageId The package ID.
+     * @return The weight of the package, or 0 if the package does not have a weight.
+     */
+    public long getPackageWeight(int packageId) {
+        return weights[packageId];
+    }
+    
+    /**
+     * Get the position of the first direct dependency of the given package.
+     * The direct dependencies of the package are found at positions [begin, end) and can be retrieved
+     * using the getDependency() method.
+     * 
+     * @param packageId The package ID.
+     * @return The position of the first direct dependency.
+     */
+    public int getDependenciesBegin(int packageId) {
+        return dependenciesOffsets[packageId];
+    }
+    
+    /**
+     * Get the position following the last direct dependency of the given package.
+     * 
+     * @param packageId The package ID.
+     * @return The position following the last direct dependency.
+     */
+    public int getDependenciesEnd(int packageId) {
+        return dependenciesOffsets[packageId + 1];
+    }
+    
+    /**
+     * Get the ID of the direct dependency recorded at the given position.
+     * 
+     * @param position The position of the direct dependency.
+     * @return The ID of the direct dependency.
+     */
+    public int getDependency(int position) {
+        return dependencies[position];
+    }
+    
+    /**
+     * Get the position of the first direct dependant (i.e. package depending directly on the given package) 
+     * of the given package. The direct dependants of the package are found at positions [begin, end) and can be 
+     * retrieved using the getDependant() method.
+     * 
+     * @param packageId The package ID.
+     * @return The position of the first direct dependant.
+     */
+    public int getDependantsBegin(int packageId) {
+        return dependantsOffsets[packageId];
+    }
+    
+    /**
+     * Get the position following the last direct dependant of the given package.
+     * 
+     * @param packageId The package ID.
+     * @return The position following the last direct dependant.
+     */
+    public int getDependantsEnd(int packageId) {
+        return dependantsOffsets[packageId + 1];
+    }
+    
+    /**
+     * Get the ID of the direct dependant recorded at the given position.
+     * 
+     * @param position The position of the direct dependant.
+     * @return The ID of the direct dependant.
+     */
+    public int getDependant(int position) {
+        return dependants[position];
+    }
+    
+    /**
+     * Get the condensation of the graph, in which each strongly connected component is contracted into 
+     * a single component. The condensation is computed on first use.
+     * 
+     * @return The condensation of the graph.
+     */
+    public synchronized PackageDependenciesCondensation getCondensation() {
+        if (condensation == null) {
+            condensation = new PackageDependenciesCondensation(this);
+        }
+        
+        return condensation;
+    }
+    
+    /**
+     * Get the compact dictionary of the package names, in which the position of each name is the package ID. 
+     * 
+     * @return The package name dictionary.
+     */
+    public PackageNameDictionary getNameDictionary() {
+        return nameDictionary;
+    }
+    
+    /**
+     * Assign an ID to each package occurring in the graph, in alphabetical order of the package names.
+     * Packages which have a weight occur in the graph even if they do not have any dependencies or dependants.
+     * 
+     * @param graph The package dependencies directed graph.
+     * @return The package ID of each package.
+     */
+    private Map<Package, Integer> internPackages(PackageDependenciesDirectedGraph graph) {
+        Set<Package> uniquePackages = new HashSet<Package>(graph.getSourcePackages());
+        
+        uniquePackages.addAll(graph.getWeightedPackages());
+        
+        for (Package sourcePackage : graph.getSourcePackages()) {
+            Iterator<Package> sourcePackageDependencies = graph.getDirectPackageDependencies(sourcePackage);
+            
+            while (sourcePackageDependencies.hasNext()) {
+                uniquePackages.add(sourcePackageDependencies.next());
+            }
+        }
+        
+        // Package names are only compared once, while assigning the IDs
+        packages = uniquePackages.toArray(new Package[uniquePackages.size()]);
+        
+        Arrays.sort(packages);
+        
+        Map<Package, Integer> packageIds = new HashMap<Package, Integer>(2 * packages.length);
+        
+        for (int i = 0; i < packages.length; ++i) {
+            packageIds.put(packages[i], i);
+        }
+        
+        return packageIds;
+    }
+    
+    /**
+     * Record the direct dependencies of all packages in compressed sparse row form.
+     * 
+     * @param graph       The package dependencies directed graph.
+     * @param packageIds  The package ID of each package.
+     */
+    private void indexDependencies(PackageDependenciesDirectedGraph graph, Map<Package, Integer> packageIds) {
+        dependenciesOffsets = new int[packages.length + 1];
+        dependencies        = new int[graph.getNrOfPackageDependencies()];
+        
+        int position = 0;
+        
+        for (int i = 0; i < packages.length; ++i) {
+            dependenciesOffsets[i] = position;
+            
+            Iterator<Package> packageDependencies = graph.getDirectPackageDependencies(packages[i]);
+            
+            if (packageDependencies != null) {
+                // The graph provides the direct dependencies sorted by name, hence sorted by ID
+                while (packageDependencies.hasNext()) {
+                    dependencies[position++] = packageIds.get(packageDependencies.next());
+                }
+            }
+        }
+        
+        dependenciesOffsets[packages.length] = position;
+    }
+    
+    /**
+     * Record the weight of each package.
+     * 
+     * @param graph       The package dependencies directed graph.
+     * @param packageIds  The package ID of each package.
+     */
+    private void indexWeights(PackageDependenciesDirectedGraph graph, Map<Package, Integer> packageIds) {
+        weights = new long[packages.length];
+        
+        for (Package weightedPackage : graph.getWeightedPackages()) {
+            weights[packageIds.get(weightedPackage)] = graph.getPackageWeight(weightedPackage);
+        }
+    }
+    
+    /**
+     * Record the direct dependants of all packages in compressed sparse row form by transposing the dependencies.
+     */
+    private void indexDependants() {
+        dependantsOffsets   = new int[packages.length + 1];
+        dependants          = new int[dependencies.length];
+        
+        // Count the direct dependants of each package
+        for (int dependency : dependencies) {
+            ++dependantsOffsets[dependency + 1];
+        }
+        
+        for (int i = 0; i < packages.length; ++i) {
+            dependantsOffsets[i + 1] += dependantsOffsets[i];
+        }
+        
+        // Record the direct dependants, in ascending order of their IDs
+        int[] nextPositions = Arrays.copyOf(dependantsOffsets, packages.length);
+        
+        for (int i = 0; i < packages.length; ++i) {
+            for (int j = dependenciesOffsets[i]; j < dependenciesOffsets[i + 1]; ++j) {
+                dependants[nextPositions[dependencies[j]]++] = i;
+            }
+        }
+    }
+    
+}
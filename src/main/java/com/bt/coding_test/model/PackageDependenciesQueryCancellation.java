@@ -0,0 +1,31 @@
+package com.bt.coding_test.model;
+
+/**
+ * Token used to cancel package dependencies queries from another thread. The queries using the token check it 
+ * while traversing the graph, and return the dependencies found so far once it is cancelled.
+ * 
+ * This class is thread safe.
+ */
+public class PackageDependenciesQueryCancellation {
+
+    private volatile boolean isCancelled;   // True if the queries using the token are cancelled
+    
+    
+    /**
+     * Cancel the queries using the token. Queries started after the cancellation stop immediately.
+     */
+    public void cancel() {
+        isCancelled = true;
+    }
+    
+    /**
+     * Check if the queries using the token are cancelled. Running queries check the token periodically, hence 
+     * they stop shortly after the cancellation rather than immediately.
+     * 
+     * @return True if the token was cancelled, and false otherwise.
+     */
+    public boolean isCancelled() {
+        return isCancelled;
+    }
+    
+}
@@ -0,0 +1,29 @@
+package com.bt.coding_test.model;
+
+/**
+ * Limit of a package dependencies query which stopped the traversal of the graph before all the dependencies 
+ * were found (see com.bt.coding_test.model.PackageDependenciesQueryOptions).
+ */
+public enum PackageDependenciesQueryLimit {
+
+    /**
+     * The maximum number of packages whose dependencies are traversed was reached.
+     */
+    MAX_VISITED_PACKAGES,
+    
+    /**
+     * The maximum number of packages found was reached.
+     */
+    MAX_RESULT_SIZE,
+    
+    /**
+     * The deadline of the query was reached.
+     */
+    DEADLINE,
+    
+    /**
+     * The query was cancelled.
+     */
+    CANCELLED
+    
+}
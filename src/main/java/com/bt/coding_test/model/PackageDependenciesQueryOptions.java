@@ -0,0 +1,250 @@
+package com.bt.coding_test.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Options restricting the package dependencies found by a query. The options are applied while traversing 
+ * the graph, such that the packages which are not part of the answer are not traversed.
+ * 
+ * Package name patterns may contain the wildcard character "*", which matches any sequence of characters 
+ * (e.g. "swing*" matches all packages whose names start with "swing").
+ * 
+ * The work done by a query may also be bounded by budgets (the number of packages whose dependencies are 
+ * traversed, the number of packages found and a timeout) and by a cancellation token. A query reaching one of 
+ * these limits returns the dependencies found so far, marked as truncated.
+ */
+public class PackageDependenciesQueryOptions {
+
+    public static final int     UNLIMITED_DEPTH = Integer.MAX_VALUE;
+    public static final int     UNLIMITED_SIZE  = Integer.MAX_VALUE;
+    public static final long    NO_TIMEOUT      = Long.MAX_VALUE;
+    
+    private static final String WILDCARD        = "*";
+    private static final String WILDCARD_REGEX  = ".*";
+    
+    private int             maxDepth        = UNLIMITED_DEPTH;          // The maximum depth of the dependencies found
+    private List<Pattern>   includePatterns = new ArrayList<Pattern>(); // The patterns of the packages traversed
+    private List<Pattern>   excludePatterns = new ArrayList<Pattern>(); // The patterns of the packages not traversed
+    private Set<Package>    stopAtPackages  = new HashSet<Package>();   // The packages whose dependencies are not traversed
+    
+    private int                                     maxVisitedPackages  = UNLIMITED_SIZE;   // The maximum number of packages whose dependencies are traversed
+    private int                                     maxResultSize       = UNLIMITED_SIZE;   // The maximum number of packages found
+    private long                                    timeoutNanos        = NO_TIMEOUT;       // The maximum duration of a query, in nanoseconds
+    private PackageDependenciesQueryCancellation    cancellation;                           // The cancellation token, or null
+    
+    
+    /**
+     * Get the maximum depth of the dependencies found. The direct dependencies have depth 1.
+     * 
+     * @return The maximum depth, or UNLIMITED_DEPTH if the depth is not limited.
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+    
+    /**
+     * Set the maximum depth of the dependencies found. The direct dependencies have depth 1.
+     * 
+     * @param maxDepth The maximum depth, or UNLIMITED_DEPTH if the depth is not limited.
+     */
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+    
+    /**
+     * Add a pattern of the package names which are traversed. If at least one include pattern is given, only 
+     * the packages matching an include pattern are found, and dependencies are only traversed through them.
+     * 
+     * @param namePattern The package name pattern.
+     */
+    public void addIncludePattern(String namePattern) {
+        includePatterns.add(compileNamePattern(namePattern));
+    }
+    
+    /**
+     * Add a pattern of the package names which are not traversed. The packages matching an exclude pattern are 
+     * not found, and dependencies are not traversed through them.
+     * 
+     * @param namePattern The package name pattern.
+     */
+    public void addExcludePattern(String namePattern) {
+        excludePatterns.add(compileNamePattern(namePattern));
+    }
+    
+    /**
+     * Add a package whose dependencies are not traversed. The package itself is still found.
+     * 
+     * @param stopAtPackage The package.
+     */
+    public void addStopAtPackage(Package stopAtPackage) {
+        stopAtPackages.add(stopAtPackage);
+    }
+    
+    /**
+     * Get the packages whose dependencies are not traversed.
+     * 
+     * @return The unmodifiable set of packages.
+     */
+    public Set<Package> getStopAtPackages() {
+        return Collections.unmodifiableSet(stopAtPackages);
+    }
+    
+    /**
+     * Get the maximum number of packages whose dependencies are traversed, including the source package.
+     * 
+     * @return The maximum number of visited packages, or UNLIMITED_SIZE if the number is not limited.
+     */
+    public int getMaxVisitedPackages() {
+        return maxVisitedPackages;
+    }
+    
+    /**
+     * Set the maximum number of packages whose dependencies are traversed, including the source package.
+     * 
+     * @param maxVisitedPackages The maximum number of visited packages, or UNLIMITED_SIZE if the number is not limited.
+     */
+    public void setMaxVisitedPackages(int maxVisitedPackages) {
+        this.maxVisitedPackages = maxVisitedPackages;
+    }
+    
+    /**
+     * Get the maximum number of packages found.
+     * 
+     * @return The maximum number of packages found, or UNLIMITED_SIZE if the number is not limited.
+     */
+    public int getMaxResultSize() {
+        return maxResultSize;
+    }
+    
+    /**
+     * Set the maximum number of packages found.
+     * 
+     * @param maxResultSize The maximum number of packages found, or UNLIMITED_SIZE if the number is not limited.
+     */
+    public void setMaxResultSize(int maxResultSize) {
+        this.maxResultSize = maxResultSize;
+    }
+    
+    /**
+     * Get the maximum duration of a query. The deadline of each query is its start time plus the timeout.
+     * 
+     * @return The timeout in nanoseconds, or NO_TIMEOUT if the duration is not limited.
+     */
+    public long getTimeoutNanos() {
+        return timeoutNanos;
+    }
+    
+    /**
+     * Set the maximum duration of a query. The deadline of each query is its start time plus the timeout.
+     * 
+     * @param timeout   The timeout.
+     * @param unit      The unit of the timeout.
+     */
+    public void setTimeout(long timeout, TimeUnit unit) {
+        this.timeoutNanos = unit.toNanos(timeout);
+    }
+    
+    /**
+     * Get the token used to cancel the queries using these options.
+     * 
+     * @return The cancellation token, or null if the queries cannot be cancelled.
+     */
+    public PackageDependenciesQueryCancellation getCancellation() {
+        return cancellation;
+    }
+    
+    /**
+     * Set the token used to cancel the queries using these options.
+     * 
+     * @param cancellation The cancellation token, or null if the queries cannot be cancelled.
+     */
+    public void setCancellation(PackageDependenciesQueryCancellation cancellation) {
+        this.cancellation = cancellation;
+    }
+    
+    /**
+     * Check if the work done by a query is bounded by a budget or a cancellation token.
+     * 
+     * @return True if a budget or a cancellation token is set, and false otherwise.
+     */
+    public boolean hasLimits() {
+        return ((maxVisitedPackages != UNLIMITED_SIZE) || (maxResultSize != UNLIMITED_SIZE) || 
+                (timeoutNanos != NO_TIMEOUT) || (cancellation != null));
+    }
+    
+    /**
+     * Check if the name patterns accept the given package, i.e. the package matches an include pattern 
+     * (if any) and does not match any exclude pattern.
+     * 
+     * @param givenPackage The given package.
+     * @return True if the package is accepted, and false otherwise.
+     */
+    public boolean isAccepted(Package givenPackage) {
+        String packageName = givenPackage.getName();
+        
+        for (Pattern excludePattern : excludePatterns) {
+            if (excludePattern.matcher(packageName).matches()) {
+                return false;
+            }
+        }
+        
+        if (includePatterns.isEmpty()) {
+            return true;
+        }
+        
+        for (Pattern includePattern : includePatterns) {
+            if (includePattern.matcher(packageName).matches()) {
+                return true;
+            }
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Check if the dependencies found are restricted by a maximum depth, name patterns or stop-at packages, 
+     * which can only be applied by a breadth first traversal of the graph.
+     * 
+     * @return True if a maximum depth, a name pattern or a stop-at package is set, and false otherwise.
+     */
+    public boolean hasRestrictions() {
+        return ((maxDepth != UNLIMITED_DEPTH) || (!includePatterns.isEmpty()) || 
+                (!excludePatterns.isEmpty()) || (!stopAtPackages.isEmpty()));
+    }
+    
+    /**
+     * Check if the options do not restrict the dependencies found.
+     * 
+     * @return True if no option is set, and false otherwise.
+     */
+    public boolean isUnrestricted() {
+        return ((!hasRestrictions()) && (!hasLimits()));
+    }
+    
+    /**
+     * Compile the given package name pattern into a regular expression.
+     * 
+     * @param namePattern The package name pattern.
+     * @return The regular expression.
+     */
+    private static Pattern compileNamePattern(String namePattern) {
+        StringBuilder regex = new StringBuilder();
+        
+        for (String literal : namePattern.split(Pattern.quote(WILDCARD), -1)) {
+            if (regex.length() > 0) {
+                regex.append(WILDCARD_REGEX);
+            }
+            
+            regex.append(Pattern.quote(literal));
+        }
+        
+        return Pattern.compile(regex.toString());
+    }
+    
+}
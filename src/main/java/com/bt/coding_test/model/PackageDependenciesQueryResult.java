@@ -0,0 +1,170 @@
+package com.bt.coding_test.model;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Result of a package dependencies query, recording the packages found and the depth at which each package 
+ * was found (i.e. the length of the shortest chain of dependencies from the source package).
+ * 
+ * A query which reached one of its limits (see com.bt.coding_test.model.PackageDependenciesQueryLimit) returns 
+ * a truncated result, recording only the packages found before the traversal stopped.
+ * 
+ * Assumption: The depths are only recorded by the strategies traversing the graph in breadth first order, since 
+ *             other traversals do not find the shortest chains of dependencies.
+ */
+public class PackageDependenciesQueryResult {
+
+    private static final String ERR_NO_DEPTHS = "The depths of the packages found were not recorded by the query.";
+    
+    private PackageDependenciesGraphIndex   index;      // The graph index used to assign the package IDs
+    private int[]                           packageIds; // The IDs of the packages found, sorted ascending
+    private int[]                           depths;     // The depth of each package found, or null if not recorded
+    private PackageDependenciesQueryLimit   truncation; // The limit which truncated the result, or null if complete
+    
+    
+    /**
+     * Construct a query result.
+     * 
+     * @param index         The graph index used to assign the package IDs.
+     * @param packageIds    The IDs of the packages found, sorted ascending.
+     * @param depths        The depth of each package found.
+     */
+    public PackageDependenciesQueryResult(PackageDependenciesGraphIndex index, int[] packageIds, int[] depths) {
+        this(index, packageIds, depths, null);
+    }
+    
+    /**
+     * Construct a query result which may be truncated.
+     * 
+     * @param index         The graph index used to assign the package IDs.
+     * @param packageIds    The IDs of the packages found, sorted ascending.
+     * @param depths        The depth of each package found.
+     * @param truncation    The limit which truncated the result, or null if the result is complete.
+     */
+    public PackageDependenciesQueryResult(PackageDependenciesGraphIndex index, int[] packageIds, int[] depths, 
+                                          PackageDependenciesQueryLimit truncation) {
+        this.index      = index;
+        this.packageIds = packageIds;
+        this.depths     = depths;
+        this.truncation = truncation;
+    }
+    
+    /**
+     * Construct a query result which does not record the depths of the packages found, and may be truncated.
+     * 
+     * @param index         The graph index used to assign the package IDs.
+     * @param packageIds    The IDs of the packages found, sorted ascending.
+     * @param truncation    The limit which truncated the result, or null if the result is complete.
+     */
+    public PackageDependenciesQueryResult(PackageDependenciesGraphIndex index, int[] packageIds, 
+                                          PackageDependenciesQueryLimit truncation) {
+        this(index, packageIds, null, truncation);
+    }
+    
+    /**
+     * Check if the query recorded the depth of each package found.
+     * 
+     * @return True if the depths are recorded, and false otherwise.
+     */
+    public boolean hasDepths() {
+        return (depths != null);
+    }
+    
+    /**
+     * Check if the query stopped before all the accepted dependencies were found.
+     * 
+     * @return True if the result is truncated, and false otherwise.
+     */
+    public boolean isTruncated() {
+        return (truncation != null);
+    }
+    
+    /**
+     * Get the limit which stopped the query.
+     * 
+     * @return The limit which truncated the result, or null if the result is complete.
+     */
+    public PackageDependenciesQueryLimit getTruncation() {
+        return truncation;
+    }
+    
+    /**
+     * Get the number of packages found.
+     * 
+     * @return The number of packages found.
+     */
+    public int getNrOfPackages() {
+        return packageIds.length;
+    }
+    
+    /**
+     * Get the package found at the given position, in alphabetical order.
+     * 
+     * @param position The position of the package.
+     * @return The package.
+     */
+    public Package getPackage(int position) {
+        return index.getPackage(packageIds[position]);
+    }
+    
+    /**
+     * Get the depth of the package found at the given position, in alphabetical order.
+     * 
+     * @param position The position of the package.
+     * @return The depth of the package.
+     * @throws IllegalStateException if the depths are not recorded.
+     */
+    public int getDepth(int position) {
+        checkDepths();
+        
+        return depths[position];
+    }
+    
+    /**
+     * Get the depth of the given package.
+     * 
+     * @param givenPackage The given package.
+     * @return The depth of the package, or -1 if the package was not found.
+     * @throws IllegalStateException if the depths are not recorded.
+     */
+    public int getDepth(Package givenPackage) {
+        checkDepths();
+        
+        int packageId = index.getPackageId(givenPackage);
+        int position  = (packageId < 0) ? -1 : Arrays.binarySearch(packageIds, packageId);
+        
+        return (position < 0) ? -1 : depths[position];
+    }
+    
+    /**
+     * Get the IDs of the packages found.
+     * 
+     * @return The compressed set of package IDs.
+     */
+    public PackageIdSet getPackageIds() {
+        PackageIdSet packageIdSet = new PackageIdSet();
+        
+        for (int packageId : packageIds) {
+            packageIdSet.add(packageId);
+        }
+        
+        return packageIdSet;
+    }
+    
+    /**
+     * Get the packages found, sorted alphabetically.
+     * 
+     * @return The packages found.
+     */
+    public Set<Package> getPackages() {
+        return getPackageIds().toPackages(index);
+    }
+    
+    private void checkDepths() {
+        if (depths == null) {
+            throw new IllegalStateException(ERR_NO_DEPTHS);
+        }
+    }
+    
+}
@@ -0,0 +1,396 @@
+package com.bt.coding_test.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Topological order of packages which is maintained while dependencies are added, such that a cycle is detected 
+ * at the dependency which closes it.
+ * 
+ * The order is maintained using the dynamic topological sort algorithm of Pearce and Kelly: when a dependency 
+ * "source -> dependency" violates the current order, only the packages whose order lies between the order of 
+ * the dependency and the order of the source are searched and reordered. Therefore the cost of adding 
+ * a dependency is proportional to the size of the affected region rather than to the size of the graph.
+ * 
+ * Dependencies closing a cycle may be recorded as well (e.g. when cycles are only reported as warnings). 
+ * In that case the packages on all the cycles closed by the dependency are contracted into a single component, 
+ * and the order is maintained over the components, such that later cycles are still detected against 
+ * the recorded dependencies. The searches traverse the dependencies of the packages, but compare the order of 
+ * their components.
+ * 
+ * Assumption: A dependency between two packages of the same component closes a new cycle, which is reported 
+ *             as well.
+ */
+class PackageDependenciesTopologicalOrder {
+
+    private static final int INITIAL_CAPACITY = 16;
+    
+    private Map<Package, Integer>   nodes;          // The node assigned to each package
+    private List<Package>           packages;       // The package of each node
+    private int[][]                 dependencies;   // The dependencies of each node
+    private int[]                   nrOfDependencies;
+    private int[][]                 dependants;     // The dependants of each node
+    private int[]                   nrOfDependants;
+    private int[]                   components;     // The node representing the component of each node
+    private int[]                   order;          // The position of each component in the topological order
+    private int[]                   visits;         // The search number in which each node was visited
+    private int[]                   parents;        // The node from which each node was reached by the forward search
+    private int                     searchNumber;   // The number of the current search
+    
+    
+    PackageDependenciesTopologicalOrder() {
+        nodes               = new HashMap<Package, Integer>();
+        packages            = new ArrayList<Package>();
+        dependencies        = new int[INITIAL_CAPACITY][];
+        nrOfDependencies    = new int[INITIAL_CAPACITY];
+        dependants          = new int[INITIAL_CAPACITY][];
+        nrOfDependants      = new int[INITIAL_CAPACITY];
+        components          = new int[INITIAL_CAPACITY];
+        order               = new int[INITIAL_CAPACITY];
+        visits              = new int[INITIAL_CAPACITY];
+        parents             = new int[INITIAL_CAPACITY];
+    }
+    
+    /**
+     * Add the given dependency and update the topological order. A dependency closing a cycle is only added 
+     * if requested, in which case the packages on the cycles closed by the dependency are contracted.
+     * 
+     * Assumption: The dependency was not added before.
+     * 
+     * @param sourcePackage     The source package.
+     * @param packageDependency The package on which the source package depends.
+     * @param isCycleRecorded   True if a dependency closing a cycle is added, and false otherwise.
+     * @return An empty list if the dependency does not close a cycle, or the packages on the cycle closed by 
+     *         the dependency (starting with the source package) otherwise.
+     */
+    List<Package> addDependency(Package sourcePackage, Package packageDependency, boolean isCycleRecorded) {
+        int sourceNode      = getNode(sourcePackage);
+        int dependencyNode  = getNode(packageDependency);
+        
+        // A package depending on itself does not affect the order, hence the dependency is never recorded
+        if (sourceNode == dependencyNode) {
+            return Collections.singletonList(sourcePackage);
+        }
+        
+        int lowerBound = order[getComponent(dependencyNode)];
+        int upperBound = order[getComponent(sourceNode)];
+        
+        if (lowerBound <= upperBound) {
+            nextSearch();
+            
+            // Discover the packages reachable from the dependency which do not follow the source package
+            List<Integer> forwardNodes = searchForward(dependencyNode, sourceNode, upperBound, true);
+            
+            if (forwardNodes == null) {
+                List<Package> cycle = buildCycle(sourceNode);
+                
+                if (isCycleRecorded) {
+                    contractCycles(sourceNode, dependencyNode, lowerBound, upperBound);
+                    addEdge(sourceNode, dependencyNode);
+                }
+                
+                return cycle;
+            }
+            
+            // Discover the packages reaching the source package which follow the dependency
+            List<Integer> backwardNodes = searchBackward(sourceNode, lowerBound);
+            
+            reorder(getComponents(backwardNodes), getComponents(forwardNodes));
+        }
+        
+        addEdge(sourceNode, dependencyNode);
+        
+        return Collections.emptyList();
+    }
+    
+    /**
+     * Contract the components on the cycles closed by the new dependency into a single component, i.e. the 
+     * components which are both reachable from the dependency node and reaching the source node.
+     * 
+     * The components reaching the source node are placed first, followed by the contracted component and by 
+     * the components reachable from the dependency node, such that the order remains valid once the new 
+     * dependency is recorded.
+     * 
+     * @param sourceNode        The source node of the new dependency.
+     * @param dependencyNode    The dependency node of the new dependency.
+     * @param lowerBound        The order of the component of the dependency node.
+     * @param upperBound        The order of the component of the source node.
+     */
+    private void contractCycles(int sourceNode, int dependencyNode, int lowerBound, int upperBound) {
+        nextSearch();
+        
+        List<Integer> forwardComponents = getComponents(searchForward(dependencyNode, sourceNode, upperBound, false));
+        
+        nextSearch();
+        
+        List<Integer> backwardComponents    = getComponents(searchBackward(sourceNode, lowerBound));
+        List<Integer> cycleComponents       = new ArrayList<Integer>(forwardComponents);
+        
+        cycleComponents.retainAll(new HashSet<Integer>(backwardComponents));
+        
+        Set<Integer> cycleComponentSet = new HashSet<Integer>(cycleComponents);
+        
+        forwardComponents.removeAll(cycleComponentSet);
+        backwardComponents.removeAll(cycleComponentSet);
+        
+        reorder(backwardComponents, cycleComponents, forwardComponents);
+        
+        // The contracted component keeps the position of its first component, since their positions are contiguous
+        int component = cycleComponents.get(0);
+        
+        for (int cycleComponent : cycleComponents) {
+            components[cycleComponent] = component;
+        }
+    }
+    
+    /**
+     * Search the nodes reachable from the given node whose component order is at most the given upper bound.
+     * 
+     * @param startNode     The node from which the search starts.
+     * @param sourceNode    The source node of the new dependency.
+     * @param upperBound    The order of the component of the source node.
+     * @param isStopped     True if the search stops when the source node is reached, and false otherwise.
+     * @return The nodes found, or null if the search stops because the source node is reachable (i.e. the new 
+     *         dependency closes a cycle).
+     */
+    private List<Integer> searchForward(int startNode, int sourceNode, int upperBound, boolean isStopped) {
+        List<Integer> foundNodes        = new ArrayList<Integer>();
+        int[]         nodesToVisit      = {startNode};
+        int           nrOfNodesToVisit  = 1;
+        
+        visits[startNode]   = searchNumber;
+        parents[startNode]  = sourceNode;
+        
+        while (nrOfNodesToVisit > 0) {
+            int node = nodesToVisit[--nrOfNodesToVisit];
+            
+            foundNodes.add(node);
+            
+            for (int i = 0; i < nrOfDependencies[node]; ++i) {
+                int dependencyNode = dependencies[node][i];
+                
+                if ((dependencyNode == sourceNode) && (isStopped)) {
+                    parents[sourceNode] = node;
+                    
+                    return null;
+                }
+                
+                if ((visits[dependencyNode] != searchNumber) && 
+                    (order[getComponent(dependencyNode)] <= upperBound)) {
+                    visits[dependencyNode]  = searchNumber;
+                    parents[dependencyNode] = node;
+                    
+                    nodesToVisit = append(nodesToVisit, nrOfNodesToVisit++, dependencyNode);
+                }
+            }
+        }
+        
+        return foundNodes;
+    }
+    
+    /**
+     * Search the nodes reaching the given node whose component order is at least the given lower bound.
+     * 
+     * @param startNode     The node from which the search starts.
+     * @param lowerBound    The order of the component of the dependency node of the new dependency.
+     * @return The nodes found.
+     */
+    private List<Integer> searchBackward(int startNode, int lowerBound) {
+        List<Integer> foundNodes        = new ArrayList<Integer>();
+        int[]         nodesToVisit      = {startNode};
+        int           nrOfNodesToVisit  = 1;
+        
+        visits[startNode] = searchNumber;
+        
+        while (nrOfNodesToVisit > 0) {
+            int node = nodesToVisit[--nrOfNodesToVisit];
+            
+            foundNodes.add(node);
+            
+            for (int i = 0; i < nrOfDependants[node]; ++i) {
+                int dependantNode = dependants[node][i];
+                
+                if ((visits[dependantNode] != searchNumber) && 
+                    (order[getComponent(dependantNode)] >= lowerBound)) {
+                    visits[dependantNode] = searchNumber;
+                    
+                    nodesToVisit = append(nodesToVisit, nrOfNodesToVisit++, dependantNode);
+                }
+            }
+        }
+        
+        return foundNodes;
+    }
+    
+    /**
+     * Reassign the positions of the discovered components such that all components of a group precede 
+     * all components of the following groups (e.g. the components reaching the source precede the components 
+     * reachable from the dependency), while preserving the relative order within each group.
+     * 
+     * @param groups The groups of components, in their new order.
+     */
+    @SafeVarargs
+    private final void reorder(List<Integer>... groups) {
+        int nrOfComponents = 0;
+        
+        for (List<Integer> group : groups) {
+            group.sort((lhsComponent, rhsComponent) -> Integer.compare(order[lhsComponent], order[rhsComponent]));
+            
+            nrOfComponents += group.size();
+        }
+        
+        int[] positions = new int[nrOfComponents];
+        int   i         = 0;
+        
+        for (List<Integer> group : groups) {
+            for (int component : group) {
+                positions[i++] = order[component];
+            }
+        }
+        
+        Arrays.sort(positions);
+        
+        i = 0;
+        
+        for (List<Integer> group : groups) {
+            for (int component : group) {
+                order[component] = positions[i++];
+            }
+        }
+    }
+    
+    /**
+     * Get the distinct components of the given nodes.
+     * 
+     * @param givenNodes The given nodes.
+     * @return The components of the nodes.
+     */
+    private List<Integer> getComponents(List<Integer> givenNodes) {
+        Set<Integer> givenComponents = new HashSet<Integer>();
+        
+        for (int node : givenNodes) {
+            givenComponents.add(getComponent(node));
+        }
+        
+        return new ArrayList<Integer>(givenComponents);
+    }
+    
+    /**
+     * Get the node representing the component of the given node, compressing the path to the representative.
+     * 
+     * @param node The given node.
+     * @return The representative node of the component.
+     */
+    private int getComponent(int node) {
+        while (components[node] != node) {
+            components[node]    = components[components[node]];
+            node                = components[node];
+        }
+        
+        return node;
+    }
+    
+    /**
+     * Build the cycle closed by the new dependency using the parents recorded by the forward search.
+     * 
+     * @param sourceNode The source node of the new dependency.
+     * @return The packages on the cycle, starting with the source package.
+     */
+    private List<Package> buildCycle(int sourceNode) {
+        List<Package> cycle = new ArrayList<Package>();
+        
+        for (int node = parents[sourceNode]; node != sourceNode; node = parents[node]) {
+            cycle.add(packages.get(node));
+        }
+        
+        cycle.add(packages.get(sourceNode));
+        
+        Collections.reverse(cycle);
+        
+        return cycle;
+    }
+    
+    /**
+     * Get the node of the given package, which is placed last in the topological order if it is new.
+     * 
+     * @param givenPackage The given package.
+     * @return The node of the package.
+     */
+    private int getNode(Package givenPackage) {
+        Integer node = nodes.get(givenPackage);
+        
+        if (node == null) {
+            node = packages.size();
+            
+            if (node == order.length) {
+                int capacity = 2 * node;
+                
+                dependencies        = Arrays.copyOf(dependencies, capacity);
+                nrOfDependencies    = Arrays.copyOf(nrOfDependencies, capacity);
+                dependants          = Arrays.copyOf(dependants, capacity);
+                nrOfDependants      = Arrays.copyOf(nrOfDependants, capacity);
+                components          = Arrays.copyOf(components, capacity);
+                order               = Arrays.copyOf(order, capacity);
+                visits              = Arrays.copyOf(visits, capacity);
+                parents             = Arrays.copyOf(parents, capacity);
+            }
+            
+            nodes.put(givenPackage, node);
+            packages.add(givenPackage);
+            
+            components[node]    = node;
+            order[node]         = node;
+        }
+        
+        return node;
+    }
+    
+    /**
+     * Record the dependency between the given nodes.
+     * 
+     * @param sourceNode        The source node.
+     * @param dependencyNode    The dependency node.
+     */
+    private void addEdge(int sourceNode, int dependencyNode) {
+        if (dependencies[sourceNode] == null) {
+            dependencies[sourceNode] = new int[2];
+        }
+        
+        if (dependants[dependencyNode] == null) {
+            dependants[dependencyNode] = new int[2];
+        }
+        
+        dependencies[sourceNode] = append(dependencies[sourceNode], nrOfDependencies[sourceNode]++, dependencyNode);
+        dependants[dependencyNode] = append(dependants[dependencyNode], nrOfDependants[dependencyNode]++, sourceNode);
+    }
+    
+    /**
+     * Start a new search, which invalidates all visits recorded by previous searches without clearing the array.
+     */
+    private void nextSearch() {
+        if (searchNumber == Integer.MAX_VALUE) {
+            Arrays.fill(visits, 0);
+            
+            searchNumber = 0;
+        }
+        
+        ++searchNumber;
+    }
+    
+    private static int[] append(int[] nodes, int position, int node) {
+        if (position == nodes.length) {
+            nodes = Arrays.copyOf(nodes, 2 * position);
+        }
+        
+        nodes[position] = node;
+        
+        return nodes;
+    }
+    
+}
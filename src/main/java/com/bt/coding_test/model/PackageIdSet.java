@@ -0,0 +1,885 @@
+package com.bt.coding_test.model;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+
+/**
+ * Compressed set of package IDs.
+ * 
+ * The set is organised similarly to a Roaring bitmap: package IDs are grouped by their 16 most significant bits and
+ * the 16 least significant bits of the IDs in each group are stored in a container. Depending on its contents,
+ * a container is a sorted array (sparse groups), a bitmap (dense groups) or a sorted list of runs (groups of
+ * consecutive IDs, see runOptimize()).
+ */
+public class PackageIdSet implements Iterable<Integer> {
+
+    private static final int INITIAL_CAPACITY = 4;
+    
+    private char[]      keys;           // The 16 most significant bits of the IDs in each container, sorted ascending
+    private Container[] containers;     // The containers storing the 16 least significant bits of the IDs
+    private int         nrOfContainers; // The number of containers used
+    
+    
+    public PackageIdSet() {
+        keys        = new char[INITIAL_CAPACITY];
+        containers  = new Container[INITIAL_CAPACITY];
+    }
+    
+    /**
+     * Add the given package ID to the set.
+     * 
+     * Assumption: Package IDs are non-negative.
+     * 
+     * @param packageId The package ID.
+     * @return True if the package ID was not contained by the set, and false otherwise.
+     */
+    public boolean add(int packageId) {
+        char key        = highBits(packageId);
+        int  position   = findContainer(key);
+        
+        if (position < 0) {
+            position = -position - 1;
+            
+            insertContainer(position, key, new ArrayContainer());
+        }
+        
+        int cardinality = containers[position].getCardinality();
+        
+        containers[position] = containers[position].add(lowBits(packageId));
+        
+        return (containers[position].getCardinality() > cardinality);
+    }
+    
+    /**
+     * Check if the set contains the given package ID.
+     * 
+     * @param packageId The package ID.
+     * @return True if the set contains the package ID, and false otherwise.
+     */
+    public boolean contains(int packageId) {
+        int position = findContainer(highBits(packageId));
+        
+        return ((position >= 0) && containers[position].contains(lowBits(packageId)));
+    }
+    
+    /**
+     * Get the number of package IDs in the set.
+     * 
+     * @return The number of package IDs.
+     */
+    public int getCardinality() {
+        int cardinality = 0;
+        
+        for (int i = 0; i < nrOfContainers; ++i) {
+            cardinality += containers[i].getCardinality();
+        }
+        
+        return cardinality;
+    }
+    
+    /**
+     * Check if the set is empty.
+     * 
+     * @return True if the set does not contain any package ID, and false otherwise.
+     */
+    public boolean isEmpty() {
+        return (nrOfContainers == 0);
+    }
+    
+    /**
+     * Copy the set.
+     * 
+     * @return A new set containing the same package IDs.
+     */
+    public PackageIdSet copy() {
+        PackageIdSet result = new PackageIdSet();
+        
+        for (int i = 0; i < nrOfContainers; ++i) {
+            result.appendContainer(keys[i], containers[i].copy());
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Compute the union of this set and the given set.
+     * 
+     * @param rhsSet The given set.
+     * @return A new set containing the package IDs which occur in at least one of the sets.
+     */
+    public PackageIdSet union(PackageIdSet rhsSet) {
+        PackageIdSet result = new PackageIdSet();
+        
+        int i = 0;
+        int j = 0;
+        
+        while ((i < nrOfContainers) || (j < rhsSet.nrOfContainers)) {
+            if ((j == rhsSet.nrOfContainers) || ((i < nrOfContainers) && (keys[i] < rhsSet.keys[j]))) {
+                result.appendContainer(keys[i], containers[i].copy());
+                
+                ++i;
+            } else if ((i == nrOfContainers) || (rhsSet.keys[j] < keys[i])) {
+                result.appendContainer(rhsSet.keys[j], rhsSet.containers[j].copy());
+                
+                ++j;
+            } else {
+                result.appendContainer(keys[i], union(containers[i], rhsSet.containers[j]));
+                
+                ++i;
+                ++j;
+            }
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Compute the intersection of this set and the given set.
+     * 
+     * @param rhsSet The given set.
+     * @return A new set containing the package IDs which occur in both sets.
+     */
+    public PackageIdSet intersection(PackageIdSet rhsSet) {
+        PackageIdSet result = new PackageIdSet();
+        
+        int i = 0;
+        int j = 0;
+        
+        while ((i < nrOfContainers) && (j < rhsSet.nrOfContainers)) {
+            if (keys[i] < rhsSet.keys[j]) {
+                ++i;
+            } else if (rhsSet.keys[j] < keys[i]) {
+                ++j;
+            } else {
+                Container container = intersection(containers[i], rhsSet.containers[j]);
+                
+                if (container.getCardinality() > 0) {
+                    result.appendContainer(keys[i], container);
+                }
+                
+                ++i;
+                ++j;
+            }
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Convert each container to the representation requiring the least memory, including runs of consecutive IDs.
+     */
+    public void runOptimize() {
+        for (int i = 0; i < nrOfContainers; ++i) {
+            containers[i] = containers[i].runOptimize();
+        }
+    }
+    
+    /**
+     * Get an iterator over the package IDs in ascending order.
+     * 
+     * @return The package IDs iterator.
+     */
+    @Override
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+        
+            private int                     position    = -1;
+            private PrimitiveIterator.OfInt containerIterator;
+            
+            @Override
+            public boolean hasNext() {
+                while ((containerIterator == null) || (!containerIterator.hasNext())) {
+                    if (++position >= nrOfContainers) {
+                        return false;
+                    }
+                    
+                    containerIterator = containers[position].iterator();
+                }
+                
+                return true;
+            }
+            
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                
+                return ((keys[position] << 16) | containerIterator.nextInt());
+            }
+            
+        };
+    }
+    
+    /**
+     * Get a view of the package IDs as the corresponding packages sorted alphabetically. Since package IDs are 
+     * assigned in alphabetical order, the packages are sorted without comparing their names. The view reflects 
+     * later changes to the set.
+     * 
+     * @param index The graph index used to assign the package IDs.
+     * @return The packages corresponding to the package IDs.
+     */
+    public Set<Package> toPackages(PackageDependenciesGraphIndex index) {
+        return new PackageSetView(this, index);
+    }
+    
+    /**
+     * Estimate the number of bytes used by the set contents.
+     * 
+     * @return The estimated number of bytes.
+     */
+    public long estimateSizeInBytes() {
+        long sizeInBytes = (keys.length * 2L) + (containers.length * 4L);
+        
+        for (int i = 0; i < nrOfContainers; ++i) {
+            sizeInBytes += containers[i].estimateSizeInBytes();
+        }
+        
+        return sizeInBytes;
+    }
+    
+    /**
+     * Find the position of the container with the given key.
+     * 
+     * @param key The container key.
+     * @return The position of the container if found, and (-(insertion position) - 1) otherwise.
+     */
+    private int findContainer(char key) {
+        // Most IDs are added in ascending order so check the last container first
+        if ((nrOfContainers > 0) && (keys[nrOfContainers - 1] == key)) {
+            return (nrOfContainers - 1);
+        }
+        
+        return Arrays.binarySearch(keys, 0, nrOfContainers, key);
+    }
+    
+    /**
+     * Insert a container with the given key at the given position.
+     * 
+     * @param position  The position at which the container is inserted.
+     * @param key       The container key.
+     * @param container The container.
+     */
+    private void insertContainer(int position, char key, Container container) {
+        if (nrOfContainers == keys.length) {
+            keys        = Arrays.copyOf(keys, 2 * nrOfContainers);
+            containers  = Arrays.copyOf(containers, 2 * nrOfContainers);
+        }
+        
+        System.arraycopy(keys, position, keys, position + 1, nrOfContainers - position);
+        System.arraycopy(containers, position, containers, position + 1, nrOfContainers - position);
+        
+        keys[position]          = key;
+        containers[position]    = container;
+        
+        ++nrOfContainers;
+    }
+    
+    /**
+     * Append a container whose key is greater than all the existing keys.
+     * 
+     * @param key       The container key.
+     * @param container The container.
+     */
+    private void appendContainer(char key, Container container) {
+        insertContainer(nrOfContainers, key, container);
+    }
+    
+    /**
+     * Compute the union of the given containers.
+     * 
+     * @param lhsContainer The left hand side container.
+     * @param rhsContainer The right hand side container.
+     * @return A new container storing the union.
+     */
+    private static Container union(Container lhsContainer, Container rhsContainer) {
+        if ((lhsContainer instanceof ArrayContainer) && (rhsContainer instanceof ArrayContainer)) {
+            return ((ArrayContainer) lhsContainer).union((ArrayContainer) rhsContainer);
+        }
+        
+        return lhsContainer.toBitmapContainer().union(rhsContainer.toBitmapContainer());
+    }
+    
+    /**
+     * Compute the intersection of the given containers.
+     * 
+     * @param lhsContainer The left hand side container.
+     * @param rhsContainer The right hand side container.
+     * @return A new container storing the intersection.
+     */
+    private static Container intersection(Container lhsContainer, Container rhsContainer) {
+        if (lhsContainer instanceof ArrayContainer) {
+            return ((ArrayContainer) lhsContainer).filter(rhsContainer);
+        } else if (rhsContainer instanceof ArrayContainer) {
+            return ((ArrayContainer) rhsContainer).filter(lhsContainer);
+        }
+        
+        return lhsContainer.toBitmapContainer().intersection(rhsContainer.toBitmapContainer());
+    }
+    
+    private static char highBits(int packageId) {
+        return (char) (packageId >>> 16);
+    }
+    
+    private static char lowBits(int packageId) {
+        return (char) packageId;
+    }
+    
+    /**
+     * Read-only view of a set of package IDs as the corresponding packages, iterated in ascending order of the IDs.
+     */
+    private static class PackageSetView extends AbstractSet<Package> {
+    
+        private PackageIdSet                    packageIds; // The viewed package IDs
+        private PackageDependenciesGraphIndex   index;      // The graph index used to assign the package IDs
+        
+        
+        PackageSetView(PackageIdSet packageIds, PackageDependenciesGraphIndex index) {
+            this.packageIds = packageIds;
+            this.index      = index;
+        }
+        
+        @Override
+        public Iterator<Package> iterator() {
+            PrimitiveIterator.OfInt packageIdIterator = packageIds.iterator();
+            
+            return new Iterator<Package>() {
+            
+                @Override
+                public boolean hasNext() {
+                    return packageIdIterator.hasNext();
+                }
+                
+                @Override
+                public Package next() {
+                    return index.getPackage(packageIdIterator.nextInt());
+                }
+                
+            };
+        }
+        
+        @Override
+        public int size() {
+            return packageIds.getCardinality();
+        }
+        
+        @Override
+        public boolean isEmpty() {
+            return packageIds.isEmpty();
+        }
+        
+        @Override
+        public boolean contains(Object givenPackage) {
+            if (!(givenPackage instanceof Package)) {
+                return false;
+            }
+            
+            int packageId = index.getPackageId((Package) givenPackage);
+            
+            return ((packageId >= 0) && packageIds.contains(packageId));
+        }
+        
+    }
+    
+    /**
+     * Container storing the 16 least significant bits of the package IDs sharing the same 16 most significant bits.
+     */
+    private static abstract class Container {
+    
+        /**
+         * Add the given value to the container.
+         * 
+         * @param value The given value.
+         * @return The container storing the value, which is either this container or a converted copy of it.
+         */
+        abstract Container add(char value);
+        
+        abstract boolean contains(char value);
+        
+        abstract int getCardinality();
+        
+        abstract Container copy();
+        
+        abstract BitmapContainer toBitmapContainer();
+        
+        abstract PrimitiveIterator.OfInt iterator();
+        
+        abstract long estimateSizeInBytes();
+        
+        /**
+         * Convert the container to the representation requiring the least memory.
+         * 
+         * @return The container using the least memory.
+         */
+        Container runOptimize() {
+            RunContainer runContainer = RunContainer.fromIterator(iterator());
+            
+            return (runContainer.estimateSizeInBytes() < estimateSizeInBytes()) ? runContainer : this;
+        }
+        
+    }
+    
+    /**
+     * Container storing the values as a sorted array.
+     * 
+     * Assumption: An array container stores at most MAX_CARDINALITY values, since above this threshold
+     *             a bitmap container requires less memory.
+     */
+    private static class ArrayContainer extends Container {
+    
+        private static final int MAX_CARDINALITY = 4096;
+        
+        private char[]  values;
+        private int     cardinality;
+        
+        
+        ArrayContainer() {
+            values = new char[INITIAL_CAPACITY];
+        }
+        
+        ArrayContainer(char[] values, int cardinality) {
+            this.values         = values;
+            this.cardinality    = cardinality;
+        }
+        
+        @Override
+        Container add(char value) {
+            int position = ((cardinality > 0) && (values[cardinality - 1] < value))
+                               ? -cardinality - 1
+                               : Arrays.binarySearch(values, 0, cardinality, value);
+                               
+            if (position >= 0) {
+                return this;
+            }
+            
+            if (cardinality == MAX_CARDINALITY) {
+                return toBitmapContainer().add(value);
+            }
+            
+            position = -position - 1;
+            
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(2 * cardinality, MAX_CARDINALITY));
+            }
+            
+            System.arraycopy(values, position, values, position + 1, cardinality - position);
+            
+            values[position] = value;
+            
+            ++cardinality;
+            
+            return this;
+        }
+        
+        @Override
+        boolean contains(char value) {
+            return (Arrays.binarySearch(values, 0, cardinality, value) >= 0);
+        }
+        
+        @Override
+        int getCardinality() {
+            return cardinality;
+        }
+        
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(cardinality, 1)), cardinality);
+        }
+        
+        @Override
+        BitmapContainer toBitmapContainer() {
+            BitmapContainer bitmapContainer = new BitmapContainer();
+            
+            for (int i = 0; i < cardinality; ++i) {
+                bitmapContainer.add(values[i]);
+            }
+            
+            return bitmapContainer;
+        }
+        
+        @Override
+        PrimitiveIterator.OfInt iterator() {
+            return new PrimitiveIterator.OfInt() {
+            
+                private int position = 0;
+                
+                @Override
+                public boolean hasNext() {
+                    return (position < cardinality);
+                }
+                
+                @Override
+                public int nextInt() {
+                    return values[position++];
+                }
+                
+            };
+        }
+        
+        @Override
+        long estimateSizeInBytes() {
+            return (values.length * 2L);
+        }
+        
+        /**
+         * Merge the values of this container and the given array container.
+         * 
+         * @param rhsContainer The given array container.
+         * @return A new container storing the union.
+         */
+        Container union(ArrayContainer rhsContainer) {
+            if ((cardinality + rhsContainer.cardinality) > MAX_CARDINALITY) {
+                return toBitmapContainer().union(rhsContainer.toBitmapContainer());
+            }
+            
+            char[]  mergedValues        = new char[Math.max(cardinality + rhsContainer.cardinality, 1)];
+            int     mergedCardinality   = 0;
+            int     i                   = 0;
+            int     j                   = 0;
+            
+            while ((i < cardinality) && (j < rhsContainer.cardinality)) {
+                if (values[i] < rhsContainer.values[j]) {
+                    mergedValues[mergedCardinality++] = values[i++];
+                } else if (rhsContainer.values[j] < values[i]) {
+                    mergedValues[mergedCardinality++] = rhsContainer.values[j++];
+                } else {
+                    mergedValues[mergedCardinality++] = values[i++];
+                    
+                    ++j;
+                }
+            }
+            
+            while (i < cardinality) {
+                mergedValues[mergedCardinality++] = values[i++];
+            }
+            
+            while (j < rhsContainer.cardinality) {
+                mergedValues[mergedCardinality++] = rhsContainer.values[j++];
+            }
+            
+            return new ArrayContainer(mergedValues, mergedCardinality);
+        }
+        
+        /**
+         * Keep only the values which are also contained by the given container.
+         * 
+         * @param rhsContainer The given container.
+         * @return A new array container storing the intersection.
+         */
+        ArrayContainer filter(Container rhsContainer) {
+            char[]  filteredValues      = new char[Math.max(cardinality, 1)];
+            int     filteredCardinality = 0;
+            
+            for (int i = 0; i < cardinality; ++i) {
+                if (rhsContainer.contains(values[i])) {
+                    filteredValues[filteredCardinality++] = values[i];
+                }
+            }
+            
+            return new ArrayContainer(filteredValues, filteredCardinality);
+        }
+        
+    }
+    
+    /**
+     * Container storing the values as a bitmap with 2^16 bits.
+     */
+    private static class BitmapContainer extends Container {
+    
+        private static final int NR_OF_WORDS = 1024;
+        
+        private long[]  words;
+        private int     cardinality;
+        
+        
+        BitmapContainer() {
+            words = new long[NR_OF_WORDS];
+        }
+        
+        BitmapContainer(long[] words) {
+            this.words = words;
+            
+            for (long word : words) {
+                cardinality += Long.bitCount(word);
+            }
+        }
+        
+        @Override
+        Container add(char value) {
+            long mask = 1L << value;
+            
+            if ((words[value >>> 6] & mask) == 0) {
+                words[value >>> 6] |= mask;
+                
+                ++cardinality;
+            }
+            
+            return this;
+        }
+        
+        @Override
+        boolean contains(char value) {
+            return ((words[value >>> 6] & (1L << value)) != 0);
+        }
+        
+        @Override
+        int getCardinality() {
+            return cardinality;
+        }
+        
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone());
+        }
+        
+        @Override
+        BitmapContainer toBitmapContainer() {
+            return this;
+        }
+        
+        @Override
+        PrimitiveIterator.OfInt iterator() {
+            return new PrimitiveIterator.OfInt() {
+            
+                private int     wordIndex   = 0;
+                private long    word        = words[0];
+                
+                @Override
+                public boolean hasNext() {
+                    while ((word == 0) && (wordIndex < (NR_OF_WORDS - 1))) {
+                        word = words[++wordIndex];
+                    }
+                    
+                    return (word != 0);
+                }
+                
+                @Override
+                public int nextInt() {
+                    hasNext();
+                    
+                    int value = (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+                    
+                    // Clear the lowest set bit
+                    word &= (word - 1);
+                    
+                    return value;
+                }
+                
+            };
+        }
+        
+        @Override
+        long estimateSizeInBytes() {
+            return (NR_OF_WORDS * 8L);
+        }
+        
+        Container union(BitmapContainer rhsContainer) {
+            long[] unitedWords = new long[NR_OF_WORDS];
+            
+            for (int i = 0; i < NR_OF_WORDS; ++i) {
+                unitedWords[i] = words[i] | rhsContainer.words[i];
+            }
+            
+            return compact(new BitmapContainer(unitedWords));
+        }
+        
+        Container intersection(BitmapContainer rhsContainer) {
+            long[] intersectedWords = new long[NR_OF_WORDS];
+            
+            for (int i = 0; i < NR_OF_WORDS; ++i) {
+                intersectedWords[i] = words[i] & rhsContainer.words[i];
+            }
+            
+            return compact(new BitmapContainer(intersectedWords));
+        }
+        
+        /**
+         * Use the array representation for sparse bitmap containers.
+         * 
+         * @param bitmapContainer The bitmap container.
+         * @return The given bitmap container if dense, and an equivalent array container otherwise.
+         */
+        private static Container compact(BitmapContainer bitmapContainer) {
+            if (bitmapContainer.cardinality <= ArrayContainer.MAX_CARDINALITY) {
+                return toArrayContainer(bitmapContainer);
+            }
+            
+            return bitmapContainer;
+        }
+        
+        private static ArrayContainer toArrayContainer(BitmapContainer bitmapContainer) {
+            char[]                  values      = new char[Math.max(bitmapContainer.cardinality, 1)];
+            PrimitiveIterator.OfInt iterator    = bitmapContainer.iterator();
+            
+            for (int i = 0; i < bitmapContainer.cardinality; ++i) {
+                values[i] = (char) iterator.nextInt();
+            }
+            
+            return new ArrayContainer(values, bitmapContainer.cardinality);
+        }
+        
+    }
+    
+    /**
+     * Container storing the values as a sorted list of runs of consecutive values.
+     * Run containers are only created by runOptimize() and are converted back when values are added.
+     */
+    private static class RunContainer extends Container {
+    
+        private char[]  runs;           // Pairs of (run start, run length - 1)
+        private int     nrOfRuns;
+        private int     cardinality;
+        
+        
+        RunContainer(char[] runs, int nrOfRuns) {
+            this.runs       = runs;
+            this.nrOfRuns   = nrOfRuns;
+            
+            for (int i = 0; i < nrOfRuns; ++i) {
+                cardinality += runs[(2 * i) + 1] + 1;
+            }
+        }
+        
+        /**
+         * Create a run container from the given ascending values.
+         * 
+         * @param values The ascending values.
+         * @return The run container.
+         */
+        static RunContainer fromIterator(PrimitiveIterator.OfInt values) {
+            char[]  runs        = new char[2 * INITIAL_CAPACITY];
+            int     nrOfRuns    = 0;
+            int     previous    = -2;
+            
+            while (values.hasNext()) {
+                int value = values.nextInt();
+                
+                if (value == (previous + 1)) {
+                    ++runs[(2 * nrOfRuns) - 1];
+                } else {
+                    if ((2 * nrOfRuns) == runs.length) {
+                        runs = Arrays.copyOf(runs, 2 * runs.length);
+                    }
+                    
+                    runs[2 * nrOfRuns]          = (char) value;
+                    runs[(2 * nrOfRuns) + 1]    = 0;
+                    
+                    ++nrOfRuns;
+                }
+                
+                previous = value;
+            }
+            
+            return new RunContainer(Arrays.copyOf(runs, 2 * nrOfRuns), nrOfRuns);
+        }
+        
+        @Override
+        Container add(char value) {
+            if (contains(value)) {
+                return this;
+            }
+            
+            Container container = (cardinality < ArrayContainer.MAX_CARDINALITY)
+                                      ? toArrayContainer()
+                                      : toBitmapContainer();
+                                      
+            return container.add(value);
+        }
+        
+        @Override
+        boolean contains(char value) {
+            // Binary search for the last run starting at or before the value
+            int low     = 0;
+            int high    = nrOfRuns - 1;
+            
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                
+                if (runs[2 * middle] <= value) {
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            
+            return ((high >= 0) && (value <= (runs[2 * high] + runs[(2 * high) + 1])));
+        }
+        
+        @Override
+        int getCardinality() {
+            return cardinality;
+        }
+        
+        @Override
+        Container copy() {
+            return new RunContainer(runs.clone(), nrOfRuns);
+        }
+        
+        @Override
+        BitmapContainer toBitmapContainer() {
+            BitmapContainer bitmapContainer = new BitmapContainer();
+            PrimitiveIterator.OfInt iterator = iterator();
+            
+            while (iterator.hasNext()) {
+                bitmapContainer.add((char) iterator.nextInt());
+            }
+            
+            return bitmapContainer;
+        }
+        
+        @Override
+        PrimitiveIterator.OfInt iterator() {
+            return new PrimitiveIterator.OfInt() {
+            
+                private int run     = 0;
+                private int offset  = 0;
+                
+                @Override
+                public boolean hasNext() {
+                    return (run < nrOfRuns);
+                }
+                
+                @Override
+                public int nextInt() {
+                    int value = runs[2 * run] + offset;
+                    
+                    if (offset++ == runs[(2 * run) + 1]) {
+                        ++run;
+                        
+                        offset = 0;
+                    }
+                    
+                    return value;
+                }
+                
+            };
+        }
+        
+        @Override
+        long estimateSizeInBytes() {
+            return (runs.length * 2L);
+        }
+        
+        @Override
+        Container runOptimize() {
+            return this;
+        }
+        
+        private ArrayContainer toArrayContainer() {
+            char[]                  values      = new char[Math.max(cardinality, 1)];
+            PrimitiveIterator.OfInt iterator    = iterator();
+            
+            for (int i = 0; i < cardinality; ++i) {
+                values[i] = (char) iterator.nextInt();
+            }
+            
+            return new ArrayContainer(values, cardinality);
+        }
+        
+    }
+    
+}
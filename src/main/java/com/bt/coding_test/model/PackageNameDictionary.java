@@ -0,0 +1,352 @@
+package com.bt.coding_test.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Compact dictionary of the sorted package names of a graph index, in which the position of each name is 
+ * the ID of the package.
+ * 
+ * Names are front coded in blocks of BLOCK_SIZE names: the first name of each block is stored in full, and 
+ * each following name is stored as the length of the prefix it shares with the previous name followed by its 
+ * remaining characters. Names are found by binary search over the first names of the blocks followed by 
+ * a scan of a single block. Since the names are sorted, the names starting with a given prefix have 
+ * consecutive IDs.
+ * 
+ * Assumption: Package names only contain the ASCII characters defined by the regular expression "[a-zA-Z0-9_]+", 
+ *             hence each character is stored as a single byte.
+ */
+public class PackageNameDictionary {
+
+    public static final char WILDCARD = '*';
+    
+    private static final int  BLOCK_SIZE                = 16;   // The number of names of a block
+    private static final char AFTER_NAME_CHARACTERS     = '{';  // A character following all characters of names
+    
+    private int     nrOfNames;      // The number of names
+    private byte[]  data;           // The front coded names of all blocks
+    private int[]   blockOffsets;   // The offset of each block in the data
+    private int     maxNameLength;  // The length of the longest name
+    
+    
+    /**
+     * Construct the dictionary of the given packages.
+     * 
+     * Assumption: The packages are sorted by name and have distinct names.
+     * 
+     * @param packages The packages, sorted by name.
+     */
+    PackageNameDictionary(Package[] packages) {
+        nrOfNames       = packages.length;
+        blockOffsets    = new int[(nrOfNames + BLOCK_SIZE - 1) / BLOCK_SIZE];
+        data            = new byte[Math.max(16, 2 * nrOfNames)];
+        
+        int     length          = 0;
+        String  previousName    = "";
+        
+        for (int i = 0; i < nrOfNames; ++i) {
+            String name         = packages[i].getName();
+            int    sharedLength = 0;
+            
+            if (i % BLOCK_SIZE == 0) {
+                blockOffsets[i / BLOCK_SIZE] = length;
+            } else {
+                sharedLength = computeSharedLength(previousName, name);
+            }
+            
+            // Reserve space for two variable length integers and the remaining characters
+            if (length + 10 + name.length() > data.length) {
+                data = Arrays.copyOf(data, Math.max(2 * data.length, length + 10 + name.length()));
+            }
+            
+            length = writeVarInt(data, length, sharedLength);
+            length = writeVarInt(data, length, name.length() - sharedLength);
+            
+            for (int j = sharedLength; j < name.length(); ++j) {
+                data[length++] = (byte) name.charAt(j);
+            }
+            
+            maxNameLength   = Math.max(maxNameLength, name.length());
+            previousName    = name;
+        }
+        
+        data = Arrays.copyOf(data, length);
+    }
+    
+    /**
+     * Get the number of names recorded in the dictionary.
+     * 
+     * @return The number of names.
+     */
+    public int getNrOfNames() {
+        return nrOfNames;
+    }
+    
+    /**
+     * Get the name with the given ID.
+     * 
+     * @param id The ID of the name.
+     * @return The name.
+     */
+    public String getName(int id) {
+        Cursor cursor = new Cursor(id);
+        
+        return cursor.toString();
+    }
+    
+    /**
+     * Get the ID of the given name.
+     * 
+     * @param name The name.
+     * @return The ID of the name, or -1 if the name is not recorded in the dictionary.
+     */
+    public int getId(String name) {
+        int id = findFirstNotLess(name);
+        
+        return ((id < nrOfNames) && (new Cursor(id).compareTo(name) == 0)) ? id : -1;
+    }
+    
+    /**
+     * Find the IDs of the names starting with the given prefix.
+     * 
+     * @param prefix The prefix.
+     * @return The IDs of the names starting with the prefix.
+     */
+    public PackageIdSet findPrefix(String prefix) {
+        int             begin   = findFirstNotLess(prefix);
+        int             end     = findFirstNotLess(prefix + AFTER_NAME_CHARACTERS);
+        PackageIdSet    ids     = new PackageIdSet();
+        
+        for (int i = begin; i < end; ++i) {
+            ids.add(i);
+        }
+        
+        return ids;
+    }
+    
+    /**
+     * Find the IDs of the names matching the given pattern, in which the wildcard "*" matches any sequence of 
+     * characters. Only the names starting with the characters preceding the first wildcard are considered.
+     * 
+     * @param pattern The name pattern.
+     * @return The IDs of the names matching the pattern.
+     */
+    public PackageIdSet findMatches(String pattern) {
+        int wildcardIndex = pattern.indexOf(WILDCARD);
+        
+        if (wildcardIndex < 0) {
+            PackageIdSet ids = new PackageIdSet();
+            int          id  = getId(pattern);
+            
+            if (id >= 0) {
+                ids.add(id);
+            }
+            
+            return ids;
+        }
+        
+        String          prefix  = pattern.substring(0, wildcardIndex);
+        int             begin   = findFirstNotLess(prefix);
+        int             end     = findFirstNotLess(prefix + AFTER_NAME_CHARACTERS);
+        PackageIdSet    ids     = new PackageIdSet();
+        
+        if (begin < end) {
+            Cursor cursor = new Cursor(begin);
+            
+            for (int i = begin; i < end; ++i, cursor.next()) {
+                if (cursor.matches(pattern)) {
+                    ids.add(i);
+                }
+            }
+        }
+        
+        return ids;
+    }
+    
+    /**
+     * Estimate the number of bytes used by the dictionary.
+     * 
+     * @return The estimated number of bytes.
+     */
+    public long getSizeInBytes() {
+        return (data.length + 4L * blockOffsets.length);
+    }
+    
+    /**
+     * Find the ID of the first name which is not less than the given key.
+     * 
+     * @param key The key.
+     * @return The ID of the first name not less than the key, or the number of names if all names are less.
+     */
+    private int findFirstNotLess(String key) {
+        // Find the first block whose first name is not less than the key
+        int low  = 0;
+        int high = blockOffsets.length;
+        
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            
+            if (new Cursor(middle * BLOCK_SIZE).compareTo(key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        
+        if (low == 0) {
+            return 0;
+        }
+        
+        // Scan the previous block, whose first name is less than the key
+        int     id      = (low - 1) * BLOCK_SIZE;
+        int     end     = Math.min(low * BLOCK_SIZE, nrOfNames);
+        Cursor  cursor  = new Cursor(id);
+        
+        for (++id, cursor.next(); (id < end) && (cursor.compareTo(key) < 0); ++id, cursor.next()) {
+            // Skip the names less than the key
+        }
+        
+        return id;
+    }
+    
+    private static int computeSharedLength(String lhsName, String rhsName) {
+        int length = Math.min(lhsName.length(), rhsName.length());
+        int i      = 0;
+        
+        while ((i < length) && (lhsName.charAt(i) == rhsName.charAt(i))) {
+            ++i;
+        }
+        
+        return i;
+    }
+    
+    private static int writeVarInt(byte[] data, int offset, int value) {
+        while (value >= 0x80) {
+            data[offset++] = (byte) ((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        
+        data[offset++] = (byte) value;
+        
+        return offset;
+    }
+    
+    /**
+     * Cursor decoding the names of the dictionary sequentially, starting at a given ID.
+     */
+    private class Cursor {
+    
+        private byte[]  name;       // The characters of the current name
+        private int     length;     // The length of the current name
+        private int     id;         // The ID of the current name
+        private int     offset;     // The offset of the next name in the data
+        
+        
+        Cursor(int id) {
+            this.name   = new byte[maxNameLength];
+            this.id     = id - (id % BLOCK_SIZE);
+            this.offset = blockOffsets[this.id / BLOCK_SIZE];
+            
+            decode();
+            
+            while (this.id < id) {
+                next();
+            }
+        }
+        
+        /**
+         * Move to the next name, unless the current name is the last name.
+         */
+        void next() {
+            if (id + 1 < nrOfNames) {
+                ++id;
+                
+                decode();
+            }
+        }
+        
+        /**
+         * Compare the current name with the given key.
+         * 
+         * @param key The key.
+         * @return A negative integer, zero or a positive integer if the name is less than, equal to or greater 
+         *         than the key.
+         */
+        int compareTo(String key) {
+            int commonLength = Math.min(length, key.length());
+            
+            for (int i = 0; i < commonLength; ++i) {
+                if (name[i] != key.charAt(i)) {
+                    return (name[i] - key.charAt(i));
+                }
+            }
+            
+            return (length - key.length());
+        }
+        
+        /**
+         * Check if the current name matches the given pattern, in which the wildcard "*" matches any sequence 
+         * of characters.
+         * 
+         * @param pattern The name pattern.
+         * @return True if the name matches the pattern, and false otherwise.
+         */
+        boolean matches(String pattern) {
+            int i               = 0;    // The position in the name
+            int j               = 0;    // The position in the pattern
+            int wildcardIndex   = -1;   // The position of the last wildcard found in the pattern
+            int matchIndex      = 0;    // The position in the name matched by the last wildcard
+            
+            while (i < length) {
+                if ((j < pattern.length()) && (pattern.charAt(j) == WILDCARD)) {
+                    wildcardIndex   = j++;
+                    matchIndex      = i;
+                } else if ((j < pattern.length()) && (pattern.charAt(j) == name[i])) {
+                    ++i;
+                    ++j;
+                } else if (wildcardIndex >= 0) {
+                    // Extend the sequence matched by the last wildcard by one character
+                    j = wildcardIndex + 1;
+                    i = ++matchIndex;
+                } else {
+                    return false;
+                }
+            }
+            
+            while ((j < pattern.length()) && (pattern.charAt(j) == WILDCARD)) {
+                ++j;
+            }
+            
+            return (j == pattern.length());
+        }
+        
+        @Override
+        public String toString() {
+            return new String(name, 0, length, StandardCharsets.US_ASCII);
+        }
+        
+        private void decode() {
+            int sharedLength    = readVarInt();
+            int suffixLength    = readVarInt();
+            
+            System.arraycopy(data, offset, name, sharedLength, suffixLength);
+            
+            offset  += suffixLength;
+            length  = sharedLength + suffixLength;
+        }
+        
+        private int readVarInt() {
+            int value = 0;
+            int shift = 0;
+            
+            while ((data[offset] & 0x80) != 0) {
+                value |= (data[offset++] & 0x7f) << shift;
+                shift += 7;
+            }
+            
+            return (value | (data[offset++] << shift));
+        }
+        
+    }
+    
+}
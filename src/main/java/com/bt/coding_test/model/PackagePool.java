@@ -0,0 +1,55 @@
+package com.bt.coding_test.model;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Pool of packages shared by several graphs, such that each package name is stored once in memory whatever 
+ * the number of graphs and dependencies referring to it.
+ * 
+ * The pool only refers weakly to its packages, hence the packages which are no longer referred to by any graph 
+ * (e.g. after a graph is evicted from memory) are reclaimed by the garbage collector.
+ * This class is thread safe.
+ */
+public class PackagePool {
+
+    private Map<String, WeakReference<Package>> packages = new WeakHashMap<String, WeakReference<Package>>();
+    
+    
+    /**
+     * Get the package of the pool with the given name, adding a new package to the pool if there is none.
+     * 
+     * @param packageName The package name.
+     * @return The single package of the pool with the given name.
+     */
+    public synchronized Package intern(String packageName) {
+        WeakReference<Package>  packageReference    = packages.get(packageName);
+        Package                 pooledPackage       = (packageReference == null) ? null : packageReference.get();
+        
+        if (pooledPackage == null) {
+            pooledPackage = new Package(packageName);
+            
+            // A stale entry keeps its key when its value is replaced, hence it is removed first
+            if (packageReference != null) {
+                packages.remove(packageName);
+            }
+            
+            // The key is the name referred to by the package, so the entry lives as long as the package
+            packages.put(pooledPackage.getName(), new WeakReference<Package>(pooledPackage));
+        }
+        
+        return pooledPackage;
+    }
+    
+    /**
+     * Get the number of packages of the pool, including the packages which are no longer referred to but 
+     * were not reclaimed yet.
+     * 
+     * @return The number of packages.
+     */
+    public synchronized int getNrOfPackages() {
+        return packages.size();
+    }
+    
+}
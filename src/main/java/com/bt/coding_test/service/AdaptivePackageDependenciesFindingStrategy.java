@@ -0,0 +1,369 @@
+package com.bt.coding_test.service;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesCondensation;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+import com.bt.coding_test.model.PackageDependenciesGraphIndex;
+import com.bt.coding_test.model.PackageDependenciesQueryOptions;
+import com.bt.coding_test.model.PackageDependenciesQueryResult;
+import com.bt.coding_test.model.PackageIdSet;
+
+/**
+ * Strategy class choosing between a precomputed closure bit matrix (dense graphs) and depth first search 
+ * (sparse graphs) to find package dependencies in a package dependencies directed graph.
+ * 
+ * A graph is considered dense if its packages have on average at least a minimum number of direct dependencies. 
+ * For dense graphs the dependencies of all packages are computed once, as one row of bits per strongly connected 
+ * component: components are processed in reverse topological order, and the row of each component is the union 
+ * of the rows of its dependency components, computed 64 packages at a time. Every query is then answered by 
+ * reading the row of the component of the source package. If the bit matrix would exceed the memory budget, 
+ * depth first search is used instead.
+ * 
+ * The bit matrices are cached per graph index, such that queries alternating between graphs (e.g. a graph registry 
+ * or a diff between two versions) do not recompute them. The cache holds the indexes weakly, hence the bit matrix 
+ * of a graph is released together with its index, once the graph changes or is no longer used.
+ * 
+ * The budgets and the cancellation token of the query options are enforced while answering a query (see 
+ * com.bt.coding_test.service.PackageDependenciesQueryBudget), but not while computing the bit matrix, which 
+ * traverses the dependencies of all packages. A query with limits on a graph whose bit matrix is not computed 
+ * yet starts computing it in the background, and is answered by breadth first search meanwhile, 
+ * such that a truncated result holds the packages nearest to the source package.
+ * 
+ * Assumption: Queries restricted by the query options reuse the work arrays of a breadth first search, hence 
+ *             an instance of this class must not be used by multiple threads concurrently.
+ */
+public class AdaptivePackageDependenciesFindingStrategy implements PackageDependenciesFindingStrategy {
+
+    public static final long DEFAULT_MEMORY_BUDGET                  = 256L << 20;   // 256 MB
+    public static final int  DEFAULT_MIN_AVERAGE_NR_OF_DEPENDENCIES = 8;
+    
+    private static final PackageDependenciesQueryOptions NO_OPTIONS = new PackageDependenciesQueryOptions();
+    
+    private long                                memoryBudget;                   // The maximum size of the bit matrix in bytes
+    private int                                 minAverageNrOfDependencies;     // The average number of direct dependencies of dense graphs
+    private PackageDependenciesFindingStrategy  sparseStrategy;                 // The strategy used if the bit matrix is not used
+    private PackageDependenciesFindingStrategy  restrictedStrategy;             // The strategy used by restricted queries
+    private Executor                            executor;                       // The executor computing bit matrices in the background
+    private Map<PackageDependenciesGraphIndex, CompletableFuture<ClosureMatrix>> closureMatrices;   // The bit matrix considered for each index
+    
+    
+    public AdaptivePackageDependenciesFindingStrategy() {
+        this(DEFAULT_MEMORY_BUDGET, DEFAULT_MIN_AVERAGE_NR_OF_DEPENDENCIES);
+    }
+    
+    /**
+     * Construct a strategy using a closure bit matrix of at most the given size for dense graphs.
+     * 
+     * @param memoryBudget                  The maximum size of the bit matrix in bytes.
+     * @param minAverageNrOfDependencies    The minimum average number of direct dependencies of dense graphs.
+     */
+    public AdaptivePackageDependenciesFindingStrategy(long memoryBudget, int minAverageNrOfDependencies) {
+        this(memoryBudget, minAverageNrOfDependencies, ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * Construct a strategy using a closure bit matrix of at most the given size for dense graphs, computed by 
+     * the given executor for queries which do not wait for it.
+     * 
+     * @param memoryBudget                  The maximum size of the bit matrix in bytes.
+     * @param minAverageNrOfDependencies    The minimum average number of direct dependencies of dense graphs.
+     * @param executor                      The executor computing bit matrices in the background.
+     */
+    public AdaptivePackageDependenciesFindingStrategy(long memoryBudget, int minAverageNrOfDependencies, 
+                                                      Executor executor) {
+        this.memoryBudget               = memoryBudget;
+        this.minAverageNrOfDependencies = minAverageNrOfDependencies;
+        this.sparseStrategy             = new DFSPackageDependenciesFindingStrategy();
+        this.restrictedStrategy         = new BFSPackageDependenciesFindingStrategy();
+        this.executor                   = executor;
+        this.closureMatrices            = new WeakHashMap<PackageDependenciesGraphIndex, CompletableFuture<ClosureMatrix>>();
+    }
+    
+    /**
+     * Find the direct and transitive package dependencies of the given source package.
+     * 
+     * @param sourcePackage The source package considered.
+     * @param graph         The considered package dependencies directed graph.
+     * @return The direct and transitive package dependencies of the given source package.
+     */
+    @Override
+    public Set<Package> find(Package sourcePackage, PackageDependenciesDirectedGraph graph) {
+        return findPackageIds(sourcePackage, graph).toPackages(graph.getIndex());
+    }
+    
+    /**
+     * Find the IDs of the direct and transitive package dependencies of the given source package.
+     * 
+     * @param sourcePackage The source package considered.
+     * @param graph         The considered package dependencies directed graph.
+     * @return The IDs of the direct and transitive package dependencies of the given source package.
+     */
+    @Override
+    public PackageIdSet findPackageIds(Package sourcePackage, PackageDependenciesDirectedGraph graph) {
+        PackageDependenciesGraphIndex   graphIndex      = graph.getIndex();
+        ClosureMatrix                   closureMatrix   = getClosureMatrix(graphIndex);
+        
+        if (closureMatrix.rows == null) {
+            return sparseStrategy.findPackageIds(sourcePackage, graph);
+        }
+        
+        PackageIdSet packageIds         = new PackageIdSet();
+        int          sourcePackageId    = graphIndex.getPackageId(sourcePackage);
+        
+        if (sourcePackageId < 0) {
+            return packageIds;
+        }
+        
+        int nrOfWords   = closureMatrix.nrOfWords;
+        int rowBegin    = graphIndex.getCondensation().getComponent(sourcePackageId) * nrOfWords;
+        
+        // Package IDs are added in ascending order, which is the cheapest insertion order
+        for (int i = 0; i < nrOfWords; ++i) {
+            for (long word = closureMatrix.rows[rowBegin + i]; word != 0; word &= (word - 1)) {
+                int packageId = (i << 6) + Long.numberOfTrailingZeros(word);
+                
+                // The source package is not part of the result, even if it depends on itself transitively
+                if (packageId != sourcePackageId) {
+                    packageIds.add(packageId);
+                }
+            }
+        }
+        
+        return packageIds;
+    }
+    
+    /**
+     * Find the package dependencies of the given source package, stopping once the query reaches one of the limits 
+     * of the given query options. The depths of the packages found are not recorded.
+     * 
+     * Assumption: Queries restricted by a maximum depth, name patterns or stop-at packages use breadth first search.
+     * Assumption: Queries with limits do not wait for the bit matrix to be computed.
+     * Assumption: Reading the row of the source package counts as visiting the source package.
+     * 
+     * @param sourcePackage The source package considered.
+     * @param graph         The considered package dependencies directed graph.
+     * @param options       The query options.
+     * @return The package dependencies found, truncated if the query reached one of its limits.
+     */
+    @Override
+    public PackageDependenciesQueryResult query(Package sourcePackage, PackageDependenciesDirectedGraph graph, 
+                                                PackageDependenciesQueryOptions options) {
+        if (options.hasRestrictions()) {
+            return restrictedStrategy.query(sourcePackage, graph, options);
+        }
+        
+        PackageDependenciesGraphIndex   graphIndex      = graph.getIndex();
+        ClosureMatrix                   closureMatrix   = options.hasLimits() ? 
+                                                          getClosureMatrix(graphIndex, true).getNow(null) : 
+                                                          getClosureMatrix(graphIndex);
+        
+        if (closureMatrix == null) {
+            return restrictedStrategy.query(sourcePackage, graph, options);
+        }
+        
+        if (closureMatrix.rows == null) {
+            return sparseStrategy.query(sourcePackage, graph, options);
+        }
+        
+        PackageDependenciesQueryBudget  budget          = new PackageDependenciesQueryBudget(options);
+        int                             sourcePackageId = graphIndex.getPackageId(sourcePackage);
+        
+        if ((sourcePackageId < 0) || (budget.check() != null) || 
+            ((graphIndex.getDependenciesBegin(sourcePackageId) < graphIndex.getDependenciesEnd(sourcePackageId)) && 
+             (budget.visit(1) != null))) {
+            return new PackageDependenciesQueryResult(graphIndex, new int[0], budget.getTruncation());
+        }
+        
+        int nrOfWords       = closureMatrix.nrOfWords;
+        int rowBegin        = graphIndex.getCondensation().getComponent(sourcePackageId) * nrOfWords;
+        int nrOfPackages    = 0;
+        
+        for (int i = 0; i < nrOfWords; ++i) {
+            nrOfPackages += Long.bitCount(closureMatrix.rows[rowBegin + i]);
+        }
+        
+        // The source package is not part of the result, even if it depends on itself transitively
+        if ((closureMatrix.rows[rowBegin + (sourcePackageId >>> 6)] & (1L << sourcePackageId)) != 0) {
+            --nrOfPackages;
+        }
+        
+        if (nrOfPackages > budget.getMaxResultSize()) {
+            nrOfPackages = budget.getMaxResultSize();
+            
+            budget.exceedResultSize();
+        }
+        
+        int[] packageIds = new int[nrOfPackages];
+        int   position   = 0;
+        
+        for (int i = 0; (i < nrOfWords) && (position < nrOfPackages); ++i) {
+            for (long word = closureMatrix.rows[rowBegin + i]; (word != 0) && (position < nrOfPackages); word &= (word - 1)) {
+                int packageId = (i << 6) + Long.numberOfTrailingZeros(word);
+                
+                if (packageId != sourcePackageId) {
+                    packageIds[position++] = packageId;
+                }
+            }
+        }
+        
+        return new PackageDependenciesQueryResult(graphIndex, packageIds, budget.getTruncation());
+    }
+    
+    /**
+     * Check if queries on the given graph index are answered using the closure bit matrix, computing the bit 
+     * matrix if the index was not considered before.
+     * 
+     * @param graphIndex The graph index.
+     * @return True if the closure bit matrix is used, and false if depth first search is used.
+     */
+    public boolean usesClosureMatrix(PackageDependenciesGraphIndex graphIndex) {
+        return (getClosureMatrix(graphIndex).rows != null);
+    }
+    
+    /**
+     * Get the closure bit matrix considered for the given graph index, computing it if the index was not 
+     * considered before, or waiting for its computation if it is being computed in the background.
+     * 
+     * @param graphIndex The graph index.
+     * @return The closure bit matrix, whose rows are null if depth first search is used.
+     */
+    private ClosureMatrix getClosureMatrix(PackageDependenciesGraphIndex graphIndex) {
+        return getClosureMatrix(graphIndex, false).join();
+    }
+    
+    /**
+     * Get the closure bit matrix considered for the given graph index, starting its computation if the index 
+     * was not considered before. Only the cache is accessed while holding the lock, such that queries do not 
+     * wait for the computation of bit matrices of other indexes.
+     * 
+     * @param graphIndex    The graph index.
+     * @param isBackground  True if the bit matrix is computed by the executor, and false if it is computed by 
+     *                      the calling thread.
+     * @return The closure bit matrix, completed once it is computed.
+     */
+    private CompletableFuture<ClosureMatrix> getClosureMatrix(PackageDependenciesGraphIndex graphIndex, 
+                                                              boolean isBackground) {
+        CompletableFuture<ClosureMatrix> closureMatrix;
+        
+        synchronized (this) {
+            closureMatrix = closureMatrices.get(graphIndex);
+            
+            if (closureMatrix != null) {
+                return closureMatrix;
+            }
+            
+            closureMatrix = new CompletableFuture<ClosureMatrix>();
+            
+            closureMatrices.put(graphIndex, closureMatrix);
+        }
+        
+        CompletableFuture<ClosureMatrix> computedClosureMatrix = closureMatrix;
+        
+        if (isBackground) {
+            executor.execute(() -> computeClosureMatrix(graphIndex, computedClosureMatrix));
+        } else {
+            computeClosureMatrix(graphIndex, computedClosureMatrix);
+        }
+        
+        return closureMatrix;
+    }
+    
+    /**
+     * Compute the closure bit matrix considered for the given graph index and complete the given future with it.
+     * 
+     * @param graphIndex    The graph index.
+     * @param closureMatrix The future completed with the closure bit matrix, or with the failure of its computation.
+     */
+    private void computeClosureMatrix(PackageDependenciesGraphIndex graphIndex, 
+                                      CompletableFuture<ClosureMatrix> closureMatrix) {
+        try {
+            ClosureMatrix computedClosureMatrix = new ClosureMatrix(graphIndex.getNrOfPackages());
+            
+            if (isDense(graphIndex)) {
+                computeClosureMatrix(graphIndex.getCondensation(), computedClosureMatrix);
+            }
+            
+            closureMatrix.complete(computedClosureMatrix);
+        } catch (RuntimeException | Error e) {
+            closureMatrix.completeExceptionally(e);
+        }
+    }
+    
+    /**
+     * Check if the given graph is dense and its closure bit matrix fits into the memory budget.
+     * 
+     * @param graphIndex The graph index.
+     * @return True if the closure bit matrix should be used, and false otherwise.
+     */
+    private boolean isDense(PackageDependenciesGraphIndex graphIndex) {
+        int nrOfPackages = graphIndex.getNrOfPackages();
+        
+        if ((nrOfPackages == 0) || 
+            (graphIndex.getNrOfDependencies() < (long) minAverageNrOfDependencies * nrOfPackages)) {
+            return false;
+        }
+        
+        long nrOfMatrixWords = (long) graphIndex.getCondensation().getNrOfComponents() * ((nrOfPackages + 63) >>> 6);
+        
+        return ((8 * nrOfMatrixWords <= memoryBudget) && (nrOfMatrixWords <= Integer.MAX_VALUE - 8));
+    }
+    
+    /**
+     * Compute the row of bits of each component, recording the members of the component and of all components 
+     * on which it depends directly or transitively.
+     * 
+     * @param condensation  The condensation of the graph.
+     * @param closureMatrix The closure bit matrix, whose rows are set to the rows of all components.
+     */
+    private void computeClosureMatrix(PackageDependenciesCondensation condensation, ClosureMatrix closureMatrix) {
+        int    nrOfWords    = closureMatrix.nrOfWords;
+        long[] matrix       = new long[condensation.getNrOfComponents() * nrOfWords];
+        
+        // Dependency components have smaller IDs, hence their rows are complete when used
+        for (int i = 0; i < condensation.getNrOfComponents(); ++i) {
+            int rowBegin = i * nrOfWords;
+            
+            for (int j = condensation.getMembersBegin(i); j < condensation.getMembersEnd(i); ++j) {
+                int member = condensation.getMember(j);
+                
+                matrix[rowBegin + (member >>> 6)] |= (1L << member);
+            }
+            
+            for (int j = condensation.getDependenciesBegin(i); j < condensation.getDependenciesEnd(i); ++j) {
+                int dependencyRowBegin = condensation.getDependency(j) * nrOfWords;
+                
+                for (int k = 0; k < nrOfWords; ++k) {
+                    matrix[rowBegin + k] |= matrix[dependencyRowBegin + k];
+                }
+            }
+        }
+        
+        closureMatrix.rows = matrix;
+    }
+    
+    /**
+     * Closure bit matrix of a graph index.
+     * 
+     * Assumption: The matrix does not reference its graph index, such that the index remains weakly reachable 
+     *             from the cache.
+     */
+    private static class ClosureMatrix {
+    
+        private long[]  rows;       // The rows of bits of all components, stored consecutively, or null if not used
+        private int     nrOfWords;  // The number of words of a row
+        
+        
+        ClosureMatrix(int nrOfPackages) {
+            this.nrOfWords = (nrOfPackages + 63) >>> 6;
+        }
+        
+    }
+    
+}
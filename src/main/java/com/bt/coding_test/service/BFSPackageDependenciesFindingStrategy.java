@@ -0,0 +1,209 @@
+package com.bt.coding_test.service;
+
+import java.util.Arrays;
+import java.util.Set;
+
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+import com.bt.coding_test.model.PackageDependenciesGraphIndex;
+import com.bt.coding_test.model.PackageDependenciesQueryLimit;
+import com.bt.coding_test.model.PackageDependenciesQueryOptions;
+import com.bt.coding_test.model.PackageDependenciesQueryResult;
+import com.bt.coding_test.model.PackageIdSet;
+
+/**
+ * Strategy class using breadth first search to find package dependencies in a package dependencies directed graph.
+ * 
+ * Queries may be restricted using query options, which are applied while traversing the graph: packages rejected 
+ * by the options are not traversed, such that the cost of a query is proportional to the size of its answer 
+ * rather than to the size of the full closure. Since packages are visited in breadth first order, the depth 
+ * of each package found is the length of the shortest chain of dependencies from the source package.
+ * 
+ * The budgets and the cancellation token of the query options are enforced while traversing the graph as well 
+ * (see com.bt.coding_test.service.PackageDependenciesQueryBudget). A query reaching one of its limits returns 
+ * the packages found so far, which are the packages nearest to the source package.
+ * 
+ * Assumption: The work arrays are reused across queries on the same graph index, hence an instance of this class 
+ *             must not be used by multiple threads concurrently.
+ */
+public class BFSPackageDependenciesFindingStrategy implements PackageDependenciesFindingStrategy {
+
+    private static final PackageDependenciesQueryOptions NO_OPTIONS = new PackageDependenciesQueryOptions();
+    
+    private PackageDependenciesGraphIndex   index;          // The index for which the work arrays were allocated
+    private int[]                           searchNumbers;  // The last search which visited each package
+    private int[]                           depths;         // The depth of each package visited by the last search
+    private int[]                           queue;          // The packages visited, in breadth first order
+    private int                             searchNumber;   // The number of the current search
+    
+    
+    /**
+     * Find the direct and transitive package dependencies of the given source package.
+     * 
+     * @param sourcePackage The source package considered.
+     * @param graph         The considered package dependencies directed graph.
+     * @return The direct and transitive package dependencies of the given source package.
+     */
+    @Override
+    public Set<Package> find(Package sourcePackage, PackageDependenciesDirectedGraph graph) {
+        return query(sourcePackage, graph, NO_OPTIONS).getPackages();
+    }
+    
+    /**
+     * Find the IDs of the direct and transitive package dependencies of the given source package.
+     * 
+     * @param sourcePackage The source package considered.
+     * @param graph         The considered package dependencies directed graph.
+     * @return The IDs of the direct and transitive package dependencies of the given source package.
+     */
+    @Override
+    public PackageIdSet findPackageIds(Package sourcePackage, PackageDependenciesDirectedGraph graph) {
+        return query(sourcePackage, graph, NO_OPTIONS).getPackageIds();
+    }
+    
+    /**
+     * Find the package dependencies of the given source package accepted by the given query options.
+     * 
+     * Assumption: The source package is not part of the result, even if it depends on itself transitively.
+     * Assumption: The stop-at packages do not apply to the source package.
+     * Assumption: The source package counts as a visited package but is not counted in the result size.
+     * 
+     * @param sourcePackage The source package considered.
+     * @param graph         The considered package dependencies directed graph.
+     * @param options       The query options.
+     * @return The package dependencies found and their depths, truncated if the query reached one of its limits.
+     */
+    @Override
+    public PackageDependenciesQueryResult query(Package sourcePackage, PackageDependenciesDirectedGraph graph, 
+                                                PackageDependenciesQueryOptions options) {
+        PackageDependenciesQueryBudget budget = new PackageDependenciesQueryBudget(options);
+        
+        prepareWorkArrays(graph.getIndex());
+        
+        int sourcePackageId = index.getPackageId(sourcePackage);
+        
+        if (sourcePackageId < 0) {
+            return new PackageDependenciesQueryResult(index, new int[0], new int[0]);
+        }
+        
+        int[]                           stopAtPackageIds    = getStopAtPackageIds(options);
+        boolean                         isUnrestricted      = options.isUnrestricted();
+        int                             maxResultSize       = options.getMaxResultSize();
+        int                             head                = 0;
+        int                             tail                = 0;
+        PackageDependenciesQueryLimit   truncation          = budget.check();
+        
+        searchNumbers[sourcePackageId]  = searchNumber;
+        depths[sourcePackageId]         = 0;
+        queue[tail++]                   = sourcePackageId;
+        
+        while ((head < tail) && (truncation == null)) {
+            int packageId = queue[head];
+            
+            if ((depths[packageId] >= options.getMaxDepth()) || 
+                ((packageId != sourcePackageId) && (Arrays.binarySearch(stopAtPackageIds, packageId) >= 0))) {
+                ++head;
+                
+                continue;
+            }
+            
+            int nrOfDependencies = index.getDependenciesEnd(packageId) - index.getDependenciesBegin(packageId);
+            
+            // Packages without dependencies do not use the budget, since visiting them does not find anything
+            if ((nrOfDependencies > 0) && 
+                ((budget.visit(1) != null) || (budget.scan(nrOfDependencies) != null))) {
+                truncation = budget.getTruncation();
+                
+                break;
+            }
+            
+            for (int i = index.getDependenciesBegin(packageId); i < index.getDependenciesEnd(packageId); ++i) {
+                int packageDependencyId = index.getDependency(i);
+                
+                if (searchNumbers[packageDependencyId] != searchNumber) {
+                    if (!isUnrestricted && !options.isAccepted(index.getPackage(packageDependencyId))) {
+                        // Rejected packages are marked as visited as well, such that they are only matched once
+                        searchNumbers[packageDependencyId] = searchNumber;
+                    } else if (tail - 1 < maxResultSize) {
+                        searchNumbers[packageDependencyId]  = searchNumber;
+                        depths[packageDependencyId]         = depths[packageId] + 1;
+                        queue[tail++]                       = packageDependencyId;
+                    } else {
+                        truncation = budget.exceedResultSize();
+                        
+                        break;
+                    }
+                }
+            }
+            
+            ++head;
+        }
+        
+        return createResult(tail, truncation);
+    }
+    
+    /**
+     * Allocate the work arrays if the graph index changed and start a new search.
+     * 
+     * @param graphIndex The graph index.
+     */
+    private void prepareWorkArrays(PackageDependenciesGraphIndex graphIndex) {
+        if ((index != graphIndex) || (searchNumber == Integer.MAX_VALUE)) {
+            index           = graphIndex;
+            searchNumbers   = new int[graphIndex.getNrOfPackages()];
+            depths          = new int[graphIndex.getNrOfPackages()];
+            queue           = new int[graphIndex.getNrOfPackages()];
+            searchNumber    = 0;
+        }
+        
+        ++searchNumber;
+    }
+    
+    /**
+     * Get the sorted IDs of the stop-at packages which occur in the graph.
+     * 
+     * @param options The query options.
+     * @return The sorted package IDs.
+     */
+    private int[] getStopAtPackageIds(PackageDependenciesQueryOptions options) {
+        int[] stopAtPackageIds  = new int[options.getStopAtPackages().size()];
+        int   nrOfPackageIds    = 0;
+        
+        for (Package stopAtPackage : options.getStopAtPackages()) {
+            int packageId = index.getPackageId(stopAtPackage);
+            
+            if (packageId >= 0) {
+                stopAtPackageIds[nrOfPackageIds++] = packageId;
+            }
+        }
+        
+        stopAtPackageIds = Arrays.copyOf(stopAtPackageIds, nrOfPackageIds);
+        
+        Arrays.sort(stopAtPackageIds);
+        
+        return stopAtPackageIds;
+    }
+    
+    /**
+     * Create the query result from the packages visited by the last search, excluding the source package.
+     * 
+     * @param nrOfVisitedPackages The number of packages visited.
+     * @param truncation          The limit which truncated the result, or null if the result is complete.
+     * @return The query result.
+     */
+    private PackageDependenciesQueryResult createResult(int nrOfVisitedPackages, 
+                                                        PackageDependenciesQueryLimit truncation) {
+        int[] packageIds        = Arrays.copyOfRange(queue, 1, nrOfVisitedPackages);
+        int[] packageDepths     = new int[packageIds.length];
+        
+        // Package IDs are assigned alphabetically, so sorting the IDs sorts the packages
+        Arrays.sort(packageIds);
+        
+        for (int i = 0; i < packageIds.length; ++i) {
+            packageDepths[i] = depths[packageIds[i]];
+        }
+        
+        return new PackageDependenciesQueryResult(index, packageIds, packageDepths, truncation);
+    }
+    
+}
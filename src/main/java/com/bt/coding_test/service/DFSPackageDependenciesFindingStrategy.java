@@ -1,19 +1,34 @@
 package com.bt.coding_test.service;
 
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.Map;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Set;
-import java.util.TreeSet;
 
 import com.bt.coding_test.model.Package;
 import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+import com.bt.coding_test.model.PackageDependenciesGraphIndex;
+import com.bt.coding_test.model.PackageDependenciesQueryLimit;
+import com.bt.coding_test.model.PackageDependenciesQueryOptions;
+import com.bt.coding_test.model.PackageDependenciesQueryResult;
+import com.bt.coding_test.model.PackageIdSet;
 
 /**
  * Strategy class using depth first search to find package dependencies in a package dependencies directed graph.
+ * 
+ * The budgets and the cancellation token of the query options are enforced while traversing the graph 
+ * (see com.bt.coding_test.service.PackageDependenciesQueryBudget). Since packages are not visited in breadth first 
+ * order, a truncated result holds the packages found so far, which are not necessarily the nearest ones.
+ * 
+ * Assumption: Queries restricted by the query options reuse the work arrays of a breadth first search, hence 
+ *             an instance of this class must not be used by multiple threads concurrently.
  */
 public class DFSPackageDependenciesFindingStrategy implements PackageDependenciesFindingStrategy {
 
+    private static final PackageDependenciesQueryOptions NO_OPTIONS = new PackageDependenciesQueryOptions();
+    
+    private BFSPackageDependenciesFindingStrategy restrictedStrategy = new BFSPackageDependenciesFindingStrategy();
+    
+    
     /**
      * Find the direct and transitive package dependencies of the given source package.
      * 
@@ -23,47 +38,153 @@ public class DFSPackageDependenciesFindingStrategy implements PackageDependencie
      */
     @Override
     public Set<Package> find(Package sourcePackage, PackageDependenciesDirectedGraph graph) {
-        Set<Package>          allPackageDependencies  = new TreeSet<Package>();
-        Map<Package, Boolean> consideredPackages      = new HashMap<Package, Boolean>();
+        return findPackageIds(sourcePackage, graph).toPackages(graph.getIndex());
+    }
 
-        // Mark the source package as considered
-        consideredPackages.put(sourcePackage, true);
+    /**
+     * Find the IDs of the direct and transitive package dependencies of the given source package.
+     * 
+     * @param sourcePackage The source package considered.
+     * @param graph         The considered package dependencies directed graph.
+     * @return The IDs of the direct and transitive package dependencies of the given source package.
+     */
+    @Override
+    public PackageIdSet findPackageIds(Package sourcePackage, PackageDependenciesDirectedGraph graph) {
+        PackageDependenciesGraphIndex index                 = graph.getIndex();
+        BitSet                        consideredPackages    = new BitSet(index.getNrOfPackages());
+        
+        findPackageIds(sourcePackage, index, consideredPackages, new PackageDependenciesQueryBudget(NO_OPTIONS));
+        
+        return toPackageIdSet(consideredPackages);
+    }
+    
+    /**
+     * Find the package dependencies of the given source package, stopping once the query reaches one of the limits 
+     * of the given query options. The depths of the packages found are not recorded.
+     * 
+     * Assumption: Queries restricted by a maximum depth, name patterns or stop-at packages use breadth first search.
+     * 
+     * @param sourcePackage The source package considered.
+     * @param graph         The considered package dependencies directed graph.
+     * @param options       The query options.
+     * @return The package dependencies found, truncated if the query reached one of its limits.
+     */
+    @Override
+    public PackageDependenciesQueryResult query(Package sourcePackage, PackageDependenciesDirectedGraph graph, 
+                                                PackageDependenciesQueryOptions options) {
+        if (options.hasRestrictions()) {
+            return restrictedStrategy.query(sourcePackage, graph, options);
+        }
         
-        computeAllPackageDependencies(sourcePackage, graph, allPackageDependencies, consideredPackages);
+        PackageDependenciesGraphIndex   index               = graph.getIndex();
+        BitSet                          consideredPackages  = new BitSet(index.getNrOfPackages());
+        PackageDependenciesQueryLimit   truncation          = findPackageIds(
+            sourcePackage, 
+            index, 
+            consideredPackages, 
+            new PackageDependenciesQueryBudget(options)
+        );
         
-        return allPackageDependencies;
+        return new PackageDependenciesQueryResult(index, consideredPackages.stream().toArray(), truncation);
+    }
+    
+    /**
+     * Find the IDs of the package dependencies of the given source package within the given budget.
+     * 
+     * @param sourcePackage         The source package considered.
+     * @param index                 The index of the considered package dependencies directed graph.
+     * @param consideredPackages    The IDs of the packages found, excluding the source package.
+     * @param budget                The budget of the query.
+     * @return The limit reached by the query, or null if all the dependencies were found.
+     */
+    private PackageDependenciesQueryLimit findPackageIds(Package sourcePackage, PackageDependenciesGraphIndex index, 
+                                                         BitSet consideredPackages, 
+                                                         PackageDependenciesQueryBudget budget) {
+        int                             sourcePackageId = index.getPackageId(sourcePackage);
+        PackageDependenciesQueryLimit   truncation      = budget.check();
+        
+        if ((sourcePackageId >= 0) && (truncation == null)) {
+            // Mark the source package as considered
+            consideredPackages.set(sourcePackageId);
+            
+            truncation = computeAllPackageDependencies(sourcePackageId, index, consideredPackages, budget);
+            
+            consideredPackages.clear(sourcePackageId);
+        }
+        
+        return truncation;
     }
 
     /**
      * Compute all the package dependencies for the given source package.
      * This method implements a version of the Depth First Search (DFS) algorithm executed 
-     * for a single (source) vertex of a directed graph.
+     * for a single (source) vertex of a directed graph. An explicit stack is used instead of recursion 
+     * such that long dependency chains do not overflow the call stack.
      * 
-     * @param sourcePackage             The source package considered.
-     * @param graph                     The considered package dependencies directed graph.
-     * @param allPackageDependencies    All the package dependencies for the given source package.
-     * @param consideredPackages        The packages considered so far.
+     * @param sourcePackageId       The ID of the source package considered.
+     * @param index                 The index of the considered package dependencies directed graph.
+     * @param consideredPackages    The IDs of the packages considered so far.
+     * @param budget                The budget of the query.
+     * @return The limit reached by the query, or null if all the dependencies were found.
      */
-    private void computeAllPackageDependencies(Package sourcePackage,
-                                               PackageDependenciesDirectedGraph graph,
-                                               Set<Package> allPackageDependencies,
-                                               Map<Package, Boolean> consideredPackages) {
-        Iterator<Package> sourcePackageDependencies = graph.getDirectPackageDependencies(sourcePackage);
+    private PackageDependenciesQueryLimit computeAllPackageDependencies(int sourcePackageId,
+                                                                        PackageDependenciesGraphIndex index,
+                                                                        BitSet consideredPackages, 
+                                                                        PackageDependenciesQueryBudget budget) {
+        int[] packagesToVisit       = new int[16];
+        int   nrOfPackagesToVisit   = 0;
+        int   nrOfPackagesLeft      = budget.getMaxResultSize();
         
-        if (sourcePackageDependencies != null) {
-            while (sourcePackageDependencies.hasNext()) {
-                Package packageDependency = sourcePackageDependencies.next();
+        packagesToVisit[nrOfPackagesToVisit++] = sourcePackageId;
+        
+        while (nrOfPackagesToVisit > 0) {
+            int packageId           = packagesToVisit[--nrOfPackagesToVisit];
+            int nrOfDependencies    = index.getDependenciesEnd(packageId) - index.getDependenciesBegin(packageId);
+            
+            // Packages without dependencies do not use the budget, since visiting them does not find anything
+            if ((nrOfDependencies > 0) && 
+                ((budget.visit(1) != null) || (budget.scan(nrOfDependencies) != null))) {
+                return budget.getTruncation();
+            }
+            
+            for (int i = index.getDependenciesBegin(packageId); i < index.getDependenciesEnd(packageId); ++i) {
+                int packageDependencyId = index.getDependency(i);
                 
-                if (!consideredPackages.containsKey(packageDependency)) {
+                if (!consideredPackages.get(packageDependencyId)) {
+                    if (nrOfPackagesLeft-- == 0) {
+                        return budget.exceedResultSize();
+                    }
+                    
                     // Mark package dependency as visited
-                    consideredPackages.put(packageDependency, true);
+                    consideredPackages.set(packageDependencyId);
                     
-                    allPackageDependencies.add(packageDependency);
+                    if (nrOfPackagesToVisit == packagesToVisit.length) {
+                        packagesToVisit = Arrays.copyOf(packagesToVisit, 2 * nrOfPackagesToVisit);
+                    }
                     
-                    computeAllPackageDependencies(packageDependency, graph, allPackageDependencies, consideredPackages);
+                    packagesToVisit[nrOfPackagesToVisit++] = packageDependencyId;
                 }
             }
         }
+        
+        return null;
+    }
+    
+    /**
+     * Convert the given package IDs to a compressed set of package IDs.
+     * 
+     * @param packageIds The given package IDs.
+     * @return The compressed set of package IDs.
+     */
+    private PackageIdSet toPackageIdSet(BitSet packageIds) {
+        PackageIdSet packageIdSet = new PackageIdSet();
+        
+        // Package IDs are added in ascending order, which is the cheapest insertion order
+        for (int i = packageIds.nextSetBit(0); i >= 0; i = packageIds.nextSetBit(i + 1)) {
+            packageIdSet.add(i);
+        }
+        
+        return packageIdSet;
     }
     
 }
@@ -0,0 +1,43 @@
+package com.bt.coding_test.service;
+
+import java.util.List;
+
+import com.bt.coding_test.model.Package;
+
+/**
+ * Change of the direct and transitive dependencies of a package between two versions of a graph.
+ */
+public class PackageDependenciesClosureChange {
+
+    private Package         changedPackage;         // The package whose dependencies changed
+    private List<Package>   addedDependencies;      // The dependencies added, sorted alphabetically
+    private List<Package>   removedDependencies;    // The dependencies removed, sorted alphabetically
+    
+    
+    /**
+     * Construct a change of the dependencies of a package.
+     * 
+     * @param changedPackage        The package whose dependencies changed.
+     * @param addedDependencies     The dependencies added, sorted alphabetically.
+     * @param removedDependencies   The dependencies removed, sorted alphabetically.
+     */
+    public PackageDependenciesClosureChange(Package changedPackage, List<Package> addedDependencies, 
+                                            List<Package> removedDependencies) {
+        this.changedPackage         = changedPackage;
+        this.addedDependencies      = addedDependencies;
+        this.removedDependencies    = removedDependencies;
+    }
+    
+    public Package getPackage() {
+        return changedPackage;
+    }
+    
+    public List<Package> getAddedDependencies() {
+        return addedDependencies;
+    }
+    
+    public List<Package> getRemovedDependencies() {
+        return removedDependencies;
+    }
+    
+}
@@ -0,0 +1,257 @@
+package com.bt.coding_test.service;
+
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.stream.IntStream;
+
+import com.bt.coding_test.model.PackageDependenciesCondensation;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+import com.bt.coding_test.model.PackageDependenciesGraphIndex;
+import com.bt.coding_test.model.PackageIdSet;
+
+/**
+ * Class used to compute the closure cost of every package, i.e. the sum of the weights of the package and of all 
+ * its direct and transitive dependencies, each package being counted once even if it is reached through several 
+ * chains of dependencies.
+ * 
+ * The closure of each strongly connected component is computed once, as a set of package IDs, from the closures 
+ * of its dependency components. Components are grouped into levels (the level of a component is one more than 
+ * the highest level of its dependency components), such that the components of a level are processed in parallel 
+ * after all lower levels. A component reuses the closure of a dependency component instead of copying it if it is 
+ * the only component of the highest level depending on it, and adds the weights of the package IDs which are not 
+ * in the reused closure. Closures are released after the highest level of the components depending on them.
+ * 
+ * Assumption: The sum of the weights of all packages does not exceed 2^63 - 1.
+ */
+public class PackageDependenciesClosureCostAggregator {
+
+    private PackageDependenciesGraphIndex   index;              // The graph index
+    private PackageDependenciesCondensation condensation;       // The condensation of the graph
+    private int[]                           levels;             // The level of each component
+    private int[]                           lastLevels;         // The highest level of the dependants of each component, or -1
+    private int[]                           nrOfLastDependants; // The number of dependants of each component at its last level
+    private PackageIdSet[]                  closures;           // The closure of each component, or null if released
+    private long[]                          closureCosts;       // The closure cost of each component
+    
+    
+    /**
+     * Compute the closure cost of every package of the given graph.
+     * 
+     * @param graph The package dependencies directed graph.
+     * @return The closure cost of each package, indexed by package ID.
+     */
+    public long[] aggregate(PackageDependenciesDirectedGraph graph) {
+        index           = graph.getIndex();
+        condensation    = index.getCondensation();
+        
+        int nrOfComponents = condensation.getNrOfComponents();
+        
+        closures        = new PackageIdSet[nrOfComponents];
+        closureCosts    = new long[nrOfComponents];
+        
+        computeLevels();
+        
+        // A closure is released after the last level reading it, which is its own level if it has no dependants
+        int[] releaseLevels = new int[nrOfComponents];
+        
+        for (int i = 0; i < nrOfComponents; ++i) {
+            releaseLevels[i] = Math.max(levels[i], lastLevels[i]);
+        }
+        
+        int[] levelOffsets          = computeLevelOffsets(levels);
+        int[] componentsByLevel     = sortByLevel(levels, levelOffsets);
+        int[] releaseOffsets        = computeLevelOffsets(releaseLevels);
+        int[] componentsByRelease   = sortByLevel(releaseLevels, releaseOffsets);
+        
+        for (int i = 0; i + 1 < levelOffsets.length; ++i) {
+            IntStream.range(levelOffsets[i], levelOffsets[i + 1]).parallel().forEach(
+                position -> computeClosure(componentsByLevel[position])
+            );
+            
+            for (int j = releaseOffsets[i]; j < releaseOffsets[i + 1]; ++j) {
+                closures[componentsByRelease[j]] = null;
+            }
+        }
+        
+        long[] costs = new long[index.getNrOfPackages()];
+        
+        for (int i = 0; i < costs.length; ++i) {
+            costs[i] = closureCosts[condensation.getComponent(i)];
+        }
+        
+        return costs;
+    }
+    
+    /**
+     * Compute the level of each component, and the highest level of its dependants and their number at this level.
+     */
+    private void computeLevels() {
+        int nrOfComponents = condensation.getNrOfComponents();
+        
+        levels              = new int[nrOfComponents];
+        lastLevels          = new int[nrOfComponents];
+        nrOfLastDependants  = new int[nrOfComponents];
+        
+        Arrays.fill(lastLevels, -1);
+        
+        // Dependency components have smaller IDs, hence their levels are computed first
+        for (int i = 0; i < nrOfComponents; ++i) {
+            for (int j = condensation.getDependenciesBegin(i); j < condensation.getDependenciesEnd(i); ++j) {
+                levels[i] = Math.max(levels[i], levels[condensation.getDependency(j)] + 1);
+            }
+        }
+        
+        for (int i = 0; i < nrOfComponents; ++i) {
+            for (int j = condensation.getDependenciesBegin(i); j < condensation.getDependenciesEnd(i); ++j) {
+                int dependency = condensation.getDependency(j);
+                
+                if (levels[i] > lastLevels[dependency]) {
+                    lastLevels[dependency]          = levels[i];
+                    nrOfLastDependants[dependency]  = 1;
+                } else if (levels[i] == lastLevels[dependency]) {
+                    ++nrOfLastDependants[dependency];
+                }
+            }
+        }
+    }
+    
+    /**
+     * Compute the position of the first component of each level in the components sorted by the given levels.
+     * 
+     * @param componentLevels The level of each component.
+     * @return The offsets of the levels, followed by the number of components.
+     */
+    static int[] computeLevelOffsets(int[] componentLevels) {
+        int nrOfLevels = 0;
+        
+        for (int level : componentLevels) {
+            nrOfLevels = Math.max(nrOfLevels, level + 1);
+        }
+        
+        int[] levelOffsets = new int[nrOfLevels + 1];
+        
+        for (int level : componentLevels) {
+            ++levelOffsets[level + 1];
+        }
+        
+        for (int i = 0; i < nrOfLevels; ++i) {
+            levelOffsets[i + 1] += levelOffsets[i];
+        }
+        
+        return levelOffsets;
+    }
+    
+    /**
+     * Sort the components by the given levels using counting sort.
+     * 
+     * @param componentLevels   The level of each component.
+     * @param levelOffsets      The offsets of the levels.
+     * @return The components sorted by level.
+     */
+    static int[] sortByLevel(int[] componentLevels, int[] levelOffsets) {
+        int[] nextPositions = Arrays.copyOf(levelOffsets, levelOffsets.length);
+        int[] components    = new int[componentLevels.length];
+        
+        for (int i = 0; i < componentLevels.length; ++i) {
+            components[nextPositions[componentLevels[i]]++] = i;
+        }
+        
+        return components;
+    }
+    
+    /**
+     * Compute the closure of the given component and its cost, from the closures of its dependency components.
+     * 
+     * @param component The component.
+     */
+    private void computeClosure(int component) {
+        int begin       = condensation.getDependenciesBegin(component);
+        int end         = condensation.getDependenciesEnd(component);
+        int baseIndex   = -1;
+        
+        // Choose the largest dependency closure as the base, preferring closures which can be reused
+        for (int i = begin; i < end; ++i) {
+            int dependency = condensation.getDependency(i);
+            
+            if ((baseIndex < 0) || (isBetterBase(dependency, condensation.getDependency(baseIndex), component))) {
+                baseIndex = i;
+            }
+        }
+        
+        PackageIdSet    closure;
+        long            cost;
+        
+        if (baseIndex < 0) {
+            closure = new PackageIdSet();
+            cost    = 0;
+        } else {
+            int base = condensation.getDependency(baseIndex);
+            
+            closure = isReusable(base, component) ? closures[base] : closures[base].copy();
+            cost    = closureCosts[base];
+        }
+        
+        for (int i = begin; i < end; ++i) {
+            if (i != baseIndex) {
+                cost += addPackageIds(closure, closures[condensation.getDependency(i)]);
+            }
+        }
+        
+        for (int i = condensation.getMembersBegin(component); i < condensation.getMembersEnd(component); ++i) {
+            int member = condensation.getMember(i);
+            
+            if (closure.add(member)) {
+                cost += index.getPackageWeight(member);
+            }
+        }
+        
+        closures[component]     = closure;
+        closureCosts[component] = cost;
+    }
+    
+    /**
+     * Check if the closure of the given component can be reused by the given dependant component, i.e. no other 
+     * component reads the closure after or while the dependant component is processed.
+     * 
+     * @param component The component.
+     * @param dependant The dependant component.
+     * @return True if the closure can be reused, and false otherwise.
+     */
+    private boolean isReusable(int component, int dependant) {
+        return ((lastLevels[component] == levels[dependant]) && (nrOfLastDependants[component] == 1));
+    }
+    
+    private boolean isBetterBase(int component, int baseComponent, int dependant) {
+        boolean isReusable      = isReusable(component, dependant);
+        boolean isBaseReusable  = isReusable(baseComponent, dependant);
+        
+        if (isReusable != isBaseReusable) {
+            return isReusable;
+        }
+        
+        return (closures[component].getCardinality() > closures[baseComponent].getCardinality());
+    }
+    
+    /**
+     * Add the given package IDs to the closure.
+     * 
+     * @param closure       The closure.
+     * @param packageIds    The package IDs added.
+     * @return The sum of the weights of the package IDs which were not in the closure.
+     */
+    private long addPackageIds(PackageIdSet closure, PackageIdSet packageIds) {
+        PrimitiveIterator.OfInt iterator    = packageIds.iterator();
+        long                    cost        = 0;
+        
+        while (iterator.hasNext()) {
+            int packageId = iterator.nextInt();
+            
+            if (closure.add(packageId)) {
+                cost += index.getPackageWeight(packageId);
+            }
+        }
+        
+        return cost;
+    }
+    
+}
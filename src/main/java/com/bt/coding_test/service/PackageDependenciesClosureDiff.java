@@ -0,0 +1,256 @@
+package com.bt.coding_test.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PrimitiveIterator;
+
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+import com.bt.coding_test.model.PackageDependenciesGraphIndex;
+import com.bt.coding_test.model.PackageIdSet;
+
+/**
+ * Class used to find the packages whose direct and transitive dependencies differ between two versions of a graph.
+ * 
+ * The packages of both versions are interned in a shared dictionary, obtained by merging the alphabetically sorted 
+ * packages of the two graph indexes, such that the package IDs of both versions are comparable. The direct 
+ * dependencies of each package are compared to find the changed source packages. Only the packages which depend 
+ * (directly or transitively) on a changed source package, in either version, can have different dependencies, 
+ * hence the dependencies are only recomputed for these packages.
+ * 
+ * Assumption: Finding the changed source packages compares the direct dependencies of all packages, which costs 
+ *             as much as indexing both versions. Recomputing the dependencies of an affected package traverses 
+ *             its full closure in both versions, including the unchanged part of the graph below the changed 
+ *             packages. Therefore the cost is proportional to the number of affected packages times the size 
+ *             of their closures, rather than to the size of the changed region alone.
+ */
+public class PackageDependenciesClosureDiff {
+
+    private PackageDependenciesFindingStrategy strategy = new DFSPackageDependenciesFindingStrategy();
+    
+    private Package[] sharedPackages;   // The packages of both versions, sorted alphabetically
+    private int[]     oldSharedIds;     // The shared ID of each package of the old version
+    private int[]     newSharedIds;     // The shared ID of each package of the new version
+    private int[]     oldIds;           // The ID in the old version of each shared package, or -1
+    private int[]     newIds;           // The ID in the new version of each shared package, or -1
+    
+    
+    /**
+     * Find the packages whose dependencies differ between the given versions of a graph.
+     * 
+     * @param oldGraph The old version of the graph.
+     * @param newGraph The new version of the graph.
+     * @return The changes of the dependencies, in alphabetical order of the changed packages.
+     */
+    public List<PackageDependenciesClosureChange> diff(PackageDependenciesDirectedGraph oldGraph, 
+                                                       PackageDependenciesDirectedGraph newGraph) {
+        PackageDependenciesGraphIndex oldIndex = oldGraph.getIndex();
+        PackageDependenciesGraphIndex newIndex = newGraph.getIndex();
+        
+        createSharedDictionary(oldIndex, newIndex);
+        
+        boolean[] affected = findAffectedPackages(oldIndex, newIndex);
+        
+        List<PackageDependenciesClosureChange> changes = new ArrayList<PackageDependenciesClosureChange>();
+        
+        for (int i = 0; i < sharedPackages.length; ++i) {
+            if (affected[i]) {
+                PackageDependenciesClosureChange change = compareDependencies(i, oldGraph, newGraph);
+                
+                if (change != null) {
+                    changes.add(change);
+                }
+            }
+        }
+        
+        return changes;
+    }
+    
+    /**
+     * Merge the alphabetically sorted packages of both versions into the shared dictionary.
+     * 
+     * @param oldIndex The index of the old version.
+     * @param newIndex The index of the new version.
+     */
+    private void createSharedDictionary(PackageDependenciesGraphIndex oldIndex, PackageDependenciesGraphIndex newIndex) {
+        int nrOfOldPackages = oldIndex.getNrOfPackages();
+        int nrOfNewPackages = newIndex.getNrOfPackages();
+        int nrOfPackages    = 0;
+        int i               = 0;
+        int j               = 0;
+        
+        sharedPackages  = new Package[nrOfOldPackages + nrOfNewPackages];
+        oldSharedIds    = new int[nrOfOldPackages];
+        newSharedIds    = new int[nrOfNewPackages];
+        oldIds          = new int[nrOfOldPackages + nrOfNewPackages];
+        newIds          = new int[nrOfOldPackages + nrOfNewPackages];
+        
+        while ((i < nrOfOldPackages) || (j < nrOfNewPackages)) {
+            int comparison = (i == nrOfOldPackages) ? 1 : 
+                             (j == nrOfNewPackages) ? -1 : oldIndex.getPackage(i).compareTo(newIndex.getPackage(j));
+                             
+            oldIds[nrOfPackages] = (comparison <= 0) ? i : -1;
+            newIds[nrOfPackages] = (comparison >= 0) ? j : -1;
+            
+            if (comparison <= 0) {
+                sharedPackages[nrOfPackages]    = oldIndex.getPackage(i);
+                oldSharedIds[i++]               = nrOfPackages;
+            }
+            
+            if (comparison >= 0) {
+                sharedPackages[nrOfPackages]    = newIndex.getPackage(j);
+                newSharedIds[j++]               = nrOfPackages;
+            }
+            
+            ++nrOfPackages;
+        }
+        
+        sharedPackages  = Arrays.copyOf(sharedPackages, nrOfPackages);
+        oldIds          = Arrays.copyOf(oldIds, nrOfPackages);
+        newIds          = Arrays.copyOf(newIds, nrOfPackages);
+    }
+    
+    /**
+     * Find the packages which depend on a package whose direct dependencies changed, in either version.
+     * 
+     * @param oldIndex The index of the old version.
+     * @param newIndex The index of the new version.
+     * @return True for each shared package which may have different dependencies, and false otherwise.
+     */
+    private boolean[] findAffectedPackages(PackageDependenciesGraphIndex oldIndex, 
+                                           PackageDependenciesGraphIndex newIndex) {
+        boolean[] affected              = new boolean[sharedPackages.length];
+        int[]     packagesToVisit       = new int[sharedPackages.length];
+        int       nrOfPackagesToVisit   = 0;
+        
+        // Find the packages whose direct dependencies changed
+        for (int i = 0; i < sharedPackages.length; ++i) {
+            if (haveDirectDependenciesChanged(i, oldIndex, newIndex)) {
+                affected[i]                             = true;
+                packagesToVisit[nrOfPackagesToVisit++]  = i;
+            }
+        }
+        
+        // Find the packages depending on them, following the direct dependants of both versions
+        while (nrOfPackagesToVisit > 0) {
+            int sharedId = packagesToVisit[--nrOfPackagesToVisit];
+            
+            if (oldIds[sharedId] >= 0) {
+                int packageId = oldIds[sharedId];
+                
+                for (int i = oldIndex.getDependantsBegin(packageId); i < oldIndex.getDependantsEnd(packageId); ++i) {
+                    int dependantId = oldSharedIds[oldIndex.getDependant(i)];
+                    
+                    if (!affected[dependantId]) {
+                        affected[dependantId]                   = true;
+                        packagesToVisit[nrOfPackagesToVisit++]  = dependantId;
+                    }
+                }
+            }
+            
+            if (newIds[sharedId] >= 0) {
+                int packageId = newIds[sharedId];
+                
+                for (int i = newIndex.getDependantsBegin(packageId); i < newIndex.getDependantsEnd(packageId); ++i) {
+                    int dependantId = newSharedIds[newIndex.getDependant(i)];
+                    
+                    if (!affected[dependantId]) {
+                        affected[dependantId]                   = true;
+                        packagesToVisit[nrOfPackagesToVisit++]  = dependantId;
+                    }
+                }
+            }
+        }
+        
+        return affected;
+    }
+    
+    /**
+     * Check if the direct dependencies of the given shared package differ between the two versions.
+     * Since shared IDs are assigned in the same order as the IDs of both versions, the direct dependencies 
+     * of both versions are sorted by shared ID and are compared in a single pass.
+     * 
+     * @param sharedId The shared package ID.
+     * @param oldIndex The index of the old version.
+     * @param newIndex The index of the new version.
+     * @return True if the direct dependencies changed, and false otherwise.
+     */
+    private boolean haveDirectDependenciesChanged(int sharedId, PackageDependenciesGraphIndex oldIndex, 
+                                                  PackageDependenciesGraphIndex newIndex) {
+        int oldBegin    = (oldIds[sharedId] < 0) ? 0 : oldIndex.getDependenciesBegin(oldIds[sharedId]);
+        int oldEnd      = (oldIds[sharedId] < 0) ? 0 : oldIndex.getDependenciesEnd(oldIds[sharedId]);
+        int newBegin    = (newIds[sharedId] < 0) ? 0 : newIndex.getDependenciesBegin(newIds[sharedId]);
+        int newEnd      = (newIds[sharedId] < 0) ? 0 : newIndex.getDependenciesEnd(newIds[sharedId]);
+        
+        if ((oldEnd - oldBegin) != (newEnd - newBegin)) {
+            return true;
+        }
+        
+        for (int i = oldBegin, j = newBegin; i < oldEnd; ++i, ++j) {
+            if (oldSharedIds[oldIndex.getDependency(i)] != newSharedIds[newIndex.getDependency(j)]) {
+                return true;
+            }
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Compare the dependencies of the given shared package in the two versions.
+     * 
+     * @param sharedId The shared package ID.
+     * @param oldGraph The old version of the graph.
+     * @param newGraph The new version of the graph.
+     * @return The change of the dependencies, or null if the dependencies did not change.
+     */
+    private PackageDependenciesClosureChange compareDependencies(int sharedId, 
+                                                                 PackageDependenciesDirectedGraph oldGraph, 
+                                                                 PackageDependenciesDirectedGraph newGraph) {
+        Package sharedPackage   = sharedPackages[sharedId];
+        int[]   oldDependencies = toSharedIds(strategy.findPackageIds(sharedPackage, oldGraph), oldSharedIds);
+        int[]   newDependencies = toSharedIds(strategy.findPackageIds(sharedPackage, newGraph), newSharedIds);
+        
+        List<Package> addedDependencies     = new ArrayList<Package>();
+        List<Package> removedDependencies   = new ArrayList<Package>();
+        int           i                     = 0;
+        int           j                     = 0;
+        
+        while ((i < oldDependencies.length) || (j < newDependencies.length)) {
+            if ((j == newDependencies.length) || 
+                ((i < oldDependencies.length) && (oldDependencies[i] < newDependencies[j]))) {
+                removedDependencies.add(sharedPackages[oldDependencies[i++]]);
+            } else if ((i == oldDependencies.length) || (newDependencies[j] < oldDependencies[i])) {
+                addedDependencies.add(sharedPackages[newDependencies[j++]]);
+            } else {
+                ++i;
+                ++j;
+            }
+        }
+        
+        if (addedDependencies.isEmpty() && removedDependencies.isEmpty()) {
+            return null;
+        }
+        
+        return new PackageDependenciesClosureChange(sharedPackage, addedDependencies, removedDependencies);
+    }
+    
+    /**
+     * Convert the given package IDs of one version to shared IDs.
+     * 
+     * @param packageIds    The package IDs.
+     * @param sharedIds     The shared ID of each package of the version.
+     * @return The shared IDs, sorted ascending.
+     */
+    private static int[] toSharedIds(PackageIdSet packageIds, int[] sharedIds) {
+        int[]                   result      = new int[packageIds.getCardinality()];
+        PrimitiveIterator.OfInt iterator    = packageIds.iterator();
+        
+        for (int i = 0; iterator.hasNext(); ++i) {
+            result[i] = sharedIds[iterator.nextInt()];
+        }
+        
+        return result;
+    }
+    
+}
@@ -0,0 +1,213 @@
+package com.bt.coding_test.service;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesCondensation;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+import com.bt.coding_test.model.PackageDependenciesGraphIndex;
+import com.bt.coding_test.model.PackageIdSet;
+
+/**
+ * Class applying a set operation to the closures of several packages, e.g. finding the packages on which both 
+ * "gui" and "textui" depend.
+ * 
+ * The closures are not computed one by one. Instead, a single traversal of the condensation of the graph labels 
+ * each component with one bit per operand package, set if the component belongs to the closure of the operand. 
+ * Since components are numbered in reverse topological order, visiting them in descending order of their IDs 
+ * propagates the labels of each component to its dependencies after all its dependants were visited. Dependencies 
+ * shared by several operands are therefore visited once, whatever the number of operands. 
+ * 
+ * The labels are 64-bit words, hence operands are processed in groups of 64 packages.
+ */
+public class PackageDependenciesClosureSetQuery {
+
+    private static final int GROUP_SIZE = Long.SIZE;    // The number of operands labelled by a single traversal
+    
+    
+    /**
+     * Apply the given set operation to the closures of the given packages.
+     * 
+     * Assumption: Packages which do not occur in the graph have an empty closure.
+     * Assumption: A package is not part of its own closure, even if it depends on itself transitively, as for 
+     *             the strategies finding package dependencies.
+     * 
+     * @param operation The set operation.
+     * @param operands  The packages whose closures are the operands, in order.
+     * @param graph     The package dependencies directed graph.
+     * @return The IDs of the packages of the result, assigned by the graph index.
+     */
+    public PackageIdSet evaluate(PackageDependenciesSetOperation operation, List<Package> operands, 
+                                 PackageDependenciesDirectedGraph graph) {
+        PackageDependenciesGraphIndex   index           = graph.getIndex();
+        PackageDependenciesCondensation condensation    = index.getCondensation();
+        long[]                          labels          = new long[condensation.getNrOfComponents()];
+        long[]                          seeds           = new long[condensation.getNrOfComponents()];
+        BitSet                          result          = new BitSet(index.getNrOfPackages());
+        
+        for (int first = 0; first < Math.max(operands.size(), 1); first += GROUP_SIZE) {
+            int end = Math.min(first + GROUP_SIZE, operands.size());
+            
+            Arrays.fill(labels, 0);
+            Arrays.fill(seeds, 0);
+            
+            labelComponents(operands.subList(first, end), index, condensation, labels, seeds);
+            
+            combineGroup(operation, first, end - first, sortOperandBits(operands.subList(first, end), index), index, 
+                         condensation, labels, result);
+        }
+        
+        return toPackageIdSet(result);
+    }
+    
+    /**
+     * Label each component with the bits of the operands of the group whose closures contain the component.
+     * 
+     * @param operands      The operands of the group.
+     * @param index         The graph index.
+     * @param condensation  The condensation of the graph.
+     * @param labels        The label of each component.
+     * @param seeds         The bits of the operands of each component, propagated to its dependencies.
+     */
+    private void labelComponents(List<Package> operands, PackageDependenciesGraphIndex index, 
+                                 PackageDependenciesCondensation condensation, long[] labels, long[] seeds) {
+        int lastComponentId = -1;
+        
+        for (int i = 0; i < operands.size(); ++i) {
+            int packageId = index.getPackageId(operands.get(i));
+            
+            if (packageId < 0) {
+                continue;
+            }
+            
+            int componentId = condensation.getComponent(packageId);
+            
+            seeds[componentId] |= (1L << i);
+            
+            // All members of a cycle depend on each other, including the operand itself
+            if (condensation.getComponentSize(componentId) > 1) {
+                labels[componentId] |= (1L << i);
+            }
+            
+            lastComponentId = Math.max(lastComponentId, componentId);
+        }
+        
+        // Dependants have larger IDs than their dependencies, so only the components below the operands are reached
+        for (int i = lastComponentId; i >= 0; --i) {
+            long propagatedBits = labels[i] | seeds[i];
+            
+            if (propagatedBits == 0) {
+                continue;
+            }
+            
+            for (int j = condensation.getDependenciesBegin(i); j < condensation.getDependenciesEnd(i); ++j) {
+                labels[condensation.getDependency(j)] |= propagatedBits;
+            }
+        }
+    }
+    
+    /**
+     * Combine the closures of the operands of a group with the result of the previous groups.
+     * 
+     * @param operation     The set operation.
+     * @param first         The position of the first operand of the group.
+     * @param nrOfOperands  The number of operands of the group.
+     * @param operandBits   The operand package IDs and bits of the group, as returned by sortOperandBits().
+     * @param index         The graph index.
+     * @param condensation  The condensation of the graph.
+     * @param labels        The label of each component.
+     * @param result        The result of the previous groups, updated with the group.
+     */
+    private void combineGroup(PackageDependenciesSetOperation operation, int first, int nrOfOperands, long[] operandBits, 
+                              PackageDependenciesGraphIndex index, PackageDependenciesCondensation condensation, 
+                              long[] labels, BitSet result) {
+        long allBits        = (nrOfOperands == GROUP_SIZE) ? -1L : ((1L << nrOfOperands) - 1);
+        int  nextOperand    = 0;
+        
+        for (int i = 0; i < index.getNrOfPackages(); ++i) {
+            long label = labels[condensation.getComponent(i)];
+            
+            // An operand package is part of the closures of the other operands of its cycle, but not of its own
+            while ((nextOperand < operandBits.length) && ((operandBits[nextOperand] >>> 6) == i)) {
+                label &= ~(1L << (operandBits[nextOperand++] & (GROUP_SIZE - 1)));
+            }
+            
+            switch (operation) {
+                case UNION:
+                    if (label != 0) {
+                        result.set(i);
+                    }
+                    
+                    break;
+                    
+                case INTERSECTION:
+                    if ((label != allBits) || (nrOfOperands == 0)) {
+                        result.clear(i);
+                    } else if (first == 0) {
+                        result.set(i);
+                    }
+                    
+                    break;
+                    
+                case DIFFERENCE:
+                    // The first operand is the lowest bit of the first group
+                    if (first > 0) {
+                        if (label != 0) {
+                            result.clear(i);
+                        }
+                    } else if (label == 1) {
+                        result.set(i);
+                    }
+                    
+                    break;
+            }
+        }
+    }
+    
+    /**
+     * Encode the package ID and bit of each operand of a group as (package ID * 64 + bit), in ascending order, 
+     * skipping the packages which do not occur in the graph.
+     * 
+     * @param operands  The operands of the group.
+     * @param index     The graph index.
+     * @return The encoded package IDs and bits of the operands.
+     */
+    private long[] sortOperandBits(List<Package> operands, PackageDependenciesGraphIndex index) {
+        long[]  operandBits     = new long[operands.size()];
+        int     nrOfOperandBits = 0;
+        
+        for (int i = 0; i < operands.size(); ++i) {
+            int packageId = index.getPackageId(operands.get(i));
+            
+            if (packageId >= 0) {
+                operandBits[nrOfOperandBits++] = ((long) packageId << 6) | i;
+            }
+        }
+        
+        operandBits = Arrays.copyOf(operandBits, nrOfOperandBits);
+        
+        Arrays.sort(operandBits);
+        
+        return operandBits;
+    }
+    
+    /**
+     * Convert the given package IDs to a compressed set of package IDs.
+     * 
+     * @param packageIds The given package IDs.
+     * @return The compressed set of package IDs.
+     */
+    private PackageIdSet toPackageIdSet(BitSet packageIds) {
+        PackageIdSet packageIdSet = new PackageIdSet();
+        
+        // Package IDs are added in ascending order, which is the cheapest insertion order
+        for (int i = packageIds.nextSetBit(0); i >= 0; i = packageIds.nextSetBit(i + 1)) {
+            packageIdSet.add(i);
+        }
+        
+        return packageIdSet;
+    }
+    
+}
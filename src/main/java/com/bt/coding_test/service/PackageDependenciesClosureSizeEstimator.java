@@ -0,0 +1,126 @@
+package com.bt.coding_test.service;
+
+import com.bt.coding_test.model.HyperLogLogSketch;
+import com.bt.coding_test.model.PackageDependenciesCondensation;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+import com.bt.coding_test.model.PackageDependenciesGraphIndex;
+
+/**
+ * Class used to estimate the number of direct and transitive dependencies of every package in a single pass 
+ * over the condensation of the graph, without computing the dependencies themselves.
+ * 
+ * A HyperLogLog sketch of the packages reachable from each component is obtained by merging the sketches of its 
+ * component dependencies, which are processed first. The sketch of a component is released (or reused by its 
+ * last dependant component) as soon as all its dependant components were processed, such that only the sketches 
+ * of the components on the processing frontier are kept in memory.
+ */
+public class PackageDependenciesClosureSizeEstimator {
+
+    public static final int DEFAULT_PRECISION = 10;
+    
+    private int precision; // The precision of the sketches
+    
+    
+    public PackageDependenciesClosureSizeEstimator() {
+        this(DEFAULT_PRECISION);
+    }
+    
+    /**
+     * Construct an estimator using sketches with the given precision.
+     * 
+     * Assumption: The precision is in the range [HyperLogLogSketch.MIN_PRECISION, HyperLogLogSketch.MAX_PRECISION].
+     * 
+     * @param precision The number of hash bits selecting a sketch register.
+     */
+    public PackageDependenciesClosureSizeEstimator(int precision) {
+        this.precision = precision;
+    }
+    
+    /**
+     * Estimate the number of direct and transitive dependencies of every package of the given graph.
+     * 
+     * @param graph The package dependencies directed graph.
+     * @return The estimated number of dependencies of each package, indexed by the package IDs assigned 
+     *         by the graph index.
+     */
+    public long[] estimate(PackageDependenciesDirectedGraph graph) {
+        PackageDependenciesGraphIndex   index           = graph.getIndex();
+        PackageDependenciesCondensation condensation    = index.getCondensation();
+        int                             nrOfComponents  = condensation.getNrOfComponents();
+        
+        HyperLogLogSketch[] sketches            = new HyperLogLogSketch[nrOfComponents];
+        int[]               remainingDependants = new int[nrOfComponents];
+        long[]              estimates           = new long[index.getNrOfPackages()];
+        
+        for (int i = 0; i < condensation.getNrOfDependencies(); ++i) {
+            ++remainingDependants[condensation.getDependency(i)];
+        }
+        
+        // Dependency components have smaller IDs, so they are processed first
+        for (int i = 0; i < nrOfComponents; ++i) {
+            HyperLogLogSketch sketch = mergeDependencySketches(i, condensation, sketches, remainingDependants);
+            
+            for (int j = condensation.getMembersBegin(i); j < condensation.getMembersEnd(i); ++j) {
+                sketch.add(condensation.getMember(j));
+            }
+            
+            // A package is not its own dependency, even if it belongs to a cycle
+            long estimate = Math.max(sketch.estimate() - 1, 0);
+            
+            for (int j = condensation.getMembersBegin(i); j < condensation.getMembersEnd(i); ++j) {
+                estimates[condensation.getMember(j)] = estimate;
+            }
+            
+            if (remainingDependants[i] > 0) {
+                sketches[i] = sketch;
+            }
+        }
+        
+        return estimates;
+    }
+    
+    /**
+     * Merge the sketches of the component dependencies of the given component. The sketch of a component 
+     * dependency without other remaining dependants is reused instead of being copied.
+     * 
+     * @param component             The component ID.
+     * @param condensation          The condensation of the graph.
+     * @param sketches              The sketches of the components which still have remaining dependants.
+     * @param remainingDependants   The number of dependant components not processed yet, for each component.
+     * @return The merged sketch.
+     */
+    private HyperLogLogSketch mergeDependencySketches(int component, PackageDependenciesCondensation condensation, 
+                                                      HyperLogLogSketch[] sketches, int[] remainingDependants) {
+        int               begin             = condensation.getDependenciesBegin(component);
+        int               end               = condensation.getDependenciesEnd(component);
+        int               reusedPosition    = -1;
+        HyperLogLogSketch sketch            = null;
+        
+        for (int i = begin; i < end; ++i) {
+            if ((--remainingDependants[condensation.getDependency(i)] == 0) && (reusedPosition < 0)) {
+                reusedPosition  = i;
+                sketch          = sketches[condensation.getDependency(i)];
+            }
+        }
+        
+        if (sketch == null) {
+            sketch = new HyperLogLogSketch(precision);
+        }
+        
+        for (int i = begin; i < end; ++i) {
+            int dependencyComponent = condensation.getDependency(i);
+            
+            if (i != reusedPosition) {
+                sketch.merge(sketches[dependencyComponent]);
+            }
+            
+            // Release the sketch of the dependency component if no longer required
+            if (remainingDependants[dependencyComponent] == 0) {
+                sketches[dependencyComponent] = null;
+            }
+        }
+        
+        return sketch;
+    }
+    
+}
@@ -0,0 +1,267 @@
+package com.bt.coding_test.service;
+
+import java.util.Arrays;
+
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+import com.bt.coding_test.model.PackageDependenciesGraphIndex;
+
+/**
+ * Class computing the dominator tree of the packages reachable from a root package, using the Lengauer-Tarjan 
+ * algorithm with path compression, which runs in O(m log n) time for n reachable packages and m dependencies 
+ * between them.
+ * 
+ * The reachable packages are numbered in depth first search preorder, starting from 1 for the root, and all 
+ * the state of the algorithm is recorded in arrays indexed by these numbers. Number 0 is the sentinel marking 
+ * the roots of the forest built by the algorithm. The depth first search and the path compression use explicit 
+ * stacks, such that long dependency chains do not overflow the call stack.
+ */
+public class PackageDependenciesDominatorCalculator {
+
+    private int[] preorderNumbers;  // The preorder number of each package, or 0 if not reachable
+    private int[] packageIds;       // The package ID of each preorder number
+    private int[] parents;          // The preorder number of the parent in the depth first search tree
+    private int[] semidominators;   // The preorder number of the semidominator, initially the preorder number itself
+    private int[] ancestors;        // The ancestor in the forest built by the algorithm, or 0 for the roots
+    private int[] labels;           // The vertex with the minimum semidominator on the compressed path to the ancestor
+    private int[] dominators;       // The preorder number of the (immediate) dominator
+    private int[] bucketHeads;      // The first vertex whose semidominator is the given vertex, or 0
+    private int[] bucketNexts;      // The next vertex in the same bucket, or 0
+    private int[] pathStack;        // The vertices of the path being compressed
+    private int   nrOfVertices;     // The number of reachable packages
+    
+    
+    /**
+     * Compute the dominator tree of the packages reachable from the given root package.
+     * 
+     * Assumption: Only the root package is reachable if it does not occur in the graph.
+     * 
+     * @param rootPackage   The root package.
+     * @param graph         The package dependencies directed graph.
+     * @return The dominator tree.
+     */
+    public synchronized PackageDependenciesDominatorTree compute(Package rootPackage, PackageDependenciesDirectedGraph graph) {
+        PackageDependenciesGraphIndex       index   = graph.getIndex();
+        PackageDependenciesDominatorTree    tree    = new PackageDependenciesDominatorTree();
+        
+        tree.index                  = index;
+        tree.rootId                 = index.getPackageId(rootPackage);
+        tree.immediateDominators    = new int[index.getNrOfPackages()];
+        tree.dominatedSetSizes      = new int[index.getNrOfPackages()];
+        
+        Arrays.fill(tree.immediateDominators, -1);
+        
+        if (tree.rootId < 0) {
+            return tree;
+        }
+        
+        allocate(index.getNrOfPackages());
+        numberVertices(tree.rootId, index);
+        computeSemidominators(index);
+        computeDominators();
+        
+        tree.nrOfReachablePackages = nrOfVertices;
+        
+        // Dominators have smaller preorder numbers, hence subtree sizes are accumulated in descending order
+        for (int w = nrOfVertices; w >= 1; --w) {
+            tree.dominatedSetSizes[packageIds[w]] += 1;
+            
+            if (w > 1) {
+                tree.immediateDominators[packageIds[w]]                     = packageIds[dominators[w]];
+                tree.dominatedSetSizes[packageIds[dominators[w]]]          += tree.dominatedSetSizes[packageIds[w]];
+            }
+        }
+        
+        release();
+        
+        return tree;
+    }
+    
+    /**
+     * Allocate the arrays of the algorithm, which are released once the dominator tree is computed.
+     * 
+     * @param nrOfPackages The number of packages of the graph.
+     */
+    private void allocate(int nrOfPackages) {
+        preorderNumbers = new int[nrOfPackages];
+        packageIds      = new int[nrOfPackages + 1];
+        parents         = new int[nrOfPackages + 1];
+        semidominators  = new int[nrOfPackages + 1];
+        ancestors       = new int[nrOfPackages + 1];
+        labels          = new int[nrOfPackages + 1];
+        dominators      = new int[nrOfPackages + 1];
+        bucketHeads     = new int[nrOfPackages + 1];
+        bucketNexts     = new int[nrOfPackages + 1];
+        pathStack       = new int[16];
+        nrOfVertices    = 0;
+    }
+    
+    private void release() {
+        preorderNumbers = null;
+        packageIds      = null;
+        parents         = null;
+        semidominators  = null;
+        ancestors       = null;
+        labels          = null;
+        dominators      = null;
+        bucketHeads     = null;
+        bucketNexts     = null;
+        pathStack       = null;
+    }
+    
+    /**
+     * Number the packages reachable from the root in depth first search preorder, and record the parent of each 
+     * package in the depth first search tree.
+     * 
+     * @param rootId    The ID of the root package.
+     * @param index     The graph index.
+     */
+    private void numberVertices(int rootId, PackageDependenciesGraphIndex index) {
+        int[]   packagesToVisit     = new int[16];     // The packages on the current path of the search
+        int[]   nextPositions       = new int[16];     // The position of the next dependency of each package on the path
+        int     nrOfPackagesToVisit = 0;
+        
+        visit(rootId, 0);
+        
+        packagesToVisit[nrOfPackagesToVisit]    = rootId;
+        nextPositions[nrOfPackagesToVisit++]    = index.getDependenciesBegin(rootId);
+        
+        while (nrOfPackagesToVisit > 0) {
+            int packageId   = packagesToVisit[nrOfPackagesToVisit - 1];
+            int position    = nextPositions[nrOfPackagesToVisit - 1];
+            
+            if (position == index.getDependenciesEnd(packageId)) {
+                --nrOfPackagesToVisit;
+                
+                continue;
+            }
+            
+            nextPositions[nrOfPackagesToVisit - 1] = position + 1;
+            
+            int packageDependencyId = index.getDependency(position);
+            
+            if (preorderNumbers[packageDependencyId] == 0) {
+                visit(packageDependencyId, preorderNumbers[packageId]);
+                
+                if (nrOfPackagesToVisit == packagesToVisit.length) {
+                    packagesToVisit = Arrays.copyOf(packagesToVisit, 2 * nrOfPackagesToVisit);
+                    nextPositions   = Arrays.copyOf(nextPositions, 2 * nrOfPackagesToVisit);
+                }
+                
+                packagesToVisit[nrOfPackagesToVisit]    = packageDependencyId;
+                nextPositions[nrOfPackagesToVisit++]    = index.getDependenciesBegin(packageDependencyId);
+            }
+        }
+    }
+    
+    private void visit(int packageId, int parent) {
+        int v = ++nrOfVertices;
+        
+        preorderNumbers[packageId]  = v;
+        packageIds[v]               = packageId;
+        parents[v]                  = parent;
+        semidominators[v]           = v;
+        labels[v]                   = v;
+    }
+    
+    /**
+     * Compute the semidominator of each vertex in descending preorder, and the immediate dominator of the vertices 
+     * whose dominator is implied by their semidominator.
+     * 
+     * @param index The graph index.
+     */
+    private void computeSemidominators(PackageDependenciesGraphIndex index) {
+        for (int w = nrOfVertices; w >= 2; --w) {
+            int packageId = packageIds[w];
+            
+            // The predecessors of a package are its direct dependants, skipping those which are not reachable
+            for (int i = index.getDependantsBegin(packageId); i < index.getDependantsEnd(packageId); ++i) {
+                int v = preorderNumbers[index.getDependant(i)];
+                
+                if (v != 0) {
+                    int u = evaluate(v);
+                    
+                    if (semidominators[u] < semidominators[w]) {
+                        semidominators[w] = semidominators[u];
+                    }
+                }
+            }
+            
+            bucketNexts[w]                  = bucketHeads[semidominators[w]];
+            bucketHeads[semidominators[w]]  = w;
+            ancestors[w]                    = parents[w];
+            
+            // The buckets of the parent are complete, since all vertices of its subtree were processed
+            int parent = parents[w];
+            
+            for (int v = bucketHeads[parent]; v != 0; v = bucketNexts[v]) {
+                int u = evaluate(v);
+                
+                dominators[v] = (semidominators[u] < semidominators[v]) ? u : parent;
+            }
+            
+            bucketHeads[parent] = 0;
+        }
+    }
+    
+    /**
+     * Complete the immediate dominators, in ascending preorder.
+     */
+    private void computeDominators() {
+        for (int w = 2; w <= nrOfVertices; ++w) {
+            if (dominators[w] != semidominators[w]) {
+                dominators[w] = dominators[dominators[w]];
+            }
+        }
+        
+        dominators[1] = 0;
+    }
+    
+    /**
+     * Find the vertex with the minimum semidominator on the path from the given vertex to the root of its tree 
+     * in the forest, excluding the root.
+     * 
+     * @param v The vertex.
+     * @return The vertex with the minimum semidominator, or the given vertex if it is the root of its tree.
+     */
+    private int evaluate(int v) {
+        if (ancestors[v] == 0) {
+            return v;
+        }
+        
+        compress(v);
+        
+        return labels[v];
+    }
+    
+    /**
+     * Compress the path from the given vertex to the root of its tree, such that each vertex of the path points to 
+     * the child of the root and records the minimum semidominator of its former path.
+     * 
+     * @param v The vertex.
+     */
+    private void compress(int v) {
+        int nrOfPathVertices = 0;
+        
+        for (int x = v; ancestors[ancestors[x]] != 0; x = ancestors[x]) {
+            if (nrOfPathVertices == pathStack.length) {
+                pathStack = Arrays.copyOf(pathStack, 2 * nrOfPathVertices);
+            }
+            
+            pathStack[nrOfPathVertices++] = x;
+        }
+        
+        // Vertices closer to the root are compressed first
+        while (nrOfPathVertices > 0) {
+            int x           = pathStack[--nrOfPathVertices];
+            int ancestor    = ancestors[x];
+            
+            if (semidominators[labels[ancestor]] < semidominators[labels[x]]) {
+                labels[x] = labels[ancestor];
+            }
+            
+            ancestors[x] = ancestors[ancestor];
+        }
+    }
+    
+}
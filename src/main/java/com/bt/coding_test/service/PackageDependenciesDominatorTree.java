@@ -0,0 +1,71 @@
+package com.bt.coding_test.service;
+
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesGraphIndex;
+
+/**
+ * Dominator tree of the packages reachable from a root package. A package X dominates a package Y if every chain 
+ * of dependencies from the root to Y goes through X, i.e. X is a chokepoint for Y. The immediate dominator of Y 
+ * is its closest dominator other than Y itself, and is the parent of Y in the tree.
+ * 
+ * Packages are identified by the IDs assigned by the graph index.
+ */
+public class PackageDependenciesDominatorTree {
+
+    PackageDependenciesGraphIndex   index;                  // The graph index
+    int                             rootId;                 // The ID of the root package, or -1 if unknown
+    int                             nrOfReachablePackages;  // The number of packages reachable from the root, including the root
+    int[]                           immediateDominators;    // The immediate dominator of each package, or -1
+    int[]                           dominatedSetSizes;      // The number of packages dominated by each package, including itself
+    
+    
+    public int getRootId() {
+        return rootId;
+    }
+    
+    public int getNrOfReachablePackages() {
+        return nrOfReachablePackages;
+    }
+    
+    /**
+     * Check if the given package is reachable from the root, i.e. is the root or one of its dependencies.
+     * 
+     * @param packageId The package ID.
+     * @return True if the package is reachable, and false otherwise.
+     */
+    public boolean isReachable(int packageId) {
+        return (dominatedSetSizes[packageId] > 0);
+    }
+    
+    /**
+     * Get the immediate dominator of the given package.
+     * 
+     * @param packageId The package ID.
+     * @return The ID of the immediate dominator, or -1 for the root and the packages which are not reachable.
+     */
+    public int getImmediateDominator(int packageId) {
+        return immediateDominators[packageId];
+    }
+    
+    /**
+     * Get the number of packages dominated by the given package, i.e. the size of its subtree. The root dominates 
+     * all reachable packages.
+     * 
+     * @param packageId The package ID.
+     * @return The number of packages dominated by the package including itself, or 0 if it is not reachable.
+     */
+    public int getDominatedSetSize(int packageId) {
+        return dominatedSetSizes[packageId];
+    }
+    
+    /**
+     * Get the package with the given ID.
+     * 
+     * @param packageId The package ID.
+     * @return The package.
+     */
+    public Package getPackage(int packageId) {
+        return index.getPackage(packageId);
+    }
+    
+}
@@ -1,9 +1,14 @@
 package com.bt.coding_test.service;
 
+import java.util.Iterator;
 import java.util.Set;
 
 import com.bt.coding_test.model.Package;
 import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+import com.bt.coding_test.model.PackageDependenciesGraphIndex;
+import com.bt.coding_test.model.PackageDependenciesQueryOptions;
+import com.bt.coding_test.model.PackageDependenciesQueryResult;
+import com.bt.coding_test.model.PackageIdSet;
 
 /**
  * Interface used to define a strategy for finding package dependencies in a package dependencies directed graph.
@@ -19,4 +24,47 @@ public interface PackageDependenciesFindingStrategy {
      */
     public Set<Package> find(Package sourcePackage, PackageDependenciesDirectedGraph graph);
     
+    /**
+     * Find all the dependencies of the source package considering the given graph and return them as 
+     * a compressed set of package IDs assigned by the graph index.
+     * 
+     * Strategies which traverse the graph index directly should override this method, since the default 
+     * implementation converts the result of find().
+     *  
+     * @param sourcePackage The source package.
+     * @param graph         The package dependencies directed graph.
+     * @return The IDs of the direct and transitive package dependencies of the source package.
+     */
+    public default PackageIdSet findPackageIds(Package sourcePackage, PackageDependenciesDirectedGraph graph) {
+        PackageDependenciesGraphIndex index         = graph.getIndex();
+        PackageIdSet                  packageIds    = new PackageIdSet();
+        Iterator<Package>             dependencies  = find(sourcePackage, graph).iterator();
+        
+        while (dependencies.hasNext()) {
+            packageIds.add(index.getPackageId(dependencies.next()));
+        }
+        
+        return packageIds;
+    }
+    
+    /**
+     * Find the package dependencies of the source package accepted by the given query options, stopping once 
+     * the query reaches one of the budgets, the deadline or the cancellation token of the options.
+     * 
+     * Strategies which traverse the graph should override this method to enforce the limits of the options in 
+     * their own traversal, since the default implementation uses breadth first search, which is the only 
+     * traversal applying the depth, name pattern and stop-at restrictions of the options. The default 
+     * implementation allocates new work arrays for each query, hence strategies answering restricted queries 
+     * should reuse their own BFSPackageDependenciesFindingStrategy instead.
+     * 
+     * @param sourcePackage The source package.
+     * @param graph         The package dependencies directed graph.
+     * @param options       The query options.
+     * @return The package dependencies found, truncated if the query reached one of its limits.
+     */
+    public default PackageDependenciesQueryResult query(Package sourcePackage, PackageDependenciesDirectedGraph graph, 
+                                                        PackageDependenciesQueryOptions options) {
+        return new BFSPackageDependenciesFindingStrategy().query(sourcePackage, graph, options);
+    }
+    
 }
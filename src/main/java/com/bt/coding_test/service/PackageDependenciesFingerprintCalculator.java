@@ -0,0 +1,368 @@
+package com.bt.coding_test.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.stream.IntStream;
+
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesCondensation;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+import com.bt.coding_test.model.PackageDependenciesGraphIndex;
+
+/**
+ * Class used to compute Merkle-style closure fingerprints of all packages (e.g. as keys of a remote build cache) 
+ * in a single pass over the condensation of the graph, instead of hashing the closure of each package.
+ * 
+ * The hash of each strongly connected component covers, for each member in alphabetical order, its name, its weight 
+ * and its direct dependencies in alphabetical order. A dependency is hashed as its position among the members of 
+ * its component (which are sorted by name), preceded by the hash of its component if it is in another component, 
+ * hence the hash of a component covers its whole closure without hashing the names of the dependencies again. 
+ * Since members and dependencies are hashed in alphabetical order, the hash of a cycle does not depend on the order 
+ * in which the cycle was found. Components are grouped into levels (the level of a component is one more than the 
+ * highest level of its dependency components), such that the components of a level are hashed in parallel after 
+ * all lower levels.
+ * 
+ * When the graph changes, the fingerprints can be recomputed incrementally from the previous fingerprints: only 
+ * the components containing changed packages and the components depending on them are hashed again.
+ */
+public class PackageDependenciesFingerprintCalculator {
+
+    private static final String HASH_ALGORITHM = "SHA-256";
+    
+    private static final byte INTERNAL_DEPENDENCY_TAG = 0;  // Tag of a dependency on a member of the same component
+    private static final byte EXTERNAL_DEPENDENCY_TAG = 1;  // Tag of a dependency on another component
+    
+    private PackageDependenciesGraphIndex   index;              // The graph index
+    private PackageDependenciesCondensation condensation;       // The condensation of the graph
+    private byte[][]                        componentHashes;    // The hash of each component, or null if not known yet
+    private int[]                           memberRanks;        // The position of each package among the members of its component
+    private ThreadLocal<HashInput>          hashInputs;         // The hash input of each thread hashing components
+    
+    
+    /**
+     * Compute the closure fingerprints of all packages of the given graph.
+     * 
+     * @param graph The package dependencies directed graph.
+     * @return The closure fingerprints.
+     */
+    public PackageDependenciesFingerprints compute(PackageDependenciesDirectedGraph graph) {
+        return recompute(null, graph, Collections.<Package>emptyList());
+    }
+    
+    /**
+     * Recompute the closure fingerprints of all packages of the given graph, reusing the previous fingerprints of 
+     * the packages whose closures did not change.
+     * 
+     * Assumption: The changed packages include the source packages of all added or removed dependencies and the 
+     *             packages whose weight changed. Packages without previous fingerprints are considered changed.
+     * 
+     * @param previousFingerprints  The fingerprints computed before the graph changed, or null.
+     * @param graph                 The changed package dependencies directed graph.
+     * @param changedPackages       The changed packages.
+     * @return The closure fingerprints.
+     */
+    public PackageDependenciesFingerprints recompute(PackageDependenciesFingerprints previousFingerprints, 
+                                                     PackageDependenciesDirectedGraph graph, 
+                                                     Collection<Package> changedPackages) {
+        index           = graph.getIndex();
+        condensation    = index.getCondensation();
+        componentHashes = new byte[condensation.getNrOfComponents()][];
+        hashInputs      = ThreadLocal.withInitial(HashInput::new);
+        
+        int[]   dirtyComponents     = findDirtyComponents(previousFingerprints, changedPackages);
+        int[]   dirtyLevels         = computeLevels(dirtyComponents);
+        int[]   levelOffsets        = PackageDependenciesClosureCostAggregator.computeLevelOffsets(dirtyLevels);
+        int[]   positionsByLevel    = PackageDependenciesClosureCostAggregator.sortByLevel(dirtyLevels, levelOffsets);
+        
+        computeMemberRanks();
+        
+        for (int i = 0; i + 1 < levelOffsets.length; ++i) {
+            IntStream.range(levelOffsets[i], levelOffsets[i + 1]).parallel().forEach(
+                position -> hashComponent(dirtyComponents[positionsByLevel[position]])
+            );
+        }
+        
+        PackageDependenciesFingerprints fingerprints = new PackageDependenciesFingerprints();
+        
+        fingerprints.index                  = index;
+        fingerprints.condensation           = condensation;
+        fingerprints.componentHashes        = componentHashes;
+        fingerprints.nrOfHashedComponents   = dirtyComponents.length;
+        
+        memberRanks = null;
+        
+        return fingerprints;
+    }
+    
+    /**
+     * Create a SHA-256 message digest.
+     * 
+     * @return The message digest.
+     */
+    static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException exception) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(exception);
+        }
+    }
+    
+    /**
+     * Find the components which must be hashed, i.e. the components containing changed packages or packages without 
+     * previous fingerprints, and the components depending on them. The hashes of the other components are reused.
+     * 
+     * @param previousFingerprints  The previous fingerprints, or null.
+     * @param changedPackages       The changed packages.
+     * @return The components which must be hashed, in ascending order.
+     */
+    private int[] findDirtyComponents(PackageDependenciesFingerprints previousFingerprints, 
+                                      Collection<Package> changedPackages) {
+        int         nrOfComponents  = condensation.getNrOfComponents();
+        boolean[]   isDirty         = new boolean[nrOfComponents];
+        
+        for (Package changedPackage : changedPackages) {
+            int packageId = index.getPackageId(changedPackage);
+            
+            // Removed packages only change the packages which depended on them
+            if (packageId >= 0) {
+                isDirty[condensation.getComponent(packageId)] = true;
+            }
+        }
+        
+        int[]   dirtyComponents     = new int[nrOfComponents];
+        int     nrOfDirtyComponents = 0;
+        
+        // Dependency components have smaller IDs, hence they are checked first
+        for (int i = 0; i < nrOfComponents; ++i) {
+            for (int j = condensation.getDependenciesBegin(i); (j < condensation.getDependenciesEnd(i)) && (!isDirty[i]); ++j) {
+                isDirty[i] = isDirty[condensation.getDependency(j)];
+            }
+            
+            if (!isDirty[i]) {
+                componentHashes[i] = findPreviousHash(previousFingerprints, i);
+                isDirty[i]         = (componentHashes[i] == null);
+            }
+            
+            if (isDirty[i]) {
+                dirtyComponents[nrOfDirtyComponents++] = i;
+            }
+        }
+        
+        return Arrays.copyOf(dirtyComponents, nrOfDirtyComponents);
+    }
+    
+    /**
+     * Find the previous hash of the given component, which is the previous hash of the component of any of its 
+     * members since the closure of the component did not change.
+     * 
+     * @param previousFingerprints  The previous fingerprints, or null.
+     * @param component             The component.
+     * @return The previous hash of the component, or null if the component does not have a previous hash.
+     */
+    private byte[] findPreviousHash(PackageDependenciesFingerprints previousFingerprints, int component) {
+        if (previousFingerprints == null) {
+            return null;
+        }
+        
+        int packageId = previousFingerprints.getIndex().getPackageId(
+            index.getPackage(condensation.getMember(condensation.getMembersBegin(component)))
+        );
+        
+        return (packageId < 0) ? null : previousFingerprints.getComponentHash(packageId);
+    }
+    
+    /**
+     * Compute the level of each of the given components, considering only the dependencies on the given components 
+     * since the hashes of the other components are already known.
+     * 
+     * @param dirtyComponents The components, in ascending order.
+     * @return The level of each of the given components.
+     */
+    private int[] computeLevels(int[] dirtyComponents) {
+        int[] levels        = new int[condensation.getNrOfComponents()];
+        int[] dirtyLevels   = new int[dirtyComponents.length];
+        
+        // Dependency components have smaller IDs, hence their levels are computed first
+        for (int i = 0; i < dirtyComponents.length; ++i) {
+            int component = dirtyComponents[i];
+            
+            for (int j = condensation.getDependenciesBegin(component); j < condensation.getDependenciesEnd(component); ++j) {
+                int dependency = condensation.getDependency(j);
+                
+                if (componentHashes[dependency] == null) {
+                    levels[component] = Math.max(levels[component], levels[dependency] + 1);
+                }
+            }
+            
+            dirtyLevels[i] = levels[component];
+        }
+        
+        return dirtyLevels;
+    }
+    
+    /**
+     * Compute the position of each package among the members of its component. Since members are sorted by name, 
+     * the position of a member identifies it within its component independently of the rest of the graph.
+     */
+    private void computeMemberRanks() {
+        memberRanks = new int[index.getNrOfPackages()];
+        
+        for (int i = 0; i < condensation.getNrOfComponents(); ++i) {
+            for (int j = condensation.getMembersBegin(i); j < condensation.getMembersEnd(i); ++j) {
+                memberRanks[condensation.getMember(j)] = j - condensation.getMembersBegin(i);
+            }
+        }
+    }
+    
+    /**
+     * Compute the hash of the given component from the hashes of its dependency components.
+     * 
+     * @param component The component.
+     */
+    private void hashComponent(int component) {
+        HashInput input = hashInputs.get();
+        
+        input.putInt(condensation.getComponentSize(component));
+        
+        // Members are sorted by ID, hence in alphabetical order
+        for (int i = condensation.getMembersBegin(component); i < condensation.getMembersEnd(component); ++i) {
+            int packageId = condensation.getMember(i);
+            
+            input.putName(index.getPackage(packageId).getName());
+            input.putLong(index.getPackageWeight(packageId));
+            input.putInt(index.getDependenciesEnd(packageId) - index.getDependenciesBegin(packageId));
+            
+            // Dependencies are sorted by ID, hence in alphabetical order
+            for (int j = index.getDependenciesBegin(packageId); j < index.getDependenciesEnd(packageId); ++j) {
+                int dependencyId        = index.getDependency(j);
+                int dependencyComponent = condensation.getComponent(dependencyId);
+                
+                // A dependency is identified by its position in its component, whose hash covers the member names
+                if (dependencyComponent == component) {
+                    input.putByte(INTERNAL_DEPENDENCY_TAG);
+                } else {
+                    input.putByte(EXTERNAL_DEPENDENCY_TAG);
+                    input.putBytes(componentHashes[dependencyComponent]);
+                }
+                
+                input.putInt(memberRanks[dependencyId]);
+            }
+        }
+        
+        componentHashes[component] = input.digest();
+    }
+    
+    /**
+     * Input of a message digest, buffered such that the digest is updated once per buffer instead of once per value.
+     */
+    private static class HashInput {
+    
+        private static final int BUFFER_SIZE = 1 << 13;
+        
+        private MessageDigest   digest;     // The message digest
+        private byte[]          buffer;     // The bytes not hashed yet
+        private int             length;     // The number of bytes of the buffer
+        
+        
+        HashInput() {
+            this.digest = createDigest();
+            this.buffer = new byte[BUFFER_SIZE];
+        }
+        
+        void putByte(byte value) {
+            reserve(1);
+            
+            buffer[length++] = value;
+        }
+        
+        void putInt(int value) {
+            reserve(Integer.BYTES);
+            
+            for (int i = 0; i < Integer.BYTES; ++i) {
+                buffer[length++] = (byte) (value >>> (8 * i));
+            }
+        }
+        
+        void putLong(long value) {
+            reserve(Long.BYTES);
+            
+            for (int i = 0; i < Long.BYTES; ++i) {
+                buffer[length++] = (byte) (value >>> (8 * i));
+            }
+        }
+        
+        void putBytes(byte[] values) {
+            if (values.length > BUFFER_SIZE) {
+                flush();
+                digest.update(values);
+            } else {
+                reserve(values.length);
+                
+                System.arraycopy(values, 0, buffer, length, values.length);
+                
+                length += values.length;
+            }
+        }
+        
+        /**
+         * Add the UTF-8 encoding of the given name, preceded by its length such that consecutive names are not 
+         * ambiguous. Names made of ASCII characters (e.g. all valid package names) are encoded without copies.
+         * 
+         * @param name The name.
+         */
+        void putName(String name) {
+            for (int i = 0; i < name.length(); ++i) {
+                if (name.charAt(i) >= 0x80) {
+                    byte[] encodedName = name.getBytes(StandardCharsets.UTF_8);
+                    
+                    putInt(encodedName.length);
+                    putBytes(encodedName);
+                    
+                    return;
+                }
+            }
+            
+            putInt(name.length());
+            
+            if (name.length() > BUFFER_SIZE) {
+                putBytes(name.getBytes(StandardCharsets.UTF_8));
+            } else {
+                reserve(name.length());
+                
+                for (int i = 0; i < name.length(); ++i) {
+                    buffer[length++] = (byte) name.charAt(i);
+                }
+            }
+        }
+        
+        /**
+         * Complete the hash, and reset the input such that it can be reused.
+         * 
+         * @return The hash.
+         */
+        byte[] digest() {
+            flush();
+            
+            return digest.digest();
+        }
+        
+        private void reserve(int nrOfBytes) {
+            if (length + nrOfBytes > BUFFER_SIZE) {
+                flush();
+            }
+        }
+        
+        private void flush() {
+            digest.update(buffer, 0, length);
+            
+            length = 0;
+        }
+        
+    }
+    
+}
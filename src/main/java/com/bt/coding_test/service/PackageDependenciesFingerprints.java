@@ -0,0 +1,87 @@
+package com.bt.coding_test.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesCondensation;
+import com.bt.coding_test.model.PackageDependenciesGraphIndex;
+
+/**
+ * Closure fingerprints of all the packages of a graph. The fingerprint of a package is a SHA-256 hash covering 
+ * the name of the package and the hash of its strongly connected component, which covers the names, weights and 
+ * direct dependencies of all the packages in the closure of the package. Fingerprints only depend on the contents 
+ * of the closure, hence they are equal across graphs (e.g. successive versions of a data file) for packages whose 
+ * closures are identical.
+ * 
+ * Packages are identified by the IDs assigned by the graph index.
+ */
+public class PackageDependenciesFingerprints {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    
+    PackageDependenciesGraphIndex   index;                  // The graph index
+    PackageDependenciesCondensation condensation;           // The condensation of the graph
+    byte[][]                        componentHashes;        // The hash of each component
+    int                             nrOfHashedComponents;   // The number of components hashed, the others being reused
+    
+    
+    public PackageDependenciesGraphIndex getIndex() {
+        return index;
+    }
+    
+    /**
+     * Get the number of components whose hash was computed, as opposed to reused from previous fingerprints.
+     * 
+     * @return The number of hashed components.
+     */
+    public int getNrOfHashedComponents() {
+        return nrOfHashedComponents;
+    }
+    
+    /**
+     * Get the closure fingerprint of the given package.
+     * 
+     * @param givenPackage The package.
+     * @return The fingerprint as 64 hexadecimal digits, or null if the package is not recorded in the graph.
+     */
+    public String getFingerprint(Package givenPackage) {
+        int packageId = index.getPackageId(givenPackage);
+        
+        return (packageId < 0) ? null : getFingerprint(packageId);
+    }
+    
+    /**
+     * Get the closure fingerprint of the package with the given ID.
+     * 
+     * @param packageId The package ID.
+     * @return The fingerprint as 64 hexadecimal digits.
+     */
+    public String getFingerprint(int packageId) {
+        MessageDigest digest = PackageDependenciesFingerprintCalculator.createDigest();
+        
+        digest.update(getComponentHash(packageId));
+        digest.update(index.getPackage(packageId).getName().getBytes(StandardCharsets.UTF_8));
+        
+        byte[]  hash        = digest.digest();
+        char[]  fingerprint = new char[2 * hash.length];
+        
+        for (int i = 0; i < hash.length; ++i) {
+            fingerprint[2 * i]      = HEX_DIGITS[(hash[i] >> 4) & 0xf];
+            fingerprint[2 * i + 1]  = HEX_DIGITS[hash[i] & 0xf];
+        }
+        
+        return new String(fingerprint);
+    }
+    
+    /**
+     * Get the hash of the component of the package with the given ID.
+     * 
+     * @param packageId The package ID.
+     * @return The component hash.
+     */
+    byte[] getComponentHash(int packageId) {
+        return componentHashes[condensation.getComponent(packageId)];
+    }
+    
+}
@@ -0,0 +1,305 @@
+package com.bt.coding_test.service;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.bt.coding_test.data.PackageDependenciesDataFileReader;
+import com.bt.coding_test.data.PackageDependenciesDataFileWriter;
+import com.bt.coding_test.exception.InvalidInputException;
+import com.bt.coding_test.model.CyclePolicy;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+import com.bt.coding_test.model.PackageDependenciesGraphIndex;
+import com.bt.coding_test.model.PackagePool;
+
+/**
+ * Registry holding several named package dependencies directed graphs (e.g. one per product line) within 
+ * a memory budget. The graphs loaded by the registry share their Package instances, and therefore their name 
+ * Strings, through a single package pool.
+ * 
+ * The registry tracks the estimated number of bytes retained by each graph held in memory. When the total 
+ * exceeds the memory budget, the least recently queried graphs are offloaded: each is written to a snapshot 
+ * file in the snapshot directory and released. An offloaded graph is reloaded from its snapshot file 
+ * transparently the next time it is queried.
+ * 
+ * Assumption: The graphs do not share a single name dictionary. Package IDs are the positions of the names in 
+ *             the alphabetical order of the names of each graph, hence the index of each graph builds its own 
+ *             front-coded name dictionary, which copies the names and is included in the retained bytes.
+ * 
+ * This class is thread safe.
+ */
+public class PackageDependenciesGraphRegistry {
+
+    private static final String SNAPSHOT_FILE_PREFIX    = "graph";
+    private static final String SNAPSHOT_FILE_EXTENSION = ".txt";
+    
+    private long                memoryBudget;               // The maximum number of bytes retained by the graphs held in memory
+    private File                snapshotDirectory;          // The directory of the snapshot files
+    private PackagePool         packagePool;                // The pool of the packages of the graphs loaded by the registry
+    private Map<String, Entry>  entries;                    // The entry of each graph, from least to most recently queried or registered
+    private int                 nrOfSnapshotFiles;          // The number of snapshot file names assigned
+    private int                 nrOfOffloads;               // The number of graphs offloaded
+    private int                 nrOfReloads;                // The number of graphs reloaded
+    
+    
+    /**
+     * Construct an empty registry.
+     * 
+     * @param memoryBudget      The maximum number of bytes retained by the graphs held in memory.
+     * @param snapshotDirectory The directory where the snapshot files of offloaded graphs are written.
+     */
+    public PackageDependenciesGraphRegistry(long memoryBudget, String snapshotDirectory) {
+        this.memoryBudget       = memoryBudget;
+        this.snapshotDirectory  = new File(snapshotDirectory);
+        this.packagePool        = new PackagePool();
+        this.entries            = new LinkedHashMap<String, Entry>();
+    }
+    
+    /**
+     * Load a graph from the given data file and register it with the given name, replacing the graph previously 
+     * registered with this name if any. Other graphs are offloaded if the memory budget is exceeded.
+     * 
+     * @param name          The name of the graph.
+     * @param dataFilePath  The path to the data file.
+     * @param cyclePolicy   The policy applied to dependencies closing cycles.
+     * @return The graph loaded.
+     * @throws InvalidInputException if the data file is invalid, or a snapshot file cannot be written.
+     */
+    public synchronized PackageDependenciesDirectedGraph load(String name, String dataFilePath, CyclePolicy cyclePolicy) 
+                                                              throws InvalidInputException {
+        PackageDependenciesDirectedGraph graph = PackageDependenciesDataFileReader.getInstance().read(
+            dataFilePath, 
+            cyclePolicy, 
+            packagePool
+        );
+        
+        register(name, graph);
+        
+        return graph;
+    }
+    
+    /**
+     * Register the given graph with the given name, replacing the graph previously registered with this name 
+     * if any. The graph index is computed, and other graphs are offloaded if the memory budget is exceeded.
+     * 
+     * @param name  The name of the graph.
+     * @param graph The graph.
+     * @throws InvalidInputException if a snapshot file cannot be written.
+     */
+    public synchronized void register(String name, PackageDependenciesDirectedGraph graph) throws InvalidInputException {
+        Entry entry = entries.remove(name);
+        
+        if (entry == null) {
+            entry = new Entry(new File(snapshotDirectory, SNAPSHOT_FILE_PREFIX + (nrOfSnapshotFiles++) + 
+                                                          SNAPSHOT_FILE_EXTENSION));
+        }
+        
+        // The graph becomes the most recently queried graph
+        entries.put(name, entry);
+        
+        entry.graph         = graph;
+        entry.cyclePolicy   = graph.getCyclePolicy();
+        entry.snapshotIndex = null;
+        
+        // The index is computed up front since it is required by all queries, and so is part of the retained bytes
+        graph.getIndex();
+        
+        enforceMemoryBudget(entry);
+    }
+    
+    /**
+     * Get the graph registered with the given name, reloading it from its snapshot file if it was offloaded. 
+     * The graph becomes the most recently queried graph, and other graphs are offloaded if the memory budget 
+     * is exceeded.
+     * 
+     * Assumption: A graph changed after it was registered is offloaded with its changes, since the snapshot file 
+     *             is written again whenever the graph index differs from the index of the last snapshot.
+     * 
+     * @param name The name of the graph.
+     * @return The graph, or null if no graph is registered with the given name.
+     * @throws InvalidInputException if the graph cannot be reloaded, or a snapshot file cannot be written.
+     */
+    public synchronized PackageDependenciesDirectedGraph get(String name) throws InvalidInputException {
+        Entry entry = entries.remove(name);
+        
+        if (entry == null) {
+            return null;
+        }
+        
+        // The graph becomes the most recently queried graph
+        entries.put(name, entry);
+        
+        if (entry.graph == null) {
+            // The cycles of the graph were already reported when it was loaded
+            entry.graph = PackageDependenciesDataFileReader.getInstance().readSnapshot(
+                entry.snapshotFile.getPath(), 
+                entry.cyclePolicy, 
+                packagePool
+            );
+            
+            // The snapshot file still reflects the graph, as long as the graph does not change
+            entry.snapshotIndex = entry.graph.getIndex();
+            
+            ++nrOfReloads;
+        }
+        
+        enforceMemoryBudget(entry);
+        
+        return entry.graph;
+    }
+    
+    /**
+     * Remove the graph registered with the given name, and delete its snapshot file.
+     * 
+     * @param name The name of the graph.
+     * @return True if a graph was registered with the given name, and false otherwise.
+     */
+    public synchronized boolean remove(String name) {
+        Entry entry = entries.remove(name);
+        
+        if (entry == null) {
+            return false;
+        }
+        
+        entry.snapshotFile.delete();
+        
+        return true;
+    }
+    
+    /**
+     * Get the names of the registered graphs, from the least to the most recently queried.
+     * 
+     * @return The names of the graphs.
+     */
+    public synchronized List<String> getNames() {
+        return new ArrayList<String>(entries.keySet());
+    }
+    
+    /**
+     * Check if the graph registered with the given name is held in memory. The graph does not become the most 
+     * recently queried graph.
+     * 
+     * @param name The name of the graph.
+     * @return True if the graph is held in memory, and false if it is offloaded or not registered.
+     */
+    public synchronized boolean isResident(String name) {
+        Entry entry = entries.get(name);
+        
+        return (entry != null) && (entry.graph != null);
+    }
+    
+    /**
+     * Get the estimated number of bytes retained by the graph registered with the given name, including the name 
+     * dictionary of its index but excluding the packages shared through the package pool. The graph does not 
+     * become the most recently queried graph.
+     * 
+     * @param name The name of the graph.
+     * @return The estimated size in bytes, or 0 if the graph is offloaded or not registered.
+     */
+    public synchronized long getRetainedBytes(String name) {
+        Entry entry = entries.get(name);
+        
+        return ((entry == null) || (entry.graph == null)) ? 0 : entry.graph.estimateSizeInBytes();
+    }
+    
+    /**
+     * Get the estimated number of bytes retained by all the graphs held in memory, excluding the package pool.
+     * 
+     * @return The estimated size in bytes.
+     */
+    public synchronized long getTotalRetainedBytes() {
+        long retainedBytes = 0;
+        
+        for (Entry entry : entries.values()) {
+            if (entry.graph != null) {
+                retainedBytes += entry.graph.estimateSizeInBytes();
+            }
+        }
+        
+        return retainedBytes;
+    }
+    
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+    
+    public PackagePool getPackagePool() {
+        return packagePool;
+    }
+    
+    public synchronized int getNrOfOffloads() {
+        return nrOfOffloads;
+    }
+    
+    public synchronized int getNrOfReloads() {
+        return nrOfReloads;
+    }
+    
+    /**
+     * Offload the least recently queried graphs held in memory until the memory budget is met. The given entry is 
+     * never offloaded, even if it exceeds the memory budget on its own.
+     * 
+     * Assumption: Graphs are estimated again whenever the budget is enforced, since they may change after they 
+     *             were registered.
+     * 
+     * @param queriedEntry The entry of the graph being queried.
+     * @throws InvalidInputException if a snapshot file cannot be written.
+     */
+    private void enforceMemoryBudget(Entry queriedEntry) throws InvalidInputException {
+        long retainedBytes = getTotalRetainedBytes();
+        
+        // Entries are iterated from the least to the most recently queried
+        for (Entry entry : entries.values()) {
+            if (retainedBytes <= memoryBudget) {
+                break;
+            }
+            
+            if ((entry != queriedEntry) && (entry.graph != null)) {
+                retainedBytes -= entry.graph.estimateSizeInBytes();
+                
+                offload(entry);
+            }
+        }
+    }
+    
+    /**
+     * Write the graph of the given entry to its snapshot file, unless the snapshot file is up to date, and release it.
+     * 
+     * @param entry The entry.
+     * @throws InvalidInputException if the snapshot file cannot be written.
+     */
+    private void offload(Entry entry) throws InvalidInputException {
+        PackageDependenciesGraphIndex index = entry.graph.getIndex();
+        
+        if (index != entry.snapshotIndex) {
+            snapshotDirectory.mkdirs();
+            
+            PackageDependenciesDataFileWriter.getInstance().write(entry.graph, entry.snapshotFile.getPath());
+        }
+        
+        entry.graph         = null;
+        entry.snapshotIndex = null;
+        
+        ++nrOfOffloads;
+    }
+    
+    /**
+     * Entry of a registered graph.
+     */
+    private static class Entry {
+    
+        private PackageDependenciesDirectedGraph    graph;          // The graph, or null if offloaded
+        private CyclePolicy                         cyclePolicy;    // The cycle policy of the graph
+        private File                                snapshotFile;   // The snapshot file of the graph
+        private PackageDependenciesGraphIndex       snapshotIndex;  // The index of the graph when the snapshot file was last written or read
+        
+        
+        private Entry(File snapshotFile) {
+            this.snapshotFile = snapshotFile;
+        }
+        
+    }
+    
+}
@@ -0,0 +1,127 @@
+package com.bt.coding_test.service;
+
+import com.bt.coding_test.model.PackageDependenciesQueryCancellation;
+import com.bt.coding_test.model.PackageDependenciesQueryLimit;
+import com.bt.coding_test.model.PackageDependenciesQueryOptions;
+
+/**
+ * Work left to a single package dependencies query before it reaches one of the limits of its query options
+ * (the number of packages whose dependencies are traversed, the deadline and the cancellation token). Once
+ * a limit is reached, it is recorded as the truncation of the query and all further work is refused.
+ * 
+ * The deadline and the cancellation token are only checked once every NR_OF_DEPENDENCIES_PER_CHECK scanned
+ * dependencies, since reading the clock is much more expensive than scanning a dependency.
+ * 
+ * Assumption: A budget is only used by the thread running the query.
+ */
+class PackageDependenciesQueryBudget {
+
+    private static final int NR_OF_DEPENDENCIES_PER_CHECK = 4096;   // The dependencies scanned between deadline checks
+    
+    private PackageDependenciesQueryOptions options;                // The query options
+    private long                            startTime;              // The start time of the query, as returned by System.nanoTime()
+    private int                             nrOfVisitsLeft;         // The number of packages whose dependencies may still be traversed
+    private int                             nrOfScansLeft;          // The number of dependencies scanned before the next deadline check
+    private PackageDependenciesQueryLimit   truncation;             // The limit reached by the query, or null
+    
+    
+    /**
+     * Construct the budget of a query starting now.
+     * 
+     * @param options The query options.
+     */
+    PackageDependenciesQueryBudget(PackageDependenciesQueryOptions options) {
+        this.options        = options;
+        this.startTime      = System.nanoTime();
+        this.nrOfVisitsLeft = options.getMaxVisitedPackages();
+        this.nrOfScansLeft  = NR_OF_DEPENDENCIES_PER_CHECK;
+    }
+    
+    /**
+     * Count the given number of packages whose dependencies are about to be traversed. The packages are either
+     * all counted or, if they exceed the packages left, not counted at all.
+     * 
+     * @param nrOfPackages The number of packages.
+     * @return The limit reached by the query, or null if the dependencies of the packages may be traversed.
+     */
+    PackageDependenciesQueryLimit visit(int nrOfPackages) {
+        if ((truncation == null) && (nrOfPackages > nrOfVisitsLeft)) {
+            truncation = PackageDependenciesQueryLimit.MAX_VISITED_PACKAGES;
+        }
+        
+        if (truncation == null) {
+            nrOfVisitsLeft -= nrOfPackages;
+        }
+        
+        return truncation;
+    }
+    
+    /**
+     * Count the given number of scanned dependencies, checking the deadline and the cancellation token once every
+     * NR_OF_DEPENDENCIES_PER_CHECK scanned dependencies.
+     * 
+     * @param nrOfDependencies The number of dependencies.
+     * @return The limit reached by the query, or null if the query may continue.
+     */
+    PackageDependenciesQueryLimit scan(int nrOfDependencies) {
+        nrOfScansLeft -= nrOfDependencies;
+        
+        if (nrOfScansLeft <= 0) {
+            nrOfScansLeft = NR_OF_DEPENDENCIES_PER_CHECK;
+            
+            return check();
+        }
+        
+        return truncation;
+    }
+    
+    /**
+     * Check if the query reached its deadline or was cancelled.
+     * 
+     * @return The limit reached by the query, or null if the query may continue.
+     */
+    PackageDependenciesQueryLimit check() {
+        PackageDependenciesQueryCancellation cancellation = options.getCancellation();
+        
+        if (truncation != null) {
+            return truncation;
+        }
+        
+        if ((cancellation != null) && (cancellation.isCancelled())) {
+            truncation = PackageDependenciesQueryLimit.CANCELLED;
+        } else if ((options.getTimeoutNanos() != PackageDependenciesQueryOptions.NO_TIMEOUT) &&
+                   (System.nanoTime() - startTime >= options.getTimeoutNanos())) {
+            // Comparing elapsed times rather than deadlines is not affected by numerical overflow
+            truncation = PackageDependenciesQueryLimit.DEADLINE;
+        }
+        
+        return truncation;
+    }
+    
+    /**
+     * Record that the query found more packages than the maximum number of packages found.
+     * 
+     * @return The limit reached by the query.
+     */
+    PackageDependenciesQueryLimit exceedResultSize() {
+        if (truncation == null) {
+            truncation = PackageDependenciesQueryLimit.MAX_RESULT_SIZE;
+        }
+        
+        return truncation;
+    }
+    
+    int getMaxResultSize() {
+        return options.getMaxResultSize();
+    }
+    
+    /**
+     * Get the limit reached by the query.
+     * 
+     * @return The limit which truncated the result, or null if the query did not reach any limit.
+     */
+    PackageDependenciesQueryLimit getTruncation() {
+        return truncation;
+    }
+    
+}
@@ -0,0 +1,23 @@
+package com.bt.coding_test.service;
+
+/**
+ * Set operation applied to the closures (i.e. direct and transitive dependencies) of several packages.
+ */
+public enum PackageDependenciesSetOperation {
+
+    /**
+     * The packages on which at least one of the packages depends.
+     */
+    UNION,
+    
+    /**
+     * The packages on which all the packages depend.
+     */
+    INTERSECTION,
+    
+    /**
+     * The packages on which the first package depends, but none of the other packages depend.
+     */
+    DIFFERENCE
+    
+}
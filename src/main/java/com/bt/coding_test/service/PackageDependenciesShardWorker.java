@@ -0,0 +1,147 @@
+package com.bt.coding_test.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import com.bt.coding_test.data.PackageDependenciesDataFileReader;
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+
+/**
+ * Worker process storing the package dependencies of a single shard of a package dependencies graph.
+ * 
+ * The worker reads the data file, records only the dependencies of the source packages assigned to its shard 
+ * and then answers the requests of a ShardedPackageDependenciesCoordinator received on the standard input.
+ * 
+ * Protocol (one request or response per line, tokens separated by " "):
+ *     Worker:      READY <number-of-dependencies> | ERROR <message>
+ *     Coordinator: EXPAND <package-1> ... <package-n>
+ *     Worker:      DEPS <dependency-1> ... <dependency-m>
+ *     Coordinator: QUIT
+ */
+public class PackageDependenciesShardWorker {
+
+    static final String REQUEST_EXPAND  = "EXPAND";
+    static final String REQUEST_QUIT    = "QUIT";
+    static final String RESPONSE_READY  = "READY";
+    static final String RESPONSE_DEPS   = "DEPS";
+    static final String RESPONSE_ERROR  = "ERROR";
+    static final String TOKEN_SEPARATOR = " ";
+    
+    private static final String ERR_INVALID_CMD_LINE_ARGS = "Usage: java com.bt.coding_test.service.PackageDependenciesShardWorker <package-dependencies-data-file-path> <shard-index> <number-of-shards>.";
+    private static final String ERR_UNKNOWN_REQUEST       = "Unknown request: ";
+    
+    private PackageDependenciesDirectedGraph graph;    // The package dependencies of the shard
+    
+    
+    public static void main(String args[]) {
+        PrintStream output = System.out;
+        
+        try {
+            if (args.length != 3) {
+                throw new IllegalArgumentException(ERR_INVALID_CMD_LINE_ARGS);
+            }
+            
+            PackageDependenciesShardWorker worker = new PackageDependenciesShardWorker(
+                args[0], 
+                Integer.parseInt(args[1]), 
+                Integer.parseInt(args[2])
+            );
+            
+            worker.serve(new BufferedReader(new InputStreamReader(System.in)), output);
+        } catch (IOException | IllegalArgumentException exception) {
+            output.println(RESPONSE_ERROR + TOKEN_SEPARATOR + exception.getMessage());
+            output.flush();
+            
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Compute the index of the shard to which the given package is assigned.
+     * 
+     * Assumption: Packages are assigned to shards by hashing their names, such that each process can determine 
+     *             the shard of a package without loading the entire graph.
+     * 
+     * @param packageName The package name.
+     * @param nrOfShards  The number of shards.
+     * @return The index of the shard.
+     */
+    public static int getShardIndex(String packageName, int nrOfShards) {
+        return Math.floorMod(packageName.hashCode(), nrOfShards);
+    }
+    
+    /**
+     * Construct a worker storing the package dependencies of the given shard.
+     * 
+     * @param dataFilePath The data file path.
+     * @param shardIndex   The index of the shard.
+     * @param nrOfShards   The number of shards.
+     * @throws IOException if the data file is invalid.
+     */
+    PackageDependenciesShardWorker(String dataFilePath, int shardIndex, int nrOfShards) throws IOException {
+        graph = PackageDependenciesDataFileReader.getInstance().read(
+            dataFilePath, 
+            sourcePackage -> (getShardIndex(sourcePackage.getName(), nrOfShards) == shardIndex)
+        );
+    }
+    
+    /**
+     * Answer requests until the QUIT request is received or the input is closed.
+     * 
+     * @param input  The input from which requests are read.
+     * @param output The output to which responses are written.
+     * @throws IOException if an unknown request is received or the input cannot be read.
+     */
+    void serve(BufferedReader input, PrintStream output) throws IOException {
+        output.println(RESPONSE_READY + TOKEN_SEPARATOR + graph.getNrOfPackageDependencies());
+        output.flush();
+        
+        String request;
+        
+        while (((request = input.readLine()) != null) && (!request.equals(REQUEST_QUIT))) {
+            String[] tokens = request.split(TOKEN_SEPARATOR);
+            
+            if (!tokens[0].equals(REQUEST_EXPAND)) {
+                throw new IOException(ERR_UNKNOWN_REQUEST + tokens[0]);
+            }
+            
+            output.println(expand(tokens));
+            output.flush();
+        }
+    }
+    
+    /**
+     * Compute the response listing the direct dependencies of the packages given in the request.
+     * 
+     * @param tokens The request tokens, where the first token is the request type.
+     * @return The response listing each direct dependency once.
+     */
+    private String expand(String[] tokens) {
+        Set<String> packageDependencies = new LinkedHashSet<String>();
+        
+        for (int i = 1; i < tokens.length; ++i) {
+            Iterator<Package> directDependencies = graph.getDirectPackageDependencies(new Package(tokens[i]));
+            
+            if (directDependencies != null) {
+                while (directDependencies.hasNext()) {
+                    packageDependencies.add(directDependencies.next().getName());
+                }
+            }
+        }
+        
+        StringBuilder response = new StringBuilder(RESPONSE_DEPS);
+        
+        for (String packageDependency : packageDependencies) {
+            response.append(TOKEN_SEPARATOR).append(packageDependency);
+        }
+        
+        return response.toString();
+    }
+    
+}
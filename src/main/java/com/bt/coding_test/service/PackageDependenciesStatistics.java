@@ -0,0 +1,148 @@
+package com.bt.coding_test.service;
+
+import java.util.List;
+
+import com.bt.coding_test.model.Package;
+
+/**
+ * Statistics describing the shape of a package dependencies directed graph.
+ * 
+ * Degree and component size distributions are recorded as histograms with power-of-two buckets: bucket 0 counts 
+ * the value 0, and bucket k > 0 counts the values in the range [2^(k-1), 2^k - 1].
+ */
+public class PackageDependenciesStatistics {
+
+    int             nrOfPackages;               // The number of packages
+    int             nrOfDependencies;           // The number of direct dependencies
+    int             nrOfRootPackages;           // The number of packages without dependants
+    int             nrOfLeafPackages;           // The number of packages without dependencies
+    int             maxOutDegree;               // The maximum number of direct dependencies of a package
+    int             maxInDegree;                // The maximum number of direct dependants of a package
+    long[]          outDegreeHistogram;         // The histogram of the number of direct dependencies
+    long[]          inDegreeHistogram;          // The histogram of the number of direct dependants
+    int             nrOfComponents;             // The number of strongly connected components
+    int             nrOfCyclicComponents;       // The number of components containing more than one package
+    int             maxComponentSize;           // The number of packages of the largest component
+    long[]          componentSizeHistogram;     // The histogram of the component sizes
+    int             longestChain;               // The number of dependencies on the longest chain of components
+    long            maxClosureSize;             // The estimated maximum number of dependencies of a package
+    Package         maxClosurePackage;          // A package with the estimated maximum number of dependencies
+    List<Package>   hubsByDependants;           // The packages with the most direct dependants, in descending order
+    List<Package>   hubsByDependencies;         // The packages with the most direct dependencies, in descending order
+    
+    
+    public int getNrOfPackages() {
+        return nrOfPackages;
+    }
+    
+    public int getNrOfDependencies() {
+        return nrOfDependencies;
+    }
+    
+    public int getNrOfRootPackages() {
+        return nrOfRootPackages;
+    }
+    
+    public int getNrOfLeafPackages() {
+        return nrOfLeafPackages;
+    }
+    
+    public int getMaxOutDegree() {
+        return maxOutDegree;
+    }
+    
+    public int getMaxInDegree() {
+        return maxInDegree;
+    }
+    
+    public long[] getOutDegreeHistogram() {
+        return outDegreeHistogram;
+    }
+    
+    public long[] getInDegreeHistogram() {
+        return inDegreeHistogram;
+    }
+    
+    public int getNrOfComponents() {
+        return nrOfComponents;
+    }
+    
+    public int getNrOfCyclicComponents() {
+        return nrOfCyclicComponents;
+    }
+    
+    public int getMaxComponentSize() {
+        return maxComponentSize;
+    }
+    
+    public long[] getComponentSizeHistogram() {
+        return componentSizeHistogram;
+    }
+    
+    /**
+     * Get the number of dependencies on the longest chain of dependencies between distinct strongly connected 
+     * components.
+     * 
+     * @return The length of the longest chain.
+     */
+    public int getLongestChain() {
+        return longestChain;
+    }
+    
+    /**
+     * Get the estimated maximum number of direct and transitive dependencies of a package.
+     * 
+     * @return The estimated maximum closure size.
+     */
+    public long getMaxClosureSize() {
+        return maxClosureSize;
+    }
+    
+    /**
+     * Get a package with the estimated maximum number of direct and transitive dependencies.
+     * 
+     * @return The package, or null if the graph is empty.
+     */
+    public Package getMaxClosurePackage() {
+        return maxClosurePackage;
+    }
+    
+    public List<Package> getHubsByDependants() {
+        return hubsByDependants;
+    }
+    
+    public List<Package> getHubsByDependencies() {
+        return hubsByDependencies;
+    }
+    
+    /**
+     * Get the lower bound of the values counted by the given histogram bucket.
+     * 
+     * @param bucket The histogram bucket.
+     * @return The lower bound.
+     */
+    public static long getBucketLowerBound(int bucket) {
+        return (bucket == 0) ? 0 : (1L << (bucket - 1));
+    }
+    
+    /**
+     * Get the upper bound of the values counted by the given histogram bucket.
+     * 
+     * @param bucket The histogram bucket.
+     * @return The upper bound.
+     */
+    public static long getBucketUpperBound(int bucket) {
+        return (bucket == 0) ? 0 : ((1L << bucket) - 1);
+    }
+    
+    /**
+     * Get the histogram bucket counting the given value.
+     * 
+     * @param value The value.
+     * @return The histogram bucket.
+     */
+    static int getBucket(int value) {
+        return (32 - Integer.numberOfLeadingZeros(value));
+    }
+    
+}
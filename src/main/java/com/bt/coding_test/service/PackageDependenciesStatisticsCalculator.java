@@ -0,0 +1,241 @@
+package com.bt.coding_test.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesCondensation;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+import com.bt.coding_test.model.PackageDependenciesGraphIndex;
+
+/**
+ * Class used to compute statistics describing the shape of a package dependencies directed graph.
+ * 
+ * The passes over packages and components (degree distributions, hub packages, component sizes) are executed 
+ * as parallel streams over the graph index. The longest chain is computed in a single sequential pass over the 
+ * condensation, and the maximum closure size is estimated using HyperLogLog sketches, such that no closure 
+ * is computed explicitly.
+ */
+public class PackageDependenciesStatisticsCalculator {
+
+    public static final int DEFAULT_NR_OF_HUBS = 10;
+    
+    private static final int NR_OF_BUCKETS = 33;
+    
+    private int nrOfHubs; // The number of hub packages reported
+    
+    
+    public PackageDependenciesStatisticsCalculator() {
+        this(DEFAULT_NR_OF_HUBS);
+    }
+    
+    /**
+     * Construct a calculator reporting the given number of hub packages.
+     * 
+     * @param nrOfHubs The number of hub packages reported.
+     */
+    public PackageDependenciesStatisticsCalculator(int nrOfHubs) {
+        this.nrOfHubs = nrOfHubs;
+    }
+    
+    /**
+     * Compute the statistics of the given graph.
+     * 
+     * @param graph The package dependencies directed graph.
+     * @return The statistics of the graph.
+     */
+    public PackageDependenciesStatistics compute(PackageDependenciesDirectedGraph graph) {
+        PackageDependenciesGraphIndex   index       = graph.getIndex();
+        PackageDependenciesStatistics   statistics  = new PackageDependenciesStatistics();
+        
+        IntUnaryOperator outDegree  = id -> index.getDependenciesEnd(id) - index.getDependenciesBegin(id);
+        IntUnaryOperator inDegree   = id -> index.getDependantsEnd(id) - index.getDependantsBegin(id);
+        
+        statistics.nrOfPackages         = index.getNrOfPackages();
+        statistics.nrOfDependencies     = index.getNrOfDependencies();
+        statistics.outDegreeHistogram   = computeHistogram(index.getNrOfPackages(), outDegree);
+        statistics.inDegreeHistogram    = computeHistogram(index.getNrOfPackages(), inDegree);
+        statistics.nrOfLeafPackages     = (int) statistics.outDegreeHistogram[0];
+        statistics.nrOfRootPackages     = (int) statistics.inDegreeHistogram[0];
+        statistics.maxOutDegree         = computeMax(index.getNrOfPackages(), outDegree);
+        statistics.maxInDegree          = computeMax(index.getNrOfPackages(), inDegree);
+        statistics.hubsByDependants     = findHubs(index, inDegree);
+        statistics.hubsByDependencies   = findHubs(index, outDegree);
+        
+        computeComponentStatistics(index.getCondensation(), statistics);
+        computeMaxClosureSize(graph, statistics);
+        
+        return statistics;
+    }
+    
+    /**
+     * Compute the power-of-two histogram of the given values in parallel.
+     * 
+     * @param nrOfValues    The number of values.
+     * @param values        The function computing the value with the given position.
+     * @return The histogram.
+     */
+    private static long[] computeHistogram(int nrOfValues, IntUnaryOperator values) {
+        return IntStream.range(0, nrOfValues).parallel().collect(
+            () -> new long[NR_OF_BUCKETS], 
+            (histogram, i) -> ++histogram[PackageDependenciesStatistics.getBucket(values.applyAsInt(i))], 
+            (lhsHistogram, rhsHistogram) -> {
+                for (int i = 0; i < NR_OF_BUCKETS; ++i) {
+                    lhsHistogram[i] += rhsHistogram[i];
+                }
+            }
+        );
+    }
+    
+    /**
+     * Compute the maximum of the given values in parallel.
+     * 
+     * @param nrOfValues    The number of values.
+     * @param values        The function computing the value with the given position.
+     * @return The maximum value, or 0 if there are no values.
+     */
+    private static int computeMax(int nrOfValues, IntUnaryOperator values) {
+        return IntStream.range(0, nrOfValues).parallel().map(values).max().orElse(0);
+    }
+    
+    /**
+     * Find the packages with the greatest degrees in parallel. Packages with equal degrees are sorted alphabetically, 
+     * and packages with degree 0 are not hubs.
+     * 
+     * @param index     The graph index.
+     * @param degree    The function computing the degree of the package with the given ID.
+     * @return The hub packages, in descending order of their degrees.
+     */
+    private List<Package> findHubs(PackageDependenciesGraphIndex index, IntUnaryOperator degree) {
+        TopPackages topPackages = IntStream.range(0, index.getNrOfPackages()).parallel().collect(
+            () -> new TopPackages(nrOfHubs, degree), 
+            (hubs, packageId) -> {
+                if (degree.applyAsInt(packageId) > 0) {
+                    hubs.offer(packageId);
+                }
+            }, 
+            TopPackages::merge
+        );
+        
+        List<Package> hubs = new ArrayList<Package>();
+        
+        for (int i = 0; i < topPackages.nrOfPackageIds; ++i) {
+            hubs.add(index.getPackage(topPackages.packageIds[i]));
+        }
+        
+        return hubs;
+    }
+    
+    /**
+     * Compute the statistics of the strongly connected components and the longest chain of dependencies.
+     * 
+     * @param condensation  The condensation of the graph.
+     * @param statistics    The statistics to set.
+     */
+    private static void computeComponentStatistics(PackageDependenciesCondensation condensation, 
+                                                   PackageDependenciesStatistics statistics) {
+        int nrOfComponents = condensation.getNrOfComponents();
+        
+        statistics.nrOfComponents           = nrOfComponents;
+        statistics.componentSizeHistogram   = computeHistogram(nrOfComponents, condensation::getComponentSize);
+        statistics.nrOfCyclicComponents     = (int) (nrOfComponents - statistics.componentSizeHistogram[1]);
+        statistics.maxComponentSize         = computeMax(nrOfComponents, condensation::getComponentSize);
+        
+        // Dependency components have smaller IDs, so their chains are computed first
+        int[] longestChains = new int[nrOfComponents];
+        
+        for (int i = 0; i < nrOfComponents; ++i) {
+            for (int j = condensation.getDependenciesBegin(i); j < condensation.getDependenciesEnd(i); ++j) {
+                longestChains[i] = Math.max(longestChains[i], longestChains[condensation.getDependency(j)] + 1);
+            }
+            
+            statistics.longestChain = Math.max(statistics.longestChain, longestChains[i]);
+        }
+    }
+    
+    /**
+     * Estimate the maximum number of direct and transitive dependencies of a package.
+     * 
+     * @param graph         The package dependencies directed graph.
+     * @param statistics    The statistics to set.
+     */
+    private static void computeMaxClosureSize(PackageDependenciesDirectedGraph graph, 
+                                              PackageDependenciesStatistics statistics) {
+        long[] estimates = new PackageDependenciesClosureSizeEstimator().estimate(graph);
+        
+        // Packages with equal estimates are sorted alphabetically
+        int maxClosurePackageId = IntStream.range(0, estimates.length).parallel().reduce(
+            -1, 
+            (lhsId, rhsId) -> ((lhsId < 0) || ((rhsId >= 0) && (estimates[rhsId] > estimates[lhsId]))) ? rhsId : lhsId
+        );
+        
+        if (maxClosurePackageId >= 0) {
+            statistics.maxClosureSize       = estimates[maxClosurePackageId];
+            statistics.maxClosurePackage    = graph.getIndex().getPackage(maxClosurePackageId);
+        }
+    }
+    
+    /**
+     * Bounded collection of the package IDs with the greatest degrees, in descending order of their degrees 
+     * and ascending order of their IDs.
+     */
+    private static class TopPackages {
+    
+        private int[]               packageIds;     // The package IDs recorded
+        private int                 nrOfPackageIds; // The number of package IDs recorded
+        private IntUnaryOperator    degree;         // The function computing the degree of a package
+        
+        
+        TopPackages(int capacity, IntUnaryOperator degree) {
+            this.packageIds = new int[capacity];
+            this.degree     = degree;
+        }
+        
+        /**
+         * Record the given package ID if it is among the package IDs with the greatest degrees.
+         * 
+         * @param packageId The package ID.
+         */
+        void offer(int packageId) {
+            int position = nrOfPackageIds;
+            
+            while ((position > 0) && (isBefore(packageId, packageIds[position - 1]))) {
+                --position;
+            }
+            
+            if (position == packageIds.length) {
+                return;
+            }
+            
+            int nrOfMovedIds = Math.min(nrOfPackageIds, packageIds.length - 1) - position;
+            
+            System.arraycopy(packageIds, position, packageIds, position + 1, nrOfMovedIds);
+            
+            packageIds[position]    = packageId;
+            nrOfPackageIds          = Math.min(nrOfPackageIds + 1, packageIds.length);
+        }
+        
+        /**
+         * Record the package IDs of the given collection.
+         * 
+         * @param rhsTopPackages The given collection.
+         */
+        void merge(TopPackages rhsTopPackages) {
+            for (int packageId : Arrays.copyOf(rhsTopPackages.packageIds, rhsTopPackages.nrOfPackageIds)) {
+                offer(packageId);
+            }
+        }
+        
+        private boolean isBefore(int lhsId, int rhsId) {
+            int lhsDegree = degree.applyAsInt(lhsId);
+            int rhsDegree = degree.applyAsInt(rhsId);
+            
+            return ((lhsDegree > rhsDegree) || ((lhsDegree == rhsDegree) && (lhsId < rhsId)));
+        }
+        
+    }
+    
+}
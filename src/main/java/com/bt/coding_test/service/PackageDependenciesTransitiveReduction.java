@@ -0,0 +1,228 @@
+package com.bt.coding_test.service;
+
+import java.util.Arrays;
+
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesCondensation;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+import com.bt.coding_test.model.PackageDependenciesGraphIndex;
+
+/**
+ * Class used to compute the transitive reduction of a package dependencies directed graph, i.e. a graph with 
+ * as few direct dependencies as possible in which each package depends (directly or transitively) on exactly 
+ * the same packages as in the original graph.
+ * 
+ * Cycles are handled by contracting strongly connected components. A direct dependency between two components 
+ * is kept only if the dependency component is not reachable through another dependency of the component. 
+ * The packages reachable from each component are recorded as bitsets of component IDs, which are computed 
+ * in reverse topological order and released as soon as all dependant components were processed.
+ * 
+ * Assumption: The reduced graph only contains direct dependencies of the original graph. Since a minimum equivalent 
+ *             subset of the dependencies within a strongly connected component is expensive to compute, the packages 
+ *             of each component are kept strongly connected using the dependencies of a breadth-first out-tree 
+ *             and in-tree rooted at the same package (i.e. at most twice the minimum number of dependencies).
+ */
+public class PackageDependenciesTransitiveReduction {
+
+    /**
+     * Compute the transitive reduction of the given graph.
+     * 
+     * @param graph The package dependencies directed graph.
+     * @return The reduced graph.
+     */
+    public PackageDependenciesDirectedGraph reduce(PackageDependenciesDirectedGraph graph) {
+        PackageDependenciesGraphIndex       index           = graph.getIndex();
+        PackageDependenciesCondensation     condensation    = index.getCondensation();
+        PackageDependenciesDirectedGraph    reducedGraph    = new PackageDependenciesDirectedGraph();
+        
+        addComponentDependencies(index, condensation, reducedGraph);
+        addStronglyConnectedDependencies(index, condensation, reducedGraph);
+        
+        // The package weights are kept unchanged
+        for (Package weightedPackage : graph.getWeightedPackages()) {
+            reducedGraph.setPackageWeight(weightedPackage, graph.getPackageWeight(weightedPackage));
+        }
+        
+        return reducedGraph;
+    }
+    
+    /**
+     * Add the non-redundant direct dependencies between distinct components to the reduced graph.
+     * 
+     * @param index         The graph index.
+     * @param condensation  The condensation of the graph.
+     * @param reducedGraph  The reduced graph.
+     */
+    private void addComponentDependencies(PackageDependenciesGraphIndex index, 
+                                          PackageDependenciesCondensation condensation, 
+                                          PackageDependenciesDirectedGraph reducedGraph) {
+        int nrOfComponents = condensation.getNrOfComponents();
+        
+        long[][] reachableComponents    = new long[nrOfComponents][];   // The components reachable from each component
+        int[]    remainingDependants    = new int[nrOfComponents];      // The dependant components not processed yet
+        int[]    lastDependants         = new int[nrOfComponents];      // The last component depending on each component
+        int[]    sourcePackages         = new int[nrOfComponents];      // The source package of a dependency on each component
+        int[]    dependencyPackages     = new int[nrOfComponents];      // The dependency package of a dependency on each component
+        int[]    dependencyComponents   = new int[nrOfComponents];      // The component dependencies of the current component
+        
+        for (int i = 0; i < condensation.getNrOfDependencies(); ++i) {
+            ++remainingDependants[condensation.getDependency(i)];
+        }
+        
+        Arrays.fill(lastDependants, -1);
+        
+        // Dependency components have smaller IDs, so they are processed first
+        for (int i = 0; i < nrOfComponents; ++i) {
+            int nrOfDependencyComponents = 0;
+            
+            // Record a single direct dependency of the original graph for each component dependency
+            for (int j = condensation.getMembersBegin(i); j < condensation.getMembersEnd(i); ++j) {
+                int packageId = condensation.getMember(j);
+                
+                for (int k = index.getDependenciesBegin(packageId); k < index.getDependenciesEnd(packageId); ++k) {
+                    int dependencyId        = index.getDependency(k);
+                    int dependencyComponent = condensation.getComponent(dependencyId);
+                    
+                    if ((dependencyComponent != i) && (lastDependants[dependencyComponent] != i)) {
+                        lastDependants[dependencyComponent]                 = i;
+                        sourcePackages[dependencyComponent]                 = packageId;
+                        dependencyPackages[dependencyComponent]             = dependencyId;
+                        dependencyComponents[nrOfDependencyComponents++]    = dependencyComponent;
+                    }
+                }
+            }
+            
+            // A component can only be reachable through a component dependency with a greater ID
+            Arrays.sort(dependencyComponents, 0, nrOfDependencyComponents);
+            
+            long[] reachable = new long[(i >>> 6) + 1];
+            
+            for (int j = nrOfDependencyComponents - 1; j >= 0; --j) {
+                int dependencyComponent = dependencyComponents[j];
+                
+                if (!isSet(reachable, dependencyComponent)) {
+                    reducedGraph.addNewPackageDependency(
+                        index.getPackage(sourcePackages[dependencyComponent]), 
+                        index.getPackage(dependencyPackages[dependencyComponent])
+                    );
+                    
+                    or(reachable, reachableComponents[dependencyComponent]);
+                }
+                
+                // Release the components reachable from the dependency component if no longer required
+                if (--remainingDependants[dependencyComponent] == 0) {
+                    reachableComponents[dependencyComponent] = null;
+                }
+            }
+            
+            if (remainingDependants[i] > 0) {
+                reachable[i >>> 6] |= (1L << i);
+                
+                reachableComponents[i] = reachable;
+            }
+        }
+    }
+    
+    /**
+     * Add the direct dependencies keeping the packages of each strongly connected component strongly connected 
+     * to the reduced graph.
+     * 
+     * @param index         The graph index.
+     * @param condensation  The condensation of the graph.
+     * @param reducedGraph  The reduced graph.
+     */
+    private void addStronglyConnectedDependencies(PackageDependenciesGraphIndex index, 
+                                                  PackageDependenciesCondensation condensation, 
+                                                  PackageDependenciesDirectedGraph reducedGraph) {
+        int[] searchNumbers = new int[index.getNrOfPackages()];     // The last search which visited each package
+        int[] queue         = new int[index.getNrOfPackages()];     // The packages to visit
+        int   searchNumber  = 0;
+        
+        for (int i = 0; i < condensation.getNrOfComponents(); ++i) {
+            if (condensation.getComponentSize(i) > 1) {
+                int rootId = condensation.getMember(condensation.getMembersBegin(i));
+                
+                addSpanningTreeDependencies(index, condensation, reducedGraph, rootId, true, 
+                                            searchNumbers, ++searchNumber, queue);
+                addSpanningTreeDependencies(index, condensation, reducedGraph, rootId, false, 
+                                            searchNumbers, ++searchNumber, queue);
+            }
+        }
+    }
+    
+    /**
+     * Add the direct dependencies of a breadth-first spanning tree of the component of the given root package 
+     * to the reduced graph. The out-tree follows the direct dependencies starting from the root package, 
+     * and the in-tree follows the direct dependants.
+     * 
+     * @param index         The graph index.
+     * @param condensation  The condensation of the graph.
+     * @param reducedGraph  The reduced graph.
+     * @param rootId        The ID of the root package.
+     * @param isOutTree     True if the out-tree is computed, and false if the in-tree is computed.
+     * @param searchNumbers The last search which visited each package.
+     * @param searchNumber  The number of the current search.
+     * @param queue         The work array used as a queue.
+     */
+    private void addSpanningTreeDependencies(PackageDependenciesGraphIndex index, 
+                                             PackageDependenciesCondensation condensation, 
+                                             PackageDependenciesDirectedGraph reducedGraph, int rootId, 
+                                             boolean isOutTree, int[] searchNumbers, int searchNumber, 
+                                             int[] queue) {
+        int component   = condensation.getComponent(rootId);
+        int head        = 0;
+        int tail        = 0;
+        
+        queue[tail++]           = rootId;
+        searchNumbers[rootId]   = searchNumber;
+        
+        while (head < tail) {
+            int packageId   = queue[head++];
+            int begin       = isOutTree ? index.getDependenciesBegin(packageId) : index.getDependantsBegin(packageId);
+            int end         = isOutTree ? index.getDependenciesEnd(packageId) : index.getDependantsEnd(packageId);
+            
+            for (int i = begin; i < end; ++i) {
+                int adjacentId = isOutTree ? index.getDependency(i) : index.getDependant(i);
+                
+                if ((condensation.getComponent(adjacentId) == component) && 
+                    (searchNumbers[adjacentId] != searchNumber)) {
+                    searchNumbers[adjacentId]   = searchNumber;
+                    queue[tail++]               = adjacentId;
+                    
+                    if (isOutTree) {
+                        reducedGraph.addNewPackageDependency(index.getPackage(packageId), index.getPackage(adjacentId));
+                    } else {
+                        reducedGraph.addNewPackageDependency(index.getPackage(adjacentId), index.getPackage(packageId));
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Check if the given bit is set in the given bitset.
+     * 
+     * @param bitset    The bitset.
+     * @param bit       The bit.
+     * @return True if the bit is set, and false otherwise.
+     */
+    private static boolean isSet(long[] bitset, int bit) {
+        return ((bitset[bit >>> 6] & (1L << bit)) != 0);
+    }
+    
+    /**
+     * Add all bits set in the source bitset to the target bitset.
+     * 
+     * Assumption: The source bitset is not longer than the target bitset, since a component only reaches 
+     *             components with smaller IDs.
+     * 
+     * @param target    The target bitset.
+     * @param source    The source bitset.
+     */
+    private static void or(long[] target, long[] source) {
+        for (int i = 0; i < source.length; ++i) {
+            target[i] |= source[i];
+        }
+    }
+    
+}
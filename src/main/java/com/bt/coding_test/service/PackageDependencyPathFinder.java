@@ -0,0 +1,382 @@
+package com.bt.coding_test.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+import com.bt.coding_test.model.PackageDependenciesGraphIndex;
+
+/**
+ * Class finding the shortest chains of dependencies explaining why a package depends on another package.
+ * 
+ * Shortest paths are computed using a bidirectional breadth first search over the direct dependencies 
+ * (forward search from the source package) and the direct dependants (backward search from the target package).
+ * The k shortest paths are computed using Yen's algorithm.
+ * 
+ * The work arrays are allocated once per path finder and reused by all queries, hence a path finder 
+ * should not be shared between threads.
+ */
+public class PackageDependencyPathFinder {
+
+    private PackageDependenciesGraphIndex index;            // The index of the considered graph
+    
+    private int[]       forwardVisits;      // The search number in which each package was reached from the source
+    private int[]       backwardVisits;     // The search number in which each package was reached from the target
+    private int[]       forwardParents;     // The previous package on the path from the source
+    private int[]       backwardParents;    // The next package on the path to the target
+    private int[]       forwardDepths;      // The distance from the source
+    private int[]       backwardDepths;     // The distance to the target
+    private int         searchNumber;       // The number of the current search
+    
+    private int[]       bannedPackages;         // The search number in which each package is excluded
+    private Set<Long>   bannedDependencies;     // The dependencies excluded from the current search
+    
+    
+    /**
+     * Construct a path finder for the given graph.
+     * 
+     * @param graph The package dependencies directed graph.
+     */
+    public PackageDependencyPathFinder(PackageDependenciesDirectedGraph graph) {
+        index = graph.getIndex();
+        
+        int nrOfPackages = index.getNrOfPackages();
+        
+        forwardVisits       = new int[nrOfPackages];
+        backwardVisits      = new int[nrOfPackages];
+        forwardParents      = new int[nrOfPackages];
+        backwardParents     = new int[nrOfPackages];
+        forwardDepths       = new int[nrOfPackages];
+        backwardDepths      = new int[nrOfPackages];
+        bannedPackages      = new int[nrOfPackages];
+        bannedDependencies  = new HashSet<Long>();
+    }
+    
+    /**
+     * Find the shortest chain of dependencies from the source package to the target package.
+     * 
+     * Assumption: A package does not depend on itself, hence no path is returned if the source and target 
+     *             packages are identical.
+     * 
+     * @param sourcePackage The source package.
+     * @param targetPackage The target package.
+     * @return The packages on the shortest path, starting with the source package and ending with 
+     *         the target package, or an empty list if the source package does not depend on the target package.
+     */
+    public List<Package> findShortestPath(Package sourcePackage, Package targetPackage) {
+        List<List<Package>> paths = findShortestPaths(sourcePackage, targetPackage, 1);
+        
+        return paths.isEmpty() ? new ArrayList<Package>() : paths.get(0);
+    }
+    
+    /**
+     * Find the k shortest loopless chains of dependencies from the source package to the target package.
+     * 
+     * @param sourcePackage The source package.
+     * @param targetPackage The target package.
+     * @param nrOfPaths     The maximum number of paths (i.e. k).
+     * @return The paths sorted by length, where each path starts with the source package and ends with 
+     *         the target package.
+     */
+    public List<List<Package>> findShortestPaths(Package sourcePackage, Package targetPackage, int nrOfPaths) {
+        List<List<Package>> paths           = new ArrayList<List<Package>>();
+        int                 sourcePackageId = index.getPackageId(sourcePackage);
+        int                 targetPackageId = index.getPackageId(targetPackage);
+        
+        if ((sourcePackageId >= 0) && (targetPackageId >= 0) && (nrOfPaths > 0)) {
+            for (int[] path : findShortestPaths(sourcePackageId, targetPackageId, nrOfPaths)) {
+                paths.add(toPackages(path));
+            }
+        }
+        
+        return paths;
+    }
+    
+    /**
+     * Find the k shortest loopless paths between the given packages using Yen's algorithm.
+     * 
+     * @param sourcePackageId The ID of the source package.
+     * @param targetPackageId The ID of the target package.
+     * @param nrOfPaths       The maximum number of paths.
+     * @return The paths sorted by length.
+     */
+    private List<int[]> findShortestPaths(int sourcePackageId, int targetPackageId, int nrOfPaths) {
+        List<int[]> paths = new ArrayList<int[]>();
+        
+        nextSearch();
+        
+        int[] shortestPath = findShortestPath(sourcePackageId, targetPackageId);
+        
+        if (shortestPath == null) {
+            return paths;
+        }
+        
+        paths.add(shortestPath);
+        
+        // The candidate paths, ordered by length, and the paths found so far or proposed as candidates
+        PriorityQueue<int[]> candidatePaths = new PriorityQueue<int[]>(Comparator.comparingInt(path -> path.length));
+        Set<String>          knownPaths     = new HashSet<String>();
+        
+        knownPaths.add(Arrays.toString(shortestPath));
+        
+        while (paths.size() < nrOfPaths) {
+            int[] previousPath = paths.get(paths.size() - 1);
+            
+            // Deviate from the previous path at each of its packages (i.e. the spur package)
+            for (int i = 0; i < (previousPath.length - 1); ++i) {
+                nextSearch();
+                
+                banSearchedDependencies(paths, previousPath, i);
+                
+                int[] spurPath = findShortestPath(previousPath[i], targetPackageId);
+                
+                if (spurPath != null) {
+                    int[] candidatePath = new int[i + spurPath.length];
+                    
+                    System.arraycopy(previousPath, 0, candidatePath, 0, i);
+                    System.arraycopy(spurPath, 0, candidatePath, i, spurPath.length);
+                    
+                    if (knownPaths.add(Arrays.toString(candidatePath))) {
+                        candidatePaths.add(candidatePath);
+                    }
+                }
+            }
+            
+            if (candidatePaths.isEmpty()) {
+                break;
+            }
+            
+            paths.add(candidatePaths.poll());
+        }
+        
+        bannedDependencies.clear();
+        
+        return paths;
+    }
+    
+    /**
+     * Exclude from the next search the packages preceding the spur package on the previous path and the 
+     * dependencies leaving the spur package along all the paths found so far which share the same root path.
+     * 
+     * @param paths             The paths found so far.
+     * @param previousPath      The last path found.
+     * @param spurPosition      The position of the spur package on the previous path.
+     */
+    private void banSearchedDependencies(List<int[]> paths, int[] previousPath, int spurPosition) {
+        bannedDependencies.clear();
+        
+        for (int[] path : paths) {
+            if ((path.length > (spurPosition + 1)) && 
+                (Arrays.equals(
+                    Arrays.copyOf(path, spurPosition + 1), 
+                    Arrays.copyOf(previousPath, spurPosition + 1)
+                ))) {
+                bannedDependencies.add(toDependencyKey(path[spurPosition], path[spurPosition + 1]));
+            }
+        }
+        
+        for (int i = 0; i < spurPosition; ++i) {
+            bannedPackages[previousPath[i]] = searchNumber;
+        }
+    }
+    
+    /**
+     * Find the shortest path between the given packages using a bidirectional breadth first search, 
+     * which expands the smaller of the two frontiers one level at a time.
+     * 
+     * @param sourcePackageId The ID of the source package.
+     * @param targetPackageId The ID of the target package.
+     * @return The shortest path, or null if no path exists.
+     */
+    private int[] findShortestPath(int sourcePackageId, int targetPackageId) {
+        if (sourcePackageId == targetPackageId) {
+            return null;
+        }
+        
+        int[] forwardFrontier   = {sourcePackageId};
+        int[] backwardFrontier  = {targetPackageId};
+        int   nrOfForward       = 1;
+        int   nrOfBackward      = 1;
+        
+        forwardVisits[sourcePackageId]  = searchNumber;
+        forwardParents[sourcePackageId] = -1;
+        forwardDepths[sourcePackageId]  = 0;
+        
+        backwardVisits[targetPackageId]     = searchNumber;
+        backwardParents[targetPackageId]    = -1;
+        backwardDepths[targetPackageId]     = 0;
+        
+        // The meeting dependency with the minimum path length
+        int[] meeting = {-1, -1, Integer.MAX_VALUE};
+        
+        while ((nrOfForward > 0) && (nrOfBackward > 0) && (meeting[0] < 0)) {
+            int[] nextFrontier = new int[16];
+            int   nrOfNext     = 0;
+            
+            if (nrOfForward <= nrOfBackward) {
+                for (int i = 0; i < nrOfForward; ++i) {
+                    int packageId = forwardFrontier[i];
+                    
+                    for (int j = index.getDependenciesBegin(packageId); j < index.getDependenciesEnd(packageId); ++j) {
+                        int dependencyId = index.getDependency(j);
+                        
+                        if (isBanned(packageId, dependencyId)) {
+                            continue;
+                        }
+                        
+                        if (backwardVisits[dependencyId] == searchNumber) {
+                            updateMeeting(meeting, packageId, dependencyId);
+                        } else if (forwardVisits[dependencyId] != searchNumber) {
+                            forwardVisits[dependencyId]  = searchNumber;
+                            forwardParents[dependencyId] = packageId;
+                            forwardDepths[dependencyId]  = forwardDepths[packageId] + 1;
+                            
+                            nextFrontier = append(nextFrontier, nrOfNext++, dependencyId);
+                        }
+                    }
+                }
+                
+                forwardFrontier = nextFrontier;
+                nrOfForward     = nrOfNext;
+            } else {
+                for (int i = 0; i < nrOfBackward; ++i) {
+                    int packageId = backwardFrontier[i];
+                    
+                    for (int j = index.getDependantsBegin(packageId); j < index.getDependantsEnd(packageId); ++j) {
+                        int dependantId = index.getDependant(j);
+                        
+                        if (isBanned(dependantId, packageId)) {
+                            continue;
+                        }
+                        
+                        if (forwardVisits[dependantId] == searchNumber) {
+                            updateMeeting(meeting, dependantId, packageId);
+                        } else if (backwardVisits[dependantId] != searchNumber) {
+                            backwardVisits[dependantId]  = searchNumber;
+                            backwardParents[dependantId] = packageId;
+                            backwardDepths[dependantId]  = backwardDepths[packageId] + 1;
+                            
+                            nextFrontier = append(nextFrontier, nrOfNext++, dependantId);
+                        }
+                    }
+                }
+                
+                backwardFrontier = nextFrontier;
+                nrOfBackward     = nrOfNext;
+            }
+        }
+        
+        return (meeting[0] < 0) ? null : buildPath(meeting[0], meeting[1], meeting[2]);
+    }
+    
+    /**
+     * Record the given dependency as the meeting point of the two searches if it yields a shorter path.
+     * 
+     * @param meeting       The current meeting point (package ID, dependency ID, path length).
+     * @param packageId     The package reached by the forward search.
+     * @param dependencyId  The package reached by the backward search.
+     */
+    private void updateMeeting(int[] meeting, int packageId, int dependencyId) {
+        int pathLength = forwardDepths[packageId] + 1 + backwardDepths[dependencyId];
+        
+        if (pathLength < meeting[2]) {
+            meeting[0] = packageId;
+            meeting[1] = dependencyId;
+            meeting[2] = pathLength;
+        }
+    }
+    
+    /**
+     * Build the path passing through the given meeting dependency.
+     * 
+     * @param packageId     The package reached by the forward search.
+     * @param dependencyId  The package reached by the backward search.
+     * @param pathLength    The number of dependencies on the path.
+     * @return The package IDs on the path.
+     */
+    private int[] buildPath(int packageId, int dependencyId, int pathLength) {
+        int[] path      = new int[pathLength + 1];
+        int   position  = forwardDepths[packageId];
+        
+        // Follow the forward search back to the source package
+        for (int current = packageId; current >= 0; current = forwardParents[current]) {
+            path[position--] = current;
+        }
+        
+        // Follow the backward search forward to the target package
+        position = forwardDepths[packageId] + 1;
+        
+        for (int current = dependencyId; current >= 0; current = backwardParents[current]) {
+            path[position++] = current;
+        }
+        
+        return path;
+    }
+    
+    /**
+     * Check if the given dependency or its dependency package are excluded from the current search.
+     * 
+     * @param packageId     The package ID.
+     * @param dependencyId  The dependency package ID.
+     * @return True if the dependency is excluded, and false otherwise.
+     */
+    private boolean isBanned(int packageId, int dependencyId) {
+        return (
+            (bannedPackages[dependencyId] == searchNumber) ||
+            (bannedPackages[packageId] == searchNumber) ||
+            ((!bannedDependencies.isEmpty()) && bannedDependencies.contains(toDependencyKey(packageId, dependencyId)))
+        );
+    }
+    
+    /**
+     * Start a new search, which invalidates all visits recorded by previous searches without clearing the arrays.
+     */
+    private void nextSearch() {
+        if (searchNumber == Integer.MAX_VALUE) {
+            Arrays.fill(forwardVisits, 0);
+            Arrays.fill(backwardVisits, 0);
+            Arrays.fill(bannedPackages, 0);
+            
+            searchNumber = 0;
+        }
+        
+        ++searchNumber;
+    }
+    
+    private static long toDependencyKey(int packageId, int dependencyId) {
+        return ((((long) packageId) << 32) | (dependencyId & 0xFFFFFFFFL));
+    }
+    
+    private static int[] append(int[] packageIds, int position, int packageId) {
+        if (position == packageIds.length) {
+            packageIds = Arrays.copyOf(packageIds, 2 * position);
+        }
+        
+        packageIds[position] = packageId;
+        
+        return packageIds;
+    }
+    
+    /**
+     * Convert the given package IDs to packages.
+     * 
+     * @param packageIds The package IDs.
+     * @return The packages.
+     */
+    private List<Package> toPackages(int[] packageIds) {
+        List<Package> packages = new ArrayList<Package>(packageIds.length);
+        
+        for (int packageId : packageIds) {
+            packages.add(index.getPackage(packageId));
+        }
+        
+        return packages;
+    }
+    
+}
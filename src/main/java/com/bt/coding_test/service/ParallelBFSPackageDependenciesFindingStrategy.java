@@ -0,0 +1,574 @@
+package com.bt.coding_test.service;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+import com.bt.coding_test.model.PackageDependenciesGraphIndex;
+import com.bt.coding_test.model.PackageDependenciesQueryOptions;
+import com.bt.coding_test.model.PackageDependenciesQueryResult;
+import com.bt.coding_test.model.PackageIdSet;
+
+/**
+ * Strategy class using a level-synchronous parallel breadth first search to find the package dependencies of 
+ * a single package, such that queries reaching most of a large graph run on all the cores.
+ * 
+ * Each level of the search expands the frontier (i.e. the packages found by the previous level) using fork-join 
+ * workers, which mark the packages found in a shared atomic visited bitset. The search switches direction 
+ * depending on the size of the frontier:
+ * 
+ * 1. Top-down steps split the frontier across the workers, which visit the dependencies of the frontier packages.
+ * 2. Bottom-up steps split the unvisited packages across the workers, which look for a dependant of each 
+ *    unvisited package in the frontier (using the reverse edges of the graph index) and stop at the first one.
+ * 
+ * Top-down steps are cheaper while the frontier is small, whereas bottom-up steps check far fewer edges once 
+ * the frontier holds a large part of the graph. The switching heuristic is the one of Beamer et al. 
+ * ("Direction-optimizing breadth-first search"): the search switches to bottom-up steps when the dependencies 
+ * of the frontier exceed a fraction of the dependencies of the unvisited packages, and back to top-down steps 
+ * when the frontier becomes small.
+ * 
+ * The budgets and the cancellation token of the query options are enforced between levels, by the thread running 
+ * the query (see com.bt.coding_test.service.PackageDependenciesQueryBudget): a level is only expanded if the budget 
+ * allows visiting all its packages. Since packages are found level by level, the depth of each package found is its 
+ * level, and a truncated result holds the packages nearest to the source package.
+ * 
+ * This class is thread safe, since the state of each search is private to the search, and each thread answers 
+ * restricted queries using its own sequential breadth first search.
+ */
+public class ParallelBFSPackageDependenciesFindingStrategy implements PackageDependenciesFindingStrategy {
+
+    private static final int ALPHA                      = 14;   // Switch to bottom-up if frontier dependencies > unexplored dependencies / ALPHA
+    private static final int BETA                       = 24;   // Switch to top-down if frontier packages < packages / BETA
+    private static final int MIN_FRONTIER_GRAIN_SIZE    = 256;  // The minimum number of frontier packages expanded by a task
+    private static final int MIN_WORD_GRAIN_SIZE        = 64;   // The minimum number of bitset words scanned by a task
+    private static final int TASKS_PER_THREAD           = 8;    // The number of tasks per thread, for load balancing
+    
+    private static final PackageDependenciesQueryOptions NO_OPTIONS = new PackageDependenciesQueryOptions();
+    
+    private ForkJoinPool                                        pool;                   // The pool running the workers
+    private ThreadLocal<BFSPackageDependenciesFindingStrategy>  restrictedStrategies;   // The strategy used by the restricted queries of each thread
+    
+    
+    /**
+     * Construct a strategy running the workers on the common fork-join pool.
+     */
+    public ParallelBFSPackageDependenciesFindingStrategy() {
+        this(ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * Construct a strategy running the workers on the given fork-join pool.
+     * 
+     * @param pool The fork-join pool.
+     */
+    public ParallelBFSPackageDependenciesFindingStrategy(ForkJoinPool pool) {
+        this.pool                   = pool;
+        this.restrictedStrategies   = ThreadLocal.withInitial(BFSPackageDependenciesFindingStrategy::new);
+    }
+    
+    /**
+     * Find the direct and transitive package dependencies of the given source package.
+     * 
+     * @param sourcePackage The source package considered.
+     * @param graph         The considered package dependencies directed graph.
+     * @return The direct and transitive package dependencies of the given source package.
+     */
+    @Override
+    public Set<Package> find(Package sourcePackage, PackageDependenciesDirectedGraph graph) {
+        return findPackageIds(sourcePackage, graph).toPackages(graph.getIndex());
+    }
+    
+    /**
+     * Find the IDs of the direct and transitive package dependencies of the given source package.
+     * 
+     * Assumption: The source package is not part of the result, even if it depends on itself transitively.
+     * 
+     * @param sourcePackage The source package considered.
+     * @param graph         The considered package dependencies directed graph.
+     * @return The IDs of the direct and transitive package dependencies of the given source package.
+     */
+    @Override
+    public PackageIdSet findPackageIds(Package sourcePackage, PackageDependenciesDirectedGraph graph) {
+        PackageDependenciesGraphIndex   index           = graph.getIndex();
+        int                             sourcePackageId = index.getPackageId(sourcePackage);
+        
+        if (sourcePackageId < 0) {
+            return new PackageIdSet();
+        }
+        
+        Search search = new Search(index, new PackageDependenciesQueryBudget(NO_OPTIONS), false);
+        
+        search.run(sourcePackageId);
+        
+        return search.toPackageIdSet(sourcePackageId);
+    }
+    
+    /**
+     * Find the package dependencies of the given source package and their depths, stopping once the query reaches 
+     * one of the limits of the given query options.
+     * 
+     * Assumption: Queries restricted by a maximum depth, name patterns or stop-at packages use sequential breadth 
+     *             first search.
+     * Assumption: The packages of the last level are dropped in ascending order of IDs if the level exceeds the 
+     *             maximum number of packages found.
+     * 
+     * @param sourcePackage The source package considered.
+     * @param graph         The considered package dependencies directed graph.
+     * @param options       The query options.
+     * @return The package dependencies found and their depths, truncated if the query reached one of its limits.
+     */
+    @Override
+    public PackageDependenciesQueryResult query(Package sourcePackage, PackageDependenciesDirectedGraph graph, 
+                                                PackageDependenciesQueryOptions options) {
+        if (options.hasRestrictions()) {
+            return restrictedStrategies.get().query(sourcePackage, graph, options);
+        }
+        
+        PackageDependenciesGraphIndex   index           = graph.getIndex();
+        int                             sourcePackageId = index.getPackageId(sourcePackage);
+        PackageDependenciesQueryBudget  budget          = new PackageDependenciesQueryBudget(options);
+        
+        if ((sourcePackageId < 0) || (budget.check() != null)) {
+            return new PackageDependenciesQueryResult(index, new int[0], new int[0], budget.getTruncation());
+        }
+        
+        Search search = new Search(index, budget, true);
+        
+        search.run(sourcePackageId);
+        
+        return search.toQueryResult(sourcePackageId);
+    }
+    
+    /**
+     * Interface of the work done by a task on a range of frontier positions or bitset words.
+     */
+    private interface RangeWork {
+    
+        void process(int begin, int end);
+        
+    }
+    
+    /**
+     * Fork-join task splitting a range in halves until it is small enough to be processed by a single worker.
+     */
+    private static class RangeTask extends RecursiveAction {
+    
+        private static final long serialVersionUID = 1L;
+        
+        private final int       begin;      // The beginning of the range
+        private final int       end;        // The end of the range, exclusive
+        private final int       grainSize;  // The maximum size of a range processed without splitting
+        private final RangeWork work;       // The work done on the range
+        
+        
+        private RangeTask(int begin, int end, int grainSize, RangeWork work) {
+            this.begin      = begin;
+            this.end        = end;
+            this.grainSize  = grainSize;
+            this.work       = work;
+        }
+        
+        @Override
+        protected void compute() {
+            if ((end - begin) <= grainSize) {
+                work.process(begin, end);
+            } else {
+                int middle = (begin + end) >>> 1;
+                
+                invokeAll(new RangeTask(begin, middle, grainSize, work), new RangeTask(middle, end, grainSize, work));
+            }
+        }
+        
+    }
+    
+    /**
+     * State of a single search.
+     */
+    private class Search {
+    
+        private PackageDependenciesGraphIndex   index;              // The graph index
+        private int                             nrOfWords;          // The number of words of the bitsets
+        private AtomicLongArray                 visited;            // The packages visited, including the source package
+        private int[]                           frontier;           // The frontier packages, during top-down steps
+        private int[]                           nextFrontier;       // The packages found by a top-down step
+        private AtomicInteger                   nextFrontierSize;   // The number of packages found by a top-down step
+        private long[]                          frontierBits;       // The frontier packages, during bottom-up steps
+        private long[]                          nextFrontierBits;   // The packages found by a bottom-up step
+        private LongAdder                       nrOfFoundPackages;  // The number of packages found by a bottom-up step
+        private LongAdder                       nrOfFoundEdges;     // The number of dependencies of the packages found by a step
+        private LongAdder                       nrOfFoundSources;   // The number of packages with dependencies found by a step
+        private PackageDependenciesQueryBudget  budget;             // The budget of the query
+        private int[]                           depths;             // The depth of each package found, or null if not recorded
+        private int                             depth;              // The depth of the packages found by the current step
+        private int                             nrOfPackagesFound;  // The number of packages found by all the steps
+        private int                             lastStepSize;       // The number of packages found by the last step
+        
+        
+        private Search(PackageDependenciesGraphIndex index, PackageDependenciesQueryBudget budget, 
+                       boolean isDepthRecorded) {
+            this.index              = index;
+            this.nrOfWords          = (index.getNrOfPackages() + Long.SIZE - 1) / Long.SIZE;
+            this.visited            = new AtomicLongArray(nrOfWords);
+            this.nextFrontierSize   = new AtomicInteger();
+            this.nrOfFoundPackages  = new LongAdder();
+            this.nrOfFoundEdges     = new LongAdder();
+            this.nrOfFoundSources   = new LongAdder();
+            this.budget             = budget;
+            this.depths             = isDepthRecorded ? new int[index.getNrOfPackages()] : null;
+        }
+        
+        /**
+         * Run the search from the given source package, until all the dependencies are found or the query reaches 
+         * one of its limits. The budget is checked before each level, hence a level is either expanded completely 
+         * or not at all.
+         * 
+         * @param sourcePackageId The ID of the source package.
+         */
+        private void run(int sourcePackageId) {
+            // The source package is marked as visited such that it is never found
+            visited.set(sourcePackageId / Long.SIZE, 1L << sourcePackageId);
+            
+            frontier        = new int[index.getNrOfPackages()];
+            nextFrontier    = new int[index.getNrOfPackages()];
+            frontier[0]     = sourcePackageId;
+            
+            int     frontierSize        = 1;
+            long    frontierEdges       = getNrOfDependencies(sourcePackageId);
+            long    unexploredEdges     = index.getNrOfDependencies() - frontierEdges;
+            long    frontierSources     = (frontierEdges > 0) ? 1 : 0;
+            boolean isTopDown           = true;
+            
+            while (frontierSize > 0) {
+                // Packages without dependencies do not use the budget, since visiting them does not find anything
+                if ((nrOfPackagesFound > budget.getMaxResultSize()) || (budget.visit((int) frontierSources) != null) || 
+                    (budget.scan((int) Math.min(frontierEdges, Integer.MAX_VALUE)) != null)) {
+                    break;
+                }
+                
+                if (isTopDown && (frontierEdges > unexploredEdges / ALPHA)) {
+                    toFrontierBits(frontierSize);
+                    
+                    isTopDown = false;
+                } else if ((!isTopDown) && (frontierSize < index.getNrOfPackages() / BETA)) {
+                    frontierSize    = toFrontier();
+                    isTopDown       = true;
+                }
+                
+                nrOfFoundEdges.reset();
+                nrOfFoundSources.reset();
+                
+                ++depth;
+                
+                frontierSize        = isTopDown ? stepTopDown(frontierSize) : stepBottomUp();
+                frontierEdges       = nrOfFoundEdges.sum();
+                frontierSources     = nrOfFoundSources.sum();
+                unexploredEdges    -= frontierEdges;
+                lastStepSize        = frontierSize;
+                nrOfPackagesFound  += frontierSize;
+            }
+            
+            if (nrOfPackagesFound > budget.getMaxResultSize()) {
+                budget.exceedResultSize();
+            }
+        }
+        
+        /**
+         * Visit the dependencies of the frontier packages, splitting the frontier across the workers.
+         * 
+         * @param frontierSize The number of frontier packages.
+         * @return The number of packages found, which are the next frontier.
+         */
+        private int stepTopDown(int frontierSize) {
+            nextFrontierSize.set(0);
+            
+            run(frontierSize, MIN_FRONTIER_GRAIN_SIZE, this::expandFrontier);
+            
+            int[] swappedFrontier = frontier;
+            
+            frontier        = nextFrontier;
+            nextFrontier    = swappedFrontier;
+            
+            return nextFrontierSize.get();
+        }
+        
+        /**
+         * Visit the dependencies of the frontier packages in the given range of the frontier.
+         * 
+         * @param begin The position of the first frontier package.
+         * @param end   The position following the last frontier package.
+         */
+        private void expandFrontier(int begin, int end) {
+            int[]   foundPackages       = new int[Math.max(16, end - begin)];
+            int     nrOfPackagesFound   = 0;
+            long    nrOfEdgesFound      = 0;
+            long    nrOfSourcesFound    = 0;
+            
+            for (int i = begin; i < end; ++i) {
+                int packageId = frontier[i];
+                
+                for (int j = index.getDependenciesBegin(packageId); j < index.getDependenciesEnd(packageId); ++j) {
+                    int packageDependencyId = index.getDependency(j);
+                    
+                    if (markVisited(packageDependencyId)) {
+                        if (nrOfPackagesFound == foundPackages.length) {
+                            foundPackages = Arrays.copyOf(foundPackages, 2 * nrOfPackagesFound);
+                        }
+                        
+                        foundPackages[nrOfPackagesFound++]  = packageDependencyId;
+                        nrOfEdgesFound                     += getNrOfDependencies(packageDependencyId);
+                        nrOfSourcesFound                   += (getNrOfDependencies(packageDependencyId) > 0) ? 1 : 0;
+                        
+                        recordDepth(packageDependencyId);
+                    }
+                }
+            }
+            
+            // Reserve a range of the next frontier, then copy the packages found without further synchronization
+            int position = nextFrontierSize.getAndAdd(nrOfPackagesFound);
+            
+            System.arraycopy(foundPackages, 0, nextFrontier, position, nrOfPackagesFound);
+            
+            nrOfFoundEdges.add(nrOfEdgesFound);
+            nrOfFoundSources.add(nrOfSourcesFound);
+        }
+        
+        /**
+         * Look for a dependant in the frontier of each unvisited package, splitting the bitset words across the workers.
+         * 
+         * @return The number of packages found, which are the next frontier.
+         */
+        private int stepBottomUp() {
+            nrOfFoundPackages.reset();
+            
+            run(nrOfWords, MIN_WORD_GRAIN_SIZE, this::searchFrontier);
+            
+            long[] swappedFrontierBits = frontierBits;
+            
+            frontierBits        = nextFrontierBits;
+            nextFrontierBits    = swappedFrontierBits;
+            
+            return (int) nrOfFoundPackages.sum();
+        }
+        
+        /**
+         * Look for a dependant in the frontier of each unvisited package of the given range of bitset words. 
+         * Each word is only updated by the worker scanning it, hence the visited bitset is updated without 
+         * compare-and-set operations.
+         * 
+         * @param begin The first bitset word.
+         * @param end   The word following the last bitset word.
+         */
+        private void searchFrontier(int begin, int end) {
+            long nrOfPackagesFound  = 0;
+            long nrOfEdgesFound     = 0;
+            long nrOfSourcesFound   = 0;
+            
+            for (int i = begin; i < end; ++i) {
+                long visitedWord    = visited.get(i);
+                long unvisitedWord  = ~visitedWord;
+                long foundWord      = 0;
+                
+                if (i == nrOfWords - 1) {
+                    // Ignore the bits following the last package
+                    unvisitedWord &= (-1L >>> (nrOfWords * Long.SIZE - index.getNrOfPackages()));
+                }
+                
+                while (unvisitedWord != 0) {
+                    int packageId = i * Long.SIZE + Long.numberOfTrailingZeros(unvisitedWord);
+                    
+                    for (int j = index.getDependantsBegin(packageId); j < index.getDependantsEnd(packageId); ++j) {
+                        int dependantId = index.getDependant(j);
+                        
+                        if ((frontierBits[dependantId / Long.SIZE] & (1L << dependantId)) != 0) {
+                            foundWord          |= (1L << packageId);
+                            nrOfEdgesFound     += getNrOfDependencies(packageId);
+                            nrOfSourcesFound   += (getNrOfDependencies(packageId) > 0) ? 1 : 0;
+                            
+                            ++nrOfPackagesFound;
+                            
+                            recordDepth(packageId);
+                            
+                            break;
+                        }
+                    }
+                    
+                    unvisitedWord &= (unvisitedWord - 1);
+                }
+                
+                nextFrontierBits[i] = foundWord;
+                
+                if (foundWord != 0) {
+                    visited.set(i, visitedWord | foundWord);
+                }
+            }
+            
+            nrOfFoundPackages.add(nrOfPackagesFound);
+            nrOfFoundEdges.add(nrOfEdgesFound);
+            nrOfFoundSources.add(nrOfSourcesFound);
+        }
+        
+        /**
+         * Run the given work on the range [0, size), in the calling thread if the range is small and on 
+         * the fork-join pool otherwise.
+         * 
+         * @param size          The size of the range.
+         * @param minGrainSize  The minimum size of a range processed by a task.
+         * @param work          The work.
+         */
+        private void run(int size, int minGrainSize, RangeWork work) {
+            int grainSize = Math.max(minGrainSize, size / (TASKS_PER_THREAD * pool.getParallelism()));
+            
+            if (size <= grainSize) {
+                work.process(0, size);
+            } else {
+                pool.invoke(new RangeTask(0, size, grainSize, work));
+            }
+        }
+        
+        /**
+         * Mark the given package as visited.
+         * 
+         * @param packageId The package ID.
+         * @return True if the package was not visited yet, and false otherwise.
+         */
+        private boolean markVisited(int packageId) {
+            int     wordIndex   = packageId / Long.SIZE;
+            long    bit         = 1L << packageId;
+            long    word        = visited.get(wordIndex);
+            
+            // Checking the bit first avoids most compare-and-set operations on packages visited earlier
+            while ((word & bit) == 0) {
+                if (visited.compareAndSet(wordIndex, word, word | bit)) {
+                    return true;
+                }
+                
+                word = visited.get(wordIndex);
+            }
+            
+            return false;
+        }
+        
+        /**
+         * Record the depth of the given package, found by the current step, if depths are recorded. Each package 
+         * is found by a single worker, and the workers are joined before the depths are read.
+         * 
+         * @param packageId The package ID.
+         */
+        private void recordDepth(int packageId) {
+            if (depths != null) {
+                depths[packageId] = depth;
+            }
+        }
+        
+        /**
+         * Convert the frontier to a bitset, before the first bottom-up step.
+         * 
+         * @param frontierSize The number of frontier packages.
+         */
+        private void toFrontierBits(int frontierSize) {
+            if (frontierBits == null) {
+                frontierBits        = new long[nrOfWords];
+                nextFrontierBits    = new long[nrOfWords];
+            } else {
+                Arrays.fill(frontierBits, 0);
+            }
+            
+            for (int i = 0; i < frontierSize; ++i) {
+                frontierBits[frontier[i] / Long.SIZE] |= (1L << frontier[i]);
+            }
+        }
+        
+        /**
+         * Convert the frontier bitset to a list of packages, before the first top-down step following bottom-up steps.
+         * 
+         * @return The number of frontier packages.
+         */
+        private int toFrontier() {
+            int frontierSize = 0;
+            
+            for (int i = 0; i < nrOfWords; ++i) {
+                for (long word = frontierBits[i]; word != 0; word &= (word - 1)) {
+                    frontier[frontierSize++] = i * Long.SIZE + Long.numberOfTrailingZeros(word);
+                }
+            }
+            
+            return frontierSize;
+        }
+        
+        /**
+         * Convert the visited packages to a compressed set of package IDs, excluding the source package.
+         * 
+         * @param sourcePackageId The ID of the source package.
+         * @return The compressed set of package IDs.
+         */
+        private PackageIdSet toPackageIdSet(int sourcePackageId) {
+            PackageIdSet packageIds = new PackageIdSet();
+            
+            // Package IDs are added in ascending order, which is the cheapest insertion order
+            for (int i = 0; i < nrOfWords; ++i) {
+                long word = visited.get(i);
+                
+                if (i == sourcePackageId / Long.SIZE) {
+                    word &= ~(1L << sourcePackageId);
+                }
+                
+                for (; word != 0; word &= (word - 1)) {
+                    packageIds.add(i * Long.SIZE + Long.numberOfTrailingZeros(word));
+                }
+            }
+            
+            return packageIds;
+        }
+        
+        /**
+         * Convert the visited packages and their depths to a query result, excluding the source package. If the
+         * packages found exceed the maximum number of packages found, only the packages of the last step with
+         * the lowest IDs are kept.
+         * 
+         * @param sourcePackageId The ID of the source package.
+         * @return The query result.
+         */
+        private PackageDependenciesQueryResult toQueryResult(int sourcePackageId) {
+            int     resultSize          = Math.min(nrOfPackagesFound, budget.getMaxResultSize());
+            int     nrOfLastStepLeft    = resultSize - (nrOfPackagesFound - lastStepSize);
+            int[]   packageIds          = new int[resultSize];
+            int[]   packageDepths       = new int[resultSize];
+            int     nrOfPackages        = 0;
+            
+            for (int i = 0; i < nrOfWords; ++i) {
+                long word = visited.get(i);
+                
+                if (i == sourcePackageId / Long.SIZE) {
+                    word &= ~(1L << sourcePackageId);
+                }
+                
+                for (; word != 0; word &= (word - 1)) {
+                    int packageId = i * Long.SIZE + Long.numberOfTrailingZeros(word);
+                    
+                    if ((depths[packageId] == depth) && (nrOfLastStepLeft-- <= 0)) {
+                        continue;
+                    }
+                    
+                    packageIds[nrOfPackages]    = packageId;
+                    packageDepths[nrOfPackages] = depths[packageId];
+                    
+                    ++nrOfPackages;
+                }
+            }
+            
+            return new PackageDependenciesQueryResult(index, packageIds, packageDepths, budget.getTruncation());
+        }
+        
+        private int getNrOfDependencies(int packageId) {
+            return (index.getDependenciesEnd(packageId) - index.getDependenciesBegin(packageId));
+        }
+        
+    }
+    
+}
@@ -0,0 +1,295 @@
+package com.bt.coding_test.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.bt.coding_test.exception.InvalidInputException;
+import com.bt.coding_test.model.Package;
+
+/**
+ * Coordinator finding package dependencies in a package dependencies graph which is partitioned across 
+ * multiple worker processes (see PackageDependenciesShardWorker).
+ * 
+ * Dependencies are found using a distributed breadth first search: for each level of the search, the frontier 
+ * is split by shard into batches, which are expanded by all workers in parallel.
+ */
+public class ShardedPackageDependenciesCoordinator implements AutoCloseable {
+
+    private static final int BATCH_SIZE = 4096;    // The maximum number of packages sent in a single request
+    
+    private static final String ERR_WORKER_TERMINATED   = "A shard worker process terminated unexpectedly.";
+    private static final String ERR_WORKER_INTERRUPTED  = "Interrupted while waiting for a shard worker process.";
+    
+    private List<ShardConnection>   shards;     // The connections to the shard worker processes
+    private ExecutorService         executor;   // The executor used to communicate with the shards in parallel
+    
+    
+    /**
+     * Launch the worker processes of all shards locally and wait until each of them has loaded its shard.
+     * 
+     * @param dataFilePath The data file path.
+     * @param nrOfShards   The number of shards.
+     * @throws IOException if a worker process cannot be launched or the data file is invalid.
+     */
+    public ShardedPackageDependenciesCoordinator(String dataFilePath, int nrOfShards) throws IOException {
+        shards      = new ArrayList<ShardConnection>();
+        executor    = Executors.newFixedThreadPool(nrOfShards);
+        
+        try {
+            for (int i = 0; i < nrOfShards; ++i) {
+                shards.add(new ShardConnection(launchWorker(dataFilePath, i, nrOfShards)));
+            }
+            
+            for (ShardConnection shard : shards) {
+                shard.awaitReady();
+            }
+        } catch (IOException exception) {
+            close();
+            
+            throw exception;
+        }
+    }
+    
+    /**
+     * Find the direct and transitive package dependencies of the given source package.
+     * 
+     * @param sourcePackage The source package considered.
+     * @return The direct and transitive package dependencies of the given source package.
+     * @throws IOException if the communication with a worker process fails.
+     */
+    public Set<Package> find(Package sourcePackage) throws IOException {
+        Set<Package>    allPackageDependencies  = new TreeSet<Package>();
+        Set<String>     consideredPackages      = new HashSet<String>();
+        List<String>    frontier                = new ArrayList<String>();
+        
+        // Mark the source package as considered
+        consideredPackages.add(sourcePackage.getName());
+        frontier.add(sourcePackage.getName());
+        
+        while (!frontier.isEmpty()) {
+            List<String> nextFrontier = new ArrayList<String>();
+            
+            for (List<String> packageDependencies : expandFrontier(frontier)) {
+                for (String packageDependency : packageDependencies) {
+                    if (consideredPackages.add(packageDependency)) {
+                        allPackageDependencies.add(new Package(packageDependency));
+                        nextFrontier.add(packageDependency);
+                    }
+                }
+            }
+            
+            frontier = nextFrontier;
+        }
+        
+        return allPackageDependencies;
+    }
+    
+    /**
+     * Stop all worker processes.
+     */
+    @Override
+    public void close() {
+        for (ShardConnection shard : shards) {
+            shard.close();
+        }
+        
+        executor.shutdownNow();
+    }
+    
+    /**
+     * Expand the given frontier by requesting the direct dependencies of its packages from their shards in parallel.
+     * 
+     * @param frontier The packages in the frontier.
+     * @return The direct dependencies returned by each shard.
+     * @throws IOException if the communication with a worker process fails.
+     */
+    private List<List<String>> expandFrontier(List<String> frontier) throws IOException {
+        List<List<String>> batches = new ArrayList<List<String>>();
+        
+        for (int i = 0; i < shards.size(); ++i) {
+            batches.add(new ArrayList<String>());
+        }
+        
+        for (String packageName : frontier) {
+            batches.get(PackageDependenciesShardWorker.getShardIndex(packageName, shards.size())).add(packageName);
+        }
+        
+        List<Future<List<String>>> responses = new ArrayList<Future<List<String>>>();
+        
+        for (int i = 0; i < shards.size(); ++i) {
+            if (!batches.get(i).isEmpty()) {
+                ShardConnection shard = shards.get(i);
+                List<String>    batch = batches.get(i);
+                
+                responses.add(executor.submit(() -> shard.expand(batch)));
+            }
+        }
+        
+        List<List<String>> packageDependencies = new ArrayList<List<String>>();
+        
+        for (Future<List<String>> response : responses) {
+            packageDependencies.add(getResponse(response));
+        }
+        
+        return packageDependencies;
+    }
+    
+    /**
+     * Wait for the given response of a shard.
+     * 
+     * @param response The response.
+     * @return The direct dependencies returned by the shard.
+     * @throws IOException if the communication with the worker process failed.
+     */
+    private List<String> getResponse(Future<List<String>> response) throws IOException {
+        try {
+            return response.get();
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof IOException) {
+                throw (IOException) exception.getCause();
+            }
+            
+            throw new IOException(exception.getCause());
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            
+            throw new IOException(ERR_WORKER_INTERRUPTED);
+        }
+    }
+    
+    /**
+     * Launch a local worker process for the given shard.
+     * 
+     * @param dataFilePath The data file path.
+     * @param shardIndex   The index of the shard.
+     * @param nrOfShards   The number of shards.
+     * @return The worker process.
+     * @throws IOException if the worker process cannot be launched.
+     */
+    private Process launchWorker(String dataFilePath, int shardIndex, int nrOfShards) throws IOException {
+        String javaExecutable = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        
+        ProcessBuilder processBuilder = new ProcessBuilder(
+            javaExecutable,
+            "-cp",
+            System.getProperty("java.class.path"),
+            PackageDependenciesShardWorker.class.getName(),
+            dataFilePath,
+            Integer.toString(shardIndex),
+            Integer.toString(nrOfShards)
+        );
+        
+        processBuilder.redirectError(ProcessBuilder.Redirect.INHERIT);
+        
+        return processBuilder.start();
+    }
+    
+    /**
+     * Connection to a shard worker process.
+     */
+    private static class ShardConnection {
+    
+        private Process         process;
+        private BufferedWriter  requests;
+        private BufferedReader  responses;
+        
+        
+        ShardConnection(Process process) {
+            this.process    = process;
+            this.requests   = new BufferedWriter(new OutputStreamWriter(process.getOutputStream()));
+            this.responses  = new BufferedReader(new InputStreamReader(process.getInputStream()));
+        }
+        
+        /**
+         * Wait until the worker process has loaded its shard.
+         * 
+         * @throws IOException if the worker process failed to load its shard.
+         */
+        void awaitReady() throws IOException {
+            readResponse(PackageDependenciesShardWorker.RESPONSE_READY);
+        }
+        
+        /**
+         * Request the direct dependencies of the given packages, which are all assigned to this shard.
+         * 
+         * @param packageNames The package names.
+         * @return The direct dependencies of the given packages.
+         * @throws IOException if the communication with the worker process fails.
+         */
+        synchronized List<String> expand(List<String> packageNames) throws IOException {
+            List<String> packageDependencies = new ArrayList<String>();
+            
+            for (int i = 0; i < packageNames.size(); i += BATCH_SIZE) {
+                requests.write(PackageDependenciesShardWorker.REQUEST_EXPAND);
+                
+                for (String packageName : packageNames.subList(i, Math.min(i + BATCH_SIZE, packageNames.size()))) {
+                    requests.write(PackageDependenciesShardWorker.TOKEN_SEPARATOR + packageName);
+                }
+                
+                requests.newLine();
+                requests.flush();
+                
+                String[] tokens = readResponse(PackageDependenciesShardWorker.RESPONSE_DEPS);
+                
+                for (int j = 1; j < tokens.length; ++j) {
+                    packageDependencies.add(tokens[j]);
+                }
+            }
+            
+            return packageDependencies;
+        }
+        
+        /**
+         * Read a response of the given type from the worker process.
+         * 
+         * @param responseType The expected response type.
+         * @return The response tokens, where the first token is the response type.
+         * @throws IOException if the worker process reported an error or terminated.
+         */
+        private String[] readResponse(String responseType) throws IOException {
+            String response = responses.readLine();
+            
+            if (response == null) {
+                throw new IOException(ERR_WORKER_TERMINATED);
+            } else if (response.startsWith(PackageDependenciesShardWorker.RESPONSE_ERROR)) {
+                throw new InvalidInputException(
+                    response.substring(PackageDependenciesShardWorker.RESPONSE_ERROR.length()).trim()
+                );
+            } else if (!response.startsWith(responseType)) {
+                throw new IOException(ERR_WORKER_TERMINATED);
+            }
+            
+            return response.split(PackageDependenciesShardWorker.TOKEN_SEPARATOR);
+        }
+        
+        /**
+         * Request the worker process to stop and release its resources.
+         */
+        void close() {
+            try {
+                requests.write(PackageDependenciesShardWorker.REQUEST_QUIT);
+                requests.newLine();
+                requests.close();
+            } catch (IOException exception) {
+                // The worker process has already terminated
+            }
+            
+            process.destroy();
+        }
+        
+    }
+    
+}
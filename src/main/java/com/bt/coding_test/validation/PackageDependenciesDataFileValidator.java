@@ -10,6 +10,8 @@ import java.util.regex.Pattern;
 public class PackageDependenciesDataFileValidator {
 
     private final static Pattern PACKAGE_PATTERN                = Pattern.compile("[a-zA-Z0-9_]+"); 
+    private final static Pattern PACKAGE_NAME_PATTERN_PATTERN   = Pattern.compile("[a-zA-Z0-9_*]+");
+    private final static Pattern PACKAGE_WEIGHT_PATTERN         = Pattern.compile("[0-9]{1,18}");
     private final static String  PACKAGE_DEPENDENCY_SEPARATOR   = "->";
     
     private static PackageDependenciesDataFileValidator instance = null;
@@ -37,6 +39,32 @@ public class PackageDependenciesDataFileValidator {
         return packagePatternMatcher.matches();
     }
     
+    /**
+     * Check if the given package name pattern is valid.
+     * 
+     * Assumption: A package name pattern is valid if it is defined by the regular expression "[a-zA-Z0-9_*]+", 
+     *             where the character "*" is a wildcard matching any sequence of characters.
+     * 
+     * @param givenNamePattern The given package name pattern.
+     * @return True if the package name pattern is valid, and false otherwise.
+     */
+    public boolean isValidPackageNamePattern(String givenNamePattern) {
+        return PACKAGE_NAME_PATTERN_PATTERN.matcher(givenNamePattern).matches();
+    }
+    
+    /**
+     * Check if the given package weight is valid.
+     * 
+     * Assumption: A package weight is valid if it is defined by the regular expression "[0-9]{1,18}", i.e. it is 
+     *             a non-negative integer which fits into a long integer.
+     * 
+     * @param givenWeight The given package weight.
+     * @return True if the package weight is valid, and false otherwise.
+     */
+    public boolean isValidPackageWeight(String givenWeight) {
+        return PACKAGE_WEIGHT_PATTERN.matcher(givenWeight).matches();
+    }
+    
     /**
      * Check if the given separator is valid.
      * 
@@ -0,0 +1,115 @@
+package com.bt.coding_test;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Meter of the bytes allocated on the heap by all threads between start() and stop(), used by the performance 
+ * regression tests.
+ * 
+ * The allocation counter of a thread is no longer available once the thread terminates, hence the counters of 
+ * all threads are sampled periodically while the meter runs. The bytes allocated by a thread after its last 
+ * sample are not counted, which is negligible for measurements lasting much longer than the sampling interval.
+ */
+public class AllocationMeter {
+
+    private static final long SAMPLING_INTERVAL_MILLIS = 1;
+    
+    private ThreadMXBean        threadBean          = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private Map<Long, Long>     initialBytes        = new HashMap<Long, Long>();    // The bytes allocated by each thread on start
+    private Map<Long, Long>     lastBytes           = new HashMap<Long, Long>();    // The bytes allocated by each thread on the last sample
+    private Thread              sampler;                                            // The sampling thread, while the meter runs
+    private volatile boolean    isRunning;                                          // Whether the meter runs
+    
+    
+    public AllocationMeter() {
+        if (!threadBean.isThreadAllocatedMemorySupported()) {
+            throw new UnsupportedOperationException("Thread allocation counters are not supported by this JVM");
+        }
+        
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+    }
+    
+    /**
+     * Start metering the allocated bytes.
+     */
+    public void start() {
+        initialBytes.clear();
+        lastBytes.clear();
+        
+        sampler = new Thread(this::sampleWhileRunning, "allocation-meter");
+        sampler.setDaemon(true);
+        
+        sample(initialBytes);
+        
+        isRunning = true;
+        
+        sampler.start();
+    }
+    
+    /**
+     * Stop metering the allocated bytes.
+     * 
+     * @return The bytes allocated by all threads since start().
+     */
+    public long stop() {
+        isRunning = false;
+        
+        try {
+            sampler.join();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        
+        synchronized (lastBytes) {
+            sample(lastBytes);
+            
+            long allocatedBytes = 0;
+            
+            for (Map.Entry<Long, Long> threadBytes : lastBytes.entrySet()) {
+                Long threadInitialBytes = initialBytes.get(threadBytes.getKey());
+                
+                allocatedBytes += threadBytes.getValue() - ((threadInitialBytes == null) ? 0 : threadInitialBytes);
+            }
+            
+            return allocatedBytes;
+        }
+    }
+    
+    /**
+     * Sample the allocation counters periodically until the meter is stopped.
+     */
+    private void sampleWhileRunning() {
+        while (isRunning) {
+            synchronized (lastBytes) {
+                sample(lastBytes);
+            }
+            
+            try {
+                Thread.sleep(SAMPLING_INTERVAL_MILLIS);
+            } catch (InterruptedException exception) {
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Record the allocation counters of all live threads, except the sampling thread itself.
+     * 
+     * @param threadBytes The bytes allocated by each thread.
+     */
+    private void sample(Map<Long, Long> threadBytes) {
+        long[] threadIds        = threadBean.getAllThreadIds();
+        long[] allocatedBytes   = threadBean.getThreadAllocatedBytes(threadIds);
+        
+        for (int i = 0; i < threadIds.length; ++i) {
+            if ((allocatedBytes[i] >= 0) && (threadIds[i] != sampler.getId())) {
+                threadBytes.put(threadIds[i], allocatedBytes[i]);
+            }
+        }
+    }
+    
+}
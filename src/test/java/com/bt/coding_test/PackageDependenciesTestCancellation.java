@@ -0,0 +1,32 @@
+package com.bt.coding_test;
+
+import com.bt.coding_test.model.PackageDependenciesQueryCancellation;
+
+/**
+ * Cancellation token used by the tests, which cancels itself once it was checked a given number of times, such 
+ * that queries are cancelled at a deterministic point of their traversal.
+ */
+public class PackageDependenciesTestCancellation extends PackageDependenciesQueryCancellation {
+
+    private int nrOfChecksLeft; // The number of checks before the token cancels itself
+    
+    
+    /**
+     * Construct a token cancelling itself after the given number of checks.
+     * 
+     * @param nrOfChecks The number of checks reporting the token as not cancelled.
+     */
+    public PackageDependenciesTestCancellation(int nrOfChecks) {
+        this.nrOfChecksLeft = nrOfChecks;
+    }
+    
+    @Override
+    public boolean isCancelled() {
+        if (nrOfChecksLeft-- <= 0) {
+            cancel();
+        }
+        
+        return super.isCancelled();
+    }
+    
+}
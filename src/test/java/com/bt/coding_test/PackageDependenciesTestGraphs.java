@@ -0,0 +1,29 @@
+package com.bt.coding_test;
+
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+
+/**
+ * Helpers used by the tests to build package dependencies directed graphs.
+ */
+public class PackageDependenciesTestGraphs {
+
+    private PackageDependenciesTestGraphs() {
+        // DO nothing
+    }
+    
+    /**
+     * Add the given direct dependencies of the given package to the given graph.
+     * 
+     * @param graph                  The given graph.
+     * @param packageName            The package name.
+     * @param packageDependencyNames The direct dependencies names.
+     */
+    public static void addPackageDependencies(PackageDependenciesDirectedGraph graph, String packageName, 
+                                              String... packageDependencyNames) {
+        for (String packageDependencyName : packageDependencyNames) {
+            graph.addNewPackageDependency(new Package(packageName), new Package(packageDependencyName));
+        }
+    }
+    
+}
@@ -0,0 +1,149 @@
+package com.bt.coding_test.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.bt.coding_test.exception.InvalidInputException;
+import com.bt.coding_test.service.DFSPackageDependenciesFindingStrategy;
+
+public class PackageDependenciesBatchProcessingControllerTest {
+
+    private static final String OUT_LINE_SEPARATOR = System.lineSeparator();
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    private PackageDependenciesBatchProcessingController    controller;
+    private PrintStream                                     originalOut;
+    private PrintStream                                     originalErr;
+    private InputStream                                     originalIn;
+    private ByteArrayOutputStream                           out;
+    private ByteArrayOutputStream                           err;
+    
+    
+    @Before
+    public void setUp() {
+        controller  = new PackageDependenciesBatchProcessingController(new DFSPackageDependenciesFindingStrategy());
+        originalOut = System.out;
+        originalErr = System.err;
+        originalIn  = System.in;
+        out         = new ByteArrayOutputStream();
+        err         = new ByteArrayOutputStream();
+        
+        System.setOut(new PrintStream(out, true));
+        System.setErr(new PrintStream(err, true));
+    }
+    
+    @After
+    public void tearDown() {
+        System.setOut(originalOut);
+        System.setErr(originalErr);
+        System.setIn(originalIn);
+    }
+    
+    @Test
+    public void testQueryFile() throws IOException {
+        String queryFilePath = createQueryFile(
+            "# Dependencies, chains and set operations", 
+            "gui", 
+            "", 
+            "deps swing*", 
+            "why textui framework", 
+            "why framework gui", 
+            "INTERSECTION gui textui"
+        );
+        
+        controller.run(new String[] { getDataFilePath(), queryFilePath });
+        
+        assertEquals(
+            "gui -> awtui extensions framework runner swingui" + OUT_LINE_SEPARATOR + 
+            "swingui -> extensions framework runner" + OUT_LINE_SEPARATOR + 
+            "textui -> framework" + OUT_LINE_SEPARATOR + 
+            "framework does not depend on gui" + OUT_LINE_SEPARATOR + 
+            "gui & textui -> framework runner" + OUT_LINE_SEPARATOR, 
+            out.toString()
+        );
+    }
+    
+    @Test
+    public void testStandardInput() throws IOException {
+        System.setIn(new ByteArrayInputStream(("runner" + OUT_LINE_SEPARATOR + "difference gui textui").getBytes(StandardCharsets.UTF_8)));
+        
+        controller.run(new String[] { getDataFilePath() });
+        
+        assertEquals(
+            "runner -> framework" + OUT_LINE_SEPARATOR + 
+            "gui - textui -> awtui extensions swingui" + OUT_LINE_SEPARATOR, 
+            out.toString()
+        );
+    }
+    
+    @Test
+    public void testPatternWithoutMatchesReported() throws IOException {
+        String queryFilePath = createQueryFile("deps xml*", "union textui xml*");
+        
+        controller.run(new String[] { getDataFilePath(), queryFilePath });
+        
+        assertEquals(
+            "xml* ->" + OUT_LINE_SEPARATOR + 
+            "textui | xml* -> framework runner" + OUT_LINE_SEPARATOR, 
+            out.toString()
+        );
+    }
+    
+    @Test
+    public void testInvalidQueriesDoNotStopBatch() throws IOException {
+        String queryFilePath = createQueryFile("swingui#", "runner", "why gui", "build gui", "union gui swing#*");
+        
+        try {
+            controller.run(new String[] { getDataFilePath(), queryFilePath });
+            
+            fail();
+        } catch (InvalidInputException exception) {
+            assertEquals("Answered 1 of 5 queries: 4 invalid queries found.", exception.getMessage());
+        }
+        
+        assertEquals("runner -> framework" + OUT_LINE_SEPARATOR, out.toString());
+        
+        String[] errors = err.toString().split(OUT_LINE_SEPARATOR);
+        
+        assertEquals(4, errors.length);
+        assertEquals("Line 1: the package name \"swingui#\" is not valid because it is not defined by the regular expression \"[a-zA-Z0-9_]+\". Please change.", errors[0]);
+        assertEquals("Line 3: the operation \"why\" expects two package names. Please change.", errors[1]);
+        assertEquals("Line 4: the operation \"build\" is not valid. Supported operations: deps, why, union, intersection, difference.", errors[2]);
+        assertEquals("Line 5: the package name pattern \"swing#*\" is not valid because it is not defined by the regular expression \"[a-zA-Z0-9_*]+\". Please change.", errors[3]);
+    }
+    
+    @Test(expected = InvalidInputException.class)
+    public void testInvalidQueryFilePath() throws IOException {
+        controller.run(new String[] { getDataFilePath(), new File(folder.getRoot(), "missing.txt").getPath() });
+    }
+    
+    private String getDataFilePath() {
+        return getClass().getResource("data_file.txt").getFile();
+    }
+    
+    private String createQueryFile(String... queries) throws IOException {
+        File queryFile = folder.newFile("queries.txt");
+        
+        Files.write(queryFile.toPath(), String.join(OUT_LINE_SEPARATOR, queries).getBytes(StandardCharsets.UTF_8));
+        
+        return queryFile.getPath();
+    }
+    
+}
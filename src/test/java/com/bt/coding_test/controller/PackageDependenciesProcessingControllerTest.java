@@ -74,6 +74,17 @@ public class PackageDependenciesProcessingControllerTest {
         controller.run(args);
     }
     
+    @Test
+    public void testPackageNamePatterns() throws IOException {
+        String[] args = new String[3];
+        
+        args[0] = getClass().getResource("data_file.txt").getFile();
+        args[1] = "swing*";
+        args[2] = "*ui";
+        
+        controller.run(args);
+    }
+    
     @Test
     public void testManyPackagesWithManyDependencies() throws IOException {
         String[] args = new String[2];
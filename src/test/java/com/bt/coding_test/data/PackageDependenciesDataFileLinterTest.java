@@ -0,0 +1,145 @@
+package com.bt.coding_test.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.bt.coding_test.exception.InvalidInputException;
+
+public class PackageDependenciesDataFileLinterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    private PackageDependenciesDataFileLinter linter;
+    
+    @Before
+    public void setUp() {
+        linter = PackageDependenciesDataFileLinter.getInstance();
+    }
+    
+    @Test
+    public void testValidDataFile() throws InvalidInputException {
+        String filePath = getClass().getResource("data_file_valid_with_blank_lines.txt").getFile();
+        
+        PackageDependenciesDataFileLintReport report = linter.lint(filePath, 10);
+        
+        assertTrue(report.isValid());
+        assertTrue(report.getNrOfLines() > 0);
+        assertTrue(report.getErrors().isEmpty());
+    }
+    
+    @Test
+    public void testAllErrorsReported() throws IOException {
+        String contents = "gui -> awtui\r\n" + 
+                          "swingui runner\r\n" + 
+                          "\r\n" + 
+                          "textui -> framework textui\r" + 
+                          "awtui -> run-ner\n" + 
+                          "\t runner -> framework \t\n" + 
+                          "extensions\n" + 
+                          "framework ->";
+                          
+        PackageDependenciesDataFileLintReport report = linter.lint(writeDataFile(contents), 10);
+        
+        assertFalse(report.isValid());
+        assertFalse(report.isTruncated());
+        assertEquals(8, report.getNrOfLines());
+        assertEquals(4, report.getNrOfErrors());
+        
+        // The messages are identical to the messages of the reader
+        assertTrue(report.getErrors().get(0).startsWith("The separator token"));
+        assertTrue(report.getErrors().get(0).contains("(Line number: 2)"));
+        assertTrue(report.getErrors().get(1).startsWith("A package self-dependency"));
+        assertTrue(report.getErrors().get(1).contains("(Line number: 4)"));
+        assertTrue(report.getErrors().get(2).startsWith("The package name \"run-ner\""));
+        assertTrue(report.getErrors().get(2).contains("(Line number: 5)"));
+        assertTrue(report.getErrors().get(3).startsWith("The number of tokens"));
+        assertTrue(report.getErrors().get(3).contains("(Line number: 7)"));
+    }
+    
+    @Test
+    public void testErrorsTruncatedAcrossChunks() throws IOException {
+        StringBuilder contents = new StringBuilder();
+        
+        // Enough lines to fill several chunks, with an invalid line every 1000 lines
+        for (int i = 1; i <= 600000; ++i) {
+            contents.append((i % 1000 == 0) ? "invalid line\r\n" : "generated_package -> runner\r\n");
+        }
+        
+        PackageDependenciesDataFileLintReport report = linter.lint(writeDataFile(contents.toString()), 3);
+        
+        assertEquals(600000, report.getNrOfLines());
+        assertEquals(600, report.getNrOfErrors());
+        assertTrue(report.isTruncated());
+        assertEquals(3, report.getErrors().size());
+        assertTrue(report.getErrors().get(2).contains("(Line number: 3000)"));
+        
+        report = linter.lint(writeDataFile(contents.toString()), 1000);
+        
+        assertFalse(report.isTruncated());
+        assertTrue(report.getErrors().get(599).contains("(Line number: 600000)"));
+    }
+    
+    @Test
+    public void testPackageWeights() throws IOException {
+        String contents = "gui:12 -> awtui\n" + 
+                          "framework:0 ->\n" + 
+                          "gui:x -> awtui\n" + 
+                          "gui: -> awtui\n" + 
+                          "gui:1234567890123456789 -> awtui\n" + 
+                          "gui:1 -> gui\n" + 
+                          "gui:1:2 -> awtui\n";
+                          
+        PackageDependenciesDataFileLintReport report = linter.lint(writeDataFile(contents), 10);
+        
+        assertEquals(5, report.getNrOfErrors());
+        assertTrue(report.getErrors().get(0).startsWith("The package weight \"x\""));
+        assertTrue(report.getErrors().get(3).startsWith("A package self-dependency"));
+        assertTrue(report.getErrors().get(4).contains("(Line number: 7)"));
+    }
+    
+    @Test
+    public void testConflictingPackageWeights() throws IOException {
+        String contents = "gui:12 -> awtui\n" + 
+                          "runner:3 ->\n" + 
+                          "gui -> swingui\n" + 
+                          "gui:12 -> qtui\n" + 
+                          "gui:13 -> qtui\n" + 
+                          "runner:4 -> framework\n" + 
+                          "gui:13 -> wxtui\n";
+                          
+        PackageDependenciesDataFileLintReport report = linter.lint(writeDataFile(contents), 10);
+        
+        // The first weight of a package is kept, as by the reader which rejects the later weights
+        assertEquals(3, report.getNrOfErrors());
+        assertTrue(report.getErrors().get(0).startsWith("The package weight differs"));
+        assertTrue(report.getErrors().get(0).contains("(Line number: 5)"));
+        assertTrue(report.getErrors().get(1).contains("(Line number: 6)"));
+        assertTrue(report.getErrors().get(2).contains("(Line number: 7)"));
+    }
+    
+    @Test(expected = InvalidInputException.class)
+    public void testInvalidDataFilePath() throws InvalidInputException {
+        linter.lint("/some/invalid/path/data_file.txt", 10);
+    }
+    
+    private String writeDataFile(String contents) throws IOException {
+        File dataFile = folder.newFile();
+        
+        Files.write(dataFile.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+        
+        return dataFile.getPath();
+    }
+    
+}
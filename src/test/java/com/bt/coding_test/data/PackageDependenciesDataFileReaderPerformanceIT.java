@@ -0,0 +1,141 @@
+package com.bt.coding_test.data;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.bt.coding_test.AllocationMeter;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+
+/**
+ * Performance regression tests of loading a large synthetic data file, run by "mvn verify".
+ */
+public class PackageDependenciesDataFileReaderPerformanceIT {
+
+    private static final int    NR_OF_PACKAGES                  = 200000;
+    private static final int    MAX_NR_OF_DEPENDENCIES          = 10;
+    private static final int    NR_OF_WARM_UP_RUNS              = 2;
+    private static final int    NR_OF_RUNS                      = 5;
+    
+    private static final double MAX_ALLOCATED_BYTES_PER_EDGE    = 640;
+    private static final double MAX_RETAINED_BYTES_PER_EDGE     = 256;
+    private static final double MAX_LOAD_TIME_RATIO             = 32;   // Twice the ratio expected, since timings vary across machines
+    
+    @ClassRule
+    public static TemporaryFolder folder = new TemporaryFolder();
+    
+    private static File dataFile;
+    
+    @BeforeClass
+    public static void createDataFile() throws IOException {
+        dataFile = folder.newFile("large_data_file.txt");
+        
+        Random random = new Random(42);
+        
+        try (BufferedWriter writer = Files.newBufferedWriter(dataFile.toPath(), StandardCharsets.UTF_8)) {
+            // Dependencies point to packages with larger numbers, as in a layered code base
+            for (int i = 0; i < NR_OF_PACKAGES - 1; ++i) {
+                writer.write("package" + i + " ->");
+                
+                for (int j = random.nextInt(MAX_NR_OF_DEPENDENCIES); j >= 0; --j) {
+                    writer.write(" package" + (i + 1 + random.nextInt(NR_OF_PACKAGES - i - 1)));
+                }
+                
+                writer.newLine();
+            }
+        }
+    }
+    
+    @Test
+    public void testAllocatedBytesPerLoadedEdge() throws IOException {
+        PackageDependenciesDataFileReader.getInstance().read(dataFile.getPath());
+        
+        AllocationMeter meter = new AllocationMeter();
+        
+        meter.start();
+        
+        PackageDependenciesDirectedGraph graph = PackageDependenciesDataFileReader.getInstance().read(dataFile.getPath());
+        
+        double allocatedBytesPerEdge = (double) meter.stop() / graph.getNrOfPackageDependencies();
+        
+        assertTrue(String.format("Allocated bytes per loaded edge: %.1f", allocatedBytesPerEdge), 
+                   allocatedBytesPerEdge <= MAX_ALLOCATED_BYTES_PER_EDGE);
+    }
+    
+    /**
+     * Check the size of the graph and its index estimated by the graph, which does not depend on the garbage 
+     * collector or on the other objects allocated by the JVM while the test runs.
+     */
+    @Test
+    public void testRetainedBytesPerLoadedEdge() throws IOException {
+        PackageDependenciesDirectedGraph graph = PackageDependenciesDataFileReader.getInstance().read(dataFile.getPath());
+        
+        graph.getIndex();
+        
+        double retainedBytesPerEdge = (double) graph.estimateSizeInBytes() / graph.getNrOfPackageDependencies();
+        
+        assertTrue(String.format("Retained bytes per loaded edge: %.1f", retainedBytesPerEdge), 
+                   retainedBytesPerEdge <= MAX_RETAINED_BYTES_PER_EDGE);
+    }
+    
+    /**
+     * Compare the time to load the data file with the time to read and split its lines, which does not depend on 
+     * the speed of the machine running the test. The median ratio of several runs following warm-up runs is used.
+     */
+    @Test
+    public void testLoadTimeRatio() throws IOException {
+        double[] loadTimeRatios = new double[NR_OF_RUNS];
+        
+        for (int i = 0; i < NR_OF_WARM_UP_RUNS; ++i) {
+            tokenizeDataFile();
+            PackageDependenciesDataFileReader.getInstance().read(dataFile.getPath());
+        }
+        
+        for (int i = 0; i < NR_OF_RUNS; ++i) {
+            long startNanos     = System.nanoTime();
+            
+            tokenizeDataFile();
+            
+            long baselineNanos  = System.nanoTime() - startNanos;
+            
+            startNanos          = System.nanoTime();
+            
+            PackageDependenciesDataFileReader.getInstance().read(dataFile.getPath());
+            
+            loadTimeRatios[i]   = (double) (System.nanoTime() - startNanos) / baselineNanos;
+        }
+        
+        Arrays.sort(loadTimeRatios);
+        
+        double loadTimeRatio = loadTimeRatios[NR_OF_RUNS / 2];
+        
+        assertTrue(String.format("Load time ratio: %.2f", loadTimeRatio), loadTimeRatio <= MAX_LOAD_TIME_RATIO);
+    }
+    
+    private static int tokenizeDataFile() throws IOException {
+        int nrOfTokens = 0;
+        
+        try (BufferedReader reader = Files.newBufferedReader(dataFile.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            
+            while ((line = reader.readLine()) != null) {
+                nrOfTokens += line.split(" ").length;
+            }
+        }
+        
+        return nrOfTokens;
+    }
+    
+}
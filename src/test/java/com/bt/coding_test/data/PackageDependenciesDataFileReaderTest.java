@@ -1,20 +1,39 @@
 package com.bt.coding_test.data;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Iterator;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
 
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import com.bt.coding_test.exception.InvalidInputException;
+import com.bt.coding_test.model.CyclePolicy;
 import com.bt.coding_test.model.Package;
 import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
 
 
 public class PackageDependenciesDataFileReaderTest {
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
     private PackageDependenciesDataFileReader reader;
     
     @Before
@@ -92,6 +111,245 @@ public class PackageDependenciesDataFileReaderTest {
         readAndValidatePackageDependencyGraphFromValidDataFile(filePath);
     }
     
+    @Test
+    public void testDependencyCycleAllowed() throws InvalidInputException {
+        String filePath = getClass().getResource("data_file_invalid_dependency_cycle.txt").getFile();
+        
+        PackageDependenciesDirectedGraph graph = reader.read(filePath, CyclePolicy.ALLOW);
+        
+        assertTrue(graph.getNrOfPackageDependencies() == 8);
+    }
+    
+    @Test
+    public void testDependencyCycleWarned() throws InvalidInputException {
+        String filePath = getClass().getResource("data_file_invalid_dependency_cycle.txt").getFile();
+        
+        PrintStream             originalErr = System.err;
+        ByteArrayOutputStream   err         = new ByteArrayOutputStream();
+        
+        System.setErr(new PrintStream(err, true));
+        
+        try {
+            PackageDependenciesDirectedGraph graph = reader.read(filePath, CyclePolicy.WARN);
+            
+            assertTrue(graph.getNrOfPackageDependencies() == 8);
+        } finally {
+            System.setErr(originalErr);
+        }
+        
+        String warnings = new String(err.toByteArray(), StandardCharsets.UTF_8);
+        
+        assertTrue(warnings.startsWith("[ WARNING ] "));
+        assertTrue(warnings.contains("\" closes the dependency cycle \""));
+    }
+    
+    @Test(expected = InvalidInputException.class)
+    public void testDependencyCycleRejected() throws InvalidInputException {
+        String filePath = getClass().getResource("data_file_invalid_dependency_cycle.txt").getFile();
+        
+        reader.read(filePath, CyclePolicy.REJECT);
+    }
+    
+    @Test
+    public void testValidDataFileWithoutCyclesRejectingCycles() throws InvalidInputException {
+        String filePath = getClass().getResource("data_file_valid.txt").getFile();
+        
+        reader.read(filePath, CyclePolicy.REJECT);
+    }
+    
+    @Test
+    public void testLineTerminatorsAndLongFile() throws IOException {
+        File          dataFile = folder.newFile("data_file_line_terminators.txt");
+        StringBuilder contents = new StringBuilder("gui -> awtui swingui\r\nswingui -> runner\rawtui -> runner\n\n");
+        
+        // Enough lines to fill several buffers of the pipeline
+        for (int i = 0; i < 200000; ++i) {
+            contents.append("generated").append(i).append(" -> runner\r\n");
+        }
+        
+        contents.append("runner -> framework");
+        
+        Files.write(dataFile.toPath(), contents.toString().getBytes(StandardCharsets.UTF_8));
+        
+        PackageDependenciesDirectedGraph graph = reader.read(dataFile.getPath());
+        
+        assertEquals(200005, graph.getNrOfPackageDependencies());
+        assertTrue(graph.getDirectPackageDependencies(new Package("runner")).next().getName().equals("framework"));
+    }
+    
+    @Test
+    public void testInvalidLineNumberReported() throws IOException {
+        File dataFile = folder.newFile("data_file_invalid_line.txt");
+        
+        Files.write(dataFile.toPath(), "gui -> awtui\r\n\r\nswingui runner\n".getBytes(StandardCharsets.UTF_8));
+        
+        try {
+            reader.read(dataFile.getPath());
+            fail();
+        } catch (InvalidInputException exception) {
+            assertTrue(exception.getMessage().contains("(Line number: 3)"));
+        }
+    }
+    
+    @Test
+    public void testGzipDataFile() throws IOException {
+        File dataFile = folder.newFile("data_file_valid.txt.gz");
+        
+        try (OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(dataFile.toPath()))) {
+            outputStream.write(Files.readAllBytes(new File(getClass().getResource("data_file_valid.txt").getFile()).toPath()));
+        }
+        
+        readAndValidatePackageDependencyGraphFromValidDataFile(dataFile.getPath());
+    }
+    
+    @Test
+    public void testMultiMemberGzipDataFile() throws IOException {
+        File                    dataFile = folder.newFile("data_file_members.txt.gz");
+        ByteArrayOutputStream   contents = new ByteArrayOutputStream();
+        
+        for (int i = 0; i < 100; ++i) {
+            StringBuilder lines = new StringBuilder();
+            
+            for (int j = 0; j < 1000; ++j) {
+                lines.append("generated").append(i).append('_').append(j).append(" -> runner\n");
+            }
+            
+            // Lines are split across members, and the header bytes also occur inside some members
+            lines.append("generated").append(i);
+            
+            writeGzipMember(contents, lines.toString(), (i % 3 == 0));
+            writeGzipMember(contents, " -> framework\n", false);
+        }
+        
+        Files.write(dataFile.toPath(), contents.toByteArray());
+        
+        PackageDependenciesDirectedGraph graph = reader.read(dataFile.getPath());
+        
+        assertEquals(100100, graph.getNrOfPackageDependencies());
+        assertEquals("framework", graph.getDirectPackageDependencies(new Package("generated99")).next().getName());
+    }
+    
+    @Test
+    public void testHighlyCompressedGzipMember() throws IOException {
+        File                    dataFile = folder.newFile("data_file_compressed.txt.gz");
+        ByteArrayOutputStream   contents = new ByteArrayOutputStream();
+        StringBuilder           lines    = new StringBuilder();
+        
+        // The contents of the first member are too large to be decompressed in parallel
+        for (int i = 0; i < 1500000; ++i) {
+            lines.append("gui -> awtui\n");
+        }
+        
+        writeGzipMember(contents, lines.toString(), false);
+        writeGzipMember(contents, "awtui -> runner\n", false);
+        
+        Files.write(dataFile.toPath(), contents.toByteArray());
+        
+        PackageDependenciesDirectedGraph graph = reader.read(dataFile.getPath());
+        
+        assertEquals(2, graph.getNrOfPackageDependencies());
+    }
+    
+    @Test(expected = InvalidInputException.class)
+    public void testEmptyGzipDataFile() throws IOException {
+        File dataFile = folder.newFile("data_file_empty.txt.gz");
+        
+        reader.read(dataFile.getPath());
+    }
+    
+    @Test(expected = InvalidInputException.class)
+    public void testInvalidGzipDataFile() throws IOException {
+        File dataFile = folder.newFile("data_file_invalid.txt.gz");
+        
+        Files.write(dataFile.toPath(), "gui -> awtui\n".getBytes(StandardCharsets.UTF_8));
+        
+        reader.read(dataFile.getPath());
+    }
+    
+    @Test(expected = IllegalStateException.class, timeout = 10000)
+    public void testPipelineStageFailureRethrown() throws IOException {
+        InputStream failingStream = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IllegalStateException();
+            }
+        };
+        
+        // The caller must not wait forever for the batches of the failed I/O stage
+        PackageDependenciesDataFilePipeline.load(failingStream, (line, lineNumber, tokens) -> {});
+    }
+    
+    @Test
+    public void testPackageWeights() throws IOException {
+        File dataFile = folder.newFile("data_file_weights.txt");
+        
+        Files.write(dataFile.toPath(), "gui:12 -> awtui\nframework:30 ->\ngui:12 -> swingui\nawtui -> runner\n".getBytes(StandardCharsets.UTF_8));
+        
+        PackageDependenciesDirectedGraph graph = reader.read(dataFile.getPath());
+        
+        assertEquals(12, graph.getPackageWeight(new Package("gui")));
+        assertEquals(30, graph.getPackageWeight(new Package("framework")));
+        assertEquals(0, graph.getPackageWeight(new Package("awtui")));
+        assertEquals(3, graph.getNrOfPackageDependencies());
+        assertTrue(graph.getIndex().getPackageId(new Package("framework")) >= 0);
+    }
+    
+    @Test
+    public void testInvalidPackageWeights() throws IOException {
+        String[] contents = { "gui:12 -> awtui\ngui:13 -> swingui\n", "gui:x -> awtui\n", "gui: -> awtui\n", 
+                              "gui:1234567890123456789 -> awtui\n", "gui:1 -> gui\n" };
+                              
+        for (String content : contents) {
+            File dataFile = folder.newFile();
+            
+            Files.write(dataFile.toPath(), content.getBytes(StandardCharsets.UTF_8));
+            
+            try {
+                reader.read(dataFile.getPath());
+                fail(content);
+            } catch (InvalidInputException exception) {
+                // Expected
+            }
+        }
+    }
+    
+    /**
+     * Write the given contents as a gzip member.
+     * 
+     * @param outputStream      The output stream.
+     * @param contents          The contents of the member.
+     * @param hasHeaderBytes    If true, the member header bytes are also written inside the extra field of the member.
+     */
+    private void writeGzipMember(ByteArrayOutputStream outputStream, String contents, boolean hasHeaderBytes) {
+        byte[]  data        = contents.getBytes(StandardCharsets.UTF_8);
+        byte[]  compressed  = new byte[data.length + 1024];
+        CRC32   crc         = new CRC32();
+        
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        
+        deflater.setInput(data);
+        deflater.finish();
+        
+        int compressedLength = deflater.deflate(compressed);
+        
+        deflater.end();
+        crc.update(data);
+        
+        outputStream.write(new byte[] { 0x1f, (byte) 0x8b, 8, (byte) (hasHeaderBytes ? 4 : 0), 0, 0, 0, 0, 0, (byte) 255 }, 0, 10);
+        
+        if (hasHeaderBytes) {
+            outputStream.write(new byte[] { 4, 0, 0x1f, (byte) 0x8b, 8, 0 }, 0, 6);
+        }
+        
+        outputStream.write(compressed, 0, compressedLength);
+        
+        for (long value : new long[] { crc.getValue(), data.length }) {
+            for (int i = 0; i < 4; ++i) {
+                outputStream.write((int) (value >>> (8 * i)));
+            }
+        }
+    }
+    
     /**
      * Read and validate package dependency graph from valid data file.
      * 
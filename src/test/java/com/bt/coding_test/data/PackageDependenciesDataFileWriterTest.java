@@ -0,0 +1,83 @@
+package com.bt.coding_test.data;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.bt.coding_test.exception.InvalidInputException;
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+
+public class PackageDependenciesDataFileWriterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    @Test
+    public void testWriteAndReadBack() throws IOException {
+        String filePath = getClass().getResource("data_file_valid.txt").getFile();
+        File   outFile  = folder.newFile("data_file_out.txt");
+        
+        PackageDependenciesDirectedGraph graph = PackageDependenciesDataFileReader.getInstance().read(filePath);
+        
+        PackageDependenciesDataFileWriter.getInstance().write(graph, outFile.getPath());
+        
+        PackageDependenciesDirectedGraph readGraph = PackageDependenciesDataFileReader.getInstance().read(
+            outFile.getPath()
+        );
+        
+        assertEquals(graph.getNrOfPackageDependencies(), readGraph.getNrOfPackageDependencies());
+        assertEquals(graph.getSourcePackages(), readGraph.getSourcePackages());
+    }
+    
+    @Test
+    public void testWriteFormat() throws IOException {
+        File                             outFile    = folder.newFile("data_file_out.txt");
+        PackageDependenciesDirectedGraph graph      = new PackageDependenciesDirectedGraph();
+        
+        graph.addNewPackageDependency(new Package("swingui"), new Package("runner"));
+        graph.addNewPackageDependency(new Package("gui"), new Package("swingui"));
+        graph.addNewPackageDependency(new Package("gui"), new Package("awtui"));
+        
+        PackageDependenciesDataFileWriter.getInstance().write(graph, outFile.getPath());
+        
+        assertEquals(Arrays.asList("gui -> awtui swingui", "swingui -> runner"), Files.readAllLines(outFile.toPath()));
+    }
+    
+    @Test
+    public void testWritePackageWeights() throws IOException {
+        File                             outFile    = folder.newFile("data_file_out.txt");
+        PackageDependenciesDirectedGraph graph      = new PackageDependenciesDirectedGraph();
+        
+        graph.addNewPackageDependency(new Package("gui"), new Package("runner"));
+        graph.setPackageWeight(new Package("gui"), 12);
+        graph.setPackageWeight(new Package("framework"), 30);
+        
+        PackageDependenciesDataFileWriter.getInstance().write(graph, outFile.getPath());
+        
+        assertEquals(Arrays.asList("framework:30 ->", "gui:12 -> runner"), Files.readAllLines(outFile.toPath()));
+        
+        PackageDependenciesDirectedGraph readGraph = PackageDependenciesDataFileReader.getInstance().read(
+            outFile.getPath()
+        );
+        
+        assertEquals(graph.getWeightedPackages(), readGraph.getWeightedPackages());
+        assertEquals(30, readGraph.getPackageWeight(new Package("framework")));
+    }
+    
+    @Test(expected = InvalidInputException.class)
+    public void testInvalidDataFilePath() throws InvalidInputException {
+        PackageDependenciesDataFileWriter.getInstance().write(
+            new PackageDependenciesDirectedGraph(), 
+            folder.getRoot().getPath() + "/missing/data_file_out.txt"
+        );
+    }
+    
+}
@@ -0,0 +1,106 @@
+package com.bt.coding_test.data;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.bt.coding_test.exception.InvalidInputException;
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+import com.bt.coding_test.model.PackageDependenciesGraphIndex;
+import com.bt.coding_test.model.PackageIdSet;
+
+public class PackageDependenciesGraphExporterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    private PackageDependenciesGraphExporter exporter = PackageDependenciesGraphExporter.getInstance();
+    private PackageDependenciesDirectedGraph graph;
+    
+    @Before
+    public void createGraph() {
+        graph = new PackageDependenciesDirectedGraph();
+        
+        graph.addNewPackageDependency(new Package("gui"), new Package("swingui"));
+        graph.addNewPackageDependency(new Package("gui"), new Package("awtui"));
+        graph.addNewPackageDependency(new Package("swingui"), new Package("runner"));
+        graph.setPackageWeight(new Package("gui"), 12);
+    }
+    
+    @Test
+    public void testExportDot() throws IOException {
+        File outFile = folder.newFile("graph.dot");
+        
+        exporter.export(graph, PackageDependenciesExportFormat.DOT, outFile.getPath());
+        
+        assertEquals(
+            Arrays.asList(
+                "digraph dependencies {", 
+                "    \"awtui\";", 
+                "    \"gui\"; // weight=12", 
+                "    \"gui\" -> \"awtui\";", 
+                "    \"gui\" -> \"swingui\";", 
+                "    \"runner\";", 
+                "    \"swingui\";", 
+                "    \"swingui\" -> \"runner\";", 
+                "}"
+            ), 
+            Files.readAllLines(outFile.toPath())
+        );
+    }
+    
+    @Test
+    public void testExportGraphMl() throws IOException {
+        File outFile = folder.newFile("graph.graphml");
+        
+        exporter.export(graph, PackageDependenciesExportFormat.GRAPHML, outFile.getPath());
+        
+        assertEquals(
+            Arrays.asList(
+                "<?xml version=\"1.0\" encoding=\"UTF-8\"?>", 
+                "<graphml xmlns=\"http://graphml.graphdrawing.org/xmlns\">", 
+                "  <key id=\"weight\" for=\"node\" attr.name=\"weight\" attr.type=\"long\"/>", 
+                "  <graph id=\"dependencies\" edgedefault=\"directed\">", 
+                "    <node id=\"awtui\"/>", 
+                "    <node id=\"gui\"><data key=\"weight\">12</data></node>", 
+                "    <node id=\"runner\"/>", 
+                "    <node id=\"swingui\"/>", 
+                "    <edge source=\"gui\" target=\"awtui\"/>", 
+                "    <edge source=\"gui\" target=\"swingui\"/>", 
+                "    <edge source=\"swingui\" target=\"runner\"/>", 
+                "  </graph>", 
+                "</graphml>"
+            ), 
+            Files.readAllLines(outFile.toPath())
+        );
+    }
+    
+    @Test
+    public void testExportInducedSubgraph() throws IOException {
+        File                            outFile     = folder.newFile("subgraph.txt");
+        PackageDependenciesGraphIndex   index       = graph.getIndex();
+        PackageIdSet                    packageIds  = new PackageIdSet();
+        
+        packageIds.add(index.getPackageId(new Package("gui")));
+        packageIds.add(index.getPackageId(new Package("swingui")));
+        
+        exporter.export(graph, packageIds, PackageDependenciesExportFormat.NATIVE, outFile.getPath());
+        
+        assertEquals(Arrays.asList("gui:12 -> swingui"), Files.readAllLines(outFile.toPath()));
+    }
+    
+    @Test(expected = InvalidInputException.class)
+    public void testInvalidFilePath() throws InvalidInputException {
+        exporter.export(graph, PackageDependenciesExportFormat.DOT, folder.getRoot().getPath() + "/missing/graph.dot");
+    }
+    
+}
@@ -0,0 +1,244 @@
+package com.bt.coding_test.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class PackageDependenciesDirectedGraphTest {
+
+    private static final int RANDOM_TEST_NR_PACKAGES        = 60;
+    private static final int RANDOM_TEST_NR_DEPENDENCIES    = 400;
+    private static final int RANDOM_TEST_SEED               = 2016;
+    
+    @Test
+    public void testIndexAssignsPackageIdsAlphabetically() {
+        PackageDependenciesDirectedGraph graph = new PackageDependenciesDirectedGraph();
+        
+        graph.addNewPackageDependency(new Package("textui"), new Package("runner"));
+        graph.addNewPackageDependency(new Package("gui"), new Package("swingui"));
+        graph.addNewPackageDependency(new Package("gui"), new Package("awtui"));
+        graph.addNewPackageDependency(new Package("swingui"), new Package("runner"));
+        
+        PackageDependenciesGraphIndex index = graph.getIndex();
+        
+        for (int i = 1; i < index.getNrOfPackages(); ++i) {
+            assertTrue(index.getPackage(i - 1).compareTo(index.getPackage(i)) < 0);
+        }
+        
+        // The package set view iterates packages alphabetically
+        PackageIdSet packageIds = new PackageIdSet();
+        
+        packageIds.add(index.getPackageId(new Package("textui")));
+        packageIds.add(index.getPackageId(new Package("awtui")));
+        packageIds.add(index.getPackageId(new Package("runner")));
+        
+        assertEquals(
+            Arrays.asList(new Package("awtui"), new Package("runner"), new Package("textui")), 
+            new ArrayList<Package>(packageIds.toPackages(index))
+        );
+        assertTrue(packageIds.toPackages(index).contains(new Package("runner")));
+        assertFalse(packageIds.toPackages(index).contains(new Package("gui")));
+    }
+    
+    @Test
+    public void testCycleNotDetectedWhenAllowed() {
+        PackageDependenciesDirectedGraph graph = new PackageDependenciesDirectedGraph();
+        
+        graph.addNewPackageDependency(new Package("a"), new Package("b"));
+        
+        assertTrue(graph.addNewPackageDependency(new Package("b"), new Package("a")).isEmpty());
+        assertEquals(2, graph.getNrOfPackageDependencies());
+    }
+    
+    @Test
+    public void testCycleRejected() {
+        PackageDependenciesDirectedGraph graph = new PackageDependenciesDirectedGraph(CyclePolicy.REJECT);
+        
+        graph.addNewPackageDependency(new Package("a"), new Package("b"));
+        graph.addNewPackageDependency(new Package("b"), new Package("c"));
+        
+        List<Package> cycle = graph.addNewPackageDependency(new Package("c"), new Package("a"));
+        
+        assertEquals(Arrays.asList(new Package("c"), new Package("a"), new Package("b")), cycle);
+        assertEquals(2, graph.getNrOfPackageDependencies());
+        assertTrue(graph.getDirectPackageDependencies(new Package("c")) == null);
+    }
+    
+    @Test
+    public void testCycleWarned() {
+        PackageDependenciesDirectedGraph graph = new PackageDependenciesDirectedGraph(CyclePolicy.WARN);
+        
+        graph.addNewPackageDependency(new Package("a"), new Package("b"));
+        
+        assertEquals(
+            Arrays.asList(new Package("b"), new Package("a")), 
+            graph.addNewPackageDependency(new Package("b"), new Package("a"))
+        );
+        assertEquals(2, graph.getNrOfPackageDependencies());
+    }
+    
+    @Test
+    public void testCycleThroughWarnedDependencyDetected() {
+        PackageDependenciesDirectedGraph graph = new PackageDependenciesDirectedGraph(CyclePolicy.WARN);
+        
+        graph.addNewPackageDependency(new Package("a"), new Package("b"));
+        graph.addNewPackageDependency(new Package("b"), new Package("a"));
+        graph.addNewPackageDependency(new Package("c"), new Package("b"));
+        
+        // The cycle is only closed through the warned dependency "b -> a"
+        List<Package> cycle = graph.addNewPackageDependency(new Package("a"), new Package("c"));
+        
+        assertEquals(Arrays.asList(new Package("a"), new Package("c"), new Package("b")), cycle);
+        
+        // A dependency between packages of the same contracted cycle closes a new cycle
+        assertEquals(
+            Arrays.asList(new Package("b"), new Package("c")), 
+            graph.addNewPackageDependency(new Package("b"), new Package("c"))
+        );
+    }
+    
+    @Test
+    public void testCycleDetectedAfterReordering() {
+        PackageDependenciesDirectedGraph graph = new PackageDependenciesDirectedGraph(CyclePolicy.REJECT);
+        
+        // Dependencies added in reverse topological order, such that each of them requires reordering
+        assertTrue(graph.addNewPackageDependency(new Package("c"), new Package("d")).isEmpty());
+        assertTrue(graph.addNewPackageDependency(new Package("b"), new Package("c")).isEmpty());
+        assertTrue(graph.addNewPackageDependency(new Package("a"), new Package("b")).isEmpty());
+        assertTrue(graph.addNewPackageDependency(new Package("a"), new Package("d")).isEmpty());
+        
+        List<Package> cycle = graph.addNewPackageDependency(new Package("d"), new Package("a"));
+        
+        assertEquals(new Package("d"), cycle.get(0));
+        assertEquals(new Package("a"), cycle.get(1));
+        assertValidCycle(graph, cycle);
+    }
+    
+    @Test
+    public void testRandomDependenciesAgainstReachability() {
+        PackageDependenciesDirectedGraph graph  = new PackageDependenciesDirectedGraph(CyclePolicy.REJECT);
+        Random                           random = new Random(RANDOM_TEST_SEED);
+        
+        for (int i = 0; i < RANDOM_TEST_NR_DEPENDENCIES; ++i) {
+            Package sourcePackage       = new Package("p" + random.nextInt(RANDOM_TEST_NR_PACKAGES));
+            Package packageDependency   = new Package("p" + random.nextInt(RANDOM_TEST_NR_PACKAGES));
+            
+            if (sourcePackage.equals(packageDependency)) {
+                continue;
+            }
+            
+            boolean       closesCycle = isReachable(graph, packageDependency, sourcePackage);
+            List<Package> cycle       = graph.addNewPackageDependency(sourcePackage, packageDependency);
+            
+            assertEquals(closesCycle, !cycle.isEmpty());
+            
+            if (closesCycle) {
+                assertValidCycle(graph, cycle);
+            }
+        }
+    }
+    
+    @Test
+    public void testRandomWarnedDependenciesAgainstReachability() {
+        PackageDependenciesDirectedGraph graph  = new PackageDependenciesDirectedGraph(CyclePolicy.WARN);
+        Random                           random = new Random(RANDOM_TEST_SEED);
+        
+        for (int i = 0; i < RANDOM_TEST_NR_DEPENDENCIES; ++i) {
+            Package sourcePackage       = new Package("p" + random.nextInt(RANDOM_TEST_NR_PACKAGES));
+            Package packageDependency   = new Package("p" + random.nextInt(RANDOM_TEST_NR_PACKAGES));
+            
+            if ((sourcePackage.equals(packageDependency)) || (isDirectDependency(graph, sourcePackage, packageDependency))) {
+                continue;
+            }
+            
+            // The dependencies closing cycles are recorded, hence the graph contains cycles
+            boolean       closesCycle = isReachable(graph, packageDependency, sourcePackage);
+            List<Package> cycle       = graph.addNewPackageDependency(sourcePackage, packageDependency);
+            
+            assertEquals(closesCycle, !cycle.isEmpty());
+            
+            if (closesCycle) {
+                assertValidCycle(graph, cycle);
+            }
+        }
+    }
+    
+    private boolean isDirectDependency(PackageDependenciesDirectedGraph graph, Package sourcePackage, 
+                                       Package packageDependency) {
+        Iterator<Package> dependencies = graph.getDirectPackageDependencies(sourcePackage);
+        
+        while ((dependencies != null) && (dependencies.hasNext())) {
+            if (dependencies.next().equals(packageDependency)) {
+                return true;
+            }
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Check if the target package is reachable from the source package using a depth first search.
+     * 
+     * @param graph         The graph.
+     * @param sourcePackage The source package.
+     * @param targetPackage The target package.
+     * @return True if the target package is reachable, and false otherwise.
+     */
+    private boolean isReachable(PackageDependenciesDirectedGraph graph, Package sourcePackage, Package targetPackage) {
+        Set<Package>   visitedPackages = new HashSet<Package>();
+        Deque<Package> packagesToVisit = new ArrayDeque<Package>();
+        
+        packagesToVisit.push(sourcePackage);
+        
+        while (!packagesToVisit.isEmpty()) {
+            Package           currentPackage = packagesToVisit.pop();
+            Iterator<Package> dependencies   = graph.getDirectPackageDependencies(currentPackage);
+            
+            if (currentPackage.equals(targetPackage)) {
+                return true;
+            }
+            
+            if ((dependencies != null) && visitedPackages.add(currentPackage)) {
+                dependencies.forEachRemaining(packagesToVisit::push);
+            }
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Check if each package on the cycle depends directly on the next package, except for the dependency 
+     * closing the cycle, which was rejected.
+     * 
+     * @param graph The graph.
+     * @param cycle The packages on the cycle, starting with the source package of the rejected dependency.
+     */
+    private void assertValidCycle(PackageDependenciesDirectedGraph graph, List<Package> cycle) {
+        assertFalse(cycle.isEmpty());
+        
+        for (int i = 2; i < cycle.size(); ++i) {
+            Set<Package> directDependencies = new HashSet<Package>();
+            
+            graph.getDirectPackageDependencies(cycle.get(i - 1)).forEachRemaining(directDependencies::add);
+            
+            assertTrue(directDependencies.contains(cycle.get(i)));
+        }
+        
+        if (cycle.size() > 1) {
+            assertTrue(isReachable(graph, cycle.get(1), cycle.get(0)));
+        }
+    }
+    
+}
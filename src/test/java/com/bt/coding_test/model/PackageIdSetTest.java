@@ -0,0 +1,157 @@
+package com.bt.coding_test.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+public class PackageIdSetTest {
+
+    private static final int NR_OF_DENSE_IDS = 10000;
+    
+    @Test
+    public void testAddAndContains() {
+        PackageIdSet packageIds = new PackageIdSet();
+        
+        assertTrue(packageIds.add(7));
+        assertTrue(packageIds.add(3));
+        assertTrue(packageIds.add(1 << 20));
+        assertFalse(packageIds.add(7));
+        
+        assertTrue(packageIds.contains(3));
+        assertTrue(packageIds.contains(7));
+        assertTrue(packageIds.contains(1 << 20));
+        assertFalse(packageIds.contains(5));
+        assertEquals(3, packageIds.getCardinality());
+    }
+    
+    @Test
+    public void testIterationInAscendingOrder() {
+        int[]        givenIds   = {70000, 5, 131072, 2, 65535, 65536};
+        PackageIdSet packageIds = createPackageIdSet(givenIds);
+        
+        assertSameIds(new TreeSet<Integer>(toList(givenIds)), packageIds);
+    }
+    
+    @Test
+    public void testDenseContainer() {
+        PackageIdSet packageIds = new PackageIdSet();
+        
+        for (int i = 0; i < NR_OF_DENSE_IDS; ++i) {
+            packageIds.add(2 * i);
+        }
+        
+        assertEquals(NR_OF_DENSE_IDS, packageIds.getCardinality());
+        assertTrue(packageIds.contains(2 * (NR_OF_DENSE_IDS - 1)));
+        assertFalse(packageIds.contains(1));
+    }
+    
+    @Test
+    public void testUnion() {
+        PackageIdSet lhsIds = createPackageIdSet(new int[] {1, 3, 5, 70000});
+        PackageIdSet rhsIds = createPackageIdSet(new int[] {2, 3, 140000});
+        
+        assertSameIds(new TreeSet<Integer>(toList(new int[] {1, 2, 3, 5, 70000, 140000})), lhsIds.union(rhsIds));
+    }
+    
+    @Test
+    public void testIntersection() {
+        PackageIdSet lhsIds = createPackageIdSet(new int[] {1, 3, 5, 70000});
+        PackageIdSet rhsIds = createPackageIdSet(new int[] {2, 3, 70000, 140000});
+        
+        assertSameIds(new TreeSet<Integer>(toList(new int[] {3, 70000})), lhsIds.intersection(rhsIds));
+    }
+    
+    @Test
+    public void testDenseUnionAndIntersection() {
+        PackageIdSet evenIds = new PackageIdSet();
+        PackageIdSet lowIds  = new PackageIdSet();
+        
+        for (int i = 0; i < NR_OF_DENSE_IDS; ++i) {
+            evenIds.add(2 * i);
+            lowIds.add(i);
+        }
+        
+        assertEquals(NR_OF_DENSE_IDS + (NR_OF_DENSE_IDS / 2), evenIds.union(lowIds).getCardinality());
+        assertEquals(NR_OF_DENSE_IDS / 2, evenIds.intersection(lowIds).getCardinality());
+    }
+    
+    @Test
+    public void testRunOptimize() {
+        PackageIdSet packageIds = new PackageIdSet();
+        
+        for (int i = 0; i < NR_OF_DENSE_IDS; ++i) {
+            packageIds.add(i);
+        }
+        
+        long sizeInBytes = packageIds.estimateSizeInBytes();
+        
+        packageIds.runOptimize();
+        
+        assertTrue(packageIds.estimateSizeInBytes() < sizeInBytes);
+        assertEquals(NR_OF_DENSE_IDS, packageIds.getCardinality());
+        assertTrue(packageIds.contains(NR_OF_DENSE_IDS - 1));
+        assertFalse(packageIds.contains(NR_OF_DENSE_IDS));
+        
+        // Adding to a run optimized set converts the container back
+        assertTrue(packageIds.add(NR_OF_DENSE_IDS + 1));
+        assertEquals(NR_OF_DENSE_IDS + 1, packageIds.getCardinality());
+    }
+    
+    /**
+     * Create a package ID set containing the given IDs.
+     * 
+     * @param givenIds The given IDs.
+     * @return The package ID set.
+     */
+    private PackageIdSet createPackageIdSet(int[] givenIds) {
+        PackageIdSet packageIds = new PackageIdSet();
+        
+        for (int givenId : givenIds) {
+            packageIds.add(givenId);
+        }
+        
+        return packageIds;
+    }
+    
+    /**
+     * Convert the given IDs to a list.
+     * 
+     * @param givenIds The given IDs.
+     * @return The list of IDs.
+     */
+    private List<Integer> toList(int[] givenIds) {
+        List<Integer> ids = new ArrayList<Integer>();
+        
+        for (int givenId : givenIds) {
+            ids.add(givenId);
+        }
+        
+        return ids;
+    }
+    
+    /**
+     * Check if the package ID set contains exactly the expected IDs in ascending order.
+     * 
+     * @param expectedIds The expected IDs sorted in ascending order.
+     * @param packageIds  The package ID set.
+     */
+    private void assertSameIds(TreeSet<Integer> expectedIds, PackageIdSet packageIds) {
+        PrimitiveIterator.OfInt iterator = packageIds.iterator();
+        
+        for (int expectedId : expectedIds) {
+            assertTrue(iterator.hasNext());
+            assertEquals(expectedId, iterator.nextInt());
+        }
+        
+        assertFalse(iterator.hasNext());
+        assertEquals(expectedIds.size(), packageIds.getCardinality());
+    }
+    
+}
@@ -0,0 +1,114 @@
+package com.bt.coding_test.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+public class PackageNameDictionaryTest {
+
+    private static final String[] NAME_PARTS = { "swing", "awt", "ui", "runner", "frame", "work", "_", "X1" };
+    
+    @Test
+    public void testExactLookup() {
+        PackageDependenciesGraphIndex   index       = createRandomGraph(new Random(40)).getIndex();
+        PackageNameDictionary           dictionary  = index.getNameDictionary();
+        
+        assertEquals(index.getNrOfPackages(), dictionary.getNrOfNames());
+        
+        for (int i = 0; i < index.getNrOfPackages(); ++i) {
+            String name = index.getPackage(i).getName();
+            
+            assertEquals(name, dictionary.getName(i));
+            assertEquals(i, dictionary.getId(name));
+            assertEquals(-1, dictionary.getId(name + "_missing"));
+        }
+        
+        assertEquals(-1, dictionary.getId("0"));
+        assertEquals(-1, dictionary.getId("zzz"));
+    }
+    
+    @Test
+    public void testPrefixAndWildcardLookup() {
+        PackageDependenciesGraphIndex   index       = createRandomGraph(new Random(41)).getIndex();
+        PackageNameDictionary           dictionary  = index.getNameDictionary();
+        
+        String[] patterns = { "swing*", "*ui", "a*t*", "*", "swingawt", "X1*_", "*frame*work*", "none*" };
+        
+        for (String pattern : patterns) {
+            TreeSet<Integer> expectedIds = new TreeSet<Integer>();
+            String           regex       = pattern.replace("*", ".*");
+            
+            for (int i = 0; i < index.getNrOfPackages(); ++i) {
+                if (index.getPackage(i).getName().matches(regex)) {
+                    expectedIds.add(i);
+                }
+            }
+            
+            assertEquals(pattern, expectedIds, toSet(dictionary.findMatches(pattern)));
+        }
+        
+        TreeSet<Integer> expectedIds = new TreeSet<Integer>();
+        
+        for (int i = 0; i < index.getNrOfPackages(); ++i) {
+            if (index.getPackage(i).getName().startsWith("awt")) {
+                expectedIds.add(i);
+            }
+        }
+        
+        assertEquals(expectedIds, toSet(dictionary.findPrefix("awt")));
+    }
+    
+    @Test
+    public void testNamesAreCompressed() {
+        PackageDependenciesGraphIndex   index       = createRandomGraph(new Random(42)).getIndex();
+        long                            nameLength  = 0;
+        
+        for (int i = 0; i < index.getNrOfPackages(); ++i) {
+            nameLength += index.getPackage(i).getName().length();
+        }
+        
+        assertTrue(index.getNameDictionary().getSizeInBytes() < nameLength);
+    }
+    
+    private TreeSet<Integer> toSet(PackageIdSet packageIds) {
+        TreeSet<Integer> set = new TreeSet<Integer>();
+        
+        for (int packageId : packageIds) {
+            set.add(packageId);
+        }
+        
+        return set;
+    }
+    
+    /**
+     * Create a random graph whose package names are made of a few common parts, such that many names share 
+     * prefixes.
+     * 
+     * @param random The random number generator.
+     * @return The random graph.
+     */
+    private PackageDependenciesDirectedGraph createRandomGraph(Random random) {
+        PackageDependenciesDirectedGraph graph = new PackageDependenciesDirectedGraph();
+        
+        for (int i = 0; i < 2000; ++i) {
+            graph.addNewPackageDependency(new Package(createRandomName(random)), new Package(createRandomName(random)));
+        }
+        
+        return graph;
+    }
+    
+    private String createRandomName(Random random) {
+        StringBuilder name = new StringBuilder();
+        
+        for (int i = 1 + random.nextInt(4); i > 0; --i) {
+            name.append(NAME_PARTS[random.nextInt(NAME_PARTS.length)]);
+        }
+        
+        return name.toString();
+    }
+    
+}
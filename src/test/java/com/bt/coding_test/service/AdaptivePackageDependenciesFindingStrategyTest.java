@@ -0,0 +1,183 @@
+package com.bt.coding_test.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.bt.coding_test.PackageDependenciesTestCancellation;
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+import com.bt.coding_test.model.PackageDependenciesQueryLimit;
+import com.bt.coding_test.model.PackageDependenciesQueryOptions;
+import com.bt.coding_test.model.PackageDependenciesQueryResult;
+
+public class AdaptivePackageDependenciesFindingStrategyTest {
+
+    private static final int NR_OF_RANDOM_PACKAGES      = 150;
+    private static final int NR_OF_RANDOM_DEPENDENCIES  = 1500;
+    
+    @Test
+    public void testDenseGraphUsesClosureMatrix() {
+        PackageDependenciesDirectedGraph            graph       = createRandomGraph(new Random(39));
+        AdaptivePackageDependenciesFindingStrategy  strategy    = new AdaptivePackageDependenciesFindingStrategy();
+        DFSPackageDependenciesFindingStrategy       dfs         = new DFSPackageDependenciesFindingStrategy();
+        
+        assertTrue(strategy.usesClosureMatrix(graph.getIndex()));
+        
+        for (int i = 0; i < NR_OF_RANDOM_PACKAGES; ++i) {
+            Package sourcePackage = new Package("package" + i);
+            
+            assertEquals(dfs.find(sourcePackage, graph), strategy.find(sourcePackage, graph));
+        }
+        
+        assertTrue(strategy.find(new Package("unknown"), graph).isEmpty());
+    }
+    
+    @Test
+    public void testAlternatingGraphs() {
+        PackageDependenciesDirectedGraph            oldGraph    = createRandomGraph(new Random(41));
+        PackageDependenciesDirectedGraph            newGraph    = createRandomGraph(new Random(42));
+        AdaptivePackageDependenciesFindingStrategy  strategy    = new AdaptivePackageDependenciesFindingStrategy();
+        DFSPackageDependenciesFindingStrategy       dfs         = new DFSPackageDependenciesFindingStrategy();
+        
+        // Each graph is answered from its own bit matrix, which is kept while the other graph is queried
+        for (int i = 0; i < NR_OF_RANDOM_PACKAGES; ++i) {
+            Package sourcePackage = new Package("package" + i);
+            
+            assertEquals(dfs.find(sourcePackage, oldGraph), strategy.find(sourcePackage, oldGraph));
+            assertEquals(dfs.find(sourcePackage, newGraph), strategy.find(sourcePackage, newGraph));
+        }
+        
+        assertTrue(strategy.usesClosureMatrix(oldGraph.getIndex()));
+        assertTrue(strategy.usesClosureMatrix(newGraph.getIndex()));
+    }
+    
+    @Test
+    public void testFallbackAboveMemoryBudget() {
+        PackageDependenciesDirectedGraph            graph       = createRandomGraph(new Random(40));
+        AdaptivePackageDependenciesFindingStrategy  strategy    = new AdaptivePackageDependenciesFindingStrategy(64, 8);
+        DFSPackageDependenciesFindingStrategy       dfs         = new DFSPackageDependenciesFindingStrategy();
+        
+        assertFalse(strategy.usesClosureMatrix(graph.getIndex()));
+        assertEquals(dfs.find(new Package("package0"), graph), strategy.find(new Package("package0"), graph));
+    }
+    
+    @Test
+    public void testSparseGraphUsesDepthFirstSearch() {
+        PackageDependenciesDirectedGraph graph = new PackageDependenciesDirectedGraph();
+        
+        graph.addNewPackageDependency(new Package("gui"), new Package("swingui"));
+        graph.addNewPackageDependency(new Package("swingui"), new Package("runner"));
+        
+        AdaptivePackageDependenciesFindingStrategy strategy = new AdaptivePackageDependenciesFindingStrategy();
+        
+        assertFalse(strategy.usesClosureMatrix(graph.getIndex()));
+        assertEquals(2, strategy.find(new Package("gui"), graph).size());
+    }
+    
+    @Test
+    public void testCancelledFirstQueryReturnsNearestDependencies() {
+        PackageDependenciesDirectedGraph            graph       = new PackageDependenciesDirectedGraph();
+        List<Runnable>                              tasks       = new ArrayList<Runnable>();
+        AdaptivePackageDependenciesFindingStrategy  strategy    = new AdaptivePackageDependenciesFindingStrategy(
+            AdaptivePackageDependenciesFindingStrategy.DEFAULT_MEMORY_BUDGET, 
+            AdaptivePackageDependenciesFindingStrategy.DEFAULT_MIN_AVERAGE_NR_OF_DEPENDENCIES, 
+            tasks::add
+        );
+        PackageDependenciesQueryOptions             options     = new PackageDependenciesQueryOptions();
+        Random                                      random      = new Random(43);
+        
+        // The dependencies point to packages with larger numbers, such that the bit matrix computation merges 
+        // the rows of thousands of components
+        for (int i = 0; i < 1999; ++i) {
+            for (int j = 0; j < 16; ++j) {
+                graph.addNewPackageDependency(new Package("package" + i), 
+                                              new Package("package" + (i + 1 + random.nextInt(1999 - i))));
+            }
+        }
+        
+        // The token is checked once before the search, then once every few thousand dependencies
+        options.setCancellation(new PackageDependenciesTestCancellation(1));
+        
+        PackageDependenciesQueryResult result = strategy.query(new Package("package0"), graph, options);
+        
+        assertEquals(PackageDependenciesQueryLimit.CANCELLED, result.getTruncation());
+        
+        // The query does not wait for the bit matrix, and finds the direct dependencies before it is cancelled
+        options = new PackageDependenciesQueryOptions();
+        
+        options.setMaxDepth(1);
+        
+        for (Package packageDependency : strategy.query(new Package("package0"), graph, options).getPackages()) {
+            assertEquals(1, result.getDepth(packageDependency));
+        }
+        
+        // The bit matrix computed in the background answers the next queries
+        assertEquals(1, tasks.size());
+        
+        tasks.get(0).run();
+        
+        assertTrue(strategy.usesClosureMatrix(graph.getIndex()));
+        
+        result = strategy.query(new Package("package0"), graph, new PackageDependenciesQueryOptions());
+        
+        assertFalse(result.isTruncated());
+        assertEquals(new DFSPackageDependenciesFindingStrategy().find(new Package("package0"), graph), result.getPackages());
+    }
+    
+    @Test
+    public void testBudgetsOnClosureMatrix() {
+        PackageDependenciesDirectedGraph            graph       = createRandomGraph(new Random(44));
+        AdaptivePackageDependenciesFindingStrategy  strategy    = new AdaptivePackageDependenciesFindingStrategy();
+        PackageDependenciesQueryOptions             options     = new PackageDependenciesQueryOptions();
+        
+        assertTrue(strategy.usesClosureMatrix(graph.getIndex()));
+        
+        // Reading the row of the source package visits the source package only
+        options.setMaxVisitedPackages(0);
+        
+        PackageDependenciesQueryResult result = strategy.query(new Package("package0"), graph, options);
+        
+        assertEquals(PackageDependenciesQueryLimit.MAX_VISITED_PACKAGES, result.getTruncation());
+        assertEquals(0, result.getNrOfPackages());
+        
+        options.setMaxVisitedPackages(1);
+        options.setMaxResultSize(5);
+        
+        result = strategy.query(new Package("package0"), graph, options);
+        
+        assertEquals(PackageDependenciesQueryLimit.MAX_RESULT_SIZE, result.getTruncation());
+        assertEquals(5, result.getNrOfPackages());
+    }
+    
+    /**
+     * Create a random dense graph, whose dependencies mostly point to packages with larger numbers such that 
+     * the graph contains both cycles and long chains.
+     * 
+     * @param random The random number generator.
+     * @return The random graph.
+     */
+    private PackageDependenciesDirectedGraph createRandomGraph(Random random) {
+        PackageDependenciesDirectedGraph graph = new PackageDependenciesDirectedGraph();
+        
+        for (int i = 0; i < NR_OF_RANDOM_DEPENDENCIES; ++i) {
+            int sourcePackage       = random.nextInt(NR_OF_RANDOM_PACKAGES);
+            int packageDependency   = (random.nextInt(20) == 0) ? random.nextInt(NR_OF_RANDOM_PACKAGES) : 
+                                      sourcePackage + 1 + random.nextInt(NR_OF_RANDOM_PACKAGES - sourcePackage);
+                                      
+            if ((packageDependency != sourcePackage) && (packageDependency < NR_OF_RANDOM_PACKAGES)) {
+                graph.addNewPackageDependency(new Package("package" + sourcePackage), 
+                                              new Package("package" + packageDependency));
+            }
+        }
+        
+        return graph;
+    }
+    
+}
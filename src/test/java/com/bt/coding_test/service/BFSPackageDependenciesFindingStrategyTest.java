@@ -0,0 +1,182 @@
+package com.bt.coding_test.service;
+
+import static com.bt.coding_test.PackageDependenciesTestGraphs.addPackageDependencies;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+import com.bt.coding_test.model.PackageDependenciesQueryCancellation;
+import com.bt.coding_test.model.PackageDependenciesQueryLimit;
+import com.bt.coding_test.model.PackageDependenciesQueryOptions;
+import com.bt.coding_test.model.PackageDependenciesQueryResult;
+
+public class BFSPackageDependenciesFindingStrategyTest {
+
+    private final static Package SRC_PACKAGE = new Package("gui");
+    
+    private PackageDependenciesDirectedGraph        graph;
+    private BFSPackageDependenciesFindingStrategy   strategy;
+    
+    
+    @Before
+    public void setUp() {
+        graph       = new PackageDependenciesDirectedGraph();
+        strategy    = new BFSPackageDependenciesFindingStrategy();
+        
+        addPackageDependencies(graph, "gui", "awtui", "swingui");
+        addPackageDependencies(graph, "swingui", "runner", "extensions");
+        addPackageDependencies(graph, "textui", "runner", "framework");
+        addPackageDependencies(graph, "awtui", "runner");
+        addPackageDependencies(graph, "runner", "framework");
+        addPackageDependencies(graph, "extensions", "framework");
+    }
+    
+    @Test
+    public void testDepths() {
+        PackageDependenciesQueryResult result = strategy.query(SRC_PACKAGE, graph, new PackageDependenciesQueryOptions());
+        
+        assertEquals(5, result.getNrOfPackages());
+        assertEquals(1, result.getDepth(new Package("awtui")));
+        assertEquals(1, result.getDepth(new Package("swingui")));
+        assertEquals(2, result.getDepth(new Package("runner")));
+        assertEquals(3, result.getDepth(new Package("framework")));
+        assertEquals(-1, result.getDepth(new Package("textui")));
+    }
+    
+    @Test
+    public void testMaxDepth() {
+        PackageDependenciesQueryOptions options = new PackageDependenciesQueryOptions();
+        
+        options.setMaxDepth(2);
+        
+        assertEquals(
+            createPackageNames("awtui", "extensions", "runner", "swingui"), 
+            getPackageNames(strategy.query(SRC_PACKAGE, graph, options))
+        );
+    }
+    
+    @Test
+    public void testNamePatternsPruneTraversal() {
+        PackageDependenciesQueryOptions options = new PackageDependenciesQueryOptions();
+        
+        options.addExcludePattern("swing*");
+        
+        // The dependencies of swingui are only reachable through swingui
+        assertEquals(
+            createPackageNames("awtui", "framework", "runner"), 
+            getPackageNames(strategy.query(SRC_PACKAGE, graph, options))
+        );
+        
+        options = new PackageDependenciesQueryOptions();
+        
+        options.addIncludePattern("*ui");
+        
+        assertEquals(
+            createPackageNames("awtui", "swingui"), 
+            getPackageNames(strategy.query(SRC_PACKAGE, graph, options))
+        );
+    }
+    
+    @Test
+    public void testStopAtPackages() {
+        PackageDependenciesQueryOptions options = new PackageDependenciesQueryOptions();
+        
+        options.addStopAtPackage(new Package("runner"));
+        options.addStopAtPackage(new Package("extensions"));
+        
+        PackageDependenciesQueryResult result = strategy.query(SRC_PACKAGE, graph, options);
+        
+        assertEquals(createPackageNames("awtui", "extensions", "runner", "swingui"), getPackageNames(result));
+    }
+    
+    @Test
+    public void testBudgetsTruncateResult() {
+        PackageDependenciesQueryOptions options = new PackageDependenciesQueryOptions();
+        
+        options.setMaxResultSize(3);
+        
+        // The packages found before the budget is reached are the nearest ones
+        PackageDependenciesQueryResult result = strategy.query(SRC_PACKAGE, graph, options);
+        
+        assertEquals(PackageDependenciesQueryLimit.MAX_RESULT_SIZE, result.getTruncation());
+        assertEquals(createPackageNames("awtui", "runner", "swingui"), getPackageNames(result));
+        
+        options.setMaxResultSize(5);
+        
+        assertFalse(strategy.query(SRC_PACKAGE, graph, options).isTruncated());
+        
+        options = new PackageDependenciesQueryOptions();
+        
+        options.setMaxVisitedPackages(2);
+        
+        result = strategy.query(SRC_PACKAGE, graph, options);
+        
+        assertEquals(PackageDependenciesQueryLimit.MAX_VISITED_PACKAGES, result.getTruncation());
+        assertEquals(createPackageNames("awtui", "runner", "swingui"), getPackageNames(result));
+    }
+    
+    @Test
+    public void testDeadlineAndCancellation() {
+        PackageDependenciesQueryOptions         options         = new PackageDependenciesQueryOptions();
+        PackageDependenciesQueryCancellation    cancellation    = new PackageDependenciesQueryCancellation();
+        
+        options.setTimeout(0, TimeUnit.MILLISECONDS);
+        
+        assertEquals(PackageDependenciesQueryLimit.DEADLINE, strategy.query(SRC_PACKAGE, graph, options).getTruncation());
+        
+        options = new PackageDependenciesQueryOptions();
+        
+        options.setTimeout(1, TimeUnit.HOURS);
+        options.setCancellation(cancellation);
+        
+        assertFalse(strategy.query(SRC_PACKAGE, graph, options).isTruncated());
+        
+        cancellation.cancel();
+        
+        PackageDependenciesQueryResult result = strategy.query(SRC_PACKAGE, graph, options);
+        
+        assertEquals(PackageDependenciesQueryLimit.CANCELLED, result.getTruncation());
+        assertEquals(0, result.getNrOfPackages());
+    }
+    
+    @Test
+    public void testSameDependenciesAsDFS() {
+        Random                              random      = new Random(32);
+        PackageDependenciesFindingStrategy  dfsStrategy = new DFSPackageDependenciesFindingStrategy();
+        
+        for (int i = 0; i < 200; ++i) {
+            addPackageDependencies(graph, "p" + random.nextInt(50), "p" + (50 + random.nextInt(50)));
+            addPackageDependencies(graph, "p" + (50 + random.nextInt(50)), "p" + random.nextInt(50));
+        }
+        
+        for (int i = 0; i < 100; ++i) {
+            Package sourcePackage = new Package("p" + i);
+            
+            assertEquals(dfsStrategy.find(sourcePackage, graph), strategy.find(sourcePackage, graph));
+        }
+    }
+    
+    private HashSet<String> createPackageNames(String... packageNames) {
+        return new HashSet<String>(Arrays.asList(packageNames));
+    }
+    
+    private HashSet<String> getPackageNames(PackageDependenciesQueryResult result) {
+        HashSet<String> packageNames = new HashSet<String>();
+        
+        for (Package packageFound : result.getPackages()) {
+            packageNames.add(packageFound.getName());
+        }
+        
+        return packageNames;
+    }
+    
+}
@@ -1,5 +1,7 @@
 package com.bt.coding_test.service;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Arrays;
@@ -9,8 +11,14 @@ import java.util.Set;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.bt.coding_test.PackageDependenciesTestCancellation;
 import com.bt.coding_test.model.Package;
 import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+import com.bt.coding_test.model.PackageDependenciesGraphIndex;
+import com.bt.coding_test.model.PackageDependenciesQueryLimit;
+import com.bt.coding_test.model.PackageDependenciesQueryOptions;
+import com.bt.coding_test.model.PackageDependenciesQueryResult;
+import com.bt.coding_test.model.PackageIdSet;
 import com.bt.coding_test.service.DFSPackageDependenciesFindingStrategy;
 import com.bt.coding_test.service.PackageDependenciesFindingStrategy;
 
@@ -202,6 +210,98 @@ public class DFSPackageDependenciesFindingStrategyTest {
         assertTrue(srcPackageDependencies.size() == 1);
     }
     
+    @Test
+    public void testPackageIdsOfCircularTransitiveDependencies() {
+        Package[] consideredPackages = {
+            SRC_PACKAGE,
+            new Package("awtui"), 
+            new Package("qtui"), 
+            new Package("swingui")
+        };
+        
+        // Add package dependencies
+        for (int i = 0; i < consideredPackages.length; ++i) {
+            packageDependencies.addNewPackageDependency(
+                consideredPackages[i], 
+                consideredPackages[(i + 1) % consideredPackages.length]
+            );
+        }
+        
+        // Check package dependencies IDs
+        PackageDependenciesGraphIndex index         = packageDependencies.getIndex();
+        PackageIdSet                  packageIds    = packageDependenciesFinder.findPackageIds(SRC_PACKAGE, packageDependencies);
+        
+        assertEquals(consideredPackages.length - 1, packageIds.getCardinality());
+        
+        for (int i = 1; i < consideredPackages.length; ++i) {
+            assertTrue(packageIds.contains(index.getPackageId(consideredPackages[i])));
+        }
+    }
+    
+    @Test
+    public void testCancellationDuringTraversalOfLongChain() {
+        PackageDependenciesQueryOptions options = new PackageDependenciesQueryOptions();
+        
+        for (int i = 0; i < 100000; ++i) {
+            packageDependencies.addNewPackageDependency(new Package("p" + i), new Package("p" + (i + 1)));
+        }
+        
+        // The token is checked once before the traversal, then once every few thousand dependencies
+        options.setCancellation(new PackageDependenciesTestCancellation(5));
+        
+        PackageDependenciesQueryResult result = packageDependenciesFinder.query(new Package("p0"), packageDependencies, options);
+        
+        assertEquals(PackageDependenciesQueryLimit.CANCELLED, result.getTruncation());
+        assertTrue(result.getNrOfPackages() > 0);
+        assertTrue(result.getNrOfPackages() < 100000);
+        assertFalse(result.hasDepths());
+    }
+    
+    @Test
+    public void testBudgets() {
+        PackageDependenciesQueryOptions options = new PackageDependenciesQueryOptions();
+        
+        for (int i = 1; i < 5; ++i) {
+            packageDependencies.addNewPackageDependency(new Package("p" + (i - 1)), new Package("p" + i));
+        }
+        
+        options.setMaxVisitedPackages(2);
+        
+        PackageDependenciesQueryResult result = packageDependenciesFinder.query(new Package("p0"), packageDependencies, options);
+        
+        assertEquals(PackageDependenciesQueryLimit.MAX_VISITED_PACKAGES, result.getTruncation());
+        assertEquals(2, result.getNrOfPackages());
+        
+        options = new PackageDependenciesQueryOptions();
+        
+        options.setMaxResultSize(3);
+        
+        result = packageDependenciesFinder.query(new Package("p0"), packageDependencies, options);
+        
+        assertEquals(PackageDependenciesQueryLimit.MAX_RESULT_SIZE, result.getTruncation());
+        assertEquals(3, result.getNrOfPackages());
+        
+        options.setMaxResultSize(4);
+        
+        assertFalse(packageDependenciesFinder.query(new Package("p0"), packageDependencies, options).isTruncated());
+    }
+    
+    @Test
+    public void testRestrictedQueryUsesBreadthFirstSearch() {
+        PackageDependenciesQueryOptions options = new PackageDependenciesQueryOptions();
+        
+        for (int i = 1; i < 5; ++i) {
+            packageDependencies.addNewPackageDependency(new Package("p" + (i - 1)), new Package("p" + i));
+        }
+        
+        options.setMaxDepth(2);
+        
+        PackageDependenciesQueryResult result = packageDependenciesFinder.query(new Package("p0"), packageDependencies, options);
+        
+        assertEquals(2, result.getNrOfPackages());
+        assertEquals(2, result.getDepth(new Package("p2")));
+    }
+    
     /**
      * Get the dependencies for a given package.
      * 
@@ -0,0 +1,86 @@
+package com.bt.coding_test.service;
+
+import static com.bt.coding_test.PackageDependenciesTestGraphs.addPackageDependencies;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+import com.bt.coding_test.model.PackageDependenciesGraphIndex;
+
+public class PackageDependenciesClosureCostAggregatorTest {
+
+    private static final int NR_OF_RANDOM_PACKAGES      = 300;
+    private static final int NR_OF_RANDOM_DEPENDENCIES  = 900;
+    
+    @Test
+    public void testSharedDependenciesCountedOnce() {
+        PackageDependenciesDirectedGraph graph = new PackageDependenciesDirectedGraph();
+        
+        addPackageDependencies(graph, "gui", "awtui", "swingui");
+        addPackageDependencies(graph, "swingui", "runner");
+        addPackageDependencies(graph, "awtui", "runner");
+        addPackageDependencies(graph, "runner", "framework");
+        
+        graph.setPackageWeight(new Package("gui"), 1);
+        graph.setPackageWeight(new Package("awtui"), 10);
+        graph.setPackageWeight(new Package("swingui"), 100);
+        graph.setPackageWeight(new Package("runner"), 1000);
+        graph.setPackageWeight(new Package("framework"), 10000);
+        graph.setPackageWeight(new Package("isolated"), 7);
+        
+        PackageDependenciesGraphIndex   index = graph.getIndex();
+        long[]                          costs = new PackageDependenciesClosureCostAggregator().aggregate(graph);
+        
+        assertEquals(11111, costs[index.getPackageId(new Package("gui"))]);
+        assertEquals(11010, costs[index.getPackageId(new Package("awtui"))]);
+        assertEquals(10000, costs[index.getPackageId(new Package("framework"))]);
+        assertEquals(7, costs[index.getPackageId(new Package("isolated"))]);
+    }
+    
+    @Test
+    public void testRandomGraphsMatchDepthFirstSearch() {
+        Random random = new Random(41);
+        
+        for (int k = 0; k < 5; ++k) {
+            PackageDependenciesDirectedGraph graph = new PackageDependenciesDirectedGraph();
+            
+            for (int i = 0; i < NR_OF_RANDOM_DEPENDENCIES; ++i) {
+                int sourcePackage       = random.nextInt(NR_OF_RANDOM_PACKAGES);
+                int packageDependency   = random.nextInt(NR_OF_RANDOM_PACKAGES);
+                
+                // Mostly acyclic dependencies, with a few cycles
+                if ((sourcePackage < packageDependency) || (random.nextInt(30) == 0)) {
+                    graph.addNewPackageDependency(new Package("package" + sourcePackage), 
+                                                  new Package("package" + packageDependency));
+                }
+            }
+            
+            for (int i = 0; i < NR_OF_RANDOM_PACKAGES; i += 2) {
+                graph.setPackageWeight(new Package("package" + i), random.nextInt(1000));
+            }
+            
+            PackageDependenciesGraphIndex           index   = graph.getIndex();
+            long[]                                  costs   = new PackageDependenciesClosureCostAggregator().aggregate(graph);
+            DFSPackageDependenciesFindingStrategy   dfs     = new DFSPackageDependenciesFindingStrategy();
+            
+            for (int i = 0; i < index.getNrOfPackages(); ++i) {
+                Package sourcePackage   = index.getPackage(i);
+                long    expectedCost    = graph.getPackageWeight(sourcePackage);
+                
+                for (Package dependency : dfs.find(sourcePackage, graph)) {
+                    // The source package is only part of its closure once, even if it depends on itself transitively
+                    if (!dependency.equals(sourcePackage)) {
+                        expectedCost += graph.getPackageWeight(dependency);
+                    }
+                }
+                
+                assertEquals(sourcePackage.getName(), expectedCost, costs[i]);
+            }
+        }
+    }
+    
+}
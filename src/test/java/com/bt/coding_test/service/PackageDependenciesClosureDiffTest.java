@@ -0,0 +1,101 @@
+package com.bt.coding_test.service;
+
+import static com.bt.coding_test.PackageDependenciesTestGraphs.addPackageDependencies;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+
+public class PackageDependenciesClosureDiffTest {
+
+    private PackageDependenciesDirectedGraph oldGraph;
+    private PackageDependenciesDirectedGraph newGraph;
+    
+    @Before
+    public void setUp() {
+        oldGraph = new PackageDependenciesDirectedGraph();
+        newGraph = new PackageDependenciesDirectedGraph();
+        
+        for (PackageDependenciesDirectedGraph graph : Arrays.asList(oldGraph, newGraph)) {
+            addPackageDependencies(graph, "gui", "awtui", "swingui");
+            addPackageDependencies(graph, "swingui", "runner", "extensions");
+            addPackageDependencies(graph, "textui", "runner", "framework");
+            addPackageDependencies(graph, "awtui", "runner");
+            addPackageDependencies(graph, "extensions", "framework");
+        }
+        
+        addPackageDependencies(oldGraph, "runner", "framework");
+        addPackageDependencies(newGraph, "runner", "junit");
+    }
+    
+    @Test
+    public void testIdenticalGraphs() {
+        assertTrue(new PackageDependenciesClosureDiff().diff(oldGraph, oldGraph).isEmpty());
+    }
+    
+    @Test
+    public void testChangedDependencies() {
+        List<PackageDependenciesClosureChange> changes = new PackageDependenciesClosureDiff().diff(oldGraph, newGraph);
+        
+        // gui and swingui still depend on framework through extensions
+        assertEquals(
+            Arrays.asList("awtui", "gui", "runner", "swingui", "textui"), 
+            getChangedPackageNames(changes)
+        );
+        assertEquals(Arrays.asList(new Package("junit")), changes.get(1).getAddedDependencies());
+        assertTrue(changes.get(1).getRemovedDependencies().isEmpty());
+        assertEquals(Arrays.asList(new Package("framework")), changes.get(2).getRemovedDependencies());
+        assertTrue(changes.get(4).getRemovedDependencies().isEmpty());
+    }
+    
+    @Test
+    public void testRandomChangesAgainstFullComparison() {
+        Random random = new Random(35);
+        
+        for (int i = 0; i < 300; ++i) {
+            String source       = "p" + random.nextInt(80);
+            String dependency   = "p" + random.nextInt(80);
+            
+            if (!source.equals(dependency)) {
+                addPackageDependencies(random.nextInt(10) > 0 ? oldGraph : newGraph, source, dependency);
+                addPackageDependencies(random.nextInt(10) > 0 ? newGraph : oldGraph, source, dependency);
+            }
+        }
+        
+        List<String>                        expectedChanges = new ArrayList<String>();
+        PackageDependenciesFindingStrategy  strategy        = new DFSPackageDependenciesFindingStrategy();
+        Set<Package>                        allPackages     = new TreeSet<Package>(oldGraph.getSourcePackages());
+        
+        allPackages.addAll(newGraph.getSourcePackages());
+        
+        for (Package sourcePackage : allPackages) {
+            if (!strategy.find(sourcePackage, oldGraph).equals(strategy.find(sourcePackage, newGraph))) {
+                expectedChanges.add(sourcePackage.getName());
+            }
+        }
+        
+        assertEquals(expectedChanges, getChangedPackageNames(new PackageDependenciesClosureDiff().diff(oldGraph, newGraph)));
+    }
+    
+    private List<String> getChangedPackageNames(List<PackageDependenciesClosureChange> changes) {
+        List<String> packageNames = new ArrayList<String>();
+        
+        for (PackageDependenciesClosureChange change : changes) {
+            packageNames.add(change.getPackage().getName());
+        }
+        
+        return packageNames;
+    }
+    
+}
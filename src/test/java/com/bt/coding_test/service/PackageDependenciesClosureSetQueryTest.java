@@ -0,0 +1,125 @@
+package com.bt.coding_test.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+
+public class PackageDependenciesClosureSetQueryTest {
+
+    private static final int NR_OF_RANDOM_PACKAGES      = 300;
+    private static final int NR_OF_RANDOM_DEPENDENCIES  = 600;
+    
+    private PackageDependenciesClosureSetQuery query    = new PackageDependenciesClosureSetQuery();
+    private DFSPackageDependenciesFindingStrategy dfs   = new DFSPackageDependenciesFindingStrategy();
+    
+    @Test
+    public void testSetOperations() {
+        PackageDependenciesDirectedGraph graph = new PackageDependenciesDirectedGraph();
+        
+        graph.addNewPackageDependency(new Package("gui"), new Package("swingui"));
+        graph.addNewPackageDependency(new Package("gui"), new Package("runner"));
+        graph.addNewPackageDependency(new Package("swingui"), new Package("awtui"));
+        graph.addNewPackageDependency(new Package("textui"), new Package("runner"));
+        graph.addNewPackageDependency(new Package("runner"), new Package("framework"));
+        
+        List<Package> operands = Arrays.asList(new Package("gui"), new Package("textui"));
+        
+        assertEquals(toPackages("awtui", "framework", "runner", "swingui"), 
+                     evaluate(PackageDependenciesSetOperation.UNION, operands, graph));
+        assertEquals(toPackages("framework", "runner"), 
+                     evaluate(PackageDependenciesSetOperation.INTERSECTION, operands, graph));
+        assertEquals(toPackages("awtui", "swingui"), 
+                     evaluate(PackageDependenciesSetOperation.DIFFERENCE, operands, graph));
+        assertTrue(evaluate(PackageDependenciesSetOperation.INTERSECTION, 
+                            Arrays.asList(new Package("gui"), new Package("unknown")), graph).isEmpty());
+    }
+    
+    @Test
+    public void testOperandsNotPartOfOwnClosures() {
+        PackageDependenciesDirectedGraph graph = new PackageDependenciesDirectedGraph();
+        
+        graph.addNewPackageDependency(new Package("gui"), new Package("runner"));
+        graph.addNewPackageDependency(new Package("runner"), new Package("gui"));
+        graph.addNewPackageDependency(new Package("textui"), new Package("runner"));
+        
+        List<Package> operands = Arrays.asList(new Package("gui"), new Package("runner"));
+        
+        assertEquals(toPackages("gui", "runner"), evaluate(PackageDependenciesSetOperation.UNION, operands, graph));
+        assertTrue(evaluate(PackageDependenciesSetOperation.INTERSECTION, operands, graph).isEmpty());
+        assertEquals(toPackages("runner"), 
+                     evaluate(PackageDependenciesSetOperation.DIFFERENCE, Arrays.asList(new Package("gui")), graph));
+    }
+    
+    @Test
+    public void testRandomGraphsMatchDepthFirstSearch() {
+        Random random = new Random(44);
+        
+        for (int k = 0; k < 5; ++k) {
+            PackageDependenciesDirectedGraph graph = new PackageDependenciesDirectedGraph();
+            
+            for (int i = 0; i < NR_OF_RANDOM_DEPENDENCIES; ++i) {
+                int sourcePackage       = random.nextInt(NR_OF_RANDOM_PACKAGES);
+                int packageDependency   = random.nextInt(NR_OF_RANDOM_PACKAGES);
+                
+                // Mostly acyclic dependencies, with a few cycles
+                if ((sourcePackage < packageDependency) || (random.nextInt(5) == 0)) {
+                    graph.addNewPackageDependency(new Package("package" + sourcePackage), 
+                                                  new Package("package" + packageDependency));
+                }
+            }
+            
+            // More operands than a single traversal labels
+            List<Package> operands = new ArrayList<Package>();
+            
+            for (int i = 0, nrOfOperands = 2 + random.nextInt(100); i < nrOfOperands; ++i) {
+                operands.add(new Package("package" + random.nextInt(NR_OF_RANDOM_PACKAGES)));
+            }
+            
+            Set<Package> union          = new TreeSet<Package>();
+            Set<Package> intersection   = new TreeSet<Package>(dfs.find(operands.get(0), graph));
+            Set<Package> difference     = new TreeSet<Package>(dfs.find(operands.get(0), graph));
+            
+            for (int i = 0; i < operands.size(); ++i) {
+                Set<Package> closure = dfs.find(operands.get(i), graph);
+                
+                union.addAll(closure);
+                intersection.retainAll(closure);
+                
+                if (i > 0) {
+                    difference.removeAll(closure);
+                }
+            }
+            
+            assertEquals(union, evaluate(PackageDependenciesSetOperation.UNION, operands, graph));
+            assertEquals(intersection, evaluate(PackageDependenciesSetOperation.INTERSECTION, operands, graph));
+            assertEquals(difference, evaluate(PackageDependenciesSetOperation.DIFFERENCE, operands, graph));
+        }
+    }
+    
+    private Set<Package> evaluate(PackageDependenciesSetOperation operation, List<Package> operands, 
+                                  PackageDependenciesDirectedGraph graph) {
+        return new TreeSet<Package>(query.evaluate(operation, operands, graph).toPackages(graph.getIndex()));
+    }
+    
+    private Set<Package> toPackages(String... packageNames) {
+        Set<Package> packages = new TreeSet<Package>();
+        
+        for (String packageName : packageNames) {
+            packages.add(new Package(packageName));
+        }
+        
+        return packages;
+    }
+    
+}
@@ -0,0 +1,68 @@
+package com.bt.coding_test.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+import com.bt.coding_test.model.PackageDependenciesGraphIndex;
+
+public class PackageDependenciesClosureSizeEstimatorTest {
+
+    private static final int    NR_OF_LAYERS            = 20;
+    private static final int    NR_OF_LAYER_PACKAGES    = 500;
+    private static final double MAX_RELATIVE_ERROR      = 0.15;
+    
+    @Test
+    public void testSmallGraphEstimatesAreExact() {
+        PackageDependenciesDirectedGraph graph = new PackageDependenciesDirectedGraph();
+        
+        graph.addNewPackageDependency(new Package("gui"), new Package("swingui"));
+        graph.addNewPackageDependency(new Package("swingui"), new Package("runner"));
+        graph.addNewPackageDependency(new Package("runner"), new Package("framework"));
+        graph.addNewPackageDependency(new Package("framework"), new Package("runner"));
+        
+        PackageDependenciesGraphIndex   index       = graph.getIndex();
+        long[]                          estimates   = new PackageDependenciesClosureSizeEstimator().estimate(graph);
+        
+        assertEquals(3, estimates[index.getPackageId(new Package("gui"))]);
+        assertEquals(2, estimates[index.getPackageId(new Package("swingui"))]);
+        assertEquals(1, estimates[index.getPackageId(new Package("runner"))]);
+        assertEquals(1, estimates[index.getPackageId(new Package("framework"))]);
+    }
+    
+    @Test
+    public void testEstimatesWithinErrorBound() {
+        PackageDependenciesDirectedGraph    graph   = new PackageDependenciesDirectedGraph();
+        Random                              random  = new Random(33);
+        
+        // Each package of a layer depends on random packages of the next layer
+        for (int i = 0; i + 1 < NR_OF_LAYERS; ++i) {
+            for (int j = 0; j < NR_OF_LAYER_PACKAGES; ++j) {
+                for (int k = 0; k < 3; ++k) {
+                    graph.addNewPackageDependency(
+                        new Package("p" + i + "_" + j), 
+                        new Package("p" + (i + 1) + "_" + random.nextInt(NR_OF_LAYER_PACKAGES))
+                    );
+                }
+            }
+        }
+        
+        PackageDependenciesGraphIndex       index       = graph.getIndex();
+        PackageDependenciesFindingStrategy  strategy    = new DFSPackageDependenciesFindingStrategy();
+        long[]                              estimates   = new PackageDependenciesClosureSizeEstimator().estimate(graph);
+        
+        for (int i = 0; i < NR_OF_LAYERS; i += 5) {
+            Package sourcePackage   = new Package("p" + i + "_0");
+            int     exactSize       = strategy.find(sourcePackage, graph).size();
+            long    estimatedSize   = estimates[index.getPackageId(sourcePackage)];
+            
+            assertTrue(Math.abs(estimatedSize - exactSize) <= MAX_RELATIVE_ERROR * exactSize + 1);
+        }
+    }
+    
+}
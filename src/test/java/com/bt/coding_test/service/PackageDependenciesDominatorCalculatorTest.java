@@ -0,0 +1,130 @@
+package com.bt.coding_test.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+import com.bt.coding_test.model.PackageDependenciesGraphIndex;
+
+public class PackageDependenciesDominatorCalculatorTest {
+
+    private static final int NR_OF_RANDOM_PACKAGES      = 60;
+    private static final int NR_OF_RANDOM_DEPENDENCIES  = 120;
+    
+    private PackageDependenciesDominatorCalculator calculator = new PackageDependenciesDominatorCalculator();
+    
+    @Test
+    public void testChokepoints() {
+        PackageDependenciesDirectedGraph graph = new PackageDependenciesDirectedGraph();
+        
+        // Every chain from "gui" to "framework" goes through "runner", but not through "swingui" or "awtui"
+        graph.addNewPackageDependency(new Package("gui"), new Package("swingui"));
+        graph.addNewPackageDependency(new Package("gui"), new Package("awtui"));
+        graph.addNewPackageDependency(new Package("swingui"), new Package("runner"));
+        graph.addNewPackageDependency(new Package("awtui"), new Package("runner"));
+        graph.addNewPackageDependency(new Package("runner"), new Package("framework"));
+        graph.addNewPackageDependency(new Package("textui"), new Package("runner"));
+        
+        PackageDependenciesGraphIndex       index   = graph.getIndex();
+        PackageDependenciesDominatorTree    tree    = calculator.compute(new Package("gui"), graph);
+        
+        assertEquals(5, tree.getNrOfReachablePackages());
+        assertEquals(-1, tree.getImmediateDominator(index.getPackageId(new Package("gui"))));
+        assertEquals(index.getPackageId(new Package("gui")), tree.getImmediateDominator(index.getPackageId(new Package("runner"))));
+        assertEquals(index.getPackageId(new Package("runner")), tree.getImmediateDominator(index.getPackageId(new Package("framework"))));
+        assertEquals(2, tree.getDominatedSetSize(index.getPackageId(new Package("runner"))));
+        assertEquals(5, tree.getDominatedSetSize(index.getPackageId(new Package("gui"))));
+        assertFalse(tree.isReachable(index.getPackageId(new Package("textui"))));
+        assertEquals(0, calculator.compute(new Package("unknown"), graph).getNrOfReachablePackages());
+    }
+    
+    @Test
+    public void testRandomGraphsMatchReachabilityDefinition() {
+        Random random = new Random(45);
+        
+        for (int k = 0; k < 20; ++k) {
+            PackageDependenciesDirectedGraph graph = new PackageDependenciesDirectedGraph();
+            
+            for (int i = 0; i < NR_OF_RANDOM_DEPENDENCIES; ++i) {
+                int sourcePackage       = random.nextInt(NR_OF_RANDOM_PACKAGES);
+                int packageDependency   = random.nextInt(NR_OF_RANDOM_PACKAGES);
+                
+                if (sourcePackage != packageDependency) {
+                    graph.addNewPackageDependency(new Package("package" + sourcePackage), 
+                                                  new Package("package" + packageDependency));
+                }
+            }
+            
+            PackageDependenciesGraphIndex       index       = graph.getIndex();
+            int                                 rootId      = random.nextInt(index.getNrOfPackages());
+            PackageDependenciesDominatorTree    tree        = calculator.compute(index.getPackage(rootId), graph);
+            BitSet                              reached     = findReachable(index, rootId, -1);
+            BitSet[]                            dominated   = new BitSet[index.getNrOfPackages()];
+            
+            assertEquals(reached.cardinality(), tree.getNrOfReachablePackages());
+            
+            // X dominates Y if Y is not reachable from the root once X is removed
+            for (int x = 0; x < index.getNrOfPackages(); ++x) {
+                dominated[x] = (BitSet) reached.clone();
+                
+                if ((x != rootId) && reached.get(x)) {
+                    dominated[x].andNot(findReachable(index, rootId, x));
+                } else if (!reached.get(x)) {
+                    dominated[x].clear();
+                }
+                
+                assertEquals(dominated[x].cardinality(), tree.getDominatedSetSize(x));
+            }
+            
+            // The immediate dominator is the strict dominator which dominates the fewest packages
+            for (int y = 0; y < index.getNrOfPackages(); ++y) {
+                int immediateDominator = -1;
+                
+                for (int x = 0; x < index.getNrOfPackages(); ++x) {
+                    if ((x != y) && dominated[x].get(y) && 
+                        ((immediateDominator < 0) || (dominated[x].cardinality() < dominated[immediateDominator].cardinality()))) {
+                        immediateDominator = x;
+                    }
+                }
+                
+                assertEquals(immediateDominator, tree.getImmediateDominator(y));
+            }
+        }
+    }
+    
+    /**
+     * Find the packages reachable from the root package without going through the removed package.
+     */
+    private BitSet findReachable(PackageDependenciesGraphIndex index, int rootId, int removedId) {
+        BitSet  reached             = new BitSet(index.getNrOfPackages());
+        int[]   packagesToVisit     = new int[index.getNrOfPackages()];
+        int     nrOfPackagesToVisit = 0;
+        
+        reached.set(rootId);
+        
+        packagesToVisit[nrOfPackagesToVisit++] = rootId;
+        
+        while (nrOfPackagesToVisit > 0) {
+            int packageId = packagesToVisit[--nrOfPackagesToVisit];
+            
+            for (int i = index.getDependenciesBegin(packageId); i < index.getDependenciesEnd(packageId); ++i) {
+                int packageDependencyId = index.getDependency(i);
+                
+                if ((packageDependencyId != removedId) && (!reached.get(packageDependencyId))) {
+                    reached.set(packageDependencyId);
+                    
+                    packagesToVisit[nrOfPackagesToVisit++] = packageDependencyId;
+                }
+            }
+        }
+        
+        return reached;
+    }
+    
+}
@@ -0,0 +1,172 @@
+package com.bt.coding_test.service;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.bt.coding_test.AllocationMeter;
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+import com.bt.coding_test.model.PackageDependenciesGraphIndex;
+
+/**
+ * Performance regression tests of queries on a large synthetic graph, run by "mvn verify".
+ */
+public class PackageDependenciesFindingStrategyPerformanceIT {
+
+    private static final int    NR_OF_PACKAGES                  = 200000;
+    private static final int    CLUSTER_SIZE                    = 2000;
+    private static final int    MAX_NR_OF_DEPENDENCIES          = 10;
+    private static final int    NR_OF_QUERIES                   = 2000;
+    private static final int    NR_OF_WARM_UP_RUNS              = 3;
+    private static final int    NR_OF_RUNS                      = 7;
+    
+    private static final double MAX_ALLOCATED_BYTES_PER_QUERY   = 65536;
+    private static final double MAX_QUERY_TIME_RATIO            = 8;    // Twice the ratio expected, since timings vary across machines
+    
+    private static PackageDependenciesDirectedGraph graph;
+    private static Package[]                        sourcePackages;
+    
+    /**
+     * Create a graph of clusters of packages, in which dependencies mostly point to packages of the same cluster 
+     * with larger numbers, and sometimes to the first cluster (e.g. a shared library), such that the closures are 
+     * bounded by about two clusters.
+     */
+    @BeforeClass
+    public static void createGraph() {
+        Random random = new Random(42);
+        
+        graph = new PackageDependenciesDirectedGraph();
+        
+        for (int i = 0; i < NR_OF_PACKAGES; ++i) {
+            int clusterEnd = (i / CLUSTER_SIZE + 1) * CLUSTER_SIZE;
+            
+            for (int j = random.nextInt(MAX_NR_OF_DEPENDENCIES); (j >= 0) && (i + 1 < clusterEnd); --j) {
+                int packageDependency = (random.nextInt(20) == 0) ? random.nextInt(CLUSTER_SIZE) 
+                                                                  : i + 1 + random.nextInt(clusterEnd - i - 1);
+                                                                  
+                if (packageDependency != i) {
+                    graph.addNewPackageDependency(new Package("package" + i), new Package("package" + packageDependency));
+                }
+            }
+        }
+        
+        sourcePackages = new Package[NR_OF_QUERIES];
+        
+        for (int i = 0; i < NR_OF_QUERIES; ++i) {
+            sourcePackages[i] = new Package("package" + random.nextInt(NR_OF_PACKAGES));
+        }
+        
+        graph.getIndex();
+    }
+    
+    @Test
+    public void testAllocatedBytesPerQuery() {
+        PackageDependenciesFindingStrategy strategy = new AdaptivePackageDependenciesFindingStrategy();
+        
+        runQueries(strategy);
+        
+        AllocationMeter meter = new AllocationMeter();
+        
+        meter.start();
+        
+        runQueries(strategy);
+        
+        double allocatedBytesPerQuery = (double) meter.stop() / NR_OF_QUERIES;
+        
+        assertTrue(String.format("Allocated bytes per query: %.1f", allocatedBytesPerQuery), 
+                   allocatedBytesPerQuery <= MAX_ALLOCATED_BYTES_PER_QUERY);
+    }
+    
+    /**
+     * Compare the time of the queries with the time of the baseline queries, using the median ratio of several runs 
+     * following warm-up runs, such that a single slow run (e.g. because of a garbage collection) does not fail the test.
+     */
+    @Test
+    public void testQueryTimeRatio() {
+        PackageDependenciesFindingStrategy strategy = new AdaptivePackageDependenciesFindingStrategy();
+        
+        double[] queryTimeRatios = new double[NR_OF_RUNS];
+        
+        for (int i = 0; i < NR_OF_WARM_UP_RUNS; ++i) {
+            runBaselineQueries();
+            runQueries(strategy);
+        }
+        
+        for (int i = 0; i < NR_OF_RUNS; ++i) {
+            long startNanos     = System.nanoTime();
+            
+            runBaselineQueries();
+            
+            long baselineNanos  = System.nanoTime() - startNanos;
+            
+            startNanos          = System.nanoTime();
+            
+            runQueries(strategy);
+            
+            queryTimeRatios[i]  = (double) (System.nanoTime() - startNanos) / baselineNanos;
+        }
+        
+        Arrays.sort(queryTimeRatios);
+        
+        double queryTimeRatio = queryTimeRatios[NR_OF_RUNS / 2];
+        
+        assertTrue(String.format("Query time ratio: %.2f", queryTimeRatio), queryTimeRatio <= MAX_QUERY_TIME_RATIO);
+    }
+    
+    private static long runQueries(PackageDependenciesFindingStrategy strategy) {
+        long nrOfDependencies = 0;
+        
+        for (Package sourcePackage : sourcePackages) {
+            nrOfDependencies += strategy.findPackageIds(sourcePackage, graph).getCardinality();
+        }
+        
+        return nrOfDependencies;
+    }
+    
+    /**
+     * Run the queries with a minimal depth first search over the graph index, reusing its visit marks and stack 
+     * across queries. This is the lower bound against which the strategy is compared.
+     * 
+     * @return The total number of dependencies found.
+     */
+    private static long runBaselineQueries() {
+        PackageDependenciesGraphIndex   index               = graph.getIndex();
+        int[]                           visitMarks          = new int[index.getNrOfPackages()];
+        int[]                           packagesToVisit     = new int[index.getNrOfPackages()];
+        long                            nrOfDependencies    = 0;
+        
+        for (int i = 0; i < sourcePackages.length; ++i) {
+            int nrOfPackagesToVisit = 0;
+            int sourcePackageId     = index.getPackageId(sourcePackages[i]);
+            
+            if (sourcePackageId < 0) {
+                continue;
+            }
+            
+            visitMarks[sourcePackageId]                 = i + 1;
+            packagesToVisit[nrOfPackagesToVisit++]      = sourcePackageId;
+            
+            while (nrOfPackagesToVisit > 0) {
+                int packageId = packagesToVisit[--nrOfPackagesToVisit];
+                
+                for (int j = index.getDependenciesBegin(packageId); j < index.getDependenciesEnd(packageId); ++j) {
+                    int packageDependencyId = index.getDependency(j);
+                    
+                    if (visitMarks[packageDependencyId] != i + 1) {
+                        visitMarks[packageDependencyId]         = i + 1;
+                        packagesToVisit[nrOfPackagesToVisit++]  = packageDependencyId;
+                        ++nrOfDependencies;
+                    }
+                }
+            }
+        }
+        
+        return nrOfDependencies;
+    }
+    
+}
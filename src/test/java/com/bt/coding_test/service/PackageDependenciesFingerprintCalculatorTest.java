@@ -0,0 +1,117 @@
+package com.bt.coding_test.service;
+
+import static com.bt.coding_test.PackageDependenciesTestGraphs.addPackageDependencies;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+
+public class PackageDependenciesFingerprintCalculatorTest {
+
+    private static final String[] PACKAGE_NAMES = { "awtui", "framework", "gui", "runner", "swingui", "textui" };
+    
+    private static final int NR_OF_RANDOM_PACKAGES      = 2000;
+    private static final int NR_OF_RANDOM_DEPENDENCIES  = 3000;
+    
+    private PackageDependenciesFingerprintCalculator calculator = new PackageDependenciesFingerprintCalculator();
+    
+    
+    @Test
+    public void testFingerprintsOnlyDependOnClosure() {
+        PackageDependenciesDirectedGraph graph = new PackageDependenciesDirectedGraph();
+        
+        addPackageDependencies(graph, "gui", "awtui", "swingui");
+        addPackageDependencies(graph, "swingui", "runner");
+        addPackageDependencies(graph, "textui", "runner");
+        addPackageDependencies(graph, "runner", "framework");
+        addPackageDependencies(graph, "framework", "runner");
+        
+        // The same graph, with the dependencies added in another order and an unrelated package
+        PackageDependenciesDirectedGraph otherGraph = new PackageDependenciesDirectedGraph();
+        
+        addPackageDependencies(otherGraph, "framework", "runner");
+        addPackageDependencies(otherGraph, "other", "framework");
+        addPackageDependencies(otherGraph, "runner", "framework");
+        addPackageDependencies(otherGraph, "textui", "runner");
+        addPackageDependencies(otherGraph, "swingui", "runner");
+        addPackageDependencies(otherGraph, "gui", "swingui", "awtui");
+        
+        PackageDependenciesFingerprints fingerprints        = calculator.compute(graph);
+        PackageDependenciesFingerprints otherFingerprints   = calculator.compute(otherGraph);
+        
+        for (String packageName : PACKAGE_NAMES) {
+            Package givenPackage = new Package(packageName);
+            
+            assertEquals(fingerprints.getFingerprint(givenPackage), otherFingerprints.getFingerprint(givenPackage));
+        }
+        
+        assertEquals(64, fingerprints.getFingerprint(new Package("gui")).length());
+        assertNotEquals(fingerprints.getFingerprint(new Package("runner")), fingerprints.getFingerprint(new Package("framework")));
+        assertNull(fingerprints.getFingerprint(new Package("other")));
+        
+        // A dependency added to the cycle changes the fingerprints of the packages depending on the cycle
+        addPackageDependencies(otherGraph, "runner", "extensions");
+        
+        otherFingerprints = calculator.compute(otherGraph);
+        
+        for (String packageName : PACKAGE_NAMES) {
+            Package givenPackage = new Package(packageName);
+            
+            if (packageName.equals("awtui")) {
+                assertEquals(fingerprints.getFingerprint(givenPackage), otherFingerprints.getFingerprint(givenPackage));
+            } else {
+                assertNotEquals(fingerprints.getFingerprint(givenPackage), otherFingerprints.getFingerprint(givenPackage));
+            }
+        }
+    }
+    
+    @Test
+    public void testIncrementalRecomputation() {
+        PackageDependenciesDirectedGraph    graph   = new PackageDependenciesDirectedGraph();
+        Random                              random  = new Random(49);
+        
+        for (int i = 0; i < NR_OF_RANDOM_DEPENDENCIES; ++i) {
+            graph.addNewPackageDependency(createRandomPackage(random), createRandomPackage(random));
+        }
+        
+        PackageDependenciesFingerprints fingerprints    = calculator.compute(graph);
+        List<Package>                   changedPackages = new ArrayList<Package>();
+        
+        // Change a few dependencies and weights, including new packages
+        for (int i = 0; i < 10; ++i) {
+            Package sourcePackage = createRandomPackage(random);
+            
+            graph.addNewPackageDependency(sourcePackage, new Package("new" + i));
+            graph.setPackageWeight(createRandomPackage(random), 1 + i);
+            
+            changedPackages.add(sourcePackage);
+        }
+        
+        changedPackages.addAll(graph.getWeightedPackages());
+        
+        PackageDependenciesFingerprints recomputedFingerprints  = calculator.recompute(fingerprints, graph, changedPackages);
+        PackageDependenciesFingerprints expectedFingerprints    = calculator.compute(graph);
+        int                             nrOfComponents          = graph.getIndex().getCondensation().getNrOfComponents();
+        
+        assertEquals(nrOfComponents, expectedFingerprints.getNrOfHashedComponents());
+        assertTrue(recomputedFingerprints.getNrOfHashedComponents() < nrOfComponents);
+        
+        for (int i = 0; i < graph.getIndex().getNrOfPackages(); ++i) {
+            assertEquals(expectedFingerprints.getFingerprint(i), recomputedFingerprints.getFingerprint(i));
+        }
+    }
+    
+    private Package createRandomPackage(Random random) {
+        return new Package("package" + random.nextInt(NR_OF_RANDOM_PACKAGES));
+    }
+    
+}
@@ -0,0 +1,159 @@
+package com.bt.coding_test.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.bt.coding_test.model.CyclePolicy;
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+
+public class PackageDependenciesGraphRegistryTest {
+
+    private static final int NR_OF_PACKAGES = 100;
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    @Test
+    public void testOffloadLeastRecentlyQueried() throws IOException {
+        PackageDependenciesGraphRegistry registry = createRegistry(1.5);
+        
+        registry.load("gui", writeDataFile("gui"), CyclePolicy.ALLOW);
+        registry.load("textui", writeDataFile("textui"), CyclePolicy.ALLOW);
+        
+        assertFalse(registry.isResident("gui"));
+        assertTrue(registry.isResident("textui"));
+        assertTrue(registry.getTotalRetainedBytes() <= registry.getMemoryBudget());
+        
+        PackageDependenciesDirectedGraph graph = registry.get("gui");
+        
+        assertTrue(registry.isResident("gui"));
+        assertFalse(registry.isResident("textui"));
+        assertEquals(1, registry.getNrOfReloads());
+        assertEquals(NR_OF_PACKAGES - 1, graph.getNrOfPackageDependencies());
+        assertEquals(7, graph.getPackageWeight(new Package("gui_package0")));
+        assertNull(registry.get("unknown"));
+    }
+    
+    @Test
+    public void testInspectionDoesNotChangeQueryOrder() throws IOException {
+        PackageDependenciesGraphRegistry registry = createRegistry(2.5);
+        
+        registry.load("gui", writeDataFile("gui"), CyclePolicy.ALLOW);
+        registry.load("textui", writeDataFile("textui"), CyclePolicy.ALLOW);
+        
+        // Inspecting "gui" does not make it more recently queried than "textui"
+        assertTrue(registry.isResident("gui"));
+        assertTrue(registry.getRetainedBytes("gui") > 0);
+        
+        registry.load("awtui", writeDataFile("awtui"), CyclePolicy.ALLOW);
+        
+        assertFalse(registry.isResident("gui"));
+        assertTrue(registry.isResident("textui"));
+        assertEquals(Arrays.asList("gui", "textui", "awtui"), registry.getNames());
+    }
+    
+    @Test
+    public void testCycleWarningsNotRepeatedOnReload() throws IOException {
+        PackageDependenciesGraphRegistry    registry    = createRegistry(1);
+        File                                dataFile    = folder.newFile();
+        PrintStream                         originalErr = System.err;
+        ByteArrayOutputStream               err         = new ByteArrayOutputStream();
+        
+        Files.write(dataFile.toPath(), "gui -> swingui\nswingui -> gui\n".getBytes(StandardCharsets.UTF_8));
+        
+        System.setErr(new PrintStream(err, true));
+        
+        try {
+            registry.load("cyclic", dataFile.getPath(), CyclePolicy.WARN);
+            registry.load("textui", writeDataFile("textui"), CyclePolicy.ALLOW);
+            
+            assertFalse(registry.isResident("cyclic"));
+            
+            int warningsLength = err.size();
+            
+            assertTrue(warningsLength > 0);
+            assertEquals(2, registry.get("cyclic").getNrOfPackageDependencies());
+            assertEquals(1, registry.getNrOfReloads());
+            assertEquals(warningsLength, err.size());
+        } finally {
+            System.setErr(originalErr);
+        }
+    }
+    
+    @Test
+    public void testSharedPackageNames() throws IOException {
+        PackageDependenciesGraphRegistry    registry    = createRegistry(10);
+        PackageDependenciesDirectedGraph    lhsGraph    = registry.load("lhs", writeDataFile("shared"), CyclePolicy.ALLOW);
+        PackageDependenciesDirectedGraph    rhsGraph    = registry.load("rhs", writeDataFile("shared"), CyclePolicy.ALLOW);
+        
+        assertTrue(registry.isResident("lhs"));
+        assertSame(lhsGraph.getIndex().getPackage(0), rhsGraph.getIndex().getPackage(0));
+        assertEquals(lhsGraph.estimateSizeInBytes(), registry.getRetainedBytes("lhs"));
+    }
+    
+    @Test
+    public void testChangedGraphOffloadedWithChanges() throws IOException {
+        PackageDependenciesGraphRegistry registry = createRegistry(1.5);
+        
+        registry.load("gui", writeDataFile("gui"), CyclePolicy.ALLOW);
+        registry.load("textui", writeDataFile("textui"), CyclePolicy.ALLOW);
+        
+        // Reloading "gui" offloads "textui" without changes, then "textui" is changed after it is reloaded
+        registry.get("gui");
+        registry.get("textui").addNewPackageDependency(new Package("textui_package0"), new Package("framework"));
+        registry.get("gui");
+        
+        assertEquals(NR_OF_PACKAGES, registry.get("textui").getNrOfPackageDependencies());
+        assertEquals(5, registry.getNrOfOffloads());
+        assertTrue(registry.remove("textui"));
+        assertEquals(1, registry.getNames().size());
+    }
+    
+    /**
+     * Create a registry whose memory budget is the given multiple of the size of a graph written by writeDataFile().
+     */
+    private PackageDependenciesGraphRegistry createRegistry(double nrOfGraphs) throws IOException {
+        PackageDependenciesGraphRegistry    sizingRegistry  = new PackageDependenciesGraphRegistry(Long.MAX_VALUE, 
+                                                                                                  folder.newFolder().getPath());
+        PackageDependenciesDirectedGraph    graph           = sizingRegistry.load("sizing", writeDataFile("sizing"), 
+                                                                                  CyclePolicy.ALLOW);
+                                                                                  
+        graph.getIndex();
+        
+        return new PackageDependenciesGraphRegistry((long) (nrOfGraphs * graph.estimateSizeInBytes()), 
+                                                    folder.newFolder().getPath());
+    }
+    
+    /**
+     * Write a data file containing a chain of packages whose names start with the given prefix.
+     */
+    private String writeDataFile(String prefix) throws IOException {
+        File            dataFile = folder.newFile();
+        StringBuilder   contents = new StringBuilder(prefix + "_package0:7 -> " + prefix + "_package1\n");
+        
+        for (int i = 1; i < NR_OF_PACKAGES - 1; ++i) {
+            contents.append(prefix + "_package" + i + " -> " + prefix + "_package" + (i + 1) + "\n");
+        }
+        
+        Files.write(dataFile.toPath(), contents.toString().getBytes(StandardCharsets.UTF_8));
+        
+        return dataFile.getPath();
+    }
+    
+}
@@ -0,0 +1,69 @@
+package com.bt.coding_test.service;
+
+import static com.bt.coding_test.PackageDependenciesTestGraphs.addPackageDependencies;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+
+public class PackageDependenciesStatisticsCalculatorTest {
+
+    private PackageDependenciesDirectedGraph graph;
+    
+    @Before
+    public void setUp() {
+        graph = new PackageDependenciesDirectedGraph();
+        
+        addPackageDependencies(graph, "gui", "awtui", "swingui");
+        addPackageDependencies(graph, "swingui", "runner", "extensions");
+        addPackageDependencies(graph, "textui", "runner", "framework");
+        addPackageDependencies(graph, "awtui", "runner");
+        addPackageDependencies(graph, "runner", "framework");
+        addPackageDependencies(graph, "extensions", "framework");
+    }
+    
+    @Test
+    public void testDegreeStatistics() {
+        PackageDependenciesStatistics statistics = new PackageDependenciesStatisticsCalculator(2).compute(graph);
+        
+        assertEquals(7, statistics.getNrOfPackages());
+        assertEquals(9, statistics.getNrOfDependencies());
+        assertEquals(2, statistics.getNrOfRootPackages());
+        assertEquals(1, statistics.getNrOfLeafPackages());
+        assertEquals(2, statistics.getMaxOutDegree());
+        assertEquals(3, statistics.getMaxInDegree());
+        
+        // Out-degrees: framework 0, awtui/extensions/runner 1, gui/swingui/textui 2
+        assertArrayEquals(new long[] {1, 3, 3}, Arrays.copyOf(statistics.getOutDegreeHistogram(), 3));
+        assertEquals(
+            Arrays.asList(new Package("framework"), new Package("runner")), 
+            statistics.getHubsByDependants()
+        );
+        assertEquals(
+            Arrays.asList(new Package("gui"), new Package("swingui")), 
+            statistics.getHubsByDependencies()
+        );
+    }
+    
+    @Test
+    public void testComponentStatistics() {
+        addPackageDependencies(graph, "framework", "extensions");
+        
+        PackageDependenciesStatistics statistics = new PackageDependenciesStatisticsCalculator().compute(graph);
+        
+        // extensions and framework form a cycle
+        assertEquals(6, statistics.getNrOfComponents());
+        assertEquals(1, statistics.getNrOfCyclicComponents());
+        assertEquals(2, statistics.getMaxComponentSize());
+        assertEquals(3, statistics.getLongestChain());
+        assertEquals(5, statistics.getMaxClosureSize());
+        assertEquals(new Package("gui"), statistics.getMaxClosurePackage());
+    }
+    
+}
@@ -0,0 +1,167 @@
+package com.bt.coding_test.service;
+
+import static com.bt.coding_test.PackageDependenciesTestGraphs.addPackageDependencies;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+
+public class PackageDependenciesTransitiveReductionTest {
+
+    private static final int NR_OF_RANDOM_PACKAGES      = 60;
+    private static final int NR_OF_RANDOM_DEPENDENCIES  = 400;
+    
+    private PackageDependenciesDirectedGraph graph;
+    
+    @Before
+    public void setUp() {
+        graph = new PackageDependenciesDirectedGraph();
+        
+        addPackageDependencies(graph, "gui", "awtui", "swingui", "runner");
+        addPackageDependencies(graph, "swingui", "runner", "extensions", "framework");
+        addPackageDependencies(graph, "textui", "runner", "framework");
+        addPackageDependencies(graph, "awtui", "runner");
+        addPackageDependencies(graph, "runner", "framework");
+        addPackageDependencies(graph, "extensions", "framework");
+    }
+    
+    @Test
+    public void testRedundantDependenciesRemoved() {
+        PackageDependenciesDirectedGraph reducedGraph = new PackageDependenciesTransitiveReduction().reduce(graph);
+        
+        assertEquals(8, reducedGraph.getNrOfPackageDependencies());
+        assertFalse(getDirectDependencies(reducedGraph, "gui").contains(new Package("runner")));
+        assertFalse(getDirectDependencies(reducedGraph, "swingui").contains(new Package("framework")));
+        assertFalse(getDirectDependencies(reducedGraph, "textui").contains(new Package("framework")));
+        assertEquals(getDependencies(graph), getDependencies(reducedGraph));
+    }
+    
+    @Test
+    public void testCircularDependencies() {
+        addPackageDependencies(graph, "framework", "gui");
+        
+        PackageDependenciesDirectedGraph reducedGraph = new PackageDependenciesTransitiveReduction().reduce(graph);
+        
+        assertTrue(reducedGraph.getNrOfPackageDependencies() < graph.getNrOfPackageDependencies());
+        assertEquals(getDependencies(graph), getDependencies(reducedGraph));
+    }
+    
+    @Test
+    public void testRandomGraphsKeepDependencies() {
+        Random random = new Random(30);
+        
+        for (int i = 0; i < 10; ++i) {
+            PackageDependenciesDirectedGraph randomGraph = new PackageDependenciesDirectedGraph();
+            
+            for (int j = 0; j < NR_OF_RANDOM_DEPENDENCIES; ++j) {
+                int source      = random.nextInt(NR_OF_RANDOM_PACKAGES);
+                int dependency  = random.nextInt(NR_OF_RANDOM_PACKAGES);
+                
+                // Half of the graphs are acyclic
+                if ((i % 2 == 0) && (source >= dependency)) {
+                    continue;
+                }
+                
+                if (source != dependency) {
+                    addPackageDependencies(randomGraph, "p" + source, "p" + dependency);
+                }
+            }
+            
+            PackageDependenciesDirectedGraph reducedGraph = new PackageDependenciesTransitiveReduction().reduce(randomGraph);
+            
+            assertEquals(getDependencies(randomGraph), getDependencies(reducedGraph));
+            
+            if (i % 2 == 0) {
+                assertMinimal(reducedGraph);
+            }
+        }
+    }
+    
+    /**
+     * Check that removing any direct dependency of the given acyclic graph changes the dependencies of the packages.
+     * 
+     * @param acyclicGraph The acyclic graph.
+     */
+    private void assertMinimal(PackageDependenciesDirectedGraph acyclicGraph) {
+        Set<String> dependencies = getDependencies(acyclicGraph);
+        
+        for (Package sourcePackage : acyclicGraph.getSourcePackages()) {
+            for (Package packageDependency : getDirectDependencies(acyclicGraph, sourcePackage.getName())) {
+                PackageDependenciesDirectedGraph smallerGraph = new PackageDependenciesDirectedGraph();
+                
+                for (String dependency : getDirectDependencyPairs(acyclicGraph)) {
+                    String[] packageNames = dependency.split(" ");
+                    
+                    if ((!packageNames[0].equals(sourcePackage.getName())) || 
+                        (!packageNames[1].equals(packageDependency.getName()))) {
+                        addPackageDependencies(smallerGraph, packageNames[0], packageNames[1]);
+                    }
+                }
+                
+                assertFalse(dependencies.equals(getDependencies(smallerGraph)));
+            }
+        }
+    }
+    
+    /**
+     * Get all pairs of packages "a b" such that package a depends on package b, directly or transitively.
+     * 
+     * @param givenGraph The given graph.
+     * @return The pairs of packages.
+     */
+    private Set<String> getDependencies(PackageDependenciesDirectedGraph givenGraph) {
+        Set<String>                         dependencies    = new HashSet<String>();
+        PackageDependenciesFindingStrategy  strategy        = new DFSPackageDependenciesFindingStrategy();
+        
+        for (Package sourcePackage : givenGraph.getSourcePackages()) {
+            for (Package packageDependency : strategy.find(sourcePackage, givenGraph)) {
+                dependencies.add(sourcePackage.getName() + " " + packageDependency.getName());
+            }
+        }
+        
+        return dependencies;
+    }
+    
+    /**
+     * Get all pairs of packages "a b" such that package a depends directly on package b.
+     * 
+     * @param givenGraph The given graph.
+     * @return The pairs of packages.
+     */
+    private Set<String> getDirectDependencyPairs(PackageDependenciesDirectedGraph givenGraph) {
+        Set<String> dependencies = new HashSet<String>();
+        
+        for (Package sourcePackage : givenGraph.getSourcePackages()) {
+            for (Package packageDependency : getDirectDependencies(givenGraph, sourcePackage.getName())) {
+                dependencies.add(sourcePackage.getName() + " " + packageDependency.getName());
+            }
+        }
+        
+        return dependencies;
+    }
+    
+    /**
+     * Get the direct dependencies of the given package.
+     * 
+     * @param givenGraph    The given graph.
+     * @param packageName   The package name.
+     * @return The direct dependencies of the package.
+     */
+    private Set<Package> getDirectDependencies(PackageDependenciesDirectedGraph givenGraph, String packageName) {
+        Set<Package> directDependencies = new HashSet<Package>();
+        
+        givenGraph.getDirectPackageDependencies(new Package(packageName)).forEachRemaining(directDependencies::add);
+        
+        return directDependencies;
+    }
+    
+}
@@ -0,0 +1,137 @@
+package com.bt.coding_test.service;
+
+import static com.bt.coding_test.PackageDependenciesTestGraphs.addPackageDependencies;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+
+public class PackageDependencyPathFinderTest {
+
+    private PackageDependenciesDirectedGraph graph;
+    
+    @Before
+    public void setUp() {
+        graph = new PackageDependenciesDirectedGraph();
+        
+        addPackageDependencies(graph, "gui", "awtui", "swingui");
+        addPackageDependencies(graph, "swingui", "runner", "extensions");
+        addPackageDependencies(graph, "textui", "runner", "framework");
+        addPackageDependencies(graph, "awtui", "runner");
+        addPackageDependencies(graph, "runner", "framework");
+        addPackageDependencies(graph, "extensions", "framework");
+    }
+    
+    @Test
+    public void testDirectDependency() {
+        List<Package> path = new PackageDependencyPathFinder(graph).findShortestPath(
+            new Package("gui"), 
+            new Package("swingui")
+        );
+        
+        assertEquals(Arrays.asList(new Package("gui"), new Package("swingui")), path);
+    }
+    
+    @Test
+    public void testShortestPath() {
+        List<Package> path = new PackageDependencyPathFinder(graph).findShortestPath(
+            new Package("textui"), 
+            new Package("framework")
+        );
+        
+        assertEquals(Arrays.asList(new Package("textui"), new Package("framework")), path);
+    }
+    
+    @Test
+    public void testTransitiveDependency() {
+        List<Package> path = new PackageDependencyPathFinder(graph).findShortestPath(
+            new Package("gui"), 
+            new Package("framework")
+        );
+        
+        assertEquals(4, path.size());
+        assertEquals(new Package("gui"), path.get(0));
+        assertEquals(new Package("framework"), path.get(3));
+        assertValidPath(path);
+    }
+    
+    @Test
+    public void testNoDependency() {
+        PackageDependencyPathFinder pathFinder = new PackageDependencyPathFinder(graph);
+        
+        assertTrue(pathFinder.findShortestPath(new Package("framework"), new Package("gui")).isEmpty());
+        assertTrue(pathFinder.findShortestPath(new Package("gui"), new Package("gui")).isEmpty());
+        assertTrue(pathFinder.findShortestPath(new Package("gui"), new Package("unknown")).isEmpty());
+    }
+    
+    @Test
+    public void testKShortestPaths() {
+        List<List<Package>> paths = new PackageDependencyPathFinder(graph).findShortestPaths(
+            new Package("gui"), 
+            new Package("framework"), 
+            5
+        );
+        
+        // All three paths have the same length and are distinct
+        assertEquals(3, paths.size());
+        assertEquals(3, new HashSet<List<Package>>(paths).size());
+        
+        for (List<Package> path : paths) {
+            assertEquals(4, path.size());
+            assertValidPath(path);
+        }
+    }
+    
+    @Test
+    public void testKShortestPathsSortedByLength() {
+        List<List<Package>> paths = new PackageDependencyPathFinder(graph).findShortestPaths(
+            new Package("swingui"), 
+            new Package("framework"), 
+            2
+        );
+        
+        assertEquals(2, paths.size());
+        assertEquals(3, paths.get(0).size());
+        assertEquals(3, paths.get(1).size());
+    }
+    
+    @Test
+    public void testCircularDependencies() {
+        addPackageDependencies(graph, "framework", "gui");
+        
+        List<Package> path = new PackageDependencyPathFinder(graph).findShortestPath(
+            new Package("runner"), 
+            new Package("awtui")
+        );
+        
+        assertEquals(
+            Arrays.asList(new Package("runner"), new Package("framework"), new Package("gui"), new Package("awtui")), 
+            path
+        );
+    }
+    
+    /**
+     * Check if each package on the given path depends directly on the next package.
+     * 
+     * @param path The given path.
+     */
+    private void assertValidPath(List<Package> path) {
+        for (int i = 1; i < path.size(); ++i) {
+            Set<Package> directDependencies = new HashSet<Package>();
+            
+            graph.getDirectPackageDependencies(path.get(i - 1)).forEachRemaining(directDependencies::add);
+            
+            assertTrue(directDependencies.contains(path.get(i)));
+        }
+    }
+    
+}
@@ -0,0 +1,160 @@
+package com.bt.coding_test.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.bt.coding_test.PackageDependenciesTestCancellation;
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+import com.bt.coding_test.model.PackageDependenciesQueryLimit;
+import com.bt.coding_test.model.PackageDependenciesQueryOptions;
+import com.bt.coding_test.model.PackageDependenciesQueryResult;
+
+public class ParallelBFSPackageDependenciesFindingStrategyTest {
+
+    private static final int NR_OF_LARGE_GRAPH_PACKAGES     = 20000;
+    private static final int NR_OF_LARGE_GRAPH_DEPENDENCIES = 160000;
+    
+    private ForkJoinPool                                    pool;
+    private ParallelBFSPackageDependenciesFindingStrategy   strategy;
+    private DFSPackageDependenciesFindingStrategy           dfsStrategy;
+    
+    
+    @Before
+    public void setUp() {
+        // More workers than cores, such that the frontier is split across workers on any machine
+        pool        = new ForkJoinPool(4);
+        strategy    = new ParallelBFSPackageDependenciesFindingStrategy(pool);
+        dfsStrategy = new DFSPackageDependenciesFindingStrategy();
+    }
+    
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+    
+    @Test
+    public void testSameDependenciesAsDFSOnSmallGraph() {
+        PackageDependenciesDirectedGraph    graph   = new PackageDependenciesDirectedGraph();
+        Random                              random  = new Random(47);
+        
+        for (int i = 0; i < 200; ++i) {
+            graph.addNewPackageDependency(new Package("p" + random.nextInt(50)), new Package("p" + (50 + random.nextInt(50))));
+            graph.addNewPackageDependency(new Package("p" + (50 + random.nextInt(50))), new Package("p" + random.nextInt(50)));
+        }
+        
+        for (int i = 0; i < 100; ++i) {
+            Package sourcePackage = new Package("p" + i);
+            
+            assertEquals(dfsStrategy.find(sourcePackage, graph), strategy.find(sourcePackage, graph));
+        }
+        
+        assertTrue(strategy.find(new Package("unknown"), graph).isEmpty());
+    }
+    
+    @Test
+    public void testSameDependenciesAsDFSOnLargeGraph() {
+        // The closures of most packages cover most of the graph, such that the search switches to bottom-up steps
+        PackageDependenciesDirectedGraph    graph   = new PackageDependenciesDirectedGraph();
+        Random                              random  = new Random(48);
+        
+        for (int i = 0; i < NR_OF_LARGE_GRAPH_DEPENDENCIES; ++i) {
+            graph.addNewPackageDependency(
+                new Package("p" + random.nextInt(NR_OF_LARGE_GRAPH_PACKAGES)), 
+                new Package("p" + random.nextInt(NR_OF_LARGE_GRAPH_PACKAGES))
+            );
+        }
+        
+        for (int i = 0; i < 20; ++i) {
+            Package sourcePackage = new Package("p" + random.nextInt(NR_OF_LARGE_GRAPH_PACKAGES));
+            
+            assertEquals(dfsStrategy.find(sourcePackage, graph), strategy.find(sourcePackage, graph));
+        }
+    }
+    
+    @Test
+    public void testSameDependenciesAsDFSOnLongChain() {
+        // The frontier never exceeds a single package, such that the search only uses top-down steps
+        PackageDependenciesDirectedGraph graph = new PackageDependenciesDirectedGraph();
+        
+        for (int i = 0; i < 1000; ++i) {
+            graph.addNewPackageDependency(new Package("p" + i), new Package("p" + (i + 1)));
+        }
+        
+        graph.addNewPackageDependency(new Package("p1000"), new Package("p0"));
+        
+        assertEquals(1000, strategy.find(new Package("p0"), graph).size());
+        assertEquals(dfsStrategy.find(new Package("p500"), graph), strategy.find(new Package("p500"), graph));
+    }
+    
+    @Test
+    public void testCancellationDuringTraversalOfLongChain() {
+        PackageDependenciesDirectedGraph    graph   = new PackageDependenciesDirectedGraph();
+        PackageDependenciesQueryOptions     options = new PackageDependenciesQueryOptions();
+        
+        for (int i = 0; i < 100000; ++i) {
+            graph.addNewPackageDependency(new Package("p" + i), new Package("p" + (i + 1)));
+        }
+        
+        // The token is checked once before the search, then once every few thousand levels
+        options.setCancellation(new PackageDependenciesTestCancellation(5));
+        
+        PackageDependenciesQueryResult result = strategy.query(new Package("p0"), graph, options);
+        
+        assertEquals(PackageDependenciesQueryLimit.CANCELLED, result.getTruncation());
+        assertTrue(result.getNrOfPackages() > 0);
+        assertTrue(result.getNrOfPackages() < 100000);
+        
+        // The levels expanded before the cancellation are complete
+        for (int i = 1; i <= result.getNrOfPackages(); ++i) {
+            assertEquals(i, result.getDepth(new Package("p" + i)));
+        }
+    }
+    
+    @Test
+    public void testBudgetsKeepNearestPackages() {
+        PackageDependenciesDirectedGraph    graph   = new PackageDependenciesDirectedGraph();
+        PackageDependenciesQueryOptions     options = new PackageDependenciesQueryOptions();
+        
+        for (int i = 0; i < 4; ++i) {
+            graph.addNewPackageDependency(new Package("gui"), new Package("a" + i));
+            graph.addNewPackageDependency(new Package("a" + i), new Package("b" + i));
+            graph.addNewPackageDependency(new Package("a" + i), new Package("c" + i));
+        }
+        
+        options.setMaxResultSize(6);
+        
+        PackageDependenciesQueryResult result = strategy.query(new Package("gui"), graph, options);
+        
+        assertEquals(PackageDependenciesQueryLimit.MAX_RESULT_SIZE, result.getTruncation());
+        assertEquals(6, result.getNrOfPackages());
+        assertEquals(1, result.getDepth(new Package("a3")));
+        assertEquals(2, result.getDepth(new Package("b0")));
+        assertEquals(2, result.getDepth(new Package("b1")));
+        
+        options = new PackageDependenciesQueryOptions();
+        
+        options.setMaxVisitedPackages(1);
+        
+        result = strategy.query(new Package("gui"), graph, options);
+        
+        assertEquals(PackageDependenciesQueryLimit.MAX_VISITED_PACKAGES, result.getTruncation());
+        assertEquals(4, result.getNrOfPackages());
+        
+        options.setMaxVisitedPackages(5);
+        
+        result = strategy.query(new Package("gui"), graph, options);
+        
+        assertFalse(result.isTruncated());
+        assertEquals(12, result.getNrOfPackages());
+    }
+    
+}
@@ -0,0 +1,50 @@
+package com.bt.coding_test.service;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+import com.bt.coding_test.data.PackageDependenciesDataFileReader;
+import com.bt.coding_test.exception.InvalidInputException;
+import com.bt.coding_test.model.Package;
+import com.bt.coding_test.model.PackageDependenciesDirectedGraph;
+
+public class ShardedPackageDependenciesCoordinatorTest {
+
+    private static final String[] PACKAGE_NAMES = {"gui", "swingui", "textui", "awtui", "runner", "framework", "unknown"};
+    
+    @Test
+    public void testSameDependenciesAsSingleProcess() throws IOException {
+        String                              filePath = getDataFilePath();
+        PackageDependenciesDirectedGraph    graph    = PackageDependenciesDataFileReader.getInstance().read(filePath);
+        PackageDependenciesFindingStrategy  strategy = new DFSPackageDependenciesFindingStrategy();
+        
+        try (ShardedPackageDependenciesCoordinator coordinator = new ShardedPackageDependenciesCoordinator(filePath, 3)) {
+            for (String packageName : PACKAGE_NAMES) {
+                Package givenPackage = new Package(packageName);
+                
+                assertEquals(strategy.find(givenPackage, graph), coordinator.find(givenPackage));
+            }
+        }
+    }
+    
+    @Test(expected = InvalidInputException.class)
+    public void testInvalidDataFile() throws IOException {
+        try (ShardedPackageDependenciesCoordinator coordinator = 
+                 new ShardedPackageDependenciesCoordinator("data_file_non_existent.txt", 2)) {
+            coordinator.find(new Package("gui"));
+        }
+    }
+    
+    /**
+     * Get the path of the data file used by the tests.
+     * 
+     * @return The data file path.
+     */
+    private String getDataFilePath() {
+        return getClass().getResource("/com/bt/coding_test/data/data_file_valid.txt").getFile();
+    }
+    
+}
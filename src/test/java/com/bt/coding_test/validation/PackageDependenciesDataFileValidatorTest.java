@@ -27,4 +27,10 @@ public class PackageDependenciesDataFileValidatorTest {
         assertTrue(PackageDependenciesDataFileValidator.getInstance().isValidPackageName("Valid_Package_Name"));
     }
     
+    @Test
+    public void testPackageNamePattern() {
+        assertTrue(PackageDependenciesDataFileValidator.getInstance().isValidPackageNamePattern("swing*"));
+        assertFalse(PackageDependenciesDataFileValidator.getInstance().isValidPackageNamePattern("swing.*"));
+    }
+    
 }